@@ -0,0 +1,116 @@
+package io.flic.fliclib.javaclient;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.flic.fliclib.javaclient.enums.ClickType;
+import io.flic.fliclib.javaclient.enums.LatencyMode;
+
+/**
+ * Compares the stream based packet codec, which copied every packet and allocated a new event object,
+ * with parsing in place into a reused event object and encoding into a reused buffer.
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="PacketCodecBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketCodecBenchmark {
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(64).order(ByteOrder.LITTLE_ENDIAN);
+    private final EvtButtonEvent buttonEvent = new EvtButtonEvent();
+    private final ByteBuffer commandBuffer = ByteBuffer.allocate(CommandPacket.MAX_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final CmdChangeModeParameters command = new CmdChangeModeParameters();
+    private int packetLength;
+
+    @Setup
+    public void setUp() {
+        // length prefix followed by a single click event
+        readBuffer.putShort((short)11);
+        readBuffer.put((byte)EventPacket.EVT_BUTTON_SINGLE_OR_DOUBLE_CLICK_OPCODE);
+        readBuffer.putInt(42);
+        readBuffer.put((byte)ClickType.ButtonSingleClick.ordinal());
+        readBuffer.put((byte)0);
+        readBuffer.putInt(1234);
+        packetLength = readBuffer.position() - 2;
+
+        command.connId = 42;
+        command.latencyMode = LatencyMode.NormalLatency;
+        command.autoDisconnectTime = 511;
+    }
+
+    @Benchmark
+    public int parseButtonEventStream() throws IOException {
+        byte[] packet = new byte[packetLength];
+        readBuffer.position(2);
+        readBuffer.limit(2 + packetLength);
+        readBuffer.get(packet);
+        readBuffer.clear();
+
+        InputStream stream = new ByteArrayInputStream(packet);
+        stream.skip(1);
+        int connId = readInt32(stream);
+        ClickType clickType = ClickType.values()[stream.read()];
+        boolean wasQueued = stream.read() != 0;
+        int timeDiff = readInt32(stream);
+        return connId + clickType.ordinal() + (wasQueued ? 1 : 0) + timeDiff;
+    }
+
+    @Benchmark
+    public int parseButtonEventInPlace() {
+        readBuffer.position(2);
+        readBuffer.limit(2 + packetLength);
+        buttonEvent.parse(readBuffer);
+        readBuffer.clear();
+        return buttonEvent.connId + buttonEvent.clickType.ordinal() + (buttonEvent.wasQueued ? 1 : 0) + buttonEvent.timeDiff;
+    }
+
+    @Benchmark
+    public int encodeCommandStream() {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        writeInt16(stream, command.connId);
+        writeInt16(stream, command.connId >> 16);
+        stream.write(command.latencyMode.ordinal());
+        writeInt16(stream, command.autoDisconnectTime);
+        byte[] res = new byte[3 + stream.size()];
+        res[0] = (byte)(1 + stream.size());
+        res[1] = (byte)((1 + stream.size()) >> 8);
+        res[2] = (byte)6;
+        System.arraycopy(stream.toByteArray(), 0, res, 3, stream.size());
+        return res.length;
+    }
+
+    @Benchmark
+    public int encodeCommandReusedBuffer() {
+        commandBuffer.clear();
+        command.encode(commandBuffer);
+        return commandBuffer.position();
+    }
+
+    private static int readInt32(InputStream stream) throws IOException {
+        return stream.read() | (stream.read() << 8) | (stream.read() << 16) | (stream.read() << 24);
+    }
+
+    private static void writeInt16(ByteArrayOutputStream stream, int v) {
+        stream.write(v & 0xff);
+        stream.write(v >> 8);
+    }
+}
@@ -0,0 +1,60 @@
+package picturepi;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JPanel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cold start cost of creating the first panels, thru reflection as done before and thru the PanelRegistry.
+ * Each measurement runs in a new JVM, Swing and the configuration are loaded upfront.
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="PanelCreationBenchmark"
+ *
+ * The gain of the AppCDS archive is measured on the packaged jar, see the appcds profile:
+ * cd target; java -XX:SharedArchiveFile=picturepi.jsa -Djava.awt.headless=true -classpath picturepi.jar picturepi.StartupTraining ../conf/picturepitest.ini
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 10, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PanelCreationBenchmark {
+
+	private static final String[] PANELS = { "TextWatchPanel", "BlackScreenPanel", "GarageDoorPanel" };
+
+	@Setup
+	public void setUp() {
+		Configuration.getConfiguration().readConfigurationFile("conf/picturepitest.ini");
+		new JPanel();
+	}
+
+	@Benchmark
+	public Panel reflection() throws ReflectiveOperationException {
+		Panel panel = null;
+		for(String name:PANELS) {
+			panel = (Panel)Class.forName("picturepi."+name).getDeclaredConstructor().newInstance();
+		}
+		return panel;
+	}
+
+	@Benchmark
+	public Panel registry() {
+		Panel panel = null;
+		for(String name:PANELS) {
+			panel = PanelRegistry.create(name, null);
+		}
+		return panel;
+	}
+}
@@ -1,7 +1,6 @@
 package io.flic.fliclib.javaclient;
 
-import java.io.IOException;
-import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -25,17 +24,19 @@ public class Bdaddr {
         bytes[0] = (byte)Integer.parseInt(addr.substring(15, 17), 16);
     }
 
-    Bdaddr(InputStream stream) throws IOException {
+    Bdaddr(ByteBuffer buffer) {
         bytes = new byte[6];
-        for (int i = 0; i < 6; i++) {
-            bytes[i] = (byte)stream.read();
-        }
+        buffer.get(bytes);
     }
 
     byte[] getBytes() {
         return bytes.clone();
     }
 
+    void write(ByteBuffer buffer) {
+        buffer.put(bytes);
+    }
+
     /**
      * Create a string representing the bluetooth address.
      *
@@ -3,16 +3,17 @@ package io.flic.fliclib.javaclient;
 import io.flic.fliclib.javaclient.enums.CreateConnectionChannelError;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.Socket;
-import java.net.SocketTimeoutException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
 import java.util.ArrayDeque;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * Implements a FlicClient over a TCP Socket.
@@ -22,13 +23,42 @@ import java.util.concurrent.ConcurrentSkipListMap;
  * You may then send commands to the server and set timers.
  *
  * Once you are ready with the initialization you must call the {@link #handleEvents()} method which is a main loop that never exits, unless the socket is closed.
+ * The main loop waits on a {@link Selector} for incoming data and the next timer, packets are read into a reused buffer
+ * and parsed in place, so dispatching an event does not allocate.
  *
  * For a more detailed description of all commands, events and enums, check the protocol specification.
  */
 public class FlicClient {
-    private Socket socket;
-    private InputStream socketInputStream;
-    private OutputStream socketOutputStream;
+    private static final int MAX_PACKET_SIZE = 0xffff;
+    private static final int TIMER_WHEEL_SLOTS = 512;
+    private static final long TIMER_WHEEL_TICK_NANOS = 1000000L;
+
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final SelectionKey selectionKey;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(2 + MAX_PACKET_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer commandBuffer = ByteBuffer.allocate(CommandPacket.MAX_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final ArrayDeque<ByteBuffer> pendingWrites = new ArrayDeque<>();
+    private ByteBuffer[] gatherBuffers = new ByteBuffer[4];
+
+    // events are parsed in place into one reused object per packet type
+    private final EvtAdvertisementPacket evtAdvertisementPacket = new EvtAdvertisementPacket();
+    private final EvtCreateConnectionChannelResponse evtCreateConnectionChannelResponse = new EvtCreateConnectionChannelResponse();
+    private final EvtConnectionStatusChanged evtConnectionStatusChanged = new EvtConnectionStatusChanged();
+    private final EvtConnectionChannelRemoved evtConnectionChannelRemoved = new EvtConnectionChannelRemoved();
+    private final EvtButtonEvent evtButtonEvent = new EvtButtonEvent();
+    private final EvtNewVerifiedButton evtNewVerifiedButton = new EvtNewVerifiedButton();
+    private final EvtGetInfoResponse evtGetInfoResponse = new EvtGetInfoResponse();
+    private final EvtNoSpaceForNewConnection evtNoSpaceForNewConnection = new EvtNoSpaceForNewConnection();
+    private final EvtGotSpaceForNewConnection evtGotSpaceForNewConnection = new EvtGotSpaceForNewConnection();
+    private final EvtBluetoothControllerStateChange evtBluetoothControllerStateChange = new EvtBluetoothControllerStateChange();
+    private final EvtGetButtonInfoResponse evtGetButtonInfoResponse = new EvtGetButtonInfoResponse();
+    private final EvtScanWizardFoundPrivateButton evtScanWizardFoundPrivateButton = new EvtScanWizardFoundPrivateButton();
+    private final EvtScanWizardFoundPublicButton evtScanWizardFoundPublicButton = new EvtScanWizardFoundPublicButton();
+    private final EvtScanWizardButtonConnected evtScanWizardButtonConnected = new EvtScanWizardButtonConnected();
+    private final EvtScanWizardCompleted evtScanWizardCompleted = new EvtScanWizardCompleted();
+    private final EvtButtonDeleted evtButtonDeleted = new EvtButtonDeleted();
+    private final EvtBatteryStatus evtBatteryStatus = new EvtBatteryStatus();
 
     private ConcurrentHashMap<Integer, ButtonScanner> scanners = new ConcurrentHashMap<>();
     private ConcurrentHashMap<Integer, ButtonConnectionChannel> connectionChannels = new ConcurrentHashMap<>();
@@ -39,9 +69,10 @@ public class FlicClient {
 
     private volatile GeneralCallbacks generalCallbacks = new GeneralCallbacks();
 
-    private ConcurrentSkipListMap<Long, TimerTask> timers = new ConcurrentSkipListMap<>();
+    private final TimerWheel timerWheel = new TimerWheel(TIMER_WHEEL_SLOTS, TIMER_WHEEL_TICK_NANOS, System.nanoTime());
+    private final ConcurrentLinkedQueue<TimerWheel.Timer> pendingTimers = new ConcurrentLinkedQueue<>();
 
-    private Thread handleEventsThread;
+    private volatile Thread handleEventsThread;
 
     /**
      * Create a FlicClient and connect to the specified hostName and TCP port
@@ -52,10 +83,16 @@ public class FlicClient {
      * @throws IOException
      */
     public FlicClient(String hostName, int port) throws UnknownHostException, IOException {
-        socket = new Socket(hostName, port);
-        socket.setKeepAlive(true);
-        socketInputStream = socket.getInputStream();
-        socketOutputStream = socket.getOutputStream();
+        InetSocketAddress address = new InetSocketAddress(hostName, port);
+        if (address.isUnresolved()) {
+            throw new UnknownHostException(hostName);
+        }
+        channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        channel.configureBlocking(false);
+        selector = Selector.open();
+        selectionKey = channel.register(selector, SelectionKey.OP_READ);
     }
 
     /**
@@ -81,7 +118,7 @@ public class FlicClient {
         runOnHandleEventsThread(new TimerTask() {
             @Override
             public void run() throws IOException {
-                socket.close();
+                channel.close();
             }
         });
     }
@@ -353,9 +390,49 @@ public class FlicClient {
     }
 
     void sendPacket(CommandPacket packet) throws IOException {
-        byte[] bytes = packet.construct();
-        synchronized (socketOutputStream) {
-            socketOutputStream.write(bytes);
+        synchronized (pendingWrites) {
+            commandBuffer.clear();
+            packet.encode(commandBuffer);
+            commandBuffer.flip();
+            // keep the order of packets, only write directly if nothing is pending
+            if (pendingWrites.isEmpty()) {
+                channel.write(commandBuffer);
+                if (!commandBuffer.hasRemaining()) {
+                    return;
+                }
+            }
+            // socket buffer is full, the rest is written by the event loop
+            ByteBuffer rest = ByteBuffer.allocate(commandBuffer.remaining());
+            rest.put(commandBuffer);
+            rest.flip();
+            pendingWrites.add(rest);
+            selectionKey.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+        selector.wakeup();
+    }
+
+    private void writePending() throws IOException {
+        synchronized (pendingWrites) {
+            // write all queued packets with a single gathering write
+            if (gatherBuffers.length < pendingWrites.size()) {
+                gatherBuffers = new ByteBuffer[Integer.highestOneBit(pendingWrites.size()) << 1];
+            }
+            int count = 0;
+            for (ByteBuffer buffer : pendingWrites) {
+                gatherBuffers[count++] = buffer;
+            }
+            channel.write(gatherBuffers, 0, count);
+            for (int i = 0; i < count; i++) {
+                gatherBuffers[i] = null;
+            }
+
+            ByteBuffer buffer;
+            while ((buffer = pendingWrites.peek()) != null && !buffer.hasRemaining()) {
+                pendingWrites.poll();
+            }
+            if (pendingWrites.isEmpty()) {
+                selectionKey.interestOps(SelectionKey.OP_READ);
+            }
         }
     }
 
@@ -370,13 +447,11 @@ public class FlicClient {
      */
     public void setTimer(int timeoutMillis, TimerTask timerTask) throws IOException {
         long pointInTime = System.nanoTime() + timeoutMillis * 1000000L;
-        while (timers.putIfAbsent(pointInTime, timerTask) != null) {
-            pointInTime++;
-        }
-        if (handleEventsThread != Thread.currentThread()) {
-            CmdPing pkt = new CmdPing();
-            pkt.pingId = 0;
-            sendPacket(pkt);
+        if (handleEventsThread == Thread.currentThread()) {
+            timerWheel.schedule(pointInTime, timerTask);
+        } else {
+            pendingTimers.add(new TimerWheel.Timer(pointInTime, timerTask));
+            selector.wakeup();
         }
     }
 
@@ -404,61 +479,88 @@ public class FlicClient {
      */
     public void handleEvents() throws IOException {
         handleEventsThread = Thread.currentThread();
-        while (true) {
-            Map.Entry<Long, TimerTask> firstTimer = timers.firstEntry();
-            long timeout = 0;
-            if (firstTimer != null) {
-                timeout = firstTimer.getKey() - System.nanoTime();
-                if (timeout <= 0) {
-                    timers.remove(firstTimer.getKey(), firstTimer.getValue());
-                    firstTimer.getValue().run();
-                    continue;
+        try {
+            while (true) {
+                TimerWheel.Timer timer;
+                while ((timer = pendingTimers.poll()) != null) {
+                    timerWheel.schedule(timer);
                 }
-            }
+                timerWheel.runExpired(System.nanoTime());
 
-            if (socket.isClosed()) {
-                break;
-            }
+                if (!channel.isOpen()) {
+                    break;
+                }
 
-            int len0;
-            socket.setSoTimeout((int)(timeout / 1000000));
-            try {
-                len0 = socketInputStream.read();
-            } catch (SocketTimeoutException e) {
-                continue;
-            }
-            int len1 = socketInputStream.read();
-            int len = len0 | (len1 << 8);
-            if ((len >> 16) == -1) {
-                break;
-            }
-            if (len == 0) {
-                continue;
-            }
-            byte[] pkt = new byte[len];
+                long timeout = pendingTimers.isEmpty() ? timerWheel.nanosUntilNextDeadline(System.nanoTime()) : 0;
+                if (timeout < 0) {
+                    selector.select();
+                } else if (timeout == 0) {
+                    selector.selectNow();
+                } else {
+                    selector.select((timeout + 999999) / 1000000);
+                }
 
-            int pos = 0;
-            while (pos < len) {
-                int nbytes = socketInputStream.read(pkt, pos, len - pos);
-                if (nbytes == -1) {
+                if (!selector.selectedKeys().remove(selectionKey) || !selectionKey.isValid()) {
+                    continue;
+                }
+                if (selectionKey.isWritable()) {
+                    writePending();
+                }
+                if (selectionKey.isReadable() && !readPackets()) {
                     break;
                 }
-                pos += nbytes;
             }
-            if (len == 1) {
-                continue;
+        } finally {
+            channel.close();
+            selector.close();
+        }
+    }
+
+    /**
+     * Read all available data and dispatch the complete packets.
+     *
+     * @return false if the connection was closed by the server
+     * @throws IOException
+     */
+    private boolean readPackets() throws IOException {
+        int nbytes;
+        while ((nbytes = channel.read(readBuffer)) > 0) {
+            readBuffer.flip();
+            while (readBuffer.remaining() >= 2) {
+                int pos = readBuffer.position();
+                int len = readBuffer.getShort(pos) & 0xffff;
+                if (readBuffer.remaining() < 2 + len) {
+                    break;
+                }
+                int end = pos + 2 + len;
+                if (len <= 1) {
+                    readBuffer.position(end);
+                    continue;
+                }
+                // dispatch a view of the packet directly from the read buffer
+                int limit = readBuffer.limit();
+                readBuffer.limit(end);
+                readBuffer.position(pos + 2);
+                dispatchPacket(readBuffer);
+                readBuffer.limit(limit);
+                readBuffer.position(end);
+                if (!channel.isOpen()) {
+                    return false;
+                }
             }
-            dispatchPacket(pkt);
+            readBuffer.compact();
         }
-        socket.close();
+        return nbytes == 0;
     }
 
-    private void dispatchPacket(byte[] packet) throws IOException {
-        int opcode = packet[0];
+    private void dispatchPacket(ByteBuffer packet) throws IOException {
+        int opcode = packet.get(packet.position());
         switch (opcode) {
             case EventPacket.EVT_ADVERTISEMENT_PACKET_OPCODE: {
-                EvtAdvertisementPacket pkt = new EvtAdvertisementPacket();
-                pkt.parse(packet);
+                EvtAdvertisementPacket pkt = evtAdvertisementPacket;
+                if (!pkt.parse(packet)) {
+                    break;
+                }
                 ButtonScanner scanner = scanners.get(pkt.scanId);
                 if (scanner != null) {
                     scanner.onAdvertisementPacket(pkt.addr, pkt.name, pkt.rssi, pkt.isPrivate, pkt.alreadyVerified);
@@ -466,8 +568,10 @@ public class FlicClient {
                 break;
             }
             case EventPacket.EVT_CREATE_CONNECTION_CHANNEL_RESPONSE_OPCODE: {
-                EvtCreateConnectionChannelResponse pkt = new EvtCreateConnectionChannelResponse();
-                pkt.parse(packet);
+                EvtCreateConnectionChannelResponse pkt = evtCreateConnectionChannelResponse;
+                if (!pkt.parse(packet)) {
+                    break;
+                }
                 ButtonConnectionChannel channel = connectionChannels.get(pkt.connId);
                 if (channel != null) {
                     if (pkt.connectionChannelError != CreateConnectionChannelError.NoError) {
@@ -478,8 +582,10 @@ public class FlicClient {
                 break;
             }
             case EventPacket.EVT_CONNECTION_STATUS_CHANGED_OPCODE: {
-                EvtConnectionStatusChanged pkt = new EvtConnectionStatusChanged();
-                pkt.parse(packet);
+                EvtConnectionStatusChanged pkt = evtConnectionStatusChanged;
+                if (!pkt.parse(packet)) {
+                    break;
+                }
                 ButtonConnectionChannel channel = connectionChannels.get(pkt.connId);
                 if (channel != null) {
                     channel.callbacks.onConnectionStatusChanged(channel, pkt.connectionStatus, pkt.disconnectReason);
@@ -487,8 +593,10 @@ public class FlicClient {
                 break;
             }
             case EventPacket.EVT_CONNECTION_CHANNEL_REMOVED_OPCODE: {
-                EvtConnectionChannelRemoved pkt = new EvtConnectionChannelRemoved();
-                pkt.parse(packet);
+                EvtConnectionChannelRemoved pkt = evtConnectionChannelRemoved;
+                if (!pkt.parse(packet)) {
+                    break;
+                }
                 ButtonConnectionChannel channel = connectionChannels.get(pkt.connId);
                 if (channel != null) {
                     connectionChannels.remove(channel.connId);
@@ -500,8 +608,10 @@ public class FlicClient {
             case EventPacket.EVT_BUTTON_CLICK_OR_HOLD_OPCODE:
             case EventPacket.EVT_BUTTON_SINGLE_OR_DOUBLE_CLICK_OPCODE:
             case EventPacket.EVT_BUTTON_SINGLE_OR_DOUBLE_CLICK_OR_HOLD_OPCODE: {
-                EvtButtonEvent pkt = new EvtButtonEvent();
-                pkt.parse(packet);
+                EvtButtonEvent pkt = evtButtonEvent;
+                if (!pkt.parse(packet)) {
+                    break;
+                }
                 ButtonConnectionChannel channel = connectionChannels.get(pkt.connId);
                 if (channel != null) {
                     if (opcode == EventPacket.EVT_BUTTON_UP_OR_DOWN_OPCODE) {
@@ -517,8 +627,10 @@ public class FlicClient {
                 break;
             }
             case EventPacket.EVT_NEW_VERIFIED_BUTTON_OPCODE: {
-                EvtNewVerifiedButton pkt = new EvtNewVerifiedButton();
-                pkt.parse(packet);
+                EvtNewVerifiedButton pkt = evtNewVerifiedButton;
+                if (!pkt.parse(packet)) {
+                    break;
+                }
                 GeneralCallbacks gc = generalCallbacks;
                 if (gc != null) {
                     gc.onNewVerifiedButton(pkt.bdaddr);
@@ -526,14 +638,20 @@ public class FlicClient {
                 break;
             }
             case EventPacket.EVT_GET_INFO_RESPONSE_OPCODE: {
-                EvtGetInfoResponse pkt = new EvtGetInfoResponse();
-                pkt.parse(packet);
+                EvtGetInfoResponse pkt = evtGetInfoResponse;
+                if (!pkt.parse(packet)) {
+                    // the response still belongs to the oldest request
+                    getInfoResponseCallbackQueue.remove().onGetInfoError("malformed get info response");
+                    break;
+                }
                 getInfoResponseCallbackQueue.remove().onGetInfoResponse(pkt.bluetoothControllerState, pkt.myBdAddr, pkt.myBdAddrType, pkt.maxPendingConnections, pkt.maxConcurrentlyConnectedButtons, pkt.currentPendingConnections, pkt.currentlyNoSpaceForNewConnections, pkt.bdAddrOfVerifiedButtons);
                 break;
             }
             case EventPacket.EVT_NO_SPACE_FOR_NEW_CONNECTION_OPCODE: {
-                EvtNoSpaceForNewConnection pkt = new EvtNoSpaceForNewConnection();
-                pkt.parse(packet);
+                EvtNoSpaceForNewConnection pkt = evtNoSpaceForNewConnection;
+                if (!pkt.parse(packet)) {
+                    break;
+                }
                 GeneralCallbacks gc = generalCallbacks;
                 if (gc != null) {
                     gc.onNoSpaceForNewConnection(pkt.maxConcurrentlyConnectedButtons);
@@ -541,8 +659,10 @@ public class FlicClient {
                 break;
             }
             case EventPacket.EVT_GOT_SPACE_FOR_NEW_CONNECTION_OPCODE: {
-                EvtGotSpaceForNewConnection pkt = new EvtGotSpaceForNewConnection();
-                pkt.parse(packet);
+                EvtGotSpaceForNewConnection pkt = evtGotSpaceForNewConnection;
+                if (!pkt.parse(packet)) {
+                    break;
+                }
                 GeneralCallbacks gc = generalCallbacks;
                 if (gc != null) {
                     gc.onGotSpaceForNewConnection(pkt.maxConcurrentlyConnectedButtons);
@@ -550,8 +670,10 @@ public class FlicClient {
                 break;
             }
             case EventPacket.EVT_BLUETOOTH_CONTROLLER_STATE_CHANGE_OPCODE: {
-                EvtBluetoothControllerStateChange pkt = new EvtBluetoothControllerStateChange();
-                pkt.parse(packet);
+                EvtBluetoothControllerStateChange pkt = evtBluetoothControllerStateChange;
+                if (!pkt.parse(packet)) {
+                    break;
+                }
                 GeneralCallbacks gc = generalCallbacks;
                 if (gc != null) {
                     gc.onBluetoothControllerStateChange(pkt.state);
@@ -559,14 +681,20 @@ public class FlicClient {
                 break;
             }
             case EventPacket.EVT_GET_BUTTON_INFO_RESPONSE_OPCODE: {
-                EvtGetButtonInfoResponse pkt = new EvtGetButtonInfoResponse();
-                pkt.parse(packet);
+                EvtGetButtonInfoResponse pkt = evtGetButtonInfoResponse;
+                if (!pkt.parse(packet)) {
+                    // the response still belongs to the oldest request
+                    getButtonInfoResponseCallbackQueue.remove().onGetButtonInfoError("malformed get button info response");
+                    break;
+                }
                 getButtonInfoResponseCallbackQueue.remove().onGetButtonInfoResponse(pkt.bdaddr, pkt.uuid, pkt.color);
                 break;
             }
             case EventPacket.EVT_SCAN_WIZARD_FOUND_PRIVATE_BUTTON_OPCODE: {
-                EvtScanWizardFoundPrivateButton pkt = new EvtScanWizardFoundPrivateButton();
-                pkt.parse(packet);
+                EvtScanWizardFoundPrivateButton pkt = evtScanWizardFoundPrivateButton;
+                if (!pkt.parse(packet)) {
+                    break;
+                }
                 ScanWizard wizard = scanWizards.get(pkt.scanWizardId);
                 if (wizard != null) {
                     wizard.onFoundPrivateButton();
@@ -574,8 +702,10 @@ public class FlicClient {
                 break;
             }
             case EventPacket.EVT_SCAN_WIZARD_FOUND_PUBLIC_BUTTON_OPCODE: {
-                EvtScanWizardFoundPublicButton pkt = new EvtScanWizardFoundPublicButton();
-                pkt.parse(packet);
+                EvtScanWizardFoundPublicButton pkt = evtScanWizardFoundPublicButton;
+                if (!pkt.parse(packet)) {
+                    break;
+                }
                 ScanWizard wizard = scanWizards.get(pkt.scanWizardId);
                 if (wizard != null) {
                     wizard.bdaddr = pkt.addr;
@@ -585,8 +715,10 @@ public class FlicClient {
                 break;
             }
             case EventPacket.EVT_SCAN_WIZARD_BUTTON_CONNECTED_OPCODE: {
-                EvtScanWizardButtonConnected pkt = new EvtScanWizardButtonConnected();
-                pkt.parse(packet);
+                EvtScanWizardButtonConnected pkt = evtScanWizardButtonConnected;
+                if (!pkt.parse(packet)) {
+                    break;
+                }
                 ScanWizard wizard = scanWizards.get(pkt.scanWizardId);
                 if (wizard != null) {
                     wizard.onButtonConnected(wizard.bdaddr, wizard.name);
@@ -594,8 +726,10 @@ public class FlicClient {
                 break;
             }
             case EventPacket.EVT_SCAN_WIZARD_COMPLETED_OPCODE: {
-                EvtScanWizardCompleted pkt = new EvtScanWizardCompleted();
-                pkt.parse(packet);
+                EvtScanWizardCompleted pkt = evtScanWizardCompleted;
+                if (!pkt.parse(packet)) {
+                    break;
+                }
                 ScanWizard wizard = scanWizards.get(pkt.scanWizardId);
                 scanWizards.remove(pkt.scanWizardId);
                 if (wizard != null) {
@@ -608,8 +742,10 @@ public class FlicClient {
                 break;
             }
             case EventPacket.EVT_BUTTON_DELETED_OPCODE: {
-                EvtButtonDeleted pkt = new EvtButtonDeleted();
-                pkt.parse(packet);
+                EvtButtonDeleted pkt = evtButtonDeleted;
+                if (!pkt.parse(packet)) {
+                    break;
+                }
                 GeneralCallbacks gc = generalCallbacks;
                 if (gc != null) {
                     gc.onButtonDeleted(pkt.bdaddr, pkt.deletedByThisClient);
@@ -617,8 +753,10 @@ public class FlicClient {
                 break;
             }
             case EventPacket.EVT_BATTERY_STATUS_OPCODE: {
-                EvtBatteryStatus pkt = new EvtBatteryStatus();
-                pkt.parse(packet);
+                EvtBatteryStatus pkt = evtBatteryStatus;
+                if (!pkt.parse(packet)) {
+                    break;
+                }
                 BatteryStatusListener listener = batteryStatusListeners.get(pkt.listenerId);
                 if (listener != null) {
                     listener.callbacks.onBatteryStatus(listener.getBdaddr(), pkt.batteryPercentage, pkt.timestamp);
@@ -1,5 +1,7 @@
 package io.flic.fliclib.javaclient;
 
+import java.io.IOException;
+
 /**
  * GetButtonInfoResponseCallback.
  *
@@ -14,4 +16,14 @@ public abstract class GetButtonInfoResponseCallback {
      * @param color Color of button, might be null if unknown
      */
     public abstract void onGetButtonInfoResponse(Bdaddr bdaddr, String uuid, String color);
+
+    /**
+     * Called instead of onGetButtonInfoResponse if the response could not be parsed.
+     *
+     * @param message Description of the error
+     * @throws IOException
+     */
+    public void onGetButtonInfoError(String message) throws IOException {
+        throw new IOException(message);
+    }
 }
@@ -16,4 +16,14 @@ public abstract class GetInfoResponseCallback {
                                            int maxConcurrentlyConnectedButtons, int currentPendingConnections,
                                            boolean currentlyNoSpaceForNewConnection,
                                            Bdaddr[] verifiedButtons) throws IOException;
+
+    /**
+     * Called instead of onGetInfoResponse if the response could not be parsed.
+     *
+     * @param message Description of the error
+     * @throws IOException
+     */
+    public void onGetInfoError(String message) throws IOException {
+        throw new IOException(message);
+    }
 }
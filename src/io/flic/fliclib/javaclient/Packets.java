@@ -1,37 +1,54 @@
 package io.flic.fliclib.javaclient;
 
-import java.io.*;
-import java.nio.charset.StandardCharsets;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import io.flic.fliclib.javaclient.enums.*;
 
 /**
  * Flic Protocol Packets
+ *
+ * All packets are read from and written to little endian ByteBuffers, so neither encoding nor
+ * parsing needs intermediate streams or arrays.
  */
 
 abstract class CommandPacket {
+    /**
+     * Maximum size of an encoded command including its length prefix.
+     */
+    static final int MAX_SIZE = 32;
+
     protected int opcode;
 
     public final byte[] construct() {
-        ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        try {
-            write(stream);
-        } catch (IOException e) {
-        }
-        byte[] res = new byte[3 + stream.size()];
-        res[0] = (byte)(1 + stream.size());
-        res[1] = (byte)((1 + stream.size()) >> 8);
-        res[2] = (byte)opcode;
-        System.arraycopy(stream.toByteArray(), 0, res, 3, stream.size());
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        encode(buffer);
+        byte[] res = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(res);
         return res;
     }
 
-    abstract protected void write(OutputStream stream) throws IOException;
+    /**
+     * Encode the packet including its length prefix at the position of a buffer.
+     *
+     * @param buffer little endian buffer with at least {@link #MAX_SIZE} bytes remaining
+     */
+    public final void encode(ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.position(start + 3);
+        write(buffer);
+        buffer.putShort(start, (short)(buffer.position() - start - 2));
+        buffer.put(start + 2, (byte)opcode);
+    }
+
+    abstract protected void write(ByteBuffer buffer);
 }
 
 class CmdGetInfo extends CommandPacket {
     @Override
-    protected void write(OutputStream stream) {
+    protected void write(ByteBuffer buffer) {
         opcode = 0;
     }
 }
@@ -40,9 +57,9 @@ class CmdCreateScanner extends CommandPacket {
     public int scanId;
 
     @Override
-    protected void write(OutputStream stream) throws IOException {
+    protected void write(ByteBuffer buffer) {
         opcode = 1;
-        StreamUtils.writeInt32(stream, scanId);
+        StreamUtils.writeInt32(buffer, scanId);
     }
 }
 
@@ -50,9 +67,9 @@ class CmdRemoveScanner extends CommandPacket {
     public int scanId;
 
     @Override
-    protected void write(OutputStream stream) throws IOException {
+    protected void write(ByteBuffer buffer) {
         opcode = 2;
-        StreamUtils.writeInt32(stream, scanId);
+        StreamUtils.writeInt32(buffer, scanId);
     }
 }
 
@@ -63,12 +80,12 @@ class CmdCreateConnectionChannel extends CommandPacket {
     public short autoDisconnectTime;
 
     @Override
-    protected void write(OutputStream stream) throws IOException {
+    protected void write(ByteBuffer buffer) {
         opcode = 3;
-        StreamUtils.writeInt32(stream, connId);
-        StreamUtils.writeBdaddr(stream, bdaddr);
-        StreamUtils.writeEnum(stream, latencyMode);
-        StreamUtils.writeInt16(stream, autoDisconnectTime);
+        StreamUtils.writeInt32(buffer, connId);
+        StreamUtils.writeBdaddr(buffer, bdaddr);
+        StreamUtils.writeEnum(buffer, latencyMode);
+        StreamUtils.writeInt16(buffer, autoDisconnectTime);
     }
 }
 
@@ -76,9 +93,9 @@ class CmdRemoveConnectionChannel extends CommandPacket {
     public int connId;
 
     @Override
-    protected void write(OutputStream stream) throws IOException {
+    protected void write(ByteBuffer buffer) {
         opcode = 4;
-        StreamUtils.writeInt32(stream, connId);
+        StreamUtils.writeInt32(buffer, connId);
     }
 }
 
@@ -86,9 +103,9 @@ class CmdForceDisconnect extends CommandPacket {
     public Bdaddr bdaddr;
 
     @Override
-    protected void write(OutputStream stream) throws IOException {
+    protected void write(ByteBuffer buffer) {
         opcode = 5;
-        StreamUtils.writeBdaddr(stream, bdaddr);
+        StreamUtils.writeBdaddr(buffer, bdaddr);
     }
 }
 
@@ -98,11 +115,11 @@ class CmdChangeModeParameters extends CommandPacket {
     public short autoDisconnectTime;
 
     @Override
-    protected void write(OutputStream stream) throws IOException {
+    protected void write(ByteBuffer buffer) {
         opcode = 6;
-        StreamUtils.writeInt32(stream, connId);
-        StreamUtils.writeEnum(stream, latencyMode);
-        StreamUtils.writeInt16(stream, autoDisconnectTime);
+        StreamUtils.writeInt32(buffer, connId);
+        StreamUtils.writeEnum(buffer, latencyMode);
+        StreamUtils.writeInt16(buffer, autoDisconnectTime);
     }
 }
 
@@ -110,9 +127,9 @@ class CmdPing extends CommandPacket {
     public int pingId;
 
     @Override
-    protected void write(OutputStream stream) throws IOException {
+    protected void write(ByteBuffer buffer) {
         opcode = 7;
-        StreamUtils.writeInt32(stream, pingId);
+        StreamUtils.writeInt32(buffer, pingId);
     }
 }
 
@@ -120,9 +137,9 @@ class CmdGetButtonInfo extends CommandPacket {
     public Bdaddr bdaddr;
 
     @Override
-    protected void write(OutputStream stream) throws IOException {
+    protected void write(ByteBuffer buffer) {
         opcode = 8;
-        StreamUtils.writeBdaddr(stream, bdaddr);
+        StreamUtils.writeBdaddr(buffer, bdaddr);
     }
 }
 
@@ -130,9 +147,9 @@ class CmdCreateScanWizard extends CommandPacket {
     public int scanWizardId;
 
     @Override
-    protected void write(OutputStream stream) throws IOException {
+    protected void write(ByteBuffer buffer) {
         opcode = 9;
-        StreamUtils.writeInt32(stream, scanWizardId);
+        StreamUtils.writeInt32(buffer, scanWizardId);
     }
 }
 
@@ -140,9 +157,9 @@ class CmdCancelScanWizard extends CommandPacket {
     public int scanWizardId;
 
     @Override
-    protected void write(OutputStream stream) throws IOException {
+    protected void write(ByteBuffer buffer) {
         opcode = 10;
-        StreamUtils.writeInt32(stream, scanWizardId);
+        StreamUtils.writeInt32(buffer, scanWizardId);
     }
 }
 
@@ -150,9 +167,9 @@ class CmdDeleteButton extends CommandPacket {
     public Bdaddr bdaddr;
 
     @Override
-    protected void write(OutputStream stream) throws IOException {
+    protected void write(ByteBuffer buffer) {
         opcode = 11;
-        StreamUtils.writeBdaddr(stream, bdaddr);
+        StreamUtils.writeBdaddr(buffer, bdaddr);
     }
 }
 
@@ -161,10 +178,10 @@ class CmdCreateBatteryStatusListener extends CommandPacket {
     public Bdaddr bdaddr;
 
     @Override
-    protected void write(OutputStream stream) throws IOException {
+    protected void write(ByteBuffer buffer) {
         opcode = 12;
-        StreamUtils.writeInt32(stream, listenerId);
-        StreamUtils.writeBdaddr(stream, bdaddr);
+        StreamUtils.writeInt32(buffer, listenerId);
+        StreamUtils.writeBdaddr(buffer, bdaddr);
     }
 }
 
@@ -172,9 +189,9 @@ class CmdRemoveBatteryStatusListener extends CommandPacket {
     public int listenerId;
 
     @Override
-    protected void write(OutputStream stream) throws IOException {
+    protected void write(ByteBuffer buffer) {
         opcode = 13;
-        StreamUtils.writeInt32(stream, listenerId);
+        StreamUtils.writeInt32(buffer, listenerId);
     }
 }
 
@@ -201,16 +218,37 @@ abstract class EventPacket {
     public static final int EVT_BUTTON_DELETED_OPCODE = 19;
     public static final int EVT_BATTERY_STATUS_OPCODE = 20;
 
+    static final CreateConnectionChannelError[] CREATE_CONNECTION_CHANNEL_ERROR_VALUES = CreateConnectionChannelError.values();
+    static final ConnectionStatus[] CONNECTION_STATUS_VALUES = ConnectionStatus.values();
+    static final DisconnectReason[] DISCONNECT_REASON_VALUES = DisconnectReason.values();
+    static final RemovedReason[] REMOVED_REASON_VALUES = RemovedReason.values();
+    static final ClickType[] CLICK_TYPE_VALUES = ClickType.values();
+    static final BluetoothControllerState[] BLUETOOTH_CONTROLLER_STATE_VALUES = BluetoothControllerState.values();
+    static final BdAddrType[] BD_ADDR_TYPE_VALUES = BdAddrType.values();
+    static final ScanWizardResult[] SCAN_WIZARD_RESULT_VALUES = ScanWizardResult.values();
+
     public void parse(byte[] arr) {
-        InputStream stream = new ByteArrayInputStream(arr);
+        parse(ByteBuffer.wrap(arr).order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    /**
+     * Parse a packet in place. The same object may be used for any number of packets,
+     * the fields always hold the values of the last parsed packet.
+     *
+     * @param buffer little endian buffer positioned at the opcode with its limit at the end of the packet
+     * @return false if the packet is truncated or holds an unknown enum value
+     */
+    public boolean parse(ByteBuffer buffer) {
         try {
-            stream.skip(1);
-            parseInternal(stream);
-        } catch(IOException e) {
+            buffer.get();
+            parseInternal(buffer);
+            return true;
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+            return false;
         }
     }
 
-    abstract protected void parseInternal(InputStream stream) throws IOException;
+    abstract protected void parseInternal(ByteBuffer buffer);
 }
 
 class EvtAdvertisementPacket extends EventPacket {
@@ -222,13 +260,13 @@ class EvtAdvertisementPacket extends EventPacket {
     public boolean alreadyVerified;
 
     @Override
-    protected void parseInternal(InputStream stream) throws IOException {
-        scanId = StreamUtils.getInt32(stream);
-        addr = StreamUtils.getBdaddr(stream);
-        name = StreamUtils.getString(stream, 16);
-        rssi = StreamUtils.getInt8(stream);
-        isPrivate = StreamUtils.getBoolean(stream);
-        alreadyVerified = StreamUtils.getBoolean(stream);
+    protected void parseInternal(ByteBuffer buffer) {
+        scanId = StreamUtils.getInt32(buffer);
+        addr = StreamUtils.getBdaddr(buffer);
+        name = StreamUtils.getString(buffer, 16);
+        rssi = StreamUtils.getInt8(buffer);
+        isPrivate = StreamUtils.getBoolean(buffer);
+        alreadyVerified = StreamUtils.getBoolean(buffer);
     }
 }
 
@@ -238,10 +276,10 @@ class EvtCreateConnectionChannelResponse extends EventPacket {
     public ConnectionStatus connectionStatus;
 
     @Override
-    protected void parseInternal(InputStream stream) throws IOException {
-        connId = StreamUtils.getInt32(stream);
-        connectionChannelError = CreateConnectionChannelError.values()[StreamUtils.getUInt8(stream)];
-        connectionStatus = ConnectionStatus.values()[StreamUtils.getUInt8(stream)];
+    protected void parseInternal(ByteBuffer buffer) {
+        connId = StreamUtils.getInt32(buffer);
+        connectionChannelError = StreamUtils.getEnum(buffer, CREATE_CONNECTION_CHANNEL_ERROR_VALUES);
+        connectionStatus = StreamUtils.getEnum(buffer, CONNECTION_STATUS_VALUES);
     }
 }
 
@@ -251,10 +289,10 @@ class EvtConnectionStatusChanged extends EventPacket {
     public DisconnectReason disconnectReason;
 
     @Override
-    protected void parseInternal(InputStream stream) throws IOException {
-        connId = StreamUtils.getInt32(stream);
-        connectionStatus = ConnectionStatus.values()[StreamUtils.getUInt8(stream)];
-        disconnectReason = DisconnectReason.values()[StreamUtils.getUInt8(stream)];
+    protected void parseInternal(ByteBuffer buffer) {
+        connId = StreamUtils.getInt32(buffer);
+        connectionStatus = StreamUtils.getEnum(buffer, CONNECTION_STATUS_VALUES);
+        disconnectReason = StreamUtils.getEnum(buffer, DISCONNECT_REASON_VALUES);
     }
 }
 
@@ -263,9 +301,9 @@ class EvtConnectionChannelRemoved extends EventPacket {
     public RemovedReason removedReason;
 
     @Override
-    protected void parseInternal(InputStream stream) throws IOException {
-        connId = StreamUtils.getInt32(stream);
-        removedReason = RemovedReason.values()[StreamUtils.getUInt8(stream)];
+    protected void parseInternal(ByteBuffer buffer) {
+        connId = StreamUtils.getInt32(buffer);
+        removedReason = StreamUtils.getEnum(buffer, REMOVED_REASON_VALUES);
     }
 }
 
@@ -276,11 +314,11 @@ class EvtButtonEvent extends EventPacket {
     public int timeDiff;
 
     @Override
-    protected void parseInternal(InputStream stream) throws IOException {
-        connId = StreamUtils.getInt32(stream);
-        clickType = ClickType.values()[StreamUtils.getUInt8(stream)];
-        wasQueued = StreamUtils.getBoolean(stream);
-        timeDiff = StreamUtils.getInt32(stream);
+    protected void parseInternal(ByteBuffer buffer) {
+        connId = StreamUtils.getInt32(buffer);
+        clickType = StreamUtils.getEnum(buffer, CLICK_TYPE_VALUES);
+        wasQueued = StreamUtils.getBoolean(buffer);
+        timeDiff = StreamUtils.getInt32(buffer);
     }
 }
 
@@ -288,8 +326,8 @@ class EvtNewVerifiedButton extends EventPacket {
     public Bdaddr bdaddr;
 
     @Override
-    protected void parseInternal(InputStream stream) throws IOException {
-        bdaddr = StreamUtils.getBdaddr(stream);
+    protected void parseInternal(ByteBuffer buffer) {
+        bdaddr = StreamUtils.getBdaddr(buffer);
     }
 }
 
@@ -304,18 +342,18 @@ class EvtGetInfoResponse extends EventPacket {
     public Bdaddr[] bdAddrOfVerifiedButtons;
 
     @Override
-    protected void parseInternal(InputStream stream) throws IOException {
-        bluetoothControllerState = BluetoothControllerState.values()[StreamUtils.getUInt8(stream)];
-        myBdAddr = StreamUtils.getBdaddr(stream);
-        myBdAddrType = BdAddrType.values()[StreamUtils.getUInt8(stream)];
-        maxPendingConnections = StreamUtils.getUInt8(stream);
-        maxConcurrentlyConnectedButtons = StreamUtils.getInt16(stream);
-        currentPendingConnections = StreamUtils.getUInt8(stream);
-        currentlyNoSpaceForNewConnections = StreamUtils.getBoolean(stream);
-        int nbVerifiedButtons = StreamUtils.getUInt16(stream);
+    protected void parseInternal(ByteBuffer buffer) {
+        bluetoothControllerState = StreamUtils.getEnum(buffer, BLUETOOTH_CONTROLLER_STATE_VALUES);
+        myBdAddr = StreamUtils.getBdaddr(buffer);
+        myBdAddrType = StreamUtils.getEnum(buffer, BD_ADDR_TYPE_VALUES);
+        maxPendingConnections = StreamUtils.getUInt8(buffer);
+        maxConcurrentlyConnectedButtons = StreamUtils.getInt16(buffer);
+        currentPendingConnections = StreamUtils.getUInt8(buffer);
+        currentlyNoSpaceForNewConnections = StreamUtils.getBoolean(buffer);
+        int nbVerifiedButtons = StreamUtils.getUInt16(buffer);
         bdAddrOfVerifiedButtons = new Bdaddr[nbVerifiedButtons];
         for (int i = 0; i < nbVerifiedButtons; i++) {
-            bdAddrOfVerifiedButtons[i] = StreamUtils.getBdaddr(stream);
+            bdAddrOfVerifiedButtons[i] = StreamUtils.getBdaddr(buffer);
         }
     }
 }
@@ -324,8 +362,8 @@ class EvtNoSpaceForNewConnection extends EventPacket {
     public int maxConcurrentlyConnectedButtons;
 
     @Override
-    protected void parseInternal(InputStream stream) throws IOException {
-        maxConcurrentlyConnectedButtons = StreamUtils.getUInt8(stream);
+    protected void parseInternal(ByteBuffer buffer) {
+        maxConcurrentlyConnectedButtons = StreamUtils.getUInt8(buffer);
     }
 }
 
@@ -333,8 +371,8 @@ class EvtGotSpaceForNewConnection extends EventPacket {
     public int maxConcurrentlyConnectedButtons;
 
     @Override
-    protected void parseInternal(InputStream stream) throws IOException {
-        maxConcurrentlyConnectedButtons = StreamUtils.getUInt8(stream);
+    protected void parseInternal(ByteBuffer buffer) {
+        maxConcurrentlyConnectedButtons = StreamUtils.getUInt8(buffer);
     }
 }
 
@@ -342,8 +380,8 @@ class EvtBluetoothControllerStateChange extends EventPacket {
     public BluetoothControllerState state;
 
     @Override
-    protected void parseInternal(InputStream stream) throws IOException {
-        state = BluetoothControllerState.values()[StreamUtils.getUInt8(stream)];
+    protected void parseInternal(ByteBuffer buffer) {
+        state = StreamUtils.getEnum(buffer, BLUETOOTH_CONTROLLER_STATE_VALUES);
     }
 }
 
@@ -353,18 +391,13 @@ class EvtGetButtonInfoResponse extends EventPacket {
     public String color;
 
     @Override
-    protected void parseInternal(InputStream stream) throws IOException {
-        bdaddr = StreamUtils.getBdaddr(stream);
-        byte[] uuidBytes = StreamUtils.getByteArr(stream, 16);
-        StringBuilder sb = new StringBuilder(32);
-        for (int i = 0; i < 16; i++) {
-            sb.append(String.format("%02x", uuidBytes[i]));
-        }
-        uuid = sb.toString();
+    protected void parseInternal(ByteBuffer buffer) {
+        bdaddr = StreamUtils.getBdaddr(buffer);
+        uuid = StreamUtils.getHexString(buffer, 16);
         if (uuid.equals("00000000000000000000000000000000")) {
             uuid = null;
         }
-        color = StreamUtils.getString(stream, 16);
+        color = StreamUtils.getString(buffer, 16);
         if (color.isEmpty()) {
             color = null;
         }
@@ -375,8 +408,8 @@ class EvtScanWizardFoundPrivateButton extends EventPacket {
     public int scanWizardId;
     
     @Override
-    protected void parseInternal(InputStream stream) throws IOException {
-        scanWizardId = StreamUtils.getInt32(stream);
+    protected void parseInternal(ByteBuffer buffer) {
+        scanWizardId = StreamUtils.getInt32(buffer);
     }
 }
 
@@ -386,18 +419,10 @@ class EvtScanWizardFoundPublicButton extends EventPacket {
     public String name;
     
     @Override
-    protected void parseInternal(InputStream stream) throws IOException {
-        scanWizardId = StreamUtils.getInt32(stream);
-        addr = StreamUtils.getBdaddr(stream);
-        int nameLen = StreamUtils.getUInt8(stream);
-        byte[] bytes = new byte[nameLen];
-        for (int i = 0; i < nameLen; i++) {
-            bytes[i] = (byte)stream.read();
-        }
-        for (int i = nameLen; i < 16; i++) {
-            stream.skip(1);
-        }
-        name = new String(bytes, StandardCharsets.UTF_8);
+    protected void parseInternal(ByteBuffer buffer) {
+        scanWizardId = StreamUtils.getInt32(buffer);
+        addr = StreamUtils.getBdaddr(buffer);
+        name = StreamUtils.getString(buffer, 16);
     }
 }
 
@@ -405,8 +430,8 @@ class EvtScanWizardButtonConnected extends EventPacket {
     public int scanWizardId;
     
     @Override
-    protected void parseInternal(InputStream stream) throws IOException {
-        scanWizardId = StreamUtils.getInt32(stream);
+    protected void parseInternal(ByteBuffer buffer) {
+        scanWizardId = StreamUtils.getInt32(buffer);
     }
 }
 
@@ -415,9 +440,9 @@ class EvtScanWizardCompleted extends EventPacket {
     public ScanWizardResult result;
     
     @Override
-    protected void parseInternal(InputStream stream) throws IOException {
-        scanWizardId = StreamUtils.getInt32(stream);
-        result = ScanWizardResult.values()[StreamUtils.getUInt8(stream)];
+    protected void parseInternal(ByteBuffer buffer) {
+        scanWizardId = StreamUtils.getInt32(buffer);
+        result = StreamUtils.getEnum(buffer, SCAN_WIZARD_RESULT_VALUES);
     }
 }
 
@@ -426,9 +451,9 @@ class EvtButtonDeleted extends EventPacket {
     public boolean deletedByThisClient;
 
     @Override
-    protected void parseInternal(InputStream stream) throws IOException {
-        bdaddr = StreamUtils.getBdaddr(stream);
-        deletedByThisClient = StreamUtils.getBoolean(stream);
+    protected void parseInternal(ByteBuffer buffer) {
+        bdaddr = StreamUtils.getBdaddr(buffer);
+        deletedByThisClient = StreamUtils.getBoolean(buffer);
     }
 }
 
@@ -438,9 +463,9 @@ class EvtBatteryStatus extends EventPacket {
     public long timestamp;
 
     @Override
-    protected void parseInternal(InputStream stream) throws IOException {
-        listenerId = StreamUtils.getInt32(stream);
-        batteryPercentage = StreamUtils.getInt8(stream);
-        timestamp = StreamUtils.getInt64(stream);
+    protected void parseInternal(ByteBuffer buffer) {
+        listenerId = StreamUtils.getInt32(buffer);
+        batteryPercentage = StreamUtils.getInt8(buffer);
+        timestamp = StreamUtils.getInt64(buffer);
     }
 }
@@ -1,81 +1,97 @@
 package io.flic.fliclib.javaclient;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
+/**
+ * Helpers to read and write the protocol fields. All buffers must use little endian byte order.
+ */
 class StreamUtils {
-    public static boolean getBoolean(InputStream stream) throws IOException {
-        return stream.read() != 0;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    public static boolean getBoolean(ByteBuffer buffer) {
+        return buffer.get() != 0;
     }
-    public static int getUInt8(InputStream stream) throws IOException {
-        return stream.read();
+
+    public static int getUInt8(ByteBuffer buffer) {
+        return buffer.get() & 0xff;
     }
 
-    public static int getInt8(InputStream stream) throws IOException {
-        return (byte)stream.read();
+    public static int getInt8(ByteBuffer buffer) {
+        return buffer.get();
     }
 
-    public static int getUInt16(InputStream stream) throws IOException {
-        return stream.read() | (stream.read() << 8);
+    public static int getUInt16(ByteBuffer buffer) {
+        return buffer.getShort() & 0xffff;
     }
 
-    public static int getInt16(InputStream stream) throws IOException {
-        return (short)getUInt16(stream);
+    public static int getInt16(ByteBuffer buffer) {
+        return buffer.getShort();
     }
 
-    public static int getInt32(InputStream stream) throws IOException {
-        return stream.read() | (stream.read() << 8) | (stream.read() << 16) | (stream.read() << 24);
+    public static int getInt32(ByteBuffer buffer) {
+        return buffer.getInt();
     }
 
-    public static long getInt64(InputStream stream) throws IOException {
-        return (getInt32(stream) & 0xffffffffL) | ((long)getInt32(stream) << 32);
+    public static long getInt64(ByteBuffer buffer) {
+        return buffer.getLong();
     }
 
-    public static Bdaddr getBdaddr(InputStream stream) throws IOException {
-        return new Bdaddr(stream);
+    public static <E extends Enum<E>> E getEnum(ByteBuffer buffer, E[] values) {
+        return values[getUInt8(buffer)];
     }
 
-    public static byte[] getByteArr(InputStream stream, int len) throws IOException {
+    public static Bdaddr getBdaddr(ByteBuffer buffer) {
+        return new Bdaddr(buffer);
+    }
+
+    public static byte[] getByteArr(ByteBuffer buffer, int len) {
         byte[] arr = new byte[len];
-        for (int i = 0; i < len; i++) {
-            arr[i] = (byte)stream.read();
-        }
+        buffer.get(arr);
         return arr;
     }
 
-    public static String getString(InputStream stream, int maxlen) throws IOException {
-        int len = getInt8(stream);
-        byte[] arr = new byte[len];
+    public static String getHexString(ByteBuffer buffer, int len) {
+        char[] chars = new char[2 * len];
         for (int i = 0; i < len; i++) {
-            arr[i] = (byte)stream.read();
+            int b = buffer.get() & 0xff;
+            chars[2 * i] = HEX_DIGITS[b >> 4];
+            chars[2 * i + 1] = HEX_DIGITS[b & 0xf];
         }
-        for (int i = len; i < maxlen; i++) {
-            stream.skip(1);
+        return new String(chars);
+    }
+
+    public static String getString(ByteBuffer buffer, int maxlen) {
+        int len = getUInt8(buffer);
+        byte[] arr = new byte[len];
+        buffer.get(arr);
+        if (len < maxlen) {
+            if (buffer.remaining() < maxlen - len) {
+                throw new BufferUnderflowException();
+            }
+            buffer.position(buffer.position() + maxlen - len);
         }
         return new String(arr, StandardCharsets.UTF_8);
     }
 
-    public static void writeEnum(OutputStream stream, Enum<?> enumValue) throws IOException {
-        stream.write(enumValue.ordinal());
+    public static void writeEnum(ByteBuffer buffer, Enum<?> enumValue) {
+        buffer.put((byte)enumValue.ordinal());
     }
 
-    public static void writeInt8(OutputStream stream, int v) throws IOException {
-        stream.write(v);
+    public static void writeInt8(ByteBuffer buffer, int v) {
+        buffer.put((byte)v);
     }
 
-    public static void writeInt16(OutputStream stream, int v) throws IOException {
-        stream.write(v & 0xff);
-        stream.write(v >> 8);
+    public static void writeInt16(ByteBuffer buffer, int v) {
+        buffer.putShort((short)v);
     }
 
-    public static void writeInt32(OutputStream stream, int v) throws IOException {
-        writeInt16(stream, v);
-        writeInt16(stream, v >> 16);
+    public static void writeInt32(ByteBuffer buffer, int v) {
+        buffer.putInt(v);
     }
 
-    public static void writeBdaddr(OutputStream stream, Bdaddr addr) throws IOException {
-        stream.write(addr.getBytes());
+    public static void writeBdaddr(ByteBuffer buffer, Bdaddr addr) {
+        addr.write(buffer);
     }
 }
@@ -0,0 +1,158 @@
+package io.flic.fliclib.javaclient;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+/**
+ * Hashed timer wheel used by the event loop of the {@link FlicClient}.
+ *
+ * Timers are put into the slot of the tick they expire in, so scheduling and expiring is O(1).
+ * Timers with equal deadlines are kept as separate entries and run in the order they were scheduled.
+ * Not thread safe, must only be used from the thread that handles the events.
+ */
+class TimerWheel {
+    /**
+     * A scheduled timer.
+     */
+    static class Timer {
+        final long deadline;
+        final TimerTask task;
+        long tick;
+
+        Timer(long deadline, TimerTask task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+    }
+
+    private final ArrayList<Timer>[] slots;
+    private final int mask;
+    private final long tickNanos;
+    private final long startNanos;
+    private final ArrayDeque<Timer> dueTimers = new ArrayDeque<>();
+    private long processedTick;
+    private int size;
+
+    /**
+     * Create a timer wheel.
+     *
+     * @param slotCount number of slots, rounded up to a power of two
+     * @param tickNanos duration of one tick in nanoseconds
+     * @param startNanos current time as returned by {@link System#nanoTime()}
+     */
+    @SuppressWarnings("unchecked")
+    TimerWheel(int slotCount, long tickNanos, long startNanos) {
+        int count = Integer.highestOneBit(Math.max(1, slotCount - 1)) << 1;
+        slots = new ArrayList[count];
+        for (int i = 0; i < count; i++) {
+            slots[i] = new ArrayList<>();
+        }
+        mask = count - 1;
+        this.tickNanos = tickNanos;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Schedule a timer. Timers with a deadline in the past run with the next call of {@link #runExpired(long)}.
+     *
+     * @param timer
+     */
+    void schedule(Timer timer) {
+        timer.tick = Math.max(processedTick, tickOf(timer.deadline));
+        slots[(int)(timer.tick & mask)].add(timer);
+        size++;
+    }
+
+    /**
+     * Schedule a task.
+     *
+     * @param deadline time as returned by {@link System#nanoTime()} when the task shall run
+     * @param task
+     */
+    void schedule(long deadline, TimerTask task) {
+        schedule(new Timer(deadline, task));
+    }
+
+    /**
+     * @return number of scheduled timers
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Run all timers with a deadline up to now.
+     *
+     * Tasks scheduled by the running tasks are not run before the next call.
+     *
+     * @param now current time as returned by {@link System#nanoTime()}
+     * @throws IOException if a task throws
+     */
+    void runExpired(long now) throws IOException {
+        if (size == 0) {
+            processedTick = Math.max(processedTick, tickOf(now));
+            return;
+        }
+
+        long nowTick = tickOf(now);
+        long lastTick = Math.min(nowTick, processedTick + mask);
+        for (long tick = processedTick; tick <= lastTick; tick++) {
+            ArrayList<Timer> slot = slots[(int)(tick & mask)];
+            int keep = 0;
+            for (int i = 0; i < slot.size(); i++) {
+                Timer timer = slot.get(i);
+                if (timer.deadline - now <= 0) {
+                    dueTimers.add(timer);
+                    size--;
+                } else {
+                    slot.set(keep++, timer);
+                }
+            }
+            while (slot.size() > keep) {
+                slot.remove(slot.size() - 1);
+            }
+        }
+        processedTick = Math.max(processedTick, nowTick);
+
+        // run after collecting, tasks may schedule new timers
+        Timer timer;
+        while ((timer = dueTimers.poll()) != null) {
+            timer.task.run();
+        }
+    }
+
+    /**
+     * Get the time until the next timer expires.
+     *
+     * @param now current time as returned by {@link System#nanoTime()}
+     * @return nanoseconds until the next timer expires, 0 if a timer is due, -1 if no timer is scheduled
+     */
+    long nanosUntilNextDeadline(long now) {
+        if (size == 0) {
+            return -1;
+        }
+
+        // the first slot holding a timer of its own tick contains the next deadline
+        for (long tick = processedTick; tick <= processedTick + mask; tick++) {
+            ArrayList<Timer> slot = slots[(int)(tick & mask)];
+            long next = Long.MAX_VALUE;
+            for (int i = 0; i < slot.size(); i++) {
+                Timer timer = slot.get(i);
+                if (timer.tick == tick && timer.deadline - now < next) {
+                    next = timer.deadline - now;
+                }
+            }
+            if (next != Long.MAX_VALUE) {
+                return Math.max(0, next);
+            }
+        }
+
+        // all timers expire after a full rotation
+        return Math.max(0, (processedTick + mask + 1) * tickNanos + startNanos - now);
+    }
+
+    private long tickOf(long time) {
+        return Math.max(0, (time - startNanos) / tickNanos);
+    }
+}
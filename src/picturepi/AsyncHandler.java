@@ -0,0 +1,199 @@
+package picturepi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+
+/**
+ * Log handler that passes records to a target handler on a background thread, so formatting and writing
+ * never block the logging thread. Records are kept in a bounded ring buffer. The background thread writes
+ * all records queued at a time as one batch and flushes the target once per batch.
+ * If the buffer is full, new records are dropped and the number of dropped records is logged later.
+ *
+ * Configured in the logging configuration file:
+ * <pre>
+ * handlers=picturepi.AsyncHandler
+ * picturepi.AsyncHandler.target=java.util.logging.FileHandler
+ * picturepi.AsyncHandler.capacity=1024
+ * picturepi.AsyncHandler.level=ALL
+ * </pre>
+ * The target handler reads its own settings as usual.
+ */
+public class AsyncHandler extends Handler {
+
+	/**
+	 * constructor called by the LogManager, reads the settings from the logging configuration
+	 */
+	public AsyncHandler() {
+		this(createTarget(getProperty("target", "java.util.logging.ConsoleHandler")), parseInt(getProperty("capacity", null), DEFAULT_CAPACITY));
+
+		String level = getProperty("level", null);
+		if(level!=null) {
+			try {
+				setLevel(Level.parse(level));
+			}
+			catch(IllegalArgumentException e) {
+				reportError("invalid level "+level, e, ErrorManager.GENERIC_FAILURE);
+			}
+		}
+	}
+
+	/**
+	 * constructor
+	 * @param target   handler to pass the records to
+	 * @param capacity max. number of queued records
+	 */
+	AsyncHandler(Handler target,int capacity) {
+		this.target = target;
+		this.queue  = new ArrayBlockingQueue<>(Math.max(1, capacity));
+
+		thread = new Thread(this::run, "AsyncLog");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public void publish(LogRecord record) {
+		if(!isLoggable(record) || closed) {
+			return;
+		}
+
+		// the caller can only be determined on the logging thread
+		record.getSourceClassName();
+
+		if(!queue.offer(record)) {
+			droppedRecords.incrementAndGet();
+		}
+	}
+
+	@Override
+	public void flush() {
+		target.flush();
+	}
+
+	/**
+	 * writes all queued records and closes the target handler
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		thread.interrupt();
+		try {
+			thread.join(CLOSE_TIMEOUT);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		// write what the background thread left
+		List<LogRecord> batch = new ArrayList<>();
+		queue.drainTo(batch);
+		write(batch);
+		target.close();
+	}
+
+	/**
+	 * @return number of records dropped because the buffer was full
+	 */
+	long getDroppedRecords() {
+		return droppedRecordsTotal+droppedRecords.get();
+	}
+
+	/**
+	 * background thread, writes the queued records in batches
+	 */
+	private void run() {
+		List<LogRecord> batch = new ArrayList<>();
+		while(!closed) {
+			try {
+				batch.add(queue.take());
+			} catch (InterruptedException e) {
+				break;
+			}
+			queue.drainTo(batch, MAX_BATCH_SIZE-1);
+			write(batch);
+			batch.clear();
+		}
+	}
+
+	/**
+	 * passes a batch of records to the target and flushes the target
+	 * @param batch records to write
+	 */
+	private void write(List<LogRecord> batch) {
+		long dropped = droppedRecords.getAndSet(0);
+		if(dropped>0) {
+			droppedRecordsTotal += dropped;
+
+			LogRecord record = new LogRecord(Level.WARNING, "log buffer full, "+dropped+" records dropped");
+			record.setSourceClassName(AsyncHandler.class.getName());
+			record.setLoggerName(AsyncHandler.class.getName());
+			target.publish(record);
+		}
+
+		for(LogRecord record:batch) {
+			try {
+				target.publish(record);
+			}
+			catch(RuntimeException e) {
+				reportError("target handler failed", e, ErrorManager.WRITE_FAILURE);
+			}
+		}
+		target.flush();
+	}
+
+	/**
+	 * creates the target handler
+	 * @param  className class name of the handler
+	 * @return handler object
+	 */
+	private static Handler createTarget(String className) {
+		try {
+			return (Handler)ClassLoader.getSystemClassLoader().loadClass(className).getDeclaredConstructor().newInstance();
+		}
+		catch(ReflectiveOperationException | ClassCastException e) {
+			new ErrorManager().error("Unable to create target handler "+className+", using console", e, ErrorManager.OPEN_FAILURE);
+			return new java.util.logging.ConsoleHandler();
+		}
+	}
+
+	/**
+	 * reads a property of this handler from the logging configuration
+	 * @param  name         property name without the class name prefix
+	 * @param  defaultValue default value
+	 * @return value or defaultValue if the property is not set
+	 */
+	private static String getProperty(String name,String defaultValue) {
+		String value = LogManager.getLogManager().getProperty(AsyncHandler.class.getName()+"."+name);
+		return value!=null ? value.trim() : defaultValue;
+	}
+
+	private static int parseInt(String value,int defaultValue) {
+		try {
+			return value!=null ? Integer.parseInt(value) : defaultValue;
+		}
+		catch(NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	//
+	// private members
+	//
+	private static final int  DEFAULT_CAPACITY = 1024;   // default max. number of queued records
+	private static final int  MAX_BATCH_SIZE   = 256;    // max. number of records written in one batch
+	private static final long CLOSE_TIMEOUT    = 1000;   // max. time in ms to wait for the background thread on close
+
+	private final Handler                  target;                              // handler writing the records
+	private final BlockingQueue<LogRecord> queue;                               // ring buffer of queued records
+	private final Thread                   thread;                              // background thread
+	private final AtomicLong               droppedRecords      = new AtomicLong();  // records dropped since the last batch
+	private       long                     droppedRecordsTotal = 0;             // records dropped and reported, written by the writing thread only
+	private volatile boolean               closed              = false;         // true after close()
+}
@@ -0,0 +1,40 @@
+package picturepi;
+
+import java.io.IOException;
+
+import com.pi4j.io.i2c.I2CBus;
+import com.pi4j.io.i2c.I2CDevice;
+
+/**
+ * BH1750 ambient light sensor connected thru I2C
+ */
+class Bh1750LightSensor implements LightSensor {
+
+	/**
+	 * constructor
+	 * @param  bus I2C bus the sensor is connected to
+	 * @throws IOException if the device could not be opened
+	 */
+	Bh1750LightSensor(I2CBus bus) throws IOException {
+		device = bus.getDevice(I2C_ADDRESS);
+	}
+
+	@Override
+	public int read() throws IOException {
+		device.write(ONE_TIME_HIGH_RESOLUTION);
+		int count = device.read(buffer, 0, 2);
+		if(count!=2) {
+			throw new IOException("unexpected amount of bytes read from light sensor: "+count);
+		}
+		return (buffer[0]&0xff)*256+(buffer[1]&0xff);
+	}
+
+	//
+	// private members
+	//
+	private static final int  I2C_ADDRESS              = 0x23;   // I2C address of the sensor
+	private static final byte ONE_TIME_HIGH_RESOLUTION = 0x20;   // measurement command
+
+	private final I2CDevice device;                 // sensor device
+	private final byte[]    buffer = new byte[2];   // buffer for the measurement result
+}
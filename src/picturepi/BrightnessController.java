@@ -0,0 +1,174 @@
+package picturepi;
+
+import java.io.IOException;
+import java.util.logging.Logger;
+
+/**
+ * Derives the projector brightness from an ambient light sensor.
+ * Sensor values are smoothed with an exponential moving average, and the brightness is only recomputed and written
+ * if the average moved by more than the hysteresis since the last write. The panels are switched between bright and
+ * dark colors only when the brightness crosses the dark threshold, again with hysteresis.
+ * Not thread safe except for setOverride, all other methods must be called on the same thread.
+ */
+class BrightnessController {
+
+	/**
+	 * interface for the devices controlled by the brightness
+	 */
+	interface Output {
+		/**
+		 * writes a new brightness
+		 * @param brightness brightness from MIN_BRIGHTNESS to MAX_BRIGHTNESS
+		 * @throws IOException if the brightness could not be written
+		 */
+		void writeBrightness(int brightness) throws IOException;
+
+		/**
+		 * switches the color mode of the panels
+		 * @param bright true for bright colors, false for dark colors
+		 */
+		void setColorMode(boolean bright);
+	}
+
+	/**
+	 * constructor
+	 * @param sensor     ambient light sensor
+	 * @param output     devices controlled by the brightness
+	 * @param smoothing  weight of a new sample in the moving average, from 0 (exclusive) to 1 (no smoothing)
+	 * @param hysteresis minimum change of the sensor value in percent to write a new brightness
+	 */
+	BrightnessController(LightSensor sensor,Output output,double smoothing,int hysteresis) {
+		this.sensor     = sensor;
+		this.output     = output;
+		this.smoothing  = Math.min(1.0, Math.max(0.01, smoothing));
+		this.hysteresis = Math.max(0, hysteresis);
+	}
+
+	/**
+	 * reads the sensor, updates the moving average and the outputs
+	 */
+	void sample() {
+		int value;
+		try {
+			value = sensor.read();
+		}
+		catch(IOException e) {
+			log.severe("Unable to read light sensor: "+e.getMessage());
+			return;
+		}
+
+		smoothedValue = Double.isNaN(smoothedValue) ? value : smoothedValue+smoothing*(value-smoothedValue);
+		log.finest(() -> "light sensor value="+value+" smoothed="+smoothedValue);
+
+		update();
+	}
+
+	/**
+	 * updates the outputs from the current moving average and override
+	 */
+	void update() {
+		if(!outputEnabled || (Double.isNaN(smoothedValue) && overrideValue<=0)) {
+			return;
+		}
+
+		double override = overrideValue;
+		if(brightness<0 || override!=writtenOverride
+				|| Math.abs(smoothedValue-writtenValue)>Math.max(MIN_SENSOR_CHANGE, writtenValue*hysteresis/100.0)) {
+			int target = computeBrightness(smoothedValue, override);
+			if(target!=brightness) {
+				try {
+					log.fine(() -> "adjusting projector brightness to "+target);
+					output.writeBrightness(target);
+					brightness = target;
+				}
+				catch(IOException e) {
+					log.severe("Unable to write brightness: "+e.getMessage());
+					return;
+				}
+			}
+			writtenValue    = smoothedValue;
+			writtenOverride = override;
+		}
+
+		boolean bright = colorModeBright!=null && colorModeBright ? brightness>DARK_THRESHOLD : brightness>DARK_THRESHOLD+COLOR_HYSTERESIS;
+		if(colorModeBright==null || bright!=colorModeBright) {
+			log.fine(() -> "adjusting foreground colors to "+(bright ? "bright" : "dark"));
+			output.setColorMode(bright);
+			colorModeBright = bright;
+		}
+	}
+
+	/**
+	 * enables or disables writing to the output, e.g. while the projector is off
+	 * @param enabled true to enable
+	 */
+	void setOutputEnabled(boolean enabled) {
+		outputEnabled = enabled;
+	}
+
+	/**
+	 * forces the next update to write the brightness, after it was changed by somebody else
+	 */
+	void reset() {
+		brightness = -1;
+	}
+
+	/**
+	 * overrides the sensor value. May be called from any thread
+	 * @param percent brightness in percent or 0 to use the sensor again
+	 */
+	void setOverride(double percent) {
+		overrideValue = percent;
+	}
+
+	/**
+	 * @return last written brightness or -1 if none was written yet
+	 */
+	int getBrightness() {
+		return brightness;
+	}
+
+	/**
+	 * maps a sensor value to the brightness
+	 * @param  sensorValue (smoothed) sensor value
+	 * @param  override    brightness override in percent or 0
+	 * @return brightness from MIN_BRIGHTNESS to MAX_BRIGHTNESS
+	 */
+	static int computeBrightness(double sensorValue,double override) {
+		double value;
+		if(override>0) {
+			// assume that 100% brightness override value fits to full brightness
+			value = override*2.55;
+		}
+		else {
+			// start with a simple quadratic relation for bright situations and go linear when it gets darker
+			value = sensorValue>=5 ? sensorValue*sensorValue : sensorValue;
+		}
+
+		return (int)Math.max(MIN_BRIGHTNESS, Math.min(MAX_BRIGHTNESS, value));
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( BrightnessController.class.getName() );
+
+	static final int MIN_BRIGHTNESS = 3;     // minimum brightness
+	static final int MAX_BRIGHTNESS = 255;   // maximum brightness
+	static final int DARK_THRESHOLD = 10;    // panels use dark colors up to this brightness
+
+	private static final int    COLOR_HYSTERESIS  = 4;     // brightness above the dark threshold to switch to bright colors again
+	private static final double MIN_SENSOR_CHANGE = 1.0;   // minimum change of the sensor value to write a new brightness
+
+	private final LightSensor  sensor;                           // ambient light sensor
+	private final Output       output;                           // devices controlled by the brightness
+	private final double       smoothing;                        // weight of a new sample in the moving average
+	private final int          hysteresis;                       // minimum change of the sensor value in percent
+	private double             smoothedValue   = Double.NaN;     // moving average of the sensor values
+	private double             writtenValue    = Double.NaN;     // moving average at the last write
+	private double             writtenOverride = 0.0;            // brightness override at the last write
+	private int                brightness      = -1;             // last written brightness
+	private Boolean            colorModeBright = null;           // current color mode of the panels, null if not set yet
+	private boolean            outputEnabled   = true;           // false while the outputs shall not be written
+	private volatile double    overrideValue   = 0.0;            // brightness override in percent
+}
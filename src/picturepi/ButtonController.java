@@ -0,0 +1,239 @@
+package picturepi;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import io.flic.fliclib.javaclient.Bdaddr;
+import io.flic.fliclib.javaclient.ButtonConnectionChannel;
+import io.flic.fliclib.javaclient.FlicClient;
+import io.flic.fliclib.javaclient.enums.ClickType;
+import picturepi.Configuration.ButtonClickViewData;
+import picturepi.Configuration.ViewData;
+
+/**
+ * Connects to flicd and maps clicks of bluetooth buttons to the views of the [buttons] section.
+ * The panels of these views are created and their providers are started up front,
+ * so a button press only needs to switch the panel on the screen.
+ */
+class ButtonController {
+
+	/**
+	 * interface for the activation of views thru button clicks
+	 */
+	interface Listener {
+		/**
+		 * called on the button thread when a button click maps to a view
+		 * @param view view to activate
+		 */
+		void buttonViewRequested(ButtonClickViewData view);
+	}
+
+	/**
+	 * constructor
+	 * @param views    views mapped to button clicks
+	 * @param listener listener to inform about button clicks
+	 */
+	ButtonController(List<ButtonClickViewData> views,Listener listener) {
+		this.views    = views;
+		this.listener = listener;
+	}
+
+	/**
+	 * creates the panels of all views and starts their providers, so they have data when a button is pressed.
+	 * Views with the same name and ID share one panel, views without ID use the panel of the scheduled view with the same name
+	 * @param scheduledPanels panels of the scheduled views by view name
+	 * @param initializer     initializes the providers in the background
+	 */
+	void prepareViews(Map<String,Panel> scheduledPanels,ProviderInitializer initializer) {
+		Map<String,Panel> panels = new HashMap<>();
+
+		for(ButtonClickViewData view:views) {
+			String key = view.viewName+"["+view.id+"]";
+			view.panel = panels.get(key);
+			if(view.panel!=null) {
+				continue;
+			}
+
+			if(view.id==null) {
+				view.panel = scheduledPanels.get(view.viewName);
+			}
+			if(view.panel==null) {
+				view.panel = Panel.createPanelFromNameOnEventThread(view.viewName, view.id);
+			}
+			if(view.panel==null) {
+				log.severe("Unable to create panel for button view "+view.viewName);
+				continue;
+			}
+			panels.put(key, view.panel);
+
+			// the provider is started after its init() returned, even if init() failed
+			ViewData viewData = new ViewData();
+			viewData.name  = "button view "+view.viewName;
+			viewData.panel = view.panel;
+			Provider provider = view.panel.getProvider();
+			if(provider!=null) {
+				initializer.initialize(provider).whenComplete((result,exception) -> viewData.panel.addActiveView(viewData));
+			}
+			else {
+				view.panel.addActiveView(viewData);
+			}
+		}
+	}
+
+	/**
+	 * starts the thread handling the connection to flicd. The connection is re-established if it gets lost
+	 * @param host flicd host name
+	 * @param port flicd TCP port
+	 */
+	synchronized void start(String host,int port) {
+		if(thread!=null) {
+			return;
+		}
+
+		running = true;
+		thread  = new Thread(() -> handleConnection(host, port), "FlicButtons");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * stops the thread handling the connection to flicd
+	 */
+	synchronized void stop() {
+		running = false;
+		closeClient();
+		if(thread!=null) {
+			thread.interrupt();
+			thread = null;
+		}
+	}
+
+	/**
+	 * finds the view mapped to a button click
+	 * @param  address   bluetooth button address
+	 * @param  clickType click type reported by flicd
+	 * @return view or null if no view is mapped to this click
+	 */
+	ButtonClickViewData findView(String address,ClickType clickType) {
+		int clicks;
+		switch(clickType) {
+		case ButtonHold:
+			clicks = 0;
+			break;
+		case ButtonSingleClick:
+			clicks = 1;
+			break;
+		case ButtonDoubleClick:
+			clicks = 2;
+			break;
+		default:
+			return null;
+		}
+
+		for(ButtonClickViewData view:views) {
+			if(view.clicks==clicks && view.buttonAddress.equalsIgnoreCase(address)) {
+				return view;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * connects to flicd and handles its events until stopped
+	 * @param host flicd host name
+	 * @param port flicd TCP port
+	 */
+	private void handleConnection(String host,int port) {
+		Set<String> addresses = new LinkedHashSet<>();
+		views.forEach(view -> addresses.add(view.buttonAddress.toLowerCase()));
+
+		while(running) {
+			try {
+				log.config("connecting to flicd at "+host+":"+port);
+				FlicClient flicClient = new FlicClient(host, port);
+				synchronized(this) {
+					client = flicClient;
+				}
+				if(!running) {
+					closeClient();
+				}
+
+				for(String address:addresses) {
+					log.fine(() -> "adding connection channel for button "+address);
+					flicClient.addConnectionChannel(new ButtonConnectionChannel(new Bdaddr(address), callbacks));
+				}
+
+				flicClient.handleEvents();
+				log.warning("connection to flicd closed");
+			}
+			catch(IOException | RuntimeException e) {
+				log.severe("Unable to handle flicd connection: "+e.getMessage());
+			}
+
+			if(running) {
+				try {
+					Thread.sleep(RECONNECT_DELAY);
+				}
+				catch (InterruptedException e) {
+					log.fine("button thread interrupted");
+				}
+			}
+		}
+	}
+
+	/**
+	 * closes the connection to flicd if one is open
+	 */
+	private synchronized void closeClient() {
+		if(client!=null) {
+			try {
+				client.close();
+			}
+			catch (IOException e) {
+				log.warning("Unable to close flicd connection: "+e.getMessage());
+			}
+			client = null;
+		}
+	}
+
+	//
+	// callbacks of the button connection channels
+	//
+	private final ButtonConnectionChannel.Callbacks callbacks = new ButtonConnectionChannel.Callbacks() {
+		@Override
+		public void onButtonSingleOrDoubleClickOrHold(ButtonConnectionChannel channel,ClickType clickType,boolean wasQueued,int timeDiff) {
+			log.fine(() -> "button "+channel.getBdaddr()+": "+clickType+" queued="+wasQueued+" timeDiff="+timeDiff);
+
+			// clicks that were queued while the button was disconnected are outdated
+			if(wasQueued && timeDiff>MAX_QUEUED_TIME) {
+				log.fine(() -> "ignoring queued click, age [s]: "+timeDiff);
+				return;
+			}
+
+			ButtonClickViewData view = findView(channel.getBdaddr().toString(), clickType);
+			if(view!=null && view.panel!=null) {
+				listener.buttonViewRequested(view);
+			}
+		}
+	};
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( ButtonController.class.getName() );
+
+	private static final long RECONNECT_DELAY = 10000;   // ms to wait before connecting to flicd again
+	private static final int  MAX_QUEUED_TIME = 2;       // max. age in s of a queued click to still activate a view
+
+	private final List<ButtonClickViewData> views;             // views mapped to button clicks
+	private final Listener                  listener;          // listener to inform about button clicks
+	private          Thread                 thread  = null;    // thread handling the flicd connection
+	private          FlicClient             client  = null;    // current flicd connection
+	private volatile boolean                running = false;   // false if the button thread shall stop
+}
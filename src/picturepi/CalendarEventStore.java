@@ -0,0 +1,263 @@
+package picturepi;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonValue;
+import javax.json.JsonWriter;
+
+/**
+ * Local store of the events of one calendar.
+ * The store is filled by a full synchronization and then kept up to date with the changes returned
+ * for the sync token of the calendar, so queries for a day are answered without network access.
+ * If a file is specified, the store is saved as JSON and survives a restart.
+ */
+class CalendarEventStore {
+
+	/**
+	 * interface to visit stored events
+	 */
+	interface EventVisitor {
+		void visit(String summary,LocalDate start,LocalDate end);
+	}
+
+	/**
+	 * constructor
+	 * @param file file to persist the store or null to keep it in memory only
+	 */
+	CalendarEventStore(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * creates a store and loads the content of its file if it exists
+	 * @param  file file to persist the store or null to keep it in memory only
+	 * @return new store
+	 */
+	static CalendarEventStore load(File file) {
+		CalendarEventStore store = new CalendarEventStore(file);
+
+		if(file!=null && file.exists()) {
+			try(Reader reader = new FileReader(file) ; JsonReader jsonReader = Json.createReader(reader)) {
+				JsonObject json = jsonReader.readObject();
+				store.syncToken = json.getString("syncToken", null);
+				for(JsonValue value:json.getJsonArray("events")) {
+					JsonObject event = value.asJsonObject();
+					store.putEvent(event.getString("id"), event.getString("summary",""),
+							LocalDate.parse(event.getString("start")), LocalDate.parse(event.getString("end")));
+				}
+				store.isModified = false;
+				log.fine(() -> "loaded "+store.events.size()+" calendar events from "+file);
+			}
+			catch(IOException | JsonException | ClassCastException | NullPointerException | DateTimeParseException e) {
+				log.severe("Unable to load calendar events from "+file+": "+e.getMessage());
+				store.clear();
+			}
+		}
+
+		return store;
+	}
+
+	/**
+	 * adds or replaces an event
+	 * @param id      event ID
+	 * @param summary event summary
+	 * @param start   first day of the event
+	 * @param end     last day of the event (inclusive)
+	 */
+	synchronized void putEvent(String id,String summary,LocalDate start,LocalDate end) {
+		events.put(id, new StoredEvent(summary, start, end.isBefore(start) ? start : end));
+		modified();
+	}
+
+	/**
+	 * removes an event
+	 * @param id event ID
+	 */
+	synchronized void removeEvent(String id) {
+		if(events.remove(id)!=null) {
+			modified();
+		}
+	}
+
+	/**
+	 * removes all events and the sync token, a full synchronization is needed afterwards
+	 */
+	synchronized void clear() {
+		events.clear();
+		syncToken = null;
+		modified();
+	}
+
+	/**
+	 * replaces all events and the sync token with the content of another store, e.g. after a full synchronization
+	 * into a new store
+	 * @param other store to copy
+	 */
+	synchronized void replaceWith(CalendarEventStore other) {
+		synchronized(other) {
+			events.clear();
+			events.putAll(other.events);
+			syncToken = other.syncToken;
+		}
+		modified();
+	}
+
+	/**
+	 * removes all events that ended before a date
+	 * @param date first day to keep
+	 */
+	synchronized void removeEventsBefore(LocalDate date) {
+		if(events.values().removeIf(event -> event.end.isBefore(date))) {
+			modified();
+		}
+	}
+
+	/**
+	 * @return sync token for the next incremental synchronization or null if a full synchronization is needed
+	 */
+	synchronized String getSyncToken() {
+		return syncToken;
+	}
+
+	/**
+	 * @param syncToken sync token for the next incremental synchronization
+	 */
+	synchronized void setSyncToken(String syncToken) {
+		if(!Objects.equals(syncToken, this.syncToken)) {
+			this.syncToken = syncToken;
+			isModified     = true;
+		}
+	}
+
+	/**
+	 * @return number of stored events
+	 */
+	synchronized int size() {
+		return events.size();
+	}
+
+	/**
+	 * returns the summaries of all events of a day
+	 * @param  date day
+	 * @return summaries of the events, ordered by start day
+	 */
+	synchronized List<String> getEntries(LocalDate date) {
+		return events.values().stream()
+				.filter(event -> !event.start.isAfter(date) && !event.end.isBefore(date))
+				.sorted(Comparator.comparing((StoredEvent event) -> event.start).thenComparing(event -> event.summary))
+				.map(event -> event.summary)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * calls a visitor for all stored events
+	 * @param visitor visitor to call
+	 */
+	synchronized void forEachEvent(EventVisitor visitor) {
+		for(StoredEvent event:events.values()) {
+			visitor.visit(event.summary, event.start, event.end);
+		}
+	}
+
+	/**
+	 * @return counter that changes whenever the stored events change
+	 */
+	synchronized long getVersion() {
+		return version;
+	}
+
+	/**
+	 * writes the store to its file if it was modified since it was loaded or saved.
+	 * The file is replaced atomically, so it is never left half written
+	 */
+	synchronized void save() {
+		if(file==null || !isModified) {
+			return;
+		}
+
+		JsonArrayBuilder eventArray = Json.createArrayBuilder();
+		for(Map.Entry<String,StoredEvent> entry:events.entrySet()) {
+			eventArray.add(Json.createObjectBuilder()
+					.add("id", entry.getKey())
+					.add("summary", entry.getValue().summary)
+					.add("start", entry.getValue().start.toString())
+					.add("end", entry.getValue().end.toString()));
+		}
+		JsonObject json = Json.createObjectBuilder()
+				.add("syncToken", syncToken==null ? JsonValue.NULL : Json.createValue(syncToken))
+				.add("events", eventArray)
+				.build();
+
+		File tmpFile = new File(file.getPath()+".tmp");
+		try(Writer writer = new FileWriter(tmpFile) ; JsonWriter jsonWriter = Json.createWriter(writer)) {
+			jsonWriter.writeObject(json);
+		}
+		catch(IOException | JsonException e) {
+			log.severe("Unable to save calendar events to "+tmpFile+": "+e.getMessage());
+			return;
+		}
+
+		try {
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			isModified = false;
+		}
+		catch(IOException e) {
+			log.severe("Unable to replace calendar event file "+file+": "+e.getMessage());
+		}
+	}
+
+	/**
+	 * marks the events as changed. Must be called with the lock held
+	 */
+	private void modified() {
+		version++;
+		isModified = true;
+	}
+
+	//
+	// nested class for stored events
+	//
+	private static class StoredEvent {
+		StoredEvent(String summary,LocalDate start,LocalDate end) {
+			this.summary = summary==null ? "" : summary;
+			this.start   = start;
+			this.end     = end;
+		}
+
+		final String    summary;     // event summary
+		final LocalDate start;       // first day
+		final LocalDate end;         // last day (inclusive)
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( CalendarEventStore.class.getName() );
+
+	private final File                     file;                       // file to persist the store or null
+	private final Map<String,StoredEvent>  events    = new HashMap<>();  // events by ID
+	private       String                   syncToken = null;           // sync token of the last synchronization
+	private       long                     version   = 0;              // incremented on each change of the events
+	private       boolean                  isModified = false;         // changed since loaded or saved
+}
@@ -2,6 +2,14 @@ package picturepi;
 
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -9,13 +17,18 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 import org.ini4j.Ini;
 
 /**
  * Singleton class storing configuration info.
- * This includes settings defined in the .ini file but also other configuration items
+ * This includes settings defined in the .ini file but also other configuration items.
+ * The .ini file is kept as immutable snapshot which is replaced atomically when the file changes.
  */
 class Configuration {
 
@@ -39,23 +52,147 @@ class Configuration {
 	 * @return true in case file could be read successfully, otherwise false 
 	 */
 	boolean readConfigurationFile(final String filename) {
-		try {
-			log.config("reading configuration file "+filename);
-			iniFile.load(new FileReader(filename));
-		} catch (IOException e) {
-			log.severe("Unable to load configuration file "+filename);
-			log.severe(e.getMessage());
-			
+		log.config("reading configuration file "+filename);
+		ConfigurationSnapshot newSnapshot = loadSnapshot(filename);
+		if(newSnapshot==null) {
 			return false;
 		}
 		
+		configurationFile = filename;
+		snapshot.set(newSnapshot);
+		
 		log.config("configuration file was read successfully");
 		log.config(("running on Raspberry: "+isRunningOnRaspberry()));
 		
 		return true;
 	}
-
 	
+	/**
+	 * reads the .ini configuration file into a new snapshot
+	 * @param  filename filename
+	 * @return new snapshot or null in case of error
+	 */
+	private ConfigurationSnapshot loadSnapshot(final String filename) {
+		try(FileReader reader = new FileReader(filename)) {
+			Ini ini = new Ini();
+			ini.load(reader);
+			
+			return new ConfigurationSnapshot(ini);
+		} catch (IOException e) {
+			log.severe("Unable to load configuration file "+filename);
+			log.severe(e.getMessage());
+			
+			return null;
+		}
+	}
+	
+	/**
+	 * @return the current configuration snapshot. The returned object never changes, even if the file is reloaded
+	 */
+	ConfigurationSnapshot getSnapshot() {
+		return snapshot.get();
+	}
+	
+	/**
+	 * registers a listener that gets called after the configuration file was reloaded and a section changed
+	 * @param section  section to watch or null to get called on any change
+	 * @param listener listener, gets the new snapshot
+	 */
+	void addChangeListener(String section,Consumer<ConfigurationSnapshot> listener) {
+		changeListeners.add(new ChangeListener(section, listener));
+	}
+	
+	/**
+	 * starts a thread watching the configuration file for changes. Changes get applied without restart
+	 */
+	synchronized void startWatching() {
+		if(configurationFile==null || watchThread!=null) {
+			return;
+		}
+		
+		Path file      = Paths.get(configurationFile).toAbsolutePath();
+		Path directory = file.getParent();
+		try {
+			WatchService watchService = FileSystems.getDefault().newWatchService();
+			directory.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+			
+			watchThread = new Thread(() -> watchConfigurationFile(watchService,file), "ConfigurationWatcher");
+			watchThread.setDaemon(true);
+			watchThread.start();
+			log.config("watching configuration file "+file+" for changes");
+		} catch (IOException e) {
+			log.severe("Unable to watch configuration file "+file+": "+e.getMessage());
+		}
+	}
+	
+	/**
+	 * waits for changes of the configuration file and reloads it. Runs in the watch thread
+	 * @param watchService watch service for the directory of the file
+	 * @param file         configuration file
+	 */
+	private void watchConfigurationFile(WatchService watchService,Path file) {
+		try {
+			while(true) {
+				WatchKey key = watchService.take();
+				boolean  changed = false;
+				for(WatchEvent<?> event:key.pollEvents()) {
+					if(event.context() instanceof Path && file.getFileName().equals(event.context())) {
+						changed = true;
+					}
+				}
+				key.reset();
+				
+				if(changed) {
+					// editors often write a file in several steps. Wait until it is complete and ignore the other events
+					Thread.sleep(RELOAD_DELAY);
+					WatchKey pending = watchService.poll();
+					if(pending!=null) {
+						pending.pollEvents();
+						pending.reset();
+					}
+					reloadConfigurationFile();
+				}
+			}
+		}
+		catch(InterruptedException | ClosedWatchServiceException e) {
+			log.fine("configuration watch thread stopped");
+		}
+	}
+	
+	/**
+	 * reads the configuration file again, replaces the snapshot and informs the listeners of changed sections
+	 */
+	void reloadConfigurationFile() {
+		ConfigurationSnapshot newSnapshot = loadSnapshot(configurationFile);
+		if(newSnapshot==null) {
+			log.severe("keeping previous configuration");
+			return;
+		}
+		
+		ConfigurationSnapshot oldSnapshot = snapshot.getAndSet(newSnapshot);
+		Set<String> changedSections = oldSnapshot.getChangedSections(newSnapshot);
+		if(changedSections.isEmpty()) {
+			log.fine("configuration file reloaded, no changes");
+			return;
+		}
+		log.info("configuration file reloaded, changed sections: "+changedSections);
+		
+		if(changedSections.contains("views") || changedSections.contains("buttons")) {
+			log.warning("changes of views or buttons get active after restart only");
+		}
+		
+		for(ChangeListener changeListener:changeListeners) {
+			if(changeListener.section==null || changedSections.contains(changeListener.section)) {
+				try {
+					changeListener.listener.accept(newSnapshot);
+				}
+				catch(RuntimeException e) {
+					log.severe("Exception in configuration change listener: "+e.getMessage());
+				}
+			}
+		}
+	}
+
 	/**
 	 * @return if we are running on Raspberry or not
 	 */
@@ -78,10 +215,10 @@ class Configuration {
 	 * @return                 value read from ini file or default if not found
 	 */
 	boolean getValue(String section,String key,boolean defaultValue) {
-		Ini.Section iniSection= iniFile.get(section);
+		ConfigurationSnapshot currentSnapshot = snapshot.get();
 		
-		if(iniSection!=null) {
-			return iniSection.get(key,Boolean.class,defaultValue);
+		if(currentSnapshot.hasSection(section)) {
+			return currentSnapshot.getBoolean(section,key,defaultValue);
 		}
 		else {
 			log.warning("Section "+section+" not found");
@@ -97,10 +234,10 @@ class Configuration {
 	 * @return                 value read from ini file or default if not found
 	 */
 	int getValue(String section,String key,int defaultValue) {
-		Ini.Section iniSection= iniFile.get(section);
+		ConfigurationSnapshot currentSnapshot = snapshot.get();
 		
-		if(iniSection!=null) {
-			return iniSection.get(key,Integer.class,defaultValue);
+		if(currentSnapshot.hasSection(section)) {
+			return currentSnapshot.getInt(section,key,defaultValue);
 		}
 		else {
 			log.warning("Section "+section+" not found");
@@ -116,10 +253,10 @@ class Configuration {
 	 * @return                 value read from ini file or default if not found
 	 */
 	double getValue(String section,String key,double defaultValue) {
-		Ini.Section iniSection= iniFile.get(section);
+		ConfigurationSnapshot currentSnapshot = snapshot.get();
 		
-		if(iniSection!=null) {
-			return iniSection.get(key,Double.class,defaultValue);
+		if(currentSnapshot.hasSection(section)) {
+			return currentSnapshot.getDouble(section,key,defaultValue);
 		}
 		else {
 			log.warning("Section "+section+" not found");
@@ -135,10 +272,10 @@ class Configuration {
 	 * @return                 value read from ini file or default if not found
 	 */
 	String getValue(String section,String key,String defaultValue) {
-		Ini.Section iniSection= iniFile.get(section);
+		ConfigurationSnapshot currentSnapshot = snapshot.get();
 		
-		if(iniSection!=null) {
-			return iniSection.get(key,String.class,defaultValue);
+		if(currentSnapshot.hasSection(section)) {
+			return currentSnapshot.getString(section,key,defaultValue);
 		}
 		else {
 			log.warning("Section "+section+" not found");
@@ -265,7 +402,11 @@ class Configuration {
 		viewDataList = new LinkedList<ViewData>();
 		
 		// syntax: <Viewname> = <display duration [s]>,<display start in hh:mm>-<display end in hh:mm>
-		Ini.Section views= iniFile.get("views");
+		Map<String,String> views= snapshot.get().getSection("views");
+		if(views==null) {
+			log.warning("no views configured");
+			return;
+		}
 		for(Map.Entry<String,String> entry: views.entrySet() ) {
 			log.config("found view: "+entry.getKey()+"="+entry.getValue());
 			
@@ -296,7 +437,7 @@ class Configuration {
 		
 		buttonViewList = new LinkedList<ButtonClickViewData>();
 		
-		Ini.Section buttons= iniFile.get("buttons");
+		Map<String,String> buttons= snapshot.get().getSection("buttons");
 		if(buttons!=null) {
 			for(Map.Entry<String,String> entry: buttons.entrySet() ) {
 				String key = entry.getKey();
@@ -367,6 +508,16 @@ class Configuration {
 			return isScheduled() || showOutOfSchedule();
 		}
 		
+		/**
+		 * @param  time    time to check
+		 * @param  seconds look ahead time in seconds
+		 * @return true if the display period starts after the given time, but at most the given number of seconds later
+		 */
+		public boolean startsWithin(LocalTime time,int seconds) {
+			int untilStart = Math.floorMod(displayStart.toSecondOfDay()-time.toSecondOfDay(), 24*3600);
+			return untilStart>0 && untilStart<=seconds;
+		}
+		
 		ViewData() {};
 	}
 	
@@ -382,6 +533,19 @@ class Configuration {
 		public Panel    panel;          // Panel object
 	}
 	
+	//
+	// nested class for configuration change listeners
+	//
+	private static class ChangeListener {
+		ChangeListener(String section,Consumer<ConfigurationSnapshot> listener) {
+			this.section  = section;
+			this.listener = listener;
+		}
+		
+		final String                          section;    // section to watch, null for all
+		final Consumer<ConfigurationSnapshot> listener;   // listener to call
+	}
+	
 	//
 	// member variables
 	//
@@ -392,7 +556,12 @@ class Configuration {
 	
 	private static final Logger        log           = Logger.getLogger( Configuration.class.getName() );
 
-	private final    Ini            iniFile            = new Ini();               // ini4j object
+	private static final long      RELOAD_DELAY  = 500;      // ms to wait after a file change before reloading
+	
+	private final    AtomicReference<ConfigurationSnapshot> snapshot = new AtomicReference<>(ConfigurationSnapshot.EMPTY); // current .ini file content
+	private final    List<ChangeListener> changeListeners = new CopyOnWriteArrayList<>(); // listeners for configuration changes
+	private          String         configurationFile  = null;                    // name of the configuration file
+	private          Thread         watchThread        = null;                    // thread watching the configuration file
 	private          List<ViewData> viewDataList       = null;                    // stores view scheduling data
 	private          List<ButtonClickViewData> buttonViewList = null;             // stores data to map button clicks to views
 }
@@ -0,0 +1,199 @@
+package picturepi;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import org.ini4j.Ini;
+
+/**
+ * Immutable snapshot of the .ini configuration file.
+ * The file is converted once into plain maps, typed values are parsed on first access and cached,
+ * so repeated lookups neither walk the ini4j structures nor convert the value again.
+ * A new snapshot is created each time the file is read.
+ */
+class ConfigurationSnapshot {
+
+	/**
+	 * constructor
+	 * @param ini ini file content
+	 */
+	ConfigurationSnapshot(Ini ini) {
+		Map<String,Section> map = new HashMap<>();
+		for(Ini.Section iniSection:ini.values()) {
+			Map<String,String> values = new LinkedHashMap<>();
+			for(String key:iniSection.keySet()) {
+				values.put(key, iniSection.get(key));
+			}
+			map.put(iniSection.getName(), new Section(values));
+		}
+		sections = Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * constructor for an empty snapshot
+	 */
+	private ConfigurationSnapshot() {
+		sections = Collections.emptyMap();
+	}
+
+	/**
+	 * @param  section section name
+	 * @return true if the section exists
+	 */
+	boolean hasSection(String section) {
+		return sections.containsKey(section);
+	}
+
+	/**
+	 * returns all key/value pairs of a section in file order
+	 * @param  section section name
+	 * @return unmodifiable map of the section values or null if the section does not exist
+	 */
+	Map<String,String> getSection(String section) {
+		Section s = sections.get(section);
+		return s==null ? null : s.values;
+	}
+
+	/**
+	 * @param  section      section name
+	 * @param  key          key name
+	 * @param  defaultValue default value if the key does not exist
+	 * @return string value
+	 */
+	String getString(String section,String key,String defaultValue) {
+		Section s = sections.get(section);
+		if(s==null) {
+			return defaultValue;
+		}
+		String value = s.values.get(key);
+		return value==null ? defaultValue : value;
+	}
+
+	/**
+	 * @param  section      section name
+	 * @param  key          key name
+	 * @param  defaultValue default value if the key does not exist or is not a number
+	 * @return integer value
+	 */
+	int getInt(String section,String key,int defaultValue) {
+		Object value = getParsed(section, key, Integer::valueOf, INT);
+		return value instanceof Integer ? (Integer)value : defaultValue;
+	}
+
+	/**
+	 * @param  section      section name
+	 * @param  key          key name
+	 * @param  defaultValue default value if the key does not exist or is not a number
+	 * @return double value
+	 */
+	double getDouble(String section,String key,double defaultValue) {
+		Object value = getParsed(section, key, Double::valueOf, DOUBLE);
+		return value instanceof Double ? (Double)value : defaultValue;
+	}
+
+	/**
+	 * @param  section      section name
+	 * @param  key          key name
+	 * @param  defaultValue default value if the key does not exist
+	 * @return boolean value
+	 */
+	boolean getBoolean(String section,String key,boolean defaultValue) {
+		Object value = getParsed(section, key, Boolean::valueOf, BOOLEAN);
+		return value instanceof Boolean ? (Boolean)value : defaultValue;
+	}
+
+	/**
+	 * returns the names of all sections that differ between this and another snapshot
+	 * @param  other snapshot to compare with
+	 * @return names of added, removed or modified sections
+	 */
+	Set<String> getChangedSections(ConfigurationSnapshot other) {
+		Set<String> changed = new HashSet<>();
+		Set<String> names   = new HashSet<>(sections.keySet());
+		names.addAll(other.sections.keySet());
+
+		for(String name:names) {
+			Section a = sections.get(name);
+			Section b = other.sections.get(name);
+			if(a==null || b==null || !a.values.equals(b.values)) {
+				changed.add(name);
+			}
+		}
+
+		return changed;
+	}
+
+	/**
+	 * returns a parsed value, parsing it on first access
+	 * @param  section section name
+	 * @param  key     key name
+	 * @param  parser  function converting the string value
+	 * @param  type    index of the cache for the value type
+	 * @return parsed value, INVALID if the value can't be parsed or null if the key does not exist
+	 */
+	private Object getParsed(String section,String key,Function<String,Object> parser,int type) {
+		Section s = sections.get(section);
+		if(s==null) {
+			return null;
+		}
+		String value = s.values.get(key);
+		if(value==null) {
+			return null;
+		}
+
+		Map<String,Object> cache  = s.parsed[type];
+		Object             parsed = cache.get(key);
+		if(parsed==null) {
+			try {
+				parsed = parser.apply(value.trim());
+			}
+			catch(NumberFormatException e) {
+				log.severe("Invalid value for key "+key+" in section "+section+": "+value);
+				parsed = INVALID;
+			}
+			cache.put(key, parsed);
+		}
+
+		return parsed;
+	}
+
+	//
+	// nested class for a section
+	//
+	private static class Section {
+		@SuppressWarnings("unchecked")
+		Section(Map<String,String> values) {
+			this.values = Collections.unmodifiableMap(values);
+			this.parsed = new Map[TYPE_COUNT];
+			for(int i=0 ; i<TYPE_COUNT ; i++) {
+				parsed[i] = new ConcurrentHashMap<>();
+			}
+		}
+
+		final Map<String,String>   values;     // raw string values
+		final Map<String,Object>[] parsed;     // values converted on first access, one cache per value type
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( ConfigurationSnapshot.class.getName() );
+
+	private static final Object INVALID = new Object();                   // marker for values that can't be parsed
+
+	private static final int INT        = 0;                               // cache index for integer values
+	private static final int DOUBLE     = 1;                               // cache index for double values
+	private static final int BOOLEAN    = 2;                               // cache index for boolean values
+	private static final int TYPE_COUNT = 3;                               // number of value types
+
+	static final ConfigurationSnapshot EMPTY = new ConfigurationSnapshot(); // snapshot used before the file is read
+
+	private final Map<String,Section> sections;                            // all sections by name
+}
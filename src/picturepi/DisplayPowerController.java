@@ -0,0 +1,205 @@
+package picturepi;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Switches the display power on a dedicated thread.
+ * Callers only post the requested state and return immediately. Switching on is done right away,
+ * switching off is delayed so rapid on/off toggles (e.g. from motion detection) don't switch the display at all.
+ * All other display I/O can be run on the same thread with execute(), so it never overlaps with a power transition.
+ * The power thread also owns the DisplayPowerState: it changes to on before the display is switched on, so data gets
+ * refreshed while the display powers up, and to off only after the display was actually switched off.
+ */
+class DisplayPowerController {
+
+	/**
+	 * interface for the hardware specific switching of the display
+	 */
+	interface PowerSwitch {
+		/**
+		 * switches the display power. Called on the display power thread only
+		 * @param on true to switch on, false to switch off
+		 * @throws IOException if the display could not be switched
+		 */
+		void setPower(boolean on) throws IOException;
+	}
+
+	/**
+	 * constructor
+	 * @param powerSwitch  hardware specific switching of the display
+	 * @param offDelay     delay in ms before a request to switch off is executed
+	 * @param initialState current power state of the display
+	 * @param powerState   display power state to keep in sync with the display
+	 */
+	DisplayPowerController(PowerSwitch powerSwitch,long offDelay,boolean initialState,DisplayPowerState powerState) {
+		this.powerSwitch = powerSwitch;
+		this.offDelay    = offDelay;
+		this.powerState  = powerState;
+		requestedState   = initialState;
+		actualState      = initialState;
+		powerState.setOn(initialState);
+
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "DisplayPower");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * requests a display power state. Returns immediately, the display is switched in the background
+	 * @param  on true to switch on, false to switch off
+	 * @return true if the requested state changed
+	 */
+	boolean request(boolean on) {
+		long requestGeneration;
+		synchronized(this) {
+			if(on==requestedState) {
+				return false;
+			}
+			requestedState = on;
+			requestTime    = System.nanoTime();
+			requestGeneration = ++generation;
+		}
+		log.fine(() -> "display power requested: "+on);
+
+		try {
+			if(on) {
+				executor.execute(() -> apply(requestGeneration));
+			}
+			else {
+				executor.schedule(() -> apply(requestGeneration), offDelay, TimeUnit.MILLISECONDS);
+			}
+		}
+		catch(RejectedExecutionException e) {
+			log.warning("display power controller is shut down, ignoring request");
+		}
+		return true;
+	}
+
+	/**
+	 * runs a task on the display power thread, after all pending power transitions
+	 * @param task task to run
+	 */
+	void execute(Runnable task) {
+		try {
+			executor.execute(task);
+		}
+		catch(RejectedExecutionException e) {
+			log.warning("display power controller is shut down, ignoring task");
+		}
+	}
+
+	/**
+	 * runs a task periodically on the display power thread
+	 * @param task   task to run
+	 * @param period period in ms
+	 */
+	void executePeriodically(Runnable task,long period) {
+		try {
+			executor.scheduleAtFixedRate(task, 0, period, TimeUnit.MILLISECONDS);
+		}
+		catch(RejectedExecutionException e) {
+			log.warning("display power controller is shut down, ignoring task");
+		}
+	}
+
+	/**
+	 * @return true if the display was requested to be on, it may still be switching
+	 */
+	synchronized boolean isRequestedOn() {
+		return requestedState;
+	}
+
+	/**
+	 * @return true if the display is currently switched on
+	 */
+	boolean isPoweredOn() {
+		return actualState;
+	}
+
+	/**
+	 * @return time in ms from the request to the completion of the last power transition, including the off delay
+	 */
+	long getLastTransitionLatency() {
+		return lastTransitionLatency;
+	}
+
+	/**
+	 * stops the display power thread. Pending requests are dropped
+	 */
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * executes a request if it is still the latest one
+	 * @param requestGeneration generation of the request
+	 */
+	private void apply(long requestGeneration) {
+		boolean on;
+		long    since;
+		synchronized(this) {
+			if(requestGeneration!=generation) {
+				// superseded by a later request
+				return;
+			}
+			on    = requestedState;
+			since = requestTime;
+		}
+
+		if(on==actualState) {
+			log.finest(() -> "display power already "+on);
+			return;
+		}
+
+		long start = System.nanoTime();
+		if(on) {
+			// providers and panels resume while the display powers up
+			powerState.setOn(true);
+		}
+		try {
+			powerSwitch.setPower(on);
+			actualState = on;
+		}
+		catch(IOException e) {
+			log.severe("Unable to switch display power to "+on+": "+e.getMessage());
+			powerState.setOn(actualState);
+			synchronized(this) {
+				if(requestGeneration==generation) {
+					// nothing newer was requested: allow the same request to be retried
+					requestedState = actualState;
+				}
+			}
+			return;
+		}
+		if(!on) {
+			// the display is dark now: pause rendering and updates
+			powerState.setOn(false);
+		}
+
+		long now = System.nanoTime();
+		lastTransitionLatency = (now-since)/1000000;
+		log.info("display switched "+(on ? "on" : "off")+" after "+lastTransitionLatency+" ms (switching took "+(now-start)/1000000+" ms)");
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( DisplayPowerController.class.getName() );
+
+	private final PowerSwitch              powerSwitch;                  // hardware specific switching
+	private final DisplayPowerState        powerState;                   // state observed by providers and panels
+	private final long                     offDelay;                     // delay in ms before switching off
+	private final ScheduledExecutorService executor;                     // display power thread
+	private          boolean               requestedState;               // last requested state
+	private          long                  requestTime           = 0;    // System.nanoTime() of the last request
+	private          long                  generation            = 0;    // incremented with each request
+	private volatile boolean               actualState;                  // current state of the display
+	private volatile long                  lastTransitionLatency = -1;   // ms from request to completion of the last transition
+}
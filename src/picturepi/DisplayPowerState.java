@@ -0,0 +1,68 @@
+package picturepi;
+
+import java.util.logging.Logger;
+
+/**
+ * Global power state of the display, observed by providers and panels to pause work while nobody can see the screen.
+ * The state is owned by the DisplayPowerController switching the display, see there.
+ * Without a controller, e.g. in tests, the state is on.
+ */
+class DisplayPowerState {
+
+	/**
+	 * @return the global display power state
+	 */
+	static DisplayPowerState getDisplayPowerState() {
+		return displayPowerState;
+	}
+
+	/**
+	 * constructor, use getDisplayPowerState() except for tests
+	 */
+	DisplayPowerState() {
+	}
+
+	/**
+	 * @return true if the display is on
+	 */
+	boolean isOn() {
+		return isOn;
+	}
+
+	/**
+	 * sets the state and wakes up all threads waiting for the display to be on
+	 * @param on new state
+	 */
+	synchronized void setOn(boolean on) {
+		if(on==isOn) {
+			return;
+		}
+		isOn = on;
+		notifyAll();
+		log.fine(() -> "display power state changed to "+(on ? "on" : "off"));
+	}
+
+	/**
+	 * waits until the display is on
+	 * @param  timeout maximum time to wait in ms
+	 * @return true if the display is on
+	 * @throws InterruptedException if the thread was interrupted while waiting
+	 */
+	synchronized boolean awaitOn(long timeout) throws InterruptedException {
+		long end = System.currentTimeMillis()+timeout;
+		long remaining = timeout;
+		while(!isOn && remaining>0) {
+			wait(remaining);
+			remaining = end-System.currentTimeMillis();
+		}
+		return isOn;
+	}
+
+	//
+	// private members
+	//
+	private static final Logger            log               = Logger.getLogger( DisplayPowerState.class.getName() );
+	private static final DisplayPowerState displayPowerState = new DisplayPowerState();   // global state
+
+	private volatile boolean isOn = true;   // current state
+}
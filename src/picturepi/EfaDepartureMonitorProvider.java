@@ -205,7 +205,7 @@ public class EfaDepartureMonitorProvider extends Provider {
         }
         departureInformation.destination = ((Element)nodeList.item(0)).getAttributeNode("direction").getNodeValue();
         
-        log.fine("Found departure to "+departureInformation.destination+" with scheduled time "+departureInformation.scheduledTime+" and real time "+departureInformation.realTime);
+        log.fine(() -> "Found departure to "+departureInformation.destination+" with scheduled time "+departureInformation.scheduledTime+" and real time "+departureInformation.realTime);
         
 		return departureInformation;
 	}
@@ -0,0 +1,116 @@
+package picturepi;
+
+/**
+ * Frame clock for animations. Frames are started on a fixed period. If rendering a frame exceeds the frame budget,
+ * the missed frames are dropped instead of being rendered back to back, so a slow frame never causes a burst of frames.
+ * Collects frame time statistics. Not thread safe, to be used by the rendering thread only.
+ */
+class FramePacer {
+
+	/**
+	 * constructor
+	 * @param fps frames per second
+	 */
+	FramePacer(int fps) {
+		framePeriod = 1000000000L/Math.max(1, fps);
+	}
+
+	/**
+	 * starts a new animation at the current time and resets the statistics
+	 */
+	void start() {
+		startTime      = System.nanoTime();
+		nextFrameTime  = startTime;
+		frameStart     = 0;
+		frames         = 0;
+		droppedFrames  = 0;
+		totalFrameTime = 0;
+		maxFrameTime   = 0;
+	}
+
+	/**
+	 * waits for the start of the next frame. Must be called before rendering each frame
+	 * @return time in ns since start() at the start of the frame
+	 * @throws InterruptedException if the thread was interrupted while waiting
+	 */
+	long awaitFrame() throws InterruptedException {
+		finish();
+
+		long now = System.nanoTime();
+		if(now-nextFrameTime>framePeriod) {
+			// we are late by more than a frame: drop the missed frames
+			long missed = (now-nextFrameTime)/framePeriod;
+			droppedFrames += missed;
+			nextFrameTime += missed*framePeriod;
+		}
+
+		long delay = nextFrameTime-now;
+		if(delay>0) {
+			Thread.sleep(delay/1000000, (int)(delay%1000000));
+		}
+
+		frameStart     = System.nanoTime();
+		nextFrameTime += framePeriod;
+		return frameStart-startTime;
+	}
+
+	/**
+	 * marks the current frame as rendered. Called by awaitFrame() and needed only after the last frame
+	 */
+	void finish() {
+		if(frameStart!=0) {
+			long frameTime = System.nanoTime()-frameStart;
+			totalFrameTime += frameTime;
+			maxFrameTime    = Math.max(maxFrameTime, frameTime);
+			frames++;
+			frameStart = 0;
+		}
+	}
+
+	/**
+	 * @return frame period in ns, which is also the frame budget
+	 */
+	long getFramePeriod() {
+		return framePeriod;
+	}
+
+	/**
+	 * @return number of rendered frames since start()
+	 */
+	int getFrames() {
+		return frames;
+	}
+
+	/**
+	 * @return number of dropped frames since start()
+	 */
+	long getDroppedFrames() {
+		return droppedFrames;
+	}
+
+	/**
+	 * @return average time in ns to render a frame, 0 if no frame was rendered yet
+	 */
+	long getAverageFrameTime() {
+		return frames>0 ? totalFrameTime/frames : 0;
+	}
+
+	/**
+	 * @return maximum time in ns to render a frame
+	 */
+	long getMaxFrameTime() {
+		return maxFrameTime;
+	}
+
+	//
+	// private members
+	//
+	private final long framePeriod;          // frame period in ns
+	private long       startTime;            // System.nanoTime() of the animation start
+	private long       nextFrameTime;        // System.nanoTime() when the next frame is due
+	private long       frameStart;           // System.nanoTime() when the current frame was started, 0 if none
+	private int        frames;               // number of rendered frames
+	private long       droppedFrames;        // number of dropped frames
+	private long       totalFrameTime;       // sum of the frame times in ns
+	private long       maxFrameTime;         // maximum frame time in ns
+}
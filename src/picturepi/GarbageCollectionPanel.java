@@ -5,6 +5,7 @@ import javax.swing.BoxLayout;
 import javax.swing.ImageIcon;
 import javax.swing.JLabel;
 import java.awt.Color;
+import java.awt.Font;
 import java.util.EnumSet;
 import java.util.logging.Logger;
 
@@ -22,35 +23,42 @@ class GarbageCollectionPanel extends Panel {
 		setBackground(Color.BLACK);
 		setLayout(new BoxLayout(this, BoxLayout.X_AXIS));
 		
+		int fontSize = Configuration.getConfiguration().getValue(this.getClass().getSimpleName(), "fontSizeText", 40);
+		font = new Font(Font.SANS_SERIF, Font.BOLD, fontSize);
+		
 		// create empty trashBinColor
-		trashBinColors = EnumSet.noneOf(TrashBinColors.class);
+		trashBinColors         = EnumSet.noneOf(TrashBinColors.class);
+		trashBinColorsTomorrow = EnumSet.noneOf(TrashBinColors.class);
 		setColorBright();
 	}
 	
 	@Override
 	boolean hasData() {
-		return trashBinColors.size() > 0;
+		return trashBinColors.size() > 0 || trashBinColorsTomorrow.size() > 0;
 	}
 	
 	@Override
 	void setColorDark() {
 		iconPostfix = "_dark";
-		setTrashBinColors(trashBinColors.clone(),true);
+		textColor   = Color.LIGHT_GRAY.darker().darker();
+		setTrashBinColors(trashBinColors.clone(),trashBinColorsTomorrow.clone(),true);
 	}
 	
 	@Override
 	void setColorBright() {
 		iconPostfix = "_bright";
-		setTrashBinColors(trashBinColors.clone(),true);
+		textColor   = Color.LIGHT_GRAY;
+		setTrashBinColors(trashBinColors.clone(),trashBinColorsTomorrow.clone(),true);
 	}
 	
 	/**
 	 * sets the new trash bins to display
-	 * @param newTrashBinColors  types (colors) of trash bins to display
-	 * @param forceUpdate        if true, icons are updated also if colors are the same as before
+	 * @param newTrashBinColors          types (colors) of trash bins collected today
+	 * @param newTrashBinColorsTomorrow  types (colors) of trash bins collected tomorrow
+	 * @param forceUpdate                if true, icons are updated also if colors are the same as before
 	 */
-	void setTrashBinColors(EnumSet<TrashBinColors> newTrashBinColors,boolean forceUpdate) {
-		if(forceUpdate || trashBinColors.equals(newTrashBinColors) == false) {
+	void setTrashBinColors(EnumSet<TrashBinColors> newTrashBinColors,EnumSet<TrashBinColors> newTrashBinColorsTomorrow,boolean forceUpdate) {
+		if(forceUpdate || trashBinColors.equals(newTrashBinColors) == false || trashBinColorsTomorrow.equals(newTrashBinColorsTomorrow) == false) {
 			log.fine("Trash bins to display have changed or forceUpdate is true");
 			
 			// remove old components
@@ -58,30 +66,45 @@ class GarbageCollectionPanel extends Panel {
 			
 			// add new icons (if any)
 			trashBinColors.clear();
+			trashBinColorsTomorrow.clear();
 			
 			add(Box.createHorizontalGlue());
+			addTrashBinIcons(newTrashBinColors, trashBinColors);
 			
-			for(TrashBinColors trashBinColor:newTrashBinColors) {
-				// get corresponding icon
-				String iconName = trashBinColor.toString().toLowerCase();
-			    ImageIcon icon = null;
-			    try {
-				    java.net.URL imageURL = this.getClass().getResource("trashBinIcons/"+iconName+iconPostfix+".png");
-				    icon = new ImageIcon(imageURL);
-				    
-					trashBinColors.add(trashBinColor);
-					JLabel iconLabel = new JLabel();
-					iconLabel.setIcon(icon);
-					add(iconLabel);
-					add(Box.createHorizontalGlue());
-			    }
-			    catch(Exception e) {
-			    	log.severe("Unable to load trashbin icon: "+iconName);
-			    }
+			if(newTrashBinColorsTomorrow.size()>0) {
+				JLabel label = new JLabel("morgen:");
+				label.setFont(font);
+				label.setForeground(textColor);
+				add(label);
+				add(Box.createHorizontalGlue());
+				addTrashBinIcons(newTrashBinColorsTomorrow, trashBinColorsTomorrow);
 			}
 		}
 	}
 	
+	/**
+	 * adds the icons of trash bins
+	 * @param newTrashBinColors  types (colors) of trash bins to add
+	 * @param displayedColors    set to add the successfully displayed types to
+	 */
+	private void addTrashBinIcons(EnumSet<TrashBinColors> newTrashBinColors,EnumSet<TrashBinColors> displayedColors) {
+		for(TrashBinColors trashBinColor:newTrashBinColors) {
+			// get corresponding icon
+			String iconName = trashBinColor.toString().toLowerCase();
+		    ImageIcon icon = IconCache.get("trashBinIcons/"+iconName+iconPostfix+".png");
+		    if(icon!=null) {
+				displayedColors.add(trashBinColor);
+				JLabel iconLabel = new JLabel();
+				iconLabel.setIcon(icon);
+				add(iconLabel);
+				add(Box.createHorizontalGlue());
+		    }
+		    else {
+		    	log.severe("Unable to load trashbin icon: "+iconName);
+		    }
+		}
+	}
+	
 	
 	//
 	// private members
@@ -90,5 +113,8 @@ class GarbageCollectionPanel extends Panel {
 	private static final Logger   log              = Logger.getLogger( GarbageCollectionPanel.class.getName() );
 
 	private EnumSet<TrashBinColors> trashBinColors;           // currently displayed trashBinColors
+	private EnumSet<TrashBinColors> trashBinColorsTomorrow;   // currently displayed trashBinColors of tomorrow
+	private Font                    font;                     // font of the text
+	private Color                   textColor   = Color.LIGHT_GRAY; // color of the text
 	private String                  iconPostfix = "_bright";  // postfix added to icon filenames (_dark/_bright)
 }
@@ -1,11 +1,8 @@
 package picturepi;
 
-import java.util.EnumSet;
-import java.util.List;
+import java.time.LocalDate;
 import java.util.logging.Logger;
 
-import picturepi.GarbageCollectionPanel.TrashBinColors;
-
 public class GarbageCollectionProvider extends Provider {
 
 	GarbageCollectionProvider() {
@@ -13,17 +10,22 @@ public class GarbageCollectionProvider extends Provider {
 		super(3600);
 		
 		log.fine("GarbageCollectionProvider created");
-		
-		// create GoogleCalendar object and connect
-		googleCalendar = new GoogleCalendar();
-		if( googleCalendar.connect() == false) {
-			// connect failed
-			log.severe("Connection to Google Calendar failed");
-			googleCalendar = null;
-		}
+	}
+	
+	@Override
+	protected void init() {
+		// shared GoogleCalendar object, entries are read from its local event store.
+		// Connecting blocks, so it is done during init and not in the constructor
+		googleCalendar = GoogleCalendar.getGoogleCalendar();
 	}
 
 
+	@Override
+	protected boolean isPausedWhileDark() {
+		// the schedule is read from the local event store, and decides if the view is shown at all
+		return false;
+	}
+
 	@Override
 	protected void fetchData() {
 		GarbageCollectionPanel p = (GarbageCollectionPanel)panel;
@@ -35,29 +37,19 @@ public class GarbageCollectionProvider extends Provider {
 				
 				return;
 			}
-			EnumSet<TrashBinColors> newTrashBinColors = EnumSet.noneOf(TrashBinColors.class);
-			List<String> entries = googleCalendar.getCalendarEntriesForToday(calendarName);
 			
-			for(String entry:entries) {
-				log.fine("found entry: "+entry);
-				if(entry.toLowerCase().contains("rest")) {
-					log.fine("adding black trashbin to display");
-					newTrashBinColors.add(TrashBinColors.BLACK);
-				}
-				if(entry.toLowerCase().contains("bio")) {
-					log.fine("adding brown trashbin to display");
-					newTrashBinColors.add(TrashBinColors.BROWN);
-				}
-				if(entry.toLowerCase().contains("gelb")) {
-					log.fine("adding yellow trashbin to display");
-					newTrashBinColors.add(TrashBinColors.YELLOW);
-				}
-				if(entry.toLowerCase().contains("papier")) {
-					log.fine("adding blue trashbin to display");
-					newTrashBinColors.add(TrashBinColors.BLUE);
-				}
+			// build the schedule again only if the calendar changed or tomorrow is not covered anymore
+			CalendarEventStore store    = googleCalendar.getEventStore(calendarName);
+			LocalDate          today    = LocalDate.now();
+			LocalDate          tomorrow = today.plusDays(1);
+			long               version  = store.getVersion();
+			if(schedule==null || version!=scheduleVersion || !schedule.covers(tomorrow)) {
+				log.fine("building garbage collection schedule");
+				schedule        = GarbageCollectionSchedule.build(store, today, LOOK_AHEAD_DAYS);
+				scheduleVersion = version;
 			}
-			p.setTrashBinColors(newTrashBinColors,false);
+			
+			p.setTrashBinColors(schedule.get(today),schedule.get(tomorrow),false);
 		}
 	}
 
@@ -65,6 +57,10 @@ public class GarbageCollectionProvider extends Provider {
 	// private members
 	//
 	private static final Logger   log     = Logger.getLogger( GarbageCollectionProvider.class.getName() );
+	
+	private static final int LOOK_AHEAD_DAYS = 14;             // number of days in the schedule
 
-	private GoogleCalendar googleCalendar = null;
+	private GoogleCalendar            googleCalendar  = null;
+	private GarbageCollectionSchedule schedule        = null;  // trash bins collected per day
+	private long                      scheduleVersion = -1;    // version of the event store the schedule was built from
 }
@@ -0,0 +1,105 @@
+package picturepi;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.TreeMap;
+
+import picturepi.GarbageCollectionPanel.TrashBinColors;
+
+/**
+ * Look-ahead schedule of the trash bins collected per day.
+ * The schedule is built once from the events of a calendar, so a lookup is a single map access
+ * instead of scanning the calendar entries again.
+ */
+class GarbageCollectionSchedule {
+
+	/**
+	 * builds the schedule from the events of a calendar
+	 * @param  store event store of the garbage collection calendar
+	 * @param  from  first day of the schedule
+	 * @param  days  number of days in the schedule
+	 * @return new schedule
+	 */
+	static GarbageCollectionSchedule build(CalendarEventStore store,LocalDate from,int days) {
+		GarbageCollectionSchedule schedule = new GarbageCollectionSchedule(from, from.plusDays(days-1));
+
+		store.forEachEvent((summary,start,end) -> {
+			if(end.isBefore(schedule.firstDay) || start.isAfter(schedule.lastDay)) {
+				return;
+			}
+
+			EnumSet<TrashBinColors> colors = parse(summary);
+			if(colors.isEmpty()) {
+				return;
+			}
+
+			LocalDate day  = start.isBefore(schedule.firstDay) ? schedule.firstDay : start;
+			LocalDate last = end.isAfter(schedule.lastDay) ? schedule.lastDay : end;
+			for( ; !day.isAfter(last) ; day=day.plusDays(1)) {
+				schedule.days.computeIfAbsent(day, d -> EnumSet.noneOf(TrashBinColors.class)).addAll(colors);
+			}
+		});
+
+		return schedule;
+	}
+
+	/**
+	 * returns the trash bins mentioned in a calendar entry
+	 * @param  summary calendar entry
+	 * @return trash bin colors
+	 */
+	static EnumSet<TrashBinColors> parse(String summary) {
+		EnumSet<TrashBinColors> colors = EnumSet.noneOf(TrashBinColors.class);
+		String entry = summary.toLowerCase(Locale.GERMAN);
+
+		if(entry.contains("rest")) {
+			colors.add(TrashBinColors.BLACK);
+		}
+		if(entry.contains("bio")) {
+			colors.add(TrashBinColors.BROWN);
+		}
+		if(entry.contains("gelb")) {
+			colors.add(TrashBinColors.YELLOW);
+		}
+		if(entry.contains("papier")) {
+			colors.add(TrashBinColors.BLUE);
+		}
+
+		return colors;
+	}
+
+	/**
+	 * @param  date day
+	 * @return trash bins collected on this day. The returned set may be modified by the caller
+	 */
+	EnumSet<TrashBinColors> get(LocalDate date) {
+		EnumSet<TrashBinColors> colors = days.get(date);
+		return colors==null ? EnumSet.noneOf(TrashBinColors.class) : colors.clone();
+	}
+
+	/**
+	 * @param  date day
+	 * @return true if the day is part of the schedule
+	 */
+	boolean covers(LocalDate date) {
+		return !date.isBefore(firstDay) && !date.isAfter(lastDay);
+	}
+
+	/**
+	 * private constructor, use build
+	 * @param firstDay first day of the schedule
+	 * @param lastDay  last day of the schedule
+	 */
+	private GarbageCollectionSchedule(LocalDate firstDay,LocalDate lastDay) {
+		this.firstDay = firstDay;
+		this.lastDay  = lastDay;
+	}
+
+	//
+	// private members
+	//
+	private final LocalDate                                  firstDay;                 // first day of the schedule
+	private final LocalDate                                  lastDay;                  // last day of the schedule
+	private final TreeMap<LocalDate,EnumSet<TrashBinColors>> days = new TreeMap<>();   // trash bins collected per day
+}
@@ -1,13 +1,21 @@
 package picturepi;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Collections;
-import java.util.Date;
-import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 import com.google.api.client.auth.oauth2.Credential;
@@ -16,19 +24,22 @@ import com.google.api.client.extensions.jetty.auth.oauth2.LocalServerReceiver;
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
 import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
-import com.google.api.client.util.DateTime;
 import com.google.api.client.util.store.FileDataStoreFactory;
 import com.google.api.services.calendar.Calendar;
 import com.google.api.services.calendar.CalendarScopes;
 import com.google.api.services.calendar.model.CalendarList;
 import com.google.api.services.calendar.model.CalendarListEntry;
 import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.EventDateTime;
 import com.google.api.services.calendar.model.Events;
 
 /**
- * This class implements access to a Google Calendar
+ * This class implements access to a Google Calendar.
+ * Events are kept in a local store per calendar which is synchronized incrementally thru sync tokens,
+ * so queries are answered locally. Use getGoogleCalendar to get the shared object
  */
 public class GoogleCalendar {
 
@@ -50,6 +61,12 @@ public class GoogleCalendar {
 
 	private static final List<String> SCOPES = Collections.singletonList(CalendarScopes.CALENDAR_READONLY);
 
+	/**
+	 * private constructor, use getGoogleCalendar
+	 */
+	private GoogleCalendar() {
+	}
+
 	/**
 	 * connects to Google Calendar
 	 * 
@@ -133,94 +150,254 @@ public class GoogleCalendar {
 		return true;
 	}
 
+	/**
+	 * returns the shared Google Calendar object, connecting it on first use.
+	 * The Google API client is loaded only when this method is called the first time
+	 * @return shared Google Calendar object
+	 */
+	static synchronized GoogleCalendar getGoogleCalendar() {
+		if(theObject==null) {
+			theObject = new GoogleCalendar();
+			if(theObject.connect()==false) {
+				log.severe("Connection to Google Calendar failed, retrying with next synchronization");
+			}
+		}
+		
+		return theObject;
+	}
+
 	/**
 	 * Returns a list with calendar entries for today
 	 * 
 	 * @return list with calendar entries for today
 	 */
 	List<String> getCalendarEntriesForToday(String calendarName) {
-		Mode mode = Mode.TODAY;
-		LinkedList<String> entries = new LinkedList<String>();
-
-		log.fine("Getting calender enries for " + mode.toString());
-
-		if (calendar == null) {
-			log.warning("getCalendarEntries called, but Calendar is not connected yet");
-			return entries;
+		return getCalendarEntries(calendarName, Mode.TODAY);
+	}
+	
+	/**
+	 * Returns a list with calendar entries for today or tomorrow. The entries are read from the local
+	 * event store of the calendar, which is synchronized periodically in the background
+	 * 
+	 * @param  calendarName summary of the calendar
+	 * @param  mode         day to return the entries for
+	 * @return list with calendar entries
+	 */
+	List<String> getCalendarEntries(String calendarName,Mode mode) {
+		log.fine(() -> "Getting calender enries for " + mode.toString());
+		
+		LocalDate date = mode==Mode.TOMORROW ? LocalDate.now().plusDays(1) : LocalDate.now();
+		return getEventStore(calendarName).getEntries(date);
+	}
+	
+	/**
+	 * returns the local event store of a calendar. The store is created and synchronized on first use
+	 * @param  calendarName summary of the calendar
+	 * @return event store of the calendar
+	 */
+	CalendarEventStore getEventStore(String calendarName) {
+		CalendarEventStore store = eventStores.get(calendarName);
+		if(store!=null) {
+			return store;
 		}
-
+		
+		synchronized(this) {
+			store = eventStores.get(calendarName);
+			if(store==null) {
+				String dataDirectory = Configuration.getConfiguration().getValue("global", "dataDirectory", null);
+				File   file          = dataDirectory==null ? null : new File(dataDirectory, "calendar-"+calendarName.replaceAll("[^A-Za-z0-9_-]", "_")+".json");
+				
+				store = CalendarEventStore.load(file);
+				synchronize(calendarName, store);
+				eventStores.put(calendarName, store);
+				
+				startSynchronization();
+			}
+		}
+		
+		return store;
+	}
+	
+	/**
+	 * starts the periodic synchronization of all event stores
+	 */
+	private synchronized void startSynchronization() {
+		if(syncExecutor!=null) {
+			return;
+		}
+		
+		int syncInterval = Configuration.getConfiguration().getValue("global", "calendarSyncInterval", 900);
+		log.config("Google Calendar synchronization interval [s]="+syncInterval);
+		
+		syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "GoogleCalendarSync");
+			thread.setDaemon(true);
+			return thread;
+		});
+		syncExecutor.scheduleWithFixedDelay(() -> {
+			for(Map.Entry<String,CalendarEventStore> entry:eventStores.entrySet()) {
+				synchronize(entry.getKey(), entry.getValue());
+			}
+		}, syncInterval, syncInterval, TimeUnit.SECONDS);
+	}
+	
+	/**
+	 * synchronizes the local event store of a calendar with Google Calendar. If the store has a sync token,
+	 * only the changes since the last synchronization are fetched
+	 * @param calendarName summary of the calendar
+	 * @param store        event store of the calendar
+	 */
+	synchronized void synchronize(String calendarName,CalendarEventStore store) {
+		if (calendar == null && connect() == false) {
+			log.warning("synchronize called, but Calendar is not connected");
+			return;
+		}
+		
 		try {
-			// loop thru all calendars and search for the one specified in the configuration
-			CalendarList feed = calendar.calendarList().list().execute();
+			String calendarId = getCalendarId(calendarName);
+			if(calendarId==null) {
+				log.warning("Calendar not found: "+calendarName);
+				return;
+			}
+			
+			try {
+				fetchEvents(calendarId, store, store.getSyncToken());
+			}
+			catch(GoogleJsonResponseException e) {
+				if(e.getStatusCode()!=HTTP_GONE) {
+					throw e;
+				}
+				log.info("sync token of calendar "+calendarName+" expired, doing full synchronization");
+				fetchEvents(calendarId, store, null);
+			}
+		} catch (IOException e) {
+			log.severe("Error during synchronization of calendar "+calendarName+": " + e.getMessage());
+			return;
+		}
+		
+		// the store is only written if something changed
+		store.removeEventsBefore(LocalDate.now());
+		store.save();
+		log.fine(() -> "calendar "+calendarName+" synchronized, "+store.size()+" events stored");
+	}
+	
+	/**
+	 * returns the ID of a calendar. IDs are read once and then cached
+	 * @param  calendarName summary of the calendar
+	 * @return calendar ID or null if not found
+	 * @throws IOException in case of communication errors
+	 */
+	private String getCalendarId(String calendarName) throws IOException {
+		String calendarId = calendarIds.get(calendarName.toLowerCase());
+		if(calendarId!=null) {
+			return calendarId;
+		}
+		
+		// loop thru all calendars and remember their IDs
+		String pageToken = null;
+		do {
+			CalendarList feed = calendar.calendarList().list().setPageToken(pageToken).execute();
 			if (feed.getItems() != null) {
 				for (CalendarListEntry entry : feed.getItems()) {
-					log.finest("Found calendar: Summary=" + entry.getSummary());
-
-					if (entry.getSummary().equalsIgnoreCase(calendarName)) {
-						log.fine("Found specified calendar. Summary=" + entry.getSummary() + " ID=" + entry.getId());
-
-						com.google.api.services.calendar.Calendar.Events.List request = calendar.events()
-								.list(entry.getId());
-
-						// query all calendar events of today
-						java.util.Calendar startOfDay = java.util.Calendar.getInstance();
-						startOfDay.set(java.util.Calendar.HOUR_OF_DAY, 0);
-						startOfDay.set(java.util.Calendar.MINUTE, 0);
-						startOfDay.set(java.util.Calendar.SECOND, 0);
-						java.util.Calendar endOfDay = java.util.Calendar.getInstance();
-						endOfDay.set(java.util.Calendar.HOUR_OF_DAY, 23);
-						endOfDay.set(java.util.Calendar.MINUTE, 59);
-						endOfDay.set(java.util.Calendar.SECOND, 59);
-
-						// add 1d in case we have to retrieve entries for tomorrow
-						if (mode == Mode.TOMORROW) {
-							startOfDay.add(java.util.Calendar.DAY_OF_YEAR, 1);
-							endOfDay.add(java.util.Calendar.DAY_OF_YEAR, 1);
-						}
-						log.fine("start=" + startOfDay + " end=" + endOfDay);
-
-						DateTime start = new DateTime(Date.from(startOfDay.toInstant()));
-						DateTime end = new DateTime(Date.from(endOfDay.toInstant()));
-						log.fine("start=" + start + " end=" + end);
-						request.setTimeMin(start);
-						request.setTimeMax(end);
-
-						String pageToken = null;
-						Events events = null;
-
-						do {
-							request.setPageToken(pageToken);
-							events = request.execute();
-
-							List<Event> items = events.getItems();
-							if (items.size() == 0) {
-								log.fine("No calendar items found");
-							} else {
-								for (Event event : items) {
-									log.fine("Found calendar item: " + event.getSummary());
-									entries.add(event.getSummary());
-								}
-							}
-						} while (pageToken != null);
-
-						break;
+					log.finest(() -> "Found calendar: Summary=" + entry.getSummary() + " ID=" + entry.getId());
+					if(entry.getSummary()!=null) {
+						calendarIds.put(entry.getSummary().toLowerCase(), entry.getId());
 					}
 				}
-			} else {
-				log.warning("Calendar List is empty");
 			}
-		} catch (IOException e) {
-			log.severe("Error during processing of calendar entries: " + e.getMessage());
+			pageToken = feed.getNextPageToken();
+		} while (pageToken != null);
+		
+		return calendarIds.get(calendarName.toLowerCase());
+	}
+	
+	/**
+	 * fetches events into an event store. Without sync token, all events are fetched into a new store,
+	 * which replaces the content of the event store after the last page was received. Otherwise only the
+	 * changed events are fetched and applied to the event store
+	 * @param  calendarId ID of the calendar
+	 * @param  store      event store
+	 * @param  syncToken  sync token of the last synchronization or null for a full synchronization
+	 * @throws IOException in case of communication errors or an expired sync token
+	 */
+	private void fetchEvents(String calendarId,CalendarEventStore store,String syncToken) throws IOException {
+		com.google.api.services.calendar.Calendar.Events.List request = calendar.events().list(calendarId).setSingleEvents(true);
+		
+		CalendarEventStore target = store;
+		if(syncToken==null) {
+			log.fine(() -> "full synchronization of calendar "+calendarId);
+			target = new CalendarEventStore(null);
+		}
+		else {
+			log.fine(() -> "incremental synchronization of calendar "+calendarId);
+			request.setSyncToken(syncToken);
+		}
+		
+		LocalDate today     = LocalDate.now();
+		String    pageToken = null;
+		Events    events    = null;
+		int       changes   = 0;
+		do {
+			request.setPageToken(pageToken);
+			events = request.execute();
+			
+			for (Event event : events.getItems()) {
+				changes++;
+				if("cancelled".equals(event.getStatus()) || event.getStart()==null || event.getEnd()==null) {
+					target.removeEvent(event.getId());
+					continue;
+				}
+				
+				LocalDate start = toLocalDate(event.getStart(), false);
+				LocalDate end   = toLocalDate(event.getEnd(), true);
+				if(end.isBefore(today)) {
+					// past events are not needed
+					target.removeEvent(event.getId());
+				}
+				else {
+					log.finest(() -> "Found calendar item: " + event.getSummary() + " start=" + start + " end=" + end);
+					target.putEvent(event.getId(), event.getSummary(), start, end);
+				}
+			}
+			pageToken = events.getNextPageToken();
+		} while (pageToken != null);
+		
+		log.fine("received "+changes+" changed calendar items");
+		target.setSyncToken(events.getNextSyncToken());
+		if(target!=store) {
+			store.replaceWith(target);
 		}
-
-		return entries;
+	}
+	
+	/**
+	 * converts the start or end of an event into a local date
+	 * @param  eventDateTime start or end of an event
+	 * @param  isEnd         true for the end of an event, which is exclusive
+	 * @return day of the start or last day of the event
+	 */
+	private static LocalDate toLocalDate(EventDateTime eventDateTime,boolean isEnd) {
+		if(eventDateTime.getDate()!=null) {
+			// all-day event
+			LocalDate date = LocalDate.parse(eventDateTime.getDate().toStringRfc3339());
+			return isEnd ? date.minusDays(1) : date;
+		}
+		
+		long millis = eventDateTime.getDateTime().getValue();
+		return Instant.ofEpochMilli(isEnd ? millis-1 : millis).atZone(ZoneId.systemDefault()).toLocalDate();
 	}
 
 	//
 	// private members
 	//
 	private static final Logger log = Logger.getLogger(GoogleCalendar.class.getName());
+	
+	private static final int HTTP_GONE = 410;     // HTTP status returned for an expired sync token
+	
+	private static GoogleCalendar theObject = null;     // shared object
 
 	private com.google.api.services.calendar.Calendar calendar = null;
-
+	
+	private final Map<String,String>             calendarIds  = new HashMap<>();            // calendar IDs by lower case summary
+	private final Map<String,CalendarEventStore> eventStores  = new ConcurrentHashMap<>();  // local event stores by calendar summary
+	private       ScheduledExecutorService       syncExecutor = null;                       // executor for periodic synchronization
 }
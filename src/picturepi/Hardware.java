@@ -0,0 +1,112 @@
+package picturepi;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Abstraction of the hardware PicturePi controls: GPIO pins, the ambient light sensor,
+ * the DLPC2607 projector controller and the display output.
+ * Besides the real Raspberry hardware a simulation exists, so the control logic can be run and measured on any machine.
+ */
+interface Hardware {
+
+	/**
+	 * GPIO output pin
+	 */
+	interface DigitalOutput {
+		/**
+		 * @param high true to set the pin to high, false for low
+		 */
+		void setState(boolean high);
+	}
+
+	/**
+	 * GPIO input pin
+	 */
+	interface DigitalInput {
+		/**
+		 * @param listener listener called with the new state whenever the pin changes
+		 */
+		void addListener(Consumer<Boolean> listener);
+	}
+
+	/**
+	 * DLPC2607 projector controller
+	 */
+	interface ProjectorController {
+		/**
+		 * waits until the controller has booted after power on and configures the video input
+		 * @throws IOException if the controller could not be configured
+		 */
+		void initialize() throws IOException;
+
+		/**
+		 * sets the brightness of all LEDs
+		 * @param brightness brightness from 1 to 255
+		 * @throws IOException in case of an I2C error
+		 */
+		void setBrightness(int brightness) throws IOException;
+	}
+
+	/**
+	 * provisions a GPIO output pin
+	 * @param  gpio         GPIO number (WiringPi numbering)
+	 * @param  initialState initial state of the pin
+	 * @return output pin or null if GPIO is not available
+	 */
+	DigitalOutput provisionOutput(int gpio,boolean initialState);
+
+	/**
+	 * provisions a GPIO input pin with pull down resistor
+	 * @param  gpio GPIO number (WiringPi numbering)
+	 * @return input pin or null if GPIO is not available
+	 */
+	DigitalInput provisionInput(int gpio);
+
+	/**
+	 * @return ambient light sensor
+	 * @throws IOException if the sensor is not available
+	 */
+	LightSensor openLightSensor() throws IOException;
+
+	/**
+	 * @return projector controller
+	 * @throws IOException if the controller is not available
+	 */
+	ProjectorController openProjectorController() throws IOException;
+
+	/**
+	 * switches the video output of the display (not its power)
+	 * @param  on true to switch on, false to switch off
+	 * @throws IOException if the output could not be switched
+	 */
+	void setDisplayOutput(boolean on) throws IOException;
+
+	/**
+	 * creates the hardware as configured by key hardware in section [global]:
+	 * raspberry (default on a Raspberry), simulated or none (default otherwise)
+	 * @return hardware or null if no hardware shall be controlled
+	 */
+	static Hardware create() {
+		Logger log = Logger.getLogger( Hardware.class.getName() );
+		
+		String defaultType = Configuration.getConfiguration().isRunningOnRaspberry() ? "raspberry" : "none";
+		String type = Configuration.getConfiguration().getValue("global", "hardware", defaultType);
+		log.config("hardware: "+type);
+
+		if(type.equalsIgnoreCase("raspberry")) {
+			boolean enableGPIO = Configuration.getConfiguration().getValue("global", "enableGPIO", false);
+			int     i2cBus     = Configuration.getConfiguration().getValue("global", "i2cbus", 3);
+			return new RaspberryHardware(enableGPIO, i2cBus);
+		}
+		if(type.equalsIgnoreCase("simulated")) {
+			return new SimulatedHardware();
+		}
+		if(!type.equalsIgnoreCase("none")) {
+			log.severe("unknown hardware type: "+type);
+		}
+
+		return null;
+	}
+}
@@ -55,8 +55,8 @@ public class HttpTools {
                         fileURL.length());
             }
             
-            log.fine("downloading file from HTTP server: "+fileURL);
-            log.fine("Content-Type = " + contentType+" Content-Disposition = " + disposition);
+            log.fine(() -> "downloading file from HTTP server: "+fileURL);
+            log.fine(() -> "Content-Type = " + contentType+" Content-Disposition = " + disposition);
             log.fine("Content-Length = " + contentLength+" fileName = " + fileName);
  
             // opens input stream from the HTTP connection
@@ -82,7 +82,7 @@ public class HttpTools {
             outputStream.close();
             inputStream.close();
  
-            log.fine("File downloaded to "+saveFilePath);
+            log.fine(() -> "File downloaded to "+saveFilePath);
         } else {
             log.severe("No file to download. Server replied HTTP code: " + responseCode);
             throw new IOException("No file to download. Server replied HTTP code: " + responseCode);
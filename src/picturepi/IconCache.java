@@ -0,0 +1,150 @@
+package picturepi;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+/**
+ * Shared cache of the icons in the resources of the picturepi package. Each resource is decoded once and scaled
+ * once per requested size into an image compatible with the screen, so drawing the icon needs no conversion.
+ * Dark and bright variants are separate resources and therefore separate entries. Entries are softly referenced
+ * and get evicted under memory pressure, they are loaded again when requested next.
+ */
+final class IconCache {
+
+	/**
+	 * private constructor, only static methods
+	 */
+	private IconCache() {
+	}
+
+	/**
+	 * returns an icon in its original size
+	 * @param  resource resource name relative to the picturepi package, e.g. "weatherIcons/fog_dark.png"
+	 * @return icon or null if the resource cannot be loaded
+	 */
+	static ImageIcon get(String resource) {
+		return get(resource, 0, 0);
+	}
+
+	/**
+	 * returns an icon scaled to a given size
+	 * @param  resource resource name relative to the picturepi package, e.g. "weatherIcons/fog_dark.png"
+	 * @param  width    width in pixel, 0 for the original size
+	 * @param  height   height in pixel, 0 for the original size
+	 * @return icon or null if the resource cannot be loaded
+	 */
+	static ImageIcon get(String resource,int width,int height) {
+		String key = resource+"@"+width+"x"+height;
+
+		SoftReference<ImageIcon> reference = icons.get(key);
+		ImageIcon icon = reference!=null ? reference.get() : null;
+		if(icon!=null) {
+			return icon;
+		}
+
+		BufferedImage source = load(resource);
+		if(source==null) {
+			return null;
+		}
+		if(width<=0 || height<=0) {
+			width  = source.getWidth();
+			height = source.getHeight();
+		}
+
+		icon = new ImageIcon(scale(source, width, height));
+		icons.put(key, new SoftReference<>(icon));
+		log.fine(() -> "cached icon "+key);
+
+		return icon;
+	}
+
+	/**
+	 * decodes a resource
+	 * @param  resource resource name relative to the picturepi package
+	 * @return decoded image or null in case of errors
+	 */
+	private static BufferedImage load(String resource) {
+		URL url = IconCache.class.getResource(resource);
+		if(url==null) {
+			log.severe("icon resource not found: "+resource);
+			return null;
+		}
+
+		try {
+			BufferedImage image = ImageIO.read(url);
+			if(image==null) {
+				log.severe("unsupported icon format: "+resource);
+			}
+			return image;
+		} catch (IOException e) {
+			log.severe("Unable to load icon "+resource+": "+e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * scales an image into a screen compatible image. Large reductions are done in steps of at most 50%,
+	 * which gives smooth results with bilinear interpolation at a fraction of the cost of SCALE_SMOOTH
+	 * @param  source image to scale
+	 * @param  width  target width
+	 * @param  height target height
+	 * @return scaled image
+	 */
+	private static BufferedImage scale(BufferedImage source,int width,int height) {
+		BufferedImage image = source;
+		do {
+			int stepWidth  = Math.max(width, image.getWidth()/2);
+			int stepHeight = Math.max(height, image.getHeight()/2);
+			if(width>image.getWidth() || height>image.getHeight()) {
+				// enlarge in a single step
+				stepWidth  = width;
+				stepHeight = height;
+			}
+
+			BufferedImage step = createImage(stepWidth, stepHeight);
+			Graphics2D g = step.createGraphics();
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			g.drawImage(image, 0, 0, stepWidth, stepHeight, null);
+			g.dispose();
+			image = step;
+		} while(image.getWidth()!=width || image.getHeight()!=height);
+
+		return image;
+	}
+
+	/**
+	 * creates a translucent image in the format of the screen
+	 * @param  width  width in pixel
+	 * @param  height height in pixel
+	 * @return new image
+	 */
+	private static BufferedImage createImage(int width,int height) {
+		if(!GraphicsEnvironment.isHeadless()) {
+			GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+			return gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+		}
+
+		return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( IconCache.class.getName() );
+
+	private static final Map<String,SoftReference<ImageIcon>> icons = new ConcurrentHashMap<>();  // icons by resource name and size
+}
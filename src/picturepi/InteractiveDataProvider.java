@@ -35,22 +35,26 @@ public class InteractiveDataProvider extends Provider implements IMqttMessageLis
 		mqttTopicTemperature = Configuration.getConfiguration().getValue(InteractivePanel.class.getSimpleName(), CONFIG_KEY_MQTT_TOPIC_TEMPERATURE, null);
 		if(mqttTopicTemperature != null) {
 			log.info("subscribing for temperature, MQTT key="+mqttTopicTemperature);
-			MqttClient.getMqttClient().subscribe(mqttTopicTemperature, this);
+			MqttClient.getMqttClient().subscribe(mqttTopicTemperature, this, MqttListenerMailbox.Policy.COALESCE_LATEST);
+			// record the history of the topic locally, if a data directory is configured
+			TemperatureHistory.forTopic(mqttTopicTemperature);
 		}
 		mqttTopicTemperatureMin = Configuration.getConfiguration().getValue(InteractivePanel.class.getSimpleName(), CONFIG_KEY_MQTT_TOPIC_TEMPERATURE_MIN, null);
 		if(mqttTopicTemperatureMin != null) {
 			log.info("subscribing for min temperature");
-			MqttClient.getMqttClient().subscribe(mqttTopicTemperatureMin, this);
+			MqttClient.getMqttClient().subscribe(mqttTopicTemperatureMin, this, MqttListenerMailbox.Policy.COALESCE_LATEST);
 		}
 		mqttTopicTemperatureMax = Configuration.getConfiguration().getValue(InteractivePanel.class.getSimpleName(), CONFIG_KEY_MQTT_TOPIC_TEMPERATURE_MAX, null);
 		if(mqttTopicTemperatureMax != null) {
 			log.info("subscribing for min temperature");
-			MqttClient.getMqttClient().subscribe(mqttTopicTemperatureMax, this);
+			MqttClient.getMqttClient().subscribe(mqttTopicTemperatureMax, this, MqttListenerMailbox.Policy.COALESCE_LATEST);
 		}
         mqttTopicTemperature2 = Configuration.getConfiguration().getValue(InteractivePanel.class.getSimpleName(), CONFIG_KEY_MQTT_TOPIC_TEMPERATURE2, null);
 		if(mqttTopicTemperature2 != null) {
 			log.info("subscribing for temperature2, MQTT key="+mqttTopicTemperature2);
-			MqttClient.getMqttClient().subscribe(mqttTopicTemperature2, this);
+			MqttClient.getMqttClient().subscribe(mqttTopicTemperature2, this, MqttListenerMailbox.Policy.COALESCE_LATEST);
+			// record the history of the topic locally, if a data directory is configured
+			TemperatureHistory.forTopic(mqttTopicTemperature2);
 		}
     }
 
@@ -69,16 +73,16 @@ public class InteractiveDataProvider extends Provider implements IMqttMessageLis
      */
     @Override
     public void messageArrived(String topic, MqttMessage message)  {
-        log.fine("messageArrived: topic="+topic+", message="+message.toString());
+        log.fine(() -> "messageArrived: topic="+topic+", message="+message.toString());
 
         try {
             if(interactivePanel!=null && mqttTopicTemperature!=null && topic.equals(mqttTopicTemperature)) {
-                log.fine("Updating actual temperature with "+message.toString());
-                interactivePanel.setTemperature1(Double.parseDouble(message.toString()));
+                log.fine(() -> "Updating actual temperature with "+message.toString());
+                interactivePanel.setTemperature1(MqttTopicValue.of(message).getDouble());
             }
             if(interactivePanel!=null && mqttTopicTemperature2!=null && topic.equals(mqttTopicTemperature2)) {
-                log.fine("Updating actual temperature2 with "+message.toString());
-                interactivePanel.setTemperature2(Double.parseDouble(message.toString()));
+                log.fine(() -> "Updating actual temperature2 with "+message.toString());
+                interactivePanel.setTemperature2(MqttTopicValue.of(message).getDouble());
             }
         }
         catch(Exception e) {
@@ -82,9 +82,7 @@ public class InteractivePanel extends Panel{
 
         ImageIcon icon = null;
         try {
-            java.net.URL imageURL = this.getClass().getResource("otherIcons/blinds.png");
-            icon = new ImageIcon(imageURL);
-            icon.setImage(icon.getImage().getScaledInstance(ICON_SIZE, ICON_SIZE, java.awt.Image.SCALE_SMOOTH));
+            icon = IconCache.get("otherIcons/blinds.png", ICON_SIZE, ICON_SIZE);
 
             constraints.gridx = 1;
             JButton buttonBlindsLeft = new JButton();
@@ -92,7 +90,7 @@ public class InteractivePanel extends Panel{
             buttonBlindsLeft.setIcon(icon);
             buttonBlindsLeft.addMouseListener(new java.awt.event.MouseListener() {
                 public void mouseClicked(java.awt.event.MouseEvent e) {
-                    log.finest("mouse clicked left blinds, x="+e.getX()+", y="+e.getY());
+                    log.finest(() -> "mouse clicked left blinds, x="+e.getX()+", y="+e.getY());
                     if(e.getX() > ICON_SIZE/2) {
                         log.fine("touch event left blinds down");
                         if(mqttTopicCommand != null) {
@@ -124,7 +122,7 @@ public class InteractivePanel extends Panel{
             });
             buttonBlindsRight.addMouseListener(new java.awt.event.MouseListener() {
                 public void mouseClicked(java.awt.event.MouseEvent e) {
-                    log.finest("mouse clicked right blinds, x="+e.getX()+", y="+e.getY());
+                    log.finest(() -> "mouse clicked right blinds, x="+e.getX()+", y="+e.getY());
                     if(e.getX() > ICON_SIZE/2) {
                         log.fine("touch event right blinds down");
                         if(mqttTopicCommand != null) {
@@ -168,7 +166,7 @@ public class InteractivePanel extends Panel{
      * @param temperature temperature to be displayed in degree Celsius
      */
     void setTemperature1(double temperature) {
-        log.fine("setTemperature1 called with: "+temperature);
+        log.fine(() -> "setTemperature1 called with: "+temperature);
         labelTemperature1.setText(String.format("%.1f C", temperature));
     }
 
@@ -177,7 +175,7 @@ public class InteractivePanel extends Panel{
      * @param temperature temperature to be displayed in degree Celsius
      */
     void setTemperature2(double temperature) {
-        log.fine("setTemperature2 called with: "+temperature);
+        log.fine(() -> "setTemperature2 called with: "+temperature);
         labelTemperature2.setText(String.format("%.1f C", temperature));
     }
 
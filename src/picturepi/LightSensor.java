@@ -0,0 +1,15 @@
+package picturepi;
+
+import java.io.IOException;
+
+/**
+ * interface for ambient light sensors
+ */
+interface LightSensor {
+	/**
+	 * reads the current ambient light
+	 * @return raw sensor value, 0 for darkness
+	 * @throws IOException if the sensor could not be read
+	 */
+	int read() throws IOException;
+}
@@ -1,9 +1,18 @@
 package picturepi;
 
+import java.awt.CardLayout;
+import java.awt.Container;
 import java.awt.EventQueue;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
+import javax.swing.JComponent;
 import javax.swing.JFrame;
 import java.awt.event.MouseListener;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
 
 
 /*
@@ -26,8 +35,11 @@ public class MainWindow implements Runnable {
 		isFullscreen = configuration.getValue("screen","fullscreen",true);
 		width        = configuration.getValue("screen","width",width);
 		height       = configuration.getValue("screen","height",height);
+		transitionTime = configuration.getValue("screen","transitionTime",transitionTime);
+		transitionFps  = configuration.getValue("screen","transitionFps",transitionFps);
 			
 		log.config("screen configuration: fullscreen="+isFullscreen+" width="+width+" height="+height);
+		log.config("transitions: time="+transitionTime+" ms fps="+transitionFps);
 	}
 	
 	@Override
@@ -45,6 +57,14 @@ public class MainWindow implements Runnable {
 			mainFrame.setSize(width,height);
 		}
 		mainFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		
+		// all panels are added once as cards, switching panels only flips the visible card
+		cards = new CardLayout();
+		mainFrame.getContentPane().setLayout(cards);
+		
+		// view switches and picture changes are crossfaded on the glass pane
+		transitionEngine = new TransitionEngine(transitionTime, transitionFps);
+		mainFrame.setGlassPane(transitionEngine);
 
 		mainFrame.setVisible(true);
 		mainFrame.repaint();
@@ -64,22 +84,133 @@ public class MainWindow implements Runnable {
 		mainFrame.addMouseListener(mouseListener);
 	}
 	
+	/**
+	 * adds panels to the main window and lays them out once, so later switches need no layout.
+	 * Blocks until the panels are realized
+	 * @param panels panels to add
+	 */
+	void addPanels(Collection<Panel> panels) {
+		Runnable task = () -> {
+			long start = System.nanoTime();
+			panels.forEach(this::addCard);
+			mainFrame.getContentPane().validate();
+			log.config("realized "+card2name.size()+" panels in "+(System.nanoTime()-start)/1000000+" ms");
+		};
+		
+		if(EventQueue.isDispatchThread()) {
+			task.run();
+			return;
+		}
+		try {
+			EventQueue.invokeAndWait(task);
+		} catch (InvocationTargetException e) {
+			log.severe("Unable to add panels: "+e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
 	/**
 	 * sets the active panel to display
 	 * @param panel panel to display
 	 */
 	void setPanel(Panel panel) {
+		if(panel==null) {
+			return;
+		}
+		long requestTime = System.nanoTime();
 		EventQueue.invokeLater(new Runnable() {
 			@Override
 			public void run() {
-				log.finest("setting panel "+panel.getClass().toString());
-				mainFrame.getContentPane().removeAll();
-				mainFrame.getContentPane().add(panel);
-				mainFrame.setVisible(true);
-				mainFrame.repaint();
+				if(panel==activePanel) {
+					reportFirstFrame();
+					panelShownListener.accept(panel);
+					return;
+				}
+				log.finest(() -> "setting panel "+panel.getClass().toString());
+				
+				long start = System.nanoTime();
+				String name = card2name.get(panel);
+				if(name==null) {
+					// panel was not realized upfront
+					log.warning("panel "+panel.getClass().getSimpleName()+" was not added upfront");
+					name = addCard(panel);
+					mainFrame.getContentPane().validate();
+				}
+				String card = name;
+				transitionEngine.crossfade((JComponent)mainFrame.getContentPane(), () -> cards.show(mainFrame.getContentPane(), card));
+				activePanel = panel;
+				
+				long now = System.nanoTime();
+				lastSwitchLatency = (now-requestTime)/1000;
+				reportFirstFrame();
+				panelShownListener.accept(panel);
+				log.fine("switched to panel "+panel.getClass().getSimpleName()+" in "+(now-start)/1000+" us, "
+						+lastSwitchLatency+" us after request");
 			}
 		});
 	}
+	
+	/**
+	 * sets the listener called on the event dispatch thread whenever a panel is shown, also if it was visible already
+	 * @param listener listener to call with the panel shown
+	 */
+	void setPanelShownListener(Consumer<Panel> listener) {
+		panelShownListener = listener;
+	}
+	
+	/**
+	 * repaints the whole window, e.g. after painting was paused while the display was dark. May be called from any thread
+	 */
+	void repaint() {
+		if(mainFrame!=null) {
+			mainFrame.repaint();
+		}
+	}
+
+	/**
+	 * @return time in microseconds from the request to the completion of the last panel switch, -1 if none
+	 */
+	long getLastSwitchLatency() {
+		return lastSwitchLatency;
+	}
+	
+	/**
+	 * @return time in ms from the JVM start until the first panel was shown, -1 if none was shown yet
+	 */
+	long getTimeToFirstFrame() {
+		return timeToFirstFrame;
+	}
+	
+	/**
+	 * logs the time to the first frame when the first panel is shown
+	 */
+	private void reportFirstFrame() {
+		if(timeToFirstFrame<0) {
+			timeToFirstFrame = ManagementFactory.getRuntimeMXBean().getUptime();
+			log.info("time to first frame: "+timeToFirstFrame+" ms after JVM start");
+		}
+	}
+	
+	/**
+	 * adds a panel as card if not added yet. Must be called on the event dispatch thread
+	 * @param  panel panel to add
+	 * @return card name of the panel
+	 */
+	private String addCard(Panel panel) {
+		String name = card2name.get(panel);
+		if(name==null) {
+			name = panel.getClass().getSimpleName()+"#"+card2name.size();
+			card2name.put(panel, name);
+			Container contentPane = mainFrame.getContentPane();
+			contentPane.add(panel, name);
+			if(activePanel==null) {
+				// CardLayout shows the first card added
+				activePanel = panel;
+			}
+		}
+		return name;
+	}
 
 	// private members
 	private static final Logger   log      = Logger.getLogger( MainWindow.class.getName() );
@@ -91,4 +222,15 @@ public class MainWindow implements Runnable {
 	
 	private              JFrame        mainFrame;
 	private 			 MouseListener mouseListener;
+	private              CardLayout    cards;
+	private              int           transitionTime = 500;
+	private              int           transitionFps  = 30;
+	private              TransitionEngine transitionEngine;
+	
+	// card names of all added panels and the visible panel, only accessed on the event dispatch thread
+	private final        Map<Panel,String> card2name         = new IdentityHashMap<>();
+	private              Panel             activePanel       = null;
+	private volatile     long              lastSwitchLatency = -1;
+	private volatile     long              timeToFirstFrame  = -1;
+	private volatile     Consumer<Panel>   panelShownListener = panel -> {};
 }
@@ -0,0 +1,196 @@
+package picturepi;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.logging.Logger;
+
+/**
+ * Fixed size ring buffer of time stamped integer samples, backed by a memory mapped file.
+ * Each record consists of a timestamp (epoch seconds) and a fixed number of int columns.
+ * Once the buffer is full the oldest record gets overwritten, so the file size and
+ * the heap usage stay constant no matter how long samples are appended.
+ */
+class MappedTimeSeries implements Closeable {
+
+	/**
+	 * opens (or creates) a time series file
+	 * @param file      file to map
+	 * @param capacity  max. number of records
+	 * @param columns   number of int columns per record
+	 * @throws IOException in case the file cannot be created or mapped
+	 */
+	MappedTimeSeries(File file,int capacity,int columns) throws IOException {
+		if(capacity<1 || columns<1) {
+			throw new IllegalArgumentException("invalid capacity "+capacity+" or column count "+columns);
+		}
+
+		this.capacity   = capacity;
+		this.columns    = columns;
+		this.recordSize = 8+4*columns;
+
+		long size = HEADER_SIZE+(long)capacity*recordSize;
+		try(RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+			FileChannel      channel          = randomAccessFile.getChannel()) {
+			boolean isNew = randomAccessFile.length()!=size;
+
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+			if(isNew || buffer.getInt(0)!=MAGIC || buffer.getInt(4)!=capacity || buffer.getInt(8)!=columns) {
+				log.config("initializing new time series file "+file+", capacity="+capacity+" columns="+columns);
+				buffer.putInt(0, MAGIC);
+				buffer.putInt(4, capacity);
+				buffer.putInt(8, columns);
+				buffer.putInt(12, 0);
+				buffer.putInt(16, 0);
+			}
+			else {
+				log.config("opened time series file "+file+" with "+buffer.getInt(16)+" records");
+			}
+		}
+
+		head  = buffer.getInt(12);
+		count = buffer.getInt(16);
+		if(head<0 || head>=capacity || count<0 || count>capacity) {
+			log.warning("corrupt header in time series file "+file+" - discarding data");
+			head  = 0;
+			count = 0;
+		}
+	}
+
+	/**
+	 * appends a new record. If the buffer is full, the oldest record gets overwritten
+	 * @param timestamp epoch seconds
+	 * @param values    column values, must contain exactly one value per column
+	 */
+	synchronized void append(long timestamp,int... values) {
+		if(values.length!=columns) {
+			throw new IllegalArgumentException("expected "+columns+" values, got "+values.length);
+		}
+
+		int offset = HEADER_SIZE+head*recordSize;
+		buffer.putLong(offset, timestamp);
+		for(int column=0 ; column<columns ; column++) {
+			buffer.putInt(offset+8+4*column, values[column]);
+		}
+
+		head = (head+1)%capacity;
+		if(count<capacity) {
+			count++;
+		}
+		buffer.putInt(12, head);
+		buffer.putInt(16, count);
+	}
+
+	/**
+	 * replaces the values of the newest record, keeping its timestamp
+	 * @param values column values, must contain exactly one value per column
+	 * @throws IndexOutOfBoundsException if the time series is empty
+	 */
+	synchronized void updateLatest(int... values) {
+		if(values.length!=columns) {
+			throw new IllegalArgumentException("expected "+columns+" values, got "+values.length);
+		}
+
+		int offset = offset(count-1);
+		for(int column=0 ; column<columns ; column++) {
+			buffer.putInt(offset+8+4*column, values[column]);
+		}
+	}
+
+	/**
+	 * @return number of records currently stored
+	 */
+	synchronized int size() {
+		return count;
+	}
+
+	/**
+	 * @return max. number of records
+	 */
+	int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * returns the timestamp of a record
+	 * @param index record index, 0 is the oldest record
+	 * @return timestamp in epoch seconds
+	 */
+	synchronized long getTimestamp(int index) {
+		return buffer.getLong(offset(index));
+	}
+
+	/**
+	 * returns a value of a record
+	 * @param index  record index, 0 is the oldest record
+	 * @param column column index
+	 * @return value
+	 */
+	synchronized int getValue(int index,int column) {
+		if(column<0 || column>=columns) {
+			throw new IndexOutOfBoundsException("column "+column);
+		}
+		return buffer.getInt(offset(index)+8+4*column);
+	}
+
+	/**
+	 * copies the values of the newest records of a column into an array, oldest first
+	 * @param column  column index
+	 * @param target  target array. At most target.length values are copied
+	 * @return number of values copied
+	 */
+	synchronized int copyLatest(int column,int[] target) {
+		int n     = Math.min(count, target.length);
+		int first = count-n;
+		for(int i=0 ; i<n ; i++) {
+			target[i] = buffer.getInt(offset(first+i)+8+4*column);
+		}
+
+		return n;
+	}
+
+	/**
+	 * flushes the mapped data to disk
+	 */
+	synchronized void force() {
+		buffer.force();
+	}
+
+	@Override
+	public void close() {
+		force();
+	}
+
+	/**
+	 * calculates the buffer offset of a record
+	 * @param index record index, 0 is the oldest record
+	 * @return offset into mapped buffer
+	 */
+	private int offset(int index) {
+		if(index<0 || index>=count) {
+			throw new IndexOutOfBoundsException("index "+index+", size "+count);
+		}
+		int position = (head-count+index+capacity)%capacity;
+
+		return HEADER_SIZE+position*recordSize;
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( MappedTimeSeries.class.getName() );
+
+	private static final int MAGIC       = 0x50505453;   // "PPTS"
+	private static final int HEADER_SIZE = 32;           // magic, capacity, columns, head, count + reserved
+
+	private final MappedByteBuffer buffer;       // mapped file content
+	private final int              capacity;     // max. number of records
+	private final int              columns;      // number of int columns per record
+	private final int              recordSize;   // size of a record in bytes
+	private       int              head;         // index of next record to write
+	private       int              count;        // number of valid records
+}
@@ -1,19 +1,27 @@
 package picturepi;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 
 import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
 import org.eclipse.paho.client.mqttv3.IMqttMessageListener;
 import org.eclipse.paho.client.mqttv3.MqttCallbackExtended;
+import org.eclipse.paho.client.mqttv3.MqttClientPersistence;
 import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
 import org.eclipse.paho.client.mqttv3.MqttException;
 import org.eclipse.paho.client.mqttv3.MqttMessage;
 import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.eclipse.paho.client.mqttv3.persist.MqttDefaultFilePersistence;
 
 
 /**
@@ -33,19 +41,41 @@ public class MqttClient implements MqttCallbackExtended, IMqttMessageListener {
 				MqttConnectOptions connectOptions = new MqttConnectOptions();
 				connectOptions.setAutomaticReconnect(true);
 				connectOptions.setKeepAliveInterval(keepalive);
+				// keep the session on reconnect so in-flight QoS 1 messages are delivered again
+				connectOptions.setCleanSession(Configuration.getConfiguration().getValue("mqtt", "cleanSession", false));
 				
 				isConnected = new AtomicBoolean(false);
+				
+				// outbound queue keeping publishes while the broker is not reachable
+				publishQos          = Configuration.getConfiguration().getValue("mqtt", "publishQos", 1);
+				statusBatchInterval = Configuration.getConfiguration().getValue("mqtt", "statusBatchInterval", 1000);
+				int offlineBufferSize = Configuration.getConfiguration().getValue("mqtt", "offlineBufferSize", 100);
+				int offlineMaxAge     = Configuration.getConfiguration().getValue("mqtt", "offlineMaxAge", 60);
+				log.config("MQTT publish QoS="+publishQos+" offline buffer size="+offlineBufferSize+" max age="+offlineMaxAge+"s status batch interval="+statusBatchInterval+"ms");
+				publishQueue     = new MqttPublishQueue(offlineBufferSize, offlineMaxAge*1000L);
+				publishExecutor  = Executors.newSingleThreadScheduledExecutor(runnable -> {
+					Thread thread = new Thread(runnable, "MqttPublisher");
+					thread.setDaemon(true);
+					return thread;
+				});
+				
+				// executor delivering messages to the listener mailboxes
+				int dispatchThreads = Configuration.getConfiguration().getValue("mqtt", "dispatchThreads", 2);
+				mailboxCapacity     = Configuration.getConfiguration().getValue("mqtt", "mailboxCapacity", 16);
+				log.config("MQTT dispatch threads="+dispatchThreads+" mailbox capacity="+mailboxCapacity);
+				dispatchExecutor = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+					Thread thread = new Thread(runnable, "MqttDispatcher");
+					thread.setDaemon(true);
+					return thread;
+				});
 
 				String broker = "tcp://"+brokerAddress+":"+brokerPort;
 				log.info("Creating MQTT client for broker "+broker+", client ID="+clientId);
-				mqttClient = new org.eclipse.paho.client.mqttv3.MqttAsyncClient(broker, clientId,new MemoryPersistence());
+				mqttClient = new org.eclipse.paho.client.mqttv3.MqttAsyncClient(broker, clientId,createPersistence());
 				log.info("client created");
 				mqttClient.setCallback(this);
 				
-				// maintain list of topics to subscribe for automatic reconnect
-				topicList = new HashMap<String,Set<IMqttMessageListener>>();
-				
-				log.fine("Connecting to MQTT broker "+brokerAddress);
+				log.fine(() -> "Connecting to MQTT broker "+brokerAddress);
 				mqttClient.connect(connectOptions);
 			} catch (MqttException e) {
 				log.severe("Excepion during MQTT connect: "+e.getMessage());
@@ -53,6 +83,22 @@ public class MqttClient implements MqttCallbackExtended, IMqttMessageListener {
 			}
 	}
 	
+	/**
+	 * creates the persistence for in-flight messages. If a data directory is configured, the messages
+	 * are stored in files and survive a restart, otherwise they are kept in memory
+	 * @return persistence to use
+	 */
+	private static MqttClientPersistence createPersistence() {
+		String dataDirectory = Configuration.getConfiguration().getValue("global", "dataDirectory", null);
+		if(dataDirectory==null) {
+			return new MemoryPersistence();
+		}
+		
+		String directory = new File(dataDirectory, "mqtt").getPath();
+		log.config("MQTT persistence directory: "+directory);
+		return new MqttDefaultFilePersistence(directory);
+	}
+	
 	/**
 	 * @return the singleton MQTT client object if a MQTT broker is specified in the configuration
 	 *         or null otherwise 
@@ -79,30 +125,59 @@ public class MqttClient implements MqttCallbackExtended, IMqttMessageListener {
 	 * subscribes a listener for an MQTT topic
 	 * This class manages the subscription and will automatically subscribe again if the connection is lost
 	 * and re-established. It allows to subscribe multiple listeners for the same topic.
+	 * The topic can contain the wildcards '+' and '#'.
 	 * 
 	 * @param topicName  topic to subscribe
 	 * @param listener   listener objects for the callbacl
 	 */
-	public synchronized void subscribe(String topicName,IMqttMessageListener listener) {
+	public void subscribe(String topicName,IMqttMessageListener listener) {
+		subscribe(topicName, listener, MqttListenerMailbox.Policy.DROP_OLDEST);
+	}
+	
+	/**
+	 * subscribes a listener for an MQTT topic
+	 * Messages are delivered to the listener asynchronously thru a bounded mailbox, so a slow listener
+	 * does not block the delivery of messages to other listeners. The mailbox is created with the
+	 * policy specified when the listener subscribes for the first time.
+	 * 
+	 * @param topicName  topic to subscribe
+	 * @param listener   listener objects for the callbacl
+	 * @param policy     mailbox policy if the listener cannot keep up with incoming messages
+	 */
+	public synchronized void subscribe(String topicName,IMqttMessageListener listener,MqttListenerMailbox.Policy policy) {
 		if(mqttClient==null) {
 			log.severe("Unable to subscribe for topic "+topicName+": MQTT client not created");
 			
 			return;
 		}
-		log.fine("subscribing for MQTT topic: "+topicName);
+		log.fine(() -> "subscribing for MQTT topic: "+topicName);
 
-		// get set of listeners for this topic and create if not existing
-		Set<IMqttMessageListener> listenerSet = topicList.get(topicName);
-		if(listenerSet==null) {
-			listenerSet = new HashSet<IMqttMessageListener>();
-			topicList.put(topicName, listenerSet);
+		// add listener to topic router
+		if(!MqttTopicRouter.isValidFilter(topicName)) {
+			log.severe("Unable to subscribe for topic "+topicName+": invalid topic filter");
+			
+			return;
+		}
+		MqttListenerMailbox mailbox = mailboxes.get(listener);
+		if(mailbox==null) {
+			mailbox = new MqttListenerMailbox(listener, policy, mailboxCapacity, dispatchExecutor);
+			mailboxes.put(listener, mailbox);
 		}
-		listenerSet.add(listener);
+		boolean isNewTopic = topicRouter.add(topicName, mailbox);
 		
-		// subscribe myelf as listener if we are currently connected
-		if(isConnected.get()) {
+		// replay the latest values of all matching topics, so the new listener does not have to wait for the next publish
+		for(Map.Entry<String,MqttTopicValue> entry:latestValues.entrySet()) {
+			if(MqttTopicRouter.matches(topicName, entry.getKey())) {
+				log.fine(() -> "replaying latest value of topic "+entry.getKey()+" to new subscriber");
+				mailbox.messageArrived(entry.getKey(), entry.getValue());
+			}
+		}
+		
+		// subscribe at the broker if we are currently connected. Messages are delivered to the
+		// client callback, so overlapping wildcard subscriptions do not lead to duplicate messages
+		if(isNewTopic && isConnected.get()) {
 			try {
-				mqttClient.subscribe(topicName,0,this);
+				mqttClient.subscribe(topicName,0);
 			} catch (MqttException e) {
 				log.severe("MQTT subscribe for topic "+topicName+" failed: "+e.getMessage());
 			}
@@ -110,19 +185,98 @@ public class MqttClient implements MqttCallbackExtended, IMqttMessageListener {
 	}
 	
 	/**
-	 * publishes an MQTT topic
+	 * unsubscribes a listener from an MQTT topic. The topic is unsubscribed at the broker
+	 * when the last listener was removed
+	 * 
+	 * @param topicName  topic the listener subscribed for
+	 * @param listener   listener to remove
+	 */
+	public synchronized void unsubscribe(String topicName,IMqttMessageListener listener) {
+		MqttListenerMailbox mailbox = mailboxes.get(listener);
+		if(mailbox==null || !topicRouter.remove(topicName, mailbox)) {
+			return;
+		}
+		log.fine(() -> "unsubscribing from MQTT topic: "+topicName);
+		
+		if(isConnected.get()) {
+			try {
+				mqttClient.unsubscribe(topicName);
+			} catch (MqttException e) {
+				log.severe("MQTT unsubscribe from topic "+topicName+" failed: "+e.getMessage());
+			}
+		}
+	}
+	
+	/**
+	 * publishes a command to an MQTT topic with the configured QoS.
+	 * If the broker is currently not reachable, the message is queued and sent after the connection
+	 * is established again
 	 * @param topic  topic to publish to
 	 * @param data   data to publish
 	 */
 	public void publish(String topic,String data) {
+		publishQueue.add(topic, data.getBytes(StandardCharsets.UTF_8), publishQos, false);
+		flushPublishQueue();
+	}
+	
+	/**
+	 * publishes a status or metric value as retained message. Values are batched, if a topic is published
+	 * again before the batch is sent, only the latest value is sent
+	 * @param topic  topic to publish to
+	 * @param data   data to publish
+	 */
+	public void publishStatus(String topic,String data) {
+		publishQueue.putStatus(topic, data.getBytes(StandardCharsets.UTF_8), 0, true);
+		
+		if(isStatusFlushScheduled.compareAndSet(false, true)) {
+			try {
+				publishExecutor.schedule(() -> {
+					isStatusFlushScheduled.set(false);
+					sendQueuedMessages();
+				}, statusBatchInterval, TimeUnit.MILLISECONDS);
+			}
+			catch(RejectedExecutionException e) {
+				log.severe("Unable to schedule MQTT status publish: "+e.getMessage());
+				isStatusFlushScheduled.set(false);
+			}
+		}
+	}
+	
+	/**
+	 * triggers sending queued messages on the publisher thread
+	 */
+	private void flushPublishQueue() {
+		if(!isConnected.get()) {
+			log.fine(() -> "MQTT broker not connected, "+publishQueue.size()+" messages queued");
+			return;
+		}
 		try {
-			mqttClient.publish(topic, data.getBytes(), 0, false);
-		} catch (MqttException e) {
-			log.severe("Unable to publish MQTT topic "+topic+", data="+data);
-			log.severe(e.getMessage());
+			publishExecutor.execute(this::sendQueuedMessages);
+		}
+		catch(RejectedExecutionException e) {
+			log.severe("Unable to schedule MQTT publish: "+e.getMessage());
+		}
+	}
+	
+	/**
+	 * sends queued messages as long as the client is connected
+	 */
+	private void sendQueuedMessages() {
+		if(isConnected.get()) {
+			int sent = publishQueue.flush((topic,payload,qos,retained) -> mqttClient.publish(topic, payload, qos, retained));
+			log.finest(() -> "sent "+sent+" queued MQTT messages");
 		}
 	}
 
+	/**
+	 * returns the latest message received for a topic
+	 * @param  topic topic name
+	 * @return latest message or null if no message was received yet
+	 */
+	public MqttTopicValue getLatestValue(String topic) {
+		return latestValues.get(topic);
+	}
+	
 	@Override
 	public void connectionLost(Throwable t) {
 		isConnected.set(false);
@@ -135,19 +289,32 @@ public class MqttClient implements MqttCallbackExtended, IMqttMessageListener {
 
 	@Override
 	public void deliveryComplete(IMqttDeliveryToken t) {
+		// a slot for in-flight messages got free
+		if(publishQueue.size()>0) {
+			flushPublishQueue();
+		}
 	}
 
 	@Override
 	public void messageArrived(String topic, MqttMessage message) throws Exception {
-		log.fine("MQTT message arrived: topic="+topic);
-		log.finest("MQTT message arrived: topic="+topic+" content="+message);
+		log.fine(() -> "MQTT message arrived: topic="+topic);
+		log.finest(() -> "MQTT message arrived: topic="+topic+" content="+message);
 
-		// get listeners for this topic and forward message
-		Set<IMqttMessageListener> listenerSet = topicList.get(topic);
-		if(listenerSet!=null) {
-			for(IMqttMessageListener listener:listenerSet) {
+		// keep as latest value of this topic. All listeners get the same object, so typed values are parsed only once
+		MqttTopicValue value = new MqttTopicValue(message);
+		latestValues.put(topic, value);
+		
+		// get listener mailboxes for this topic (lock free) and forward message. This never blocks
+		IMqttMessageListener[] listeners = topicRouter.match(topic);
+		if(listeners.length>0) {
+			for(IMqttMessageListener listener:listeners) {
 				log.finest("forwarding message to listener");
-				listener.messageArrived(topic, message);
+				try {
+					listener.messageArrived(topic, value);
+				}
+				catch(Exception e) {
+					log.severe("Exception in listener for MQTT topic "+topic+": "+e.getMessage());
+				}
 			}
 		}
 		else {
@@ -161,13 +328,19 @@ public class MqttClient implements MqttCallbackExtended, IMqttMessageListener {
 		log.info("connection to MQTT broker completed. reconnect="+reconnect);
 
 		// in case of reconnect loop over all topics and subscribe again
-		for(String topic:topicList.keySet()) {
+		for(String topic:topicRouter.getFilters()) {
 			try {
-				mqttClient.subscribe(topic,0,this);
+				mqttClient.subscribe(topic,0);
 			} catch (MqttException e) {
 				log.severe("MQTT subscribe for topic "+topic+" failed: "+e.getMessage());
 			}
 		}
+		
+		// send messages queued while disconnected
+		if(publishQueue.size()>0) {
+			log.info("sending "+publishQueue.size()+" queued MQTT messages");
+			flushPublishQueue();
+		}
 	}
 	
 	//
@@ -178,7 +351,16 @@ public class MqttClient implements MqttCallbackExtended, IMqttMessageListener {
 	private static  MqttClient                                     theObject = null;
 	private         org.eclipse.paho.client.mqttv3.MqttAsyncClient mqttClient;	// the MQTT client
 	
-	private Map<String,Set<IMqttMessageListener>>   topicList;     // maps topics to listeners
-	private AtomicBoolean isConnected;                             // maintains if client is currently connected ot nor
+	private final MqttTopicRouter topicRouter = new MqttTopicRouter();   // maps topics to listener mailboxes
+	private final Map<IMqttMessageListener,MqttListenerMailbox> mailboxes = new HashMap<>();  // mailbox of each listener
+	private final Map<String,MqttTopicValue> latestValues = new ConcurrentHashMap<>();        // latest value of each topic
+	private       ExecutorService dispatchExecutor;                      // executor delivering messages to listeners
+	private       int             mailboxCapacity;                       // max. number of queued messages per listener
+	private AtomicBoolean         isConnected;                           // maintains if client is currently connected ot nor
+	private       MqttPublishQueue         publishQueue;                 // outbound messages not sent yet
+	private       ScheduledExecutorService publishExecutor;              // executor sending queued messages
+	private       int                      publishQos;                   // QoS used to publish commands
+	private       int                      statusBatchInterval;          // time in ms status values are collected before sending
+	private final AtomicBoolean            isStatusFlushScheduled = new AtomicBoolean(false); // true if sending status values is scheduled
 }
 
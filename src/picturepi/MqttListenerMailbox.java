@@ -0,0 +1,188 @@
+package picturepi;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Logger;
+
+import org.eclipse.paho.client.mqttv3.IMqttMessageListener;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+
+/**
+ * Bounded mailbox decoupling an MQTT listener from the Paho callback thread.
+ * Incoming messages are queued and delivered to the listener on an executor thread.
+ * Messages of one listener are always delivered in order and never concurrently,
+ * so a slow listener only delays its own messages.
+ */
+class MqttListenerMailbox implements IMqttMessageListener, Runnable {
+
+	/**
+	 * policies what to do with new messages if the mailbox is full
+	 */
+	enum Policy {
+		DROP_OLDEST,      // queue all messages, drop the oldest one if the queue is full
+		COALESCE_LATEST   // keep only the latest message per topic
+	};
+
+	/**
+	 * constructor
+	 * @param listener  listener to deliver messages to
+	 * @param policy    queueing policy
+	 * @param capacity  max. number of queued messages
+	 * @param executor  executor used to deliver messages
+	 */
+	MqttListenerMailbox(IMqttMessageListener listener,Policy policy,int capacity,Executor executor) {
+		this.listener = listener;
+		this.policy   = policy;
+		this.capacity = Math.max(1, capacity);
+		this.executor = executor;
+	}
+
+	/**
+	 * @return the listener messages are delivered to
+	 */
+	IMqttMessageListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * @return number of messages dropped because the mailbox was full
+	 */
+	synchronized long getDroppedCount() {
+		return droppedCount;
+	}
+
+	/**
+	 * queues a message. Called on the Paho callback thread, never blocks
+	 */
+	@Override
+	public void messageArrived(String topic,MqttMessage message) {
+		boolean schedule;
+
+		synchronized(this) {
+			if(policy==Policy.COALESCE_LATEST) {
+				if(latestMessages.put(topic, message)==null && latestMessages.size()>capacity) {
+					dropOldest(latestMessages.values().iterator());
+				}
+			}
+			else {
+				if(queue.size()>=capacity) {
+					queue.poll();
+					droppedCount++;
+					log.fine(() -> "mailbox full, dropped oldest message for listener "+listener.getClass().getSimpleName());
+				}
+				queue.add(new Entry(topic, message));
+			}
+
+			schedule    = !isScheduled;
+			isScheduled = true;
+		}
+
+		if(schedule) {
+			try {
+				executor.execute(this);
+			}
+			catch(RejectedExecutionException e) {
+				log.severe("Unable to schedule MQTT message delivery: "+e.getMessage());
+				synchronized(this) {
+					isScheduled = false;
+				}
+			}
+		}
+	}
+
+	/**
+	 * delivers queued messages. Runs on an executor thread
+	 */
+	@Override
+	public void run() {
+		for(int delivered=0 ; delivered<MAX_BATCH ; delivered++) {
+			String      topic;
+			MqttMessage message;
+
+			synchronized(this) {
+				if(policy==Policy.COALESCE_LATEST) {
+					Iterator<Map.Entry<String,MqttMessage>> iterator = latestMessages.entrySet().iterator();
+					if(!iterator.hasNext()) {
+						isScheduled = false;
+						return;
+					}
+					Map.Entry<String,MqttMessage> entry = iterator.next();
+					topic   = entry.getKey();
+					message = entry.getValue();
+					iterator.remove();
+				}
+				else {
+					Entry entry = queue.poll();
+					if(entry==null) {
+						isScheduled = false;
+						return;
+					}
+					topic   = entry.topic;
+					message = entry.message;
+				}
+			}
+
+			try {
+				listener.messageArrived(topic, message);
+			}
+			catch(Throwable t) {
+				log.severe("Exception in listener for MQTT topic "+topic+": "+t.getMessage());
+			}
+		}
+
+		// batch limit reached - give other mailboxes a chance and continue later
+		try {
+			executor.execute(this);
+		}
+		catch(RejectedExecutionException e) {
+			log.severe("Unable to schedule MQTT message delivery: "+e.getMessage());
+			synchronized(this) {
+				isScheduled = false;
+			}
+		}
+	}
+
+	/**
+	 * removes the oldest element of a coalescing mailbox
+	 * @param iterator iterator over the queued messages
+	 */
+	private void dropOldest(Iterator<MqttMessage> iterator) {
+		iterator.next();
+		iterator.remove();
+		droppedCount++;
+		log.fine(() -> "mailbox full, dropped oldest topic for listener "+listener.getClass().getSimpleName());
+	}
+
+	//
+	// nested class for queued messages
+	//
+	private static class Entry {
+		Entry(String topic,MqttMessage message) {
+			this.topic   = topic;
+			this.message = message;
+		}
+
+		final String      topic;
+		final MqttMessage message;
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( MqttListenerMailbox.class.getName() );
+
+	private static final int MAX_BATCH = 16;   // max. number of messages delivered before the mailbox is re-scheduled
+
+	private final IMqttMessageListener            listener;                              // listener to deliver messages to
+	private final Policy                          policy;                                // queueing policy
+	private final int                             capacity;                              // max. number of queued messages
+	private final Executor                        executor;                              // executor used for delivery
+	private final ArrayDeque<Entry>               queue          = new ArrayDeque<>();   // queued messages for DROP_OLDEST
+	private final LinkedHashMap<String,MqttMessage> latestMessages = new LinkedHashMap<>(); // latest message per topic for COALESCE_LATEST
+	private       boolean                         isScheduled    = false;                // true if delivery is scheduled or running
+	private       long                            droppedCount   = 0;                    // number of dropped messages
+}
@@ -0,0 +1,182 @@
+package picturepi;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.logging.Logger;
+
+import org.eclipse.paho.client.mqttv3.MqttException;
+
+/**
+ * Outbound queue for MQTT publishes.
+ * Commands are queued in order and kept while the broker is not reachable, so they are not lost
+ * during short connection losses. The queue is bounded and drops the oldest command if full,
+ * commands older than a max. age are discarded instead of being sent late.
+ * Status values are coalesced per topic, only the latest value of a topic is sent.
+ */
+class MqttPublishQueue {
+
+	/**
+	 * interface to the function actually sending a message
+	 */
+	interface Sender {
+		void send(String topic,byte[] payload,int qos,boolean retained) throws MqttException;
+	}
+
+	/**
+	 * constructor
+	 * @param capacity     max. number of queued commands
+	 * @param maxAgeMillis max. age of a queued command in ms before it gets discarded
+	 */
+	MqttPublishQueue(int capacity,long maxAgeMillis) {
+		this.capacity     = Math.max(1, capacity);
+		this.maxAgeMillis = maxAgeMillis;
+	}
+
+	/**
+	 * queues a command
+	 * @param topic    topic to publish to
+	 * @param payload  payload to publish
+	 * @param qos      QoS level
+	 * @param retained retained flag
+	 */
+	synchronized void add(String topic,byte[] payload,int qos,boolean retained) {
+		if(commands.size()>=capacity) {
+			Entry dropped = commands.poll();
+			droppedCount++;
+			log.warning("MQTT publish queue full, dropped message for topic "+dropped.topic);
+		}
+		commands.add(new Entry(topic, payload, qos, retained));
+	}
+
+	/**
+	 * queues a status value. A value queued before for the same topic and not sent yet is replaced
+	 * @param topic    topic to publish to
+	 * @param payload  payload to publish
+	 * @param qos      QoS level
+	 * @param retained retained flag
+	 */
+	synchronized void putStatus(String topic,byte[] payload,int qos,boolean retained) {
+		statusValues.remove(topic);
+		statusValues.put(topic, new Entry(topic, payload, qos, retained));
+	}
+
+	/**
+	 * sends all queued commands in order, followed by the queued status values.
+	 * Sending stops at the first message which can't be sent right now (e.g. not connected),
+	 * this message and all following ones stay queued.
+	 * @param sender function sending a message
+	 * @return number of messages sent
+	 */
+	synchronized int flush(Sender sender) {
+		int  sent = 0;
+		long now  = System.currentTimeMillis();
+
+		while(!commands.isEmpty()) {
+			Entry entry = commands.peek();
+			if(now-entry.queuedAt>maxAgeMillis) {
+				commands.poll();
+				droppedCount++;
+				log.warning("MQTT message for topic "+entry.topic+" expired after "+(now-entry.queuedAt)+"ms, discarded");
+				continue;
+			}
+			if(!send(sender, entry)) {
+				return sent;
+			}
+			commands.poll();
+			sent++;
+		}
+
+		Iterator<Entry> iterator = statusValues.values().iterator();
+		while(iterator.hasNext()) {
+			if(!send(sender, iterator.next())) {
+				return sent;
+			}
+			iterator.remove();
+			sent++;
+		}
+
+		return sent;
+	}
+
+	/**
+	 * @return total number of queued messages
+	 */
+	synchronized int size() {
+		return commands.size()+statusValues.size();
+	}
+
+	/**
+	 * @return number of commands dropped because the queue was full or they expired
+	 */
+	synchronized long getDroppedCount() {
+		return droppedCount;
+	}
+
+	/**
+	 * sends a single message
+	 * @param  sender function sending a message
+	 * @param  entry  message to send
+	 * @return true if the message is done, false if it must stay queued
+	 */
+	private boolean send(Sender sender,Entry entry) {
+		try {
+			sender.send(entry.topic, entry.payload, entry.qos, entry.retained);
+			return true;
+		} catch (MqttException e) {
+			if(isTemporary(e)) {
+				log.fine(() -> "MQTT publish for topic "+entry.topic+" deferred, reason="+e.getReasonCode());
+				return false;
+			}
+			log.severe("Unable to publish MQTT topic "+entry.topic+": "+e.getMessage());
+			return true;
+		}
+	}
+
+	/**
+	 * @param  e exception thrown during publish
+	 * @return true if the publish may succeed later on
+	 */
+	private static boolean isTemporary(MqttException e) {
+		switch(e.getReasonCode()) {
+		case MqttException.REASON_CODE_CLIENT_NOT_CONNECTED:
+		case MqttException.REASON_CODE_CONNECT_IN_PROGRESS:
+		case MqttException.REASON_CODE_CLIENT_DISCONNECTING:
+		case MqttException.REASON_CODE_MAX_INFLIGHT:
+		case MqttException.REASON_CODE_DISCONNECTED_BUFFER_FULL:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	//
+	// nested class for queued messages
+	//
+	private static class Entry {
+		Entry(String topic,byte[] payload,int qos,boolean retained) {
+			this.topic    = topic;
+			this.payload  = payload;
+			this.qos      = qos;
+			this.retained = retained;
+			this.queuedAt = System.currentTimeMillis();
+		}
+
+		final String  topic;
+		final byte[]  payload;
+		final int     qos;
+		final boolean retained;
+		final long    queuedAt;
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( MqttPublishQueue.class.getName() );
+
+	private final int                         capacity;                                 // max. number of queued commands
+	private final long                        maxAgeMillis;                             // max. age of a queued command
+	private final ArrayDeque<Entry>           commands     = new ArrayDeque<>();        // queued commands in order
+	private final LinkedHashMap<String,Entry> statusValues = new LinkedHashMap<>();     // latest status value per topic
+	private       long                        droppedCount = 0;                         // number of dropped commands
+}
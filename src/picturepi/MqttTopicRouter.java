@@ -0,0 +1,223 @@
+package picturepi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import org.eclipse.paho.client.mqttv3.IMqttMessageListener;
+
+/**
+ * Maps MQTT topics to the listeners subscribed for them.
+ * Subscriptions are stored in a topic tree that supports the MQTT wildcards '+' (single level)
+ * and '#' (multi level). Listener arrays are copy-on-write, so lookups never take a lock.
+ * The result of a lookup is cached per topic, so dispatching a message of a known topic is
+ * a single hash map lookup that does not allocate any objects.
+ */
+class MqttTopicRouter {
+
+	/**
+	 * adds a subscription
+	 * @param  topicFilter topic filter, can contain wildcards
+	 * @param  listener    listener to be called for matching messages
+	 * @return true if this is the first subscription for this filter
+	 */
+	synchronized boolean add(String topicFilter,IMqttMessageListener listener) {
+		if(!isValidFilter(topicFilter)) {
+			throw new IllegalArgumentException("invalid MQTT topic filter: "+topicFilter);
+		}
+
+		Node node = root;
+		for(String level:topicFilter.split("/",-1)) {
+			node = node.children.computeIfAbsent(level, l -> new Node());
+		}
+
+		boolean isNewFilter = node.listeners.length==0;
+		if(!Arrays.asList(node.listeners).contains(listener)) {
+			IMqttMessageListener[] listeners = Arrays.copyOf(node.listeners, node.listeners.length+1);
+			listeners[listeners.length-1] = listener;
+			node.listeners = listeners;
+
+			filters.add(topicFilter);
+			
+			// replace instead of clear, so a concurrent lookup cannot store a stale result in the new cache
+			resolvedTopics = new ConcurrentHashMap<>();
+			log.fine(() -> "added listener for topic filter "+topicFilter+", listeners="+listeners.length);
+		}
+
+		return isNewFilter;
+	}
+
+	/**
+	 * removes a subscription
+	 * @param  topicFilter topic filter the listener was added for
+	 * @param  listener    listener to remove
+	 * @return true if this was the last subscription for this filter
+	 */
+	synchronized boolean remove(String topicFilter,IMqttMessageListener listener) {
+		Node node = root;
+		for(String level:topicFilter.split("/",-1)) {
+			node = node.children.get(level);
+			if(node==null) {
+				return false;
+			}
+		}
+
+		List<IMqttMessageListener> listeners = new ArrayList<>(Arrays.asList(node.listeners));
+		if(!listeners.remove(listener)) {
+			return false;
+		}
+		node.listeners = listeners.toArray(EMPTY);
+		if(listeners.isEmpty()) {
+			filters.remove(topicFilter);
+		}
+
+		// replace instead of clear, so a concurrent lookup cannot store a stale result in the new cache
+		resolvedTopics = new ConcurrentHashMap<>();
+		log.fine(() -> "removed listener for topic filter "+topicFilter+", listeners="+listeners.size());
+
+		return listeners.isEmpty();
+	}
+
+	/**
+	 * returns all listeners subscribed for a topic, either directly or thru a wildcard filter
+	 * @param  topic topic name (must not contain wildcards)
+	 * @return array of listeners, empty if no listener matches. The array must not be modified.
+	 */
+	IMqttMessageListener[] match(String topic) {
+		ConcurrentHashMap<String,IMqttMessageListener[]> cache = resolvedTopics;
+		
+		IMqttMessageListener[] listeners = cache.get(topic);
+		if(listeners==null) {
+			listeners = resolve(topic);
+			if(cache.size()<MAX_RESOLVED_TOPICS) {
+				cache.put(topic, listeners);
+			}
+		}
+
+		return listeners;
+	}
+
+	/**
+	 * @return a copy of all subscribed topic filters
+	 */
+	synchronized Set<String> getFilters() {
+		return new LinkedHashSet<>(filters);
+	}
+
+	/**
+	 * checks if a topic matches a topic filter
+	 * @param  topicFilter topic filter, can contain wildcards
+	 * @param  topic       topic name
+	 * @return true if the topic matches the filter
+	 */
+	static boolean matches(String topicFilter,String topic) {
+		String[] filterLevels = topicFilter.split("/",-1);
+		String[] topicLevels  = topic.split("/",-1);
+
+		if(topic.startsWith("$") && (filterLevels[0].equals("+") || filterLevels[0].equals("#"))) {
+			// topics starting with $ do not match wildcards on the first level
+			return false;
+		}
+
+		for(int i=0 ; i<filterLevels.length ; i++) {
+			if(filterLevels[i].equals("#")) {
+				return true;
+			}
+			if(i>=topicLevels.length) {
+				return false;
+			}
+			if(!filterLevels[i].equals("+") && !filterLevels[i].equals(topicLevels[i])) {
+				return false;
+			}
+		}
+
+		return filterLevels.length==topicLevels.length;
+	}
+
+	/**
+	 * checks if a topic filter is valid: '#' only as last level, wildcards only as complete level
+	 * @param  topicFilter topic filter
+	 * @return true if valid
+	 */
+	static boolean isValidFilter(String topicFilter) {
+		if(topicFilter==null || topicFilter.isEmpty()) {
+			return false;
+		}
+
+		String[] levels = topicFilter.split("/",-1);
+		for(int i=0 ; i<levels.length ; i++) {
+			String level = levels[i];
+			if(level.contains("#") && (!level.equals("#") || i!=levels.length-1)) {
+				return false;
+			}
+			if(level.contains("+") && !level.equals("+")) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * walks the topic tree to collect all listeners for a topic
+	 * @param  topic topic name
+	 * @return array of matching listeners
+	 */
+	private IMqttMessageListener[] resolve(String topic) {
+		Set<IMqttMessageListener> result = new LinkedHashSet<>();
+		String[] levels = topic.split("/",-1);
+
+		collect(root, levels, 0, topic.startsWith("$"), result);
+
+		return result.isEmpty() ? EMPTY : result.toArray(EMPTY);
+	}
+
+	private static void collect(Node node,String[] levels,int index,boolean isSystemTopic,Set<IMqttMessageListener> result) {
+		boolean allowWildcard = !(isSystemTopic && index==0);
+
+		// multi level wildcard matches this level and everything below, including the parent level itself
+		Node multiLevel = allowWildcard ? node.children.get("#") : null;
+		if(multiLevel!=null) {
+			result.addAll(Arrays.asList(multiLevel.listeners));
+		}
+
+		if(index==levels.length) {
+			result.addAll(Arrays.asList(node.listeners));
+			return;
+		}
+
+		Node exact = node.children.get(levels[index]);
+		if(exact!=null) {
+			collect(exact, levels, index+1, isSystemTopic, result);
+		}
+
+		Node singleLevel = allowWildcard ? node.children.get("+") : null;
+		if(singleLevel!=null) {
+			collect(singleLevel, levels, index+1, isSystemTopic, result);
+		}
+	}
+
+	//
+	// nested class for the nodes of the topic tree
+	//
+	private static class Node {
+		final    ConcurrentHashMap<String,Node> children  = new ConcurrentHashMap<>();  // child nodes by topic level
+		volatile IMqttMessageListener[]         listeners = EMPTY;                      // listeners subscribed for the filter ending here
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( MqttTopicRouter.class.getName() );
+
+	private static final IMqttMessageListener[] EMPTY               = new IMqttMessageListener[0];
+	private static final int                    MAX_RESOLVED_TOPICS = 1024;   // max. number of cached lookup results
+
+	private final    Node                                             root           = new Node();
+	private final    Set<String>                                      filters        = new LinkedHashSet<>();    // all subscribed filters
+	private volatile ConcurrentHashMap<String,IMqttMessageListener[]> resolvedTopics = new ConcurrentHashMap<>(); // cached lookup results
+}
@@ -0,0 +1,104 @@
+package picturepi;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+
+/**
+ * MQTT message that converts its payload into typed values on first use.
+ * The same object is delivered to all listeners of a topic and kept as latest value of the topic,
+ * so the payload of a message is parsed only once, no matter how many listeners read it.
+ */
+class MqttTopicValue extends MqttMessage {
+
+	/**
+	 * constructor
+	 * @param message message received from the broker
+	 */
+	MqttTopicValue(MqttMessage message) {
+		super(message.getPayload());
+
+		setQos(message.getQos());
+		setRetained(message.isRetained());
+		setId(message.getId());
+		receivedAt = System.currentTimeMillis();
+	}
+
+	/**
+	 * returns a message as MqttTopicValue, wrapping it if needed
+	 * @param  message MQTT message
+	 * @return message as MqttTopicValue
+	 */
+	static MqttTopicValue of(MqttMessage message) {
+		if(message instanceof MqttTopicValue) {
+			return (MqttTopicValue)message;
+		}
+
+		return new MqttTopicValue(message);
+	}
+
+	/**
+	 * @return payload as UTF-8 string
+	 */
+	synchronized String getText() {
+		if(text==null) {
+			text = new String(getPayload(), StandardCharsets.UTF_8);
+		}
+
+		return text;
+	}
+
+	/**
+	 * returns the payload as number. A unit following the number, separated by a blank, is ignored
+	 * @return payload as double
+	 * @throws NumberFormatException if the payload is not a number
+	 */
+	synchronized double getDouble() {
+		if(number==null) {
+			String value = getText().trim();
+			int    pos   = value.indexOf(' ');
+			number = Double.parseDouble(pos>0 ? value.substring(0, pos) : value);
+		}
+
+		return number;
+	}
+
+	/**
+	 * @return payload parsed as JSON object
+	 * @throws javax.json.JsonException if the payload is not a JSON object
+	 */
+	synchronized JsonObject getJsonObject() {
+		if(jsonObject==null) {
+			try(JsonReader reader = Json.createReader(new StringReader(getText()))) {
+				jsonObject = reader.readObject();
+			}
+		}
+
+		return jsonObject;
+	}
+
+	/**
+	 * @return time the message was received in ms since epoch
+	 */
+	long getReceivedAt() {
+		return receivedAt;
+	}
+
+	@Override
+	public String toString() {
+		return getText();
+	}
+
+	//
+	// private members
+	//
+	private final long       receivedAt;          // time the message was received
+	private       String     text       = null;   // payload as string, created on first use
+	private       Double     number     = null;   // payload as number, parsed on first use
+	private       JsonObject jsonObject = null;   // payload as JSON object, parsed on first use
+}
@@ -1,7 +1,8 @@
 package picturepi;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.logging.Formatter;
 import java.util.logging.LogRecord;
 
@@ -9,13 +10,32 @@ import java.util.logging.LogRecord;
  * simple one-line formatter class for Java Logging
  */
 public class OneLineFormatter extends Formatter {
-    private static final String PATTERN = "yyyy-MM-dd' 'HH:mm:ss";
+    // DateTimeFormatter is immutable and thread safe, so a single instance is shared by all records
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd' 'HH:mm:ss").withZone(ZoneId.systemDefault());
 
     @Override
     public String format(final LogRecord record) {
-        return String.format(
-                "%1$s %2$-7s %3$-25s %4$s\n",
-                new SimpleDateFormat(PATTERN).format(new Date(record.getMillis())),
-                record.getLevel().getName(), record.getSourceClassName(), formatMessage(record));
+        StringBuilder builder = new StringBuilder(128);
+        DATE_FORMATTER.formatTo(Instant.ofEpochMilli(record.getMillis()), builder);
+        builder.append(' ');
+        appendPadded(builder, record.getLevel().getName(), 7);
+        builder.append(' ');
+        appendPadded(builder, record.getSourceClassName(), 25);
+        builder.append(' ').append(formatMessage(record)).append('\n');
+
+        return builder.toString();
+    }
+
+    /**
+     * appends a left aligned text, padded with blanks to a minimum width
+     * @param builder builder to append to
+     * @param text    text to append
+     * @param width   minimum width
+     */
+    private static void appendPadded(StringBuilder builder,String text,int width) {
+        builder.append(text);
+        for(int i=text!=null ? text.length() : 4 ; i<width ; i++) {
+            builder.append(' ');
+        }
     }
 }
@@ -1,8 +1,10 @@
 package picturepi;
 
+import java.awt.EventQueue;
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Logger;
 
 import javax.swing.JPanel;
@@ -31,80 +33,71 @@ public abstract class Panel extends JPanel {
 
 	
 	/**
-	 * creates a Panel object from the class name
-	 * @param panelName  panel name
-	 * @param id         optional String ID. If specified, panel constructor must have a String parameter
-	 * @return           panel object
+	 * creates a Panel object from the panel name
+	 * @param panelName  panel name as registered in the PanelRegistry
+	 * @param id         optional String ID. Must be specified if and only if the panel requires an ID
+	 * @return           panel object or null if the panel could not be created
 	 */
 	static Panel createPanelFromName(final String panelName,final String id) {
-		Panel panel = null;
+		log.fine(() -> "creating panel "+panelName+", id="+id);
+		return PanelRegistry.create(panelName, id);
+	}
+	
+	/**
+	 * creates a Panel object from the panel name on the event dispatch thread, as panels are Swing components.
+	 * Blocks until the panel is created
+	 * @param panelName  panel name as registered in the PanelRegistry
+	 * @param id         optional String ID. Must be specified if and only if the panel requires an ID
+	 * @return           panel object or null if the panel could not be created
+	 */
+	static Panel createPanelFromNameOnEventThread(final String panelName,final String id) {
+		if(EventQueue.isDispatchThread()) {
+			return createPanelFromName(panelName, id);
+		}
 		
-		log.fine("creating panel "+panelName+", id="+id);
+		AtomicReference<Panel> panel = new AtomicReference<>();
 		try {
-			Class<?> panelClass = Class.forName("picturepi."+panelName);
-			if(id!=null) {
-				panel = (Panel) panelClass.getDeclaredConstructor(String.class).newInstance(id);
-			}
-			else {
-				panel = (Panel) panelClass.getDeclaredConstructor().newInstance();
-			}
-		} catch (ClassNotFoundException e) {
-			log.severe("view panel class not found: "+panelName);
-			log.severe(e.getMessage());
-		} catch (IllegalAccessException e) {
-			log.severe("IllegalAccessException: Unable to instantiate panel class : "+panelName);
-			log.severe(e.getMessage());
-		} catch (InstantiationException e) {
-			log.severe("InstantiationException: Unable to instantiate panel class : "+panelName);
-			log.severe(e.getMessage());
-		} catch (IllegalArgumentException e) {
-			log.severe("IllegalArgumentException: Unable to instantiate panel class : "+panelName);
-			log.severe(e.getMessage());
+			EventQueue.invokeAndWait(() -> panel.set(createPanelFromName(panelName, id)));
 		} catch (InvocationTargetException e) {
-			log.severe("InvocationTargetException: Unable to instantiate panel class : "+panelName);
-			log.severe(e.getMessage());
-		} catch (NoSuchMethodException e) {
-			log.severe("NoSuchMethodException: Unable to instantiate panel class : "+panelName);
-			log.severe(e.getMessage());
-		} catch (SecurityException e) {
-			log.severe("SecurityException: Unable to instantiate panel class : "+panelName);
-			log.severe(e.getMessage());
+			log.severe("Unable to create panel "+panelName+": "+e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 		}
-		
-		return panel;
+		return panel.get();
 	}
 	
 
 	/**
 	 * adds an active view for this panel. If this is the first active view, the data provider gets started
-	 * @param viewData view which was activated
+	 * @param  viewData view which was activated
+	 * @return true if the view was not active before
 	 */
-	void addActiveView(Configuration.ViewData viewData) {
-		log.finest("Adding active view: "+viewData.name+(viewData.index!=null ? "-"+viewData.index : ""));
+	synchronized boolean addActiveView(Configuration.ViewData viewData) {
+		log.finest(() -> "Adding active view: "+viewData.name+(viewData.index!=null ? "-"+viewData.index : ""));
 		
 		if(activeViews.isEmpty()) {
 			// first active view - start data provider
-			log.fine("first active view added for panel: "+viewData.name);
+			log.fine(() -> "first active view added for panel: "+viewData.name);
 			if(provider!=null) {
 				provider.start();
 			}
 		}
-		activeViews.add(viewData);
+		return activeViews.add(viewData);
 	}
 	
 	/**
 	 * removes an active view from this panel. If this was the lsat active view, the data provider gets stopped
 	 * @param viewData view which was deactivated
 	 */
-	void removeActiveView(Configuration.ViewData viewData) {
-		log.finest("Removing active view: "+viewData.name+(viewData.index!=null ? "-"+viewData.index : ""));
+	synchronized void removeActiveView(Configuration.ViewData viewData) {
+		log.finest(() -> "Removing active view: "+viewData.name+(viewData.index!=null ? "-"+viewData.index : ""));
 		
 		if( activeViews.remove(viewData)==false ) {
 			log.finest("removeActiveView called, but view was not active: ");
 		}
 		else {
 			if(activeViews.isEmpty()) {
-				log.fine("Last active view removed - stopping provider: "+viewData.name);
+				log.fine(() -> "Last active view removed - stopping provider: "+viewData.name);
 				if(provider!=null) {
 					provider.stop();
 				}
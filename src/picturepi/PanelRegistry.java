@@ -0,0 +1,142 @@
+package picturepi;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Registry of all panels that can be configured as view. Panels are created thru plain constructor calls,
+ * so a missing or renamed panel class is a compile error and no reflection is needed at startup.
+ * Each entry declares the provider and the configuration section of its panel. Loading the registry loads,
+ * but does not initialize, the panel and provider classes; only panels that are created get constructed.
+ * New panels must be registered here.
+ */
+final class PanelRegistry {
+
+	/**
+	 * private constructor, only static methods
+	 */
+	private PanelRegistry() {
+	}
+
+	/**
+	 * creates a panel
+	 * @param  name panel name
+	 * @param  id   ID passed to the panel or null. Must be specified if and only if the panel requires an ID
+	 * @return panel object or null if the panel could not be created
+	 */
+	static Panel create(String name,String id) {
+		Entry entry = PANELS.get(name);
+		if(entry==null) {
+			log.severe("view panel not found: "+name+". Known panels: "+PANELS.keySet());
+			return null;
+		}
+		if(entry.requiresId!=(id!=null)) {
+			log.severe("panel "+name+(entry.requiresId ? " requires an ID" : " does not support an ID"));
+			return null;
+		}
+
+		try {
+			return entry.factory.apply(id);
+		}
+		catch(RuntimeException e) {
+			log.severe("Unable to create panel "+name+": "+e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * @param  name panel name
+	 * @return class of the data provider or null if the panel is not registered
+	 */
+	static Class<? extends Provider> getProviderClass(String name) {
+		Entry entry = PANELS.get(name);
+		return entry!=null ? entry.providerClass : null;
+	}
+
+	/**
+	 * @param  name panel name
+	 * @return configuration file section with the settings of the panel or null if the panel is not registered
+	 */
+	static String getConfigSection(String name) {
+		Entry entry = PANELS.get(name);
+		return entry!=null ? entry.configSection : null;
+	}
+
+	/**
+	 * @param  name panel name
+	 * @return true if the panel requires an ID
+	 */
+	static boolean requiresId(String name) {
+		Entry entry = PANELS.get(name);
+		return entry!=null && entry.requiresId;
+	}
+
+	/**
+	 * @param  name panel name
+	 * @return true if a panel with this name exists
+	 */
+	static boolean isRegistered(String name) {
+		return PANELS.containsKey(name);
+	}
+
+	/**
+	 * @return names of all registered panels
+	 */
+	static Set<String> getNames() {
+		return Collections.unmodifiableSet(PANELS.keySet());
+	}
+
+	/**
+	 * registers a panel
+	 * @param name          panel name
+	 * @param factory       creates the panel from the ID
+	 * @param providerClass class of the data provider of the panel
+	 * @param configSection configuration file section with the settings of the panel
+	 * @param requiresId    true if the panel requires an ID
+	 */
+	private static void register(String name,Function<String,Panel> factory,Class<? extends Provider> providerClass,String configSection,boolean requiresId) {
+		PANELS.put(name, new Entry(factory, providerClass, configSection, requiresId));
+	}
+
+	//
+	// nested class for registered panels
+	//
+	private static class Entry {
+		Entry(Function<String,Panel> factory,Class<? extends Provider> providerClass,String configSection,boolean requiresId) {
+			this.factory       = factory;
+			this.providerClass = providerClass;
+			this.configSection = configSection;
+			this.requiresId    = requiresId;
+		}
+
+		final Function<String,Panel>    factory;         // creates the panel from the ID
+		final Class<? extends Provider> providerClass;   // class of the data provider
+		final String                    configSection;   // configuration file section with the panel settings
+		final boolean                   requiresId;      // true if the panel requires an ID
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( PanelRegistry.class.getName() );
+
+	private static final Map<String,Entry> PANELS = new LinkedHashMap<>();   // all panels by name
+
+	static {
+		register("BlackScreenPanel",         id -> new BlackScreenPanel(),         BlackScreenProvider.class,         "BlackScreenPanel",         false);
+		register("EfaDepartureMonitorPanel", id -> new EfaDepartureMonitorPanel(), EfaDepartureMonitorProvider.class, "EfaDepartureMonitorPanel", false);
+		register("GarageDoorPanel",          id -> new GarageDoorPanel(),          GarageDoorProvider.class,          "GarageDoorPanel",          false);
+		register("GarbageCollectionPanel",   id -> new GarbageCollectionPanel(),   GarbageCollectionProvider.class,   "GarbageCollectionPanel",   false);
+		register("InteractivePanel",         id -> new InteractivePanel(),         InteractiveDataProvider.class,     "InteractivePanel",         false);
+		register("PhoneFinderPanel",         id -> new PhoneFinderPanel(id),       PhoneFinderProvider.class,         "PhoneFinderPanel",         true);
+		register("PicturePanel",             id -> new PicturePanel(),             PictureProvider.class,             "PicturePanel",             false);
+		register("SummaryPanel",             id -> new SummaryPanel(),             SummaryProvider.class,             "SummaryPanel",             false);
+		register("TextWatchPanel",           id -> new TextWatchPanel(),           TextWatchProvider.class,           "TextWatchPanel",           false);
+		register("TomTomTrafficPanel",       id -> new TomTomTrafficPanel(),       TomTomTrafficProvider.class,       "TomTomTrafficPanel",       false);
+		register("WeatherPanel",             id -> new WeatherPanel(),             WeatherProvider.class,             "WeatherPanel",             false);
+	}
+}
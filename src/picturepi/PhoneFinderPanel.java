@@ -20,7 +20,7 @@ class PhoneFinderPanel extends Panel {
 	public PhoneFinderPanel(String phoneId) {
 		super(new PhoneFinderProvider(phoneId));
 		
-		log.fine("Creating PhoneFinderPanel phone ID "+phoneId);
+		log.fine(() -> "Creating PhoneFinderPanel phone ID "+phoneId);
 		
 		setBackground(Color.BLACK);
 		setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
@@ -29,7 +29,7 @@ class PhoneFinderPanel extends Panel {
 		
 		add(Box.createVerticalGlue());
 		
-		log.fine("Creating PhoneFinderPanel phone ID "+phoneId);
+		log.fine(() -> "Creating PhoneFinderPanel phone ID "+phoneId);
 
 		JLabel labelHeader = new JLabel();
 		labelHeader.setText("PhoneFinder fr Handy "+phoneId);
@@ -38,7 +38,7 @@ class PhoneFinderPanel extends Panel {
 		labelHeader.setAlignmentX(CENTER_ALIGNMENT);
 		add(labelHeader);
 		
-		log.fine("Creating PhoneFinderPanel phone ID "+phoneId);
+		log.fine(() -> "Creating PhoneFinderPanel phone ID "+phoneId);
 		
 		add(Box.createVerticalGlue());
 		
@@ -50,7 +50,7 @@ class PhoneFinderPanel extends Panel {
 		
 		add(Box.createVerticalGlue());
 		
-		log.fine("PhoneFinderPanel created for phone ID "+phoneId);
+		log.fine(() -> "PhoneFinderPanel created for phone ID "+phoneId);
 	}
 	
 	@Override
@@ -15,7 +15,7 @@ public class PhoneFinderProvider extends Provider implements IMqttMessageListene
 		// no periodic data update
 		super(0);
 		
-		log.fine("creating PhoneFinder provider for phone ID "+phoneId);
+		log.fine(() -> "creating PhoneFinder provider for phone ID "+phoneId);
 		
 		mqttTopic = MQTT_BASE+phoneId;
 		
@@ -29,12 +29,12 @@ public class PhoneFinderProvider extends Provider implements IMqttMessageListene
 			log.severe("Unable to create MQTT client");
 		}
 		
-		log.fine("PhoneFinder provider created for phone ID "+phoneId);
+		log.fine(() -> "PhoneFinder provider created for phone ID "+phoneId);
 	}
 
 	@Override
 	synchronized protected void fetchData() {
-		log.fine("sending to MQTT topic "+mqttTopic+":"+MQTT_VALUE_TRIGGER);
+		log.fine(() -> "sending to MQTT topic "+mqttTopic+":"+MQTT_VALUE_TRIGGER);
 		MqttClient.getMqttClient().publish(mqttTopic, MQTT_VALUE_TRIGGER);
 		
 		if(phoneFinderPanel==null) {
@@ -53,7 +53,7 @@ public class PhoneFinderProvider extends Provider implements IMqttMessageListene
 	
 	@Override
 	public void messageArrived(String topic, MqttMessage message) throws Exception {
-		log.fine("MQTT message received. Topic="+topic+" value="+message.toString());
+		log.fine(() -> "MQTT message received. Topic="+topic+" value="+message.toString());
 		
 		if(phoneFinderPanel!=null) {
 			if(message.toString().equals(MQTT_VALUE_TRIGGER)) {
@@ -1,6 +1,7 @@
 package picturepi;
 
 import java.awt.Color;
+import java.awt.EventQueue;
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Image;
@@ -49,9 +50,20 @@ class PicturePanel extends Panel {
 	 * @param width width of image
 	 * @param year  year picture was taken
 	 */
-	synchronized void setPicture(Image image,int width,String year) {
+	void setPicture(Image image,int width,String year) {
 		log.fine("new image arrived");
-
+		
+		// crossfade from the old to the new picture
+		EventQueue.invokeLater(() -> TransitionEngine.transition(this, () -> applyPicture(image, width, year)));
+	}
+	
+	/**
+	 * applies a new picture. Called on the event dispatch thread
+	 * @param image picture to set
+	 * @param width width of image
+	 * @param year  year picture was taken
+	 */
+	private synchronized void applyPicture(Image image,int width,String year) {
 		this.image = image;
 		imageWidth = width;
 		
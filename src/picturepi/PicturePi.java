@@ -7,31 +7,24 @@ import java.awt.event.MouseListener;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.time.LocalTime;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
 
 import org.eclipse.paho.client.mqttv3.IMqttMessageListener;
 import org.eclipse.paho.client.mqttv3.MqttMessage;
 
-import com.pi4j.io.gpio.GpioController;
-import com.pi4j.io.gpio.GpioFactory;
-import com.pi4j.io.gpio.GpioPinDigitalInput;
-import com.pi4j.io.gpio.GpioPinDigitalOutput;
-import com.pi4j.io.gpio.PinPullResistance;
-import com.pi4j.io.gpio.PinState;
-import com.pi4j.io.gpio.RaspiPin;
-import com.pi4j.io.gpio.event.GpioPinDigitalStateChangeEvent;
-import com.pi4j.io.gpio.event.GpioPinListenerDigital;
-import com.pi4j.io.i2c.I2CBus;
-import com.pi4j.io.i2c.I2CDevice;
-import com.pi4j.io.i2c.I2CFactory;
-import com.pi4j.io.i2c.I2CFactory.UnsupportedBusNumberException;
-
+import picturepi.Configuration.ButtonClickViewData;
 import picturepi.Configuration.ViewData;
 
 
@@ -84,6 +77,9 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 			
 			return;
 		}
+		if(Configuration.getConfiguration().getValue("global", "watchConfiguration", true)) {
+			Configuration.getConfiguration().startWatching();
+		}
 		
 		
 		// create MQTT client (if specified)
@@ -94,6 +90,7 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 		
 		// create main window
 		picturePi.mainWindow = new MainWindow(picturePi);
+		picturePi.mainWindow.setPanelShownListener(picturePi::panelShown);
 		try {
 			EventQueue.invokeAndWait(picturePi.mainWindow);
 		} catch (InvocationTargetException | InterruptedException e) {
@@ -120,8 +117,7 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 	 * private constructor
 	 */
 	private PicturePi() {
-		boolean enableGPIO = Configuration.getConfiguration().getValue("global", "enableGPIO", false);
-		gpioController  = (Configuration.getConfiguration().isRunningOnRaspberry() && enableGPIO) ? GpioFactory.getInstance() : null;
+		hardware = Hardware.create();
 		
 		// determine screen type from configuration file
 		String screenTypeString = Configuration.getConfiguration().getValue("screen", "type", null);
@@ -138,8 +134,8 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 		
 			// check if display power is controlled thru GPIO
 			int powerControlGpio = Configuration.getConfiguration().getValue("screen", "powerControlGpio", -1);
-			if(Configuration.getConfiguration().isRunningOnRaspberry() && gpioController!=null && powerControlGpio>=0) {
-				gpioOutScreenEnable = gpioController!=null ? gpioController.provisionDigitalOutputPin(RaspiPin.GPIO_00, "screenEnable", PinState.HIGH): null;
+			gpioOutScreenEnable = hardware!=null && powerControlGpio>=0 ? hardware.provisionOutput(powerControlGpio, true) : null;
+			if(gpioOutScreenEnable!=null) {
 				log.config("Display is HDMI display, power controlled thru GPIO.");
 			}
 			else {
@@ -155,15 +151,15 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 			// EVM2000 projector
 			log.config("Display is projector. Initializing GPIO pins for projector control");
 
-			if(gpioController!=null) {
-				// control pin for projector power enable
-				gpioProjectorPower = gpioController.provisionDigitalOutputPin(RaspiPin.GPIO_02);
-				screenType = ScreenType.PROJECTOR;
+			// control pin for projector power enable
+			Hardware.DigitalOutput gpioProjectorPower = hardware!=null ? hardware.provisionOutput(PROJECTOR_POWER_GPIO, false) : null;
+			if(gpioProjectorPower!=null) {
+				screenType     = ScreenType.PROJECTOR;
+				projectorPower = new ProjectorPower(hardware, gpioProjectorPower);
 				log.fine("Provisioning done");
 			}
 			else {
 				log.severe("Unable to initialize GPIO controller for projector control");
-				gpioProjectorPower     = null;
 			}
 		}
 
@@ -172,11 +168,18 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 			return;
 		}
 		
-		// enable display
-		enableDisplay(false);
+		// display power is switched on its own thread. Start with state off, so the
+		// display (and projector controller) gets initialized when it is enabled for the first time
+		long displayOffDelay = Configuration.getConfiguration().getValue("screen", "displayOffDelay", 2000);
+		log.config("display off delay [ms]: "+displayOffDelay);
+		displayPowerController = new DisplayPowerController(this::switchDisplayPower, displayOffDelay, false, DisplayPowerState.getDisplayPowerState());
+		schedulerWakeup        = new SchedulerWakeup(displayPowerController);
+		
+		// control projector brightness thru ambient light sensor
+		initializeBrightnessControl();
 		
 		// check if brightness can be overridden thru MQTT message
-		String brightnessOverrideTopic = Configuration.getConfiguration().getValue("screen", MQTT_TOPIC_BRIGHTNESS_OVERRIDE, null);
+		brightnessOverrideTopic = Configuration.getConfiguration().getValue("screen", MQTT_TOPIC_BRIGHTNESS_OVERRIDE, null);
 		if(brightnessOverrideTopic != null) {
 			// subscribe to MQTT topic to listen for brightness override messages
 			log.config("brightness can be overridden thru MQTT message. Topic: "+brightnessOverrideTopic);
@@ -186,8 +189,12 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 			log.config("no brightness override thru MQTT message.");
 		}
 		
+		// display state and wake latency can be published thru MQTT
+		statusTopic = Configuration.getConfiguration().getValue("screen", MQTT_TOPIC_STATUS, null);
+		log.config("MQTT status topic: "+statusTopic);
+		
 		// configure motion detection: local PIR sensor or remote thru MQTT
-		String motionDetectionTopic = Configuration.getConfiguration().getValue("screen", MQTT_TOPIC_MOTION_DETECTION, null);
+		motionDetectionTopic = Configuration.getConfiguration().getValue("screen", MQTT_TOPIC_MOTION_DETECTION, null);
 		if(motionDetectionTopic != null) {
 			// subscribe to MQTT topic to listen for motion detection
 			log.config("motion detection is handled thru MQTT message. Topic: "+motionDetectionTopic);
@@ -199,8 +206,11 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 
 		// configure motion detection on period
 		motionDetectedOnTime = Configuration.getConfiguration().getValue("screen", "motionDetectionOnTime", 60);
-    	log.fine("initializing display timer to "+motionDetectedOnTime+" s");
+    	log.fine(() -> "initializing display timer to "+motionDetectedOnTime+" s");
 		displayOnCounter = motionDetectedOnTime*1000;
+		
+		// apply changed screen settings without restart
+		Configuration.getConfiguration().addChangeListener("screen", this::screenConfigurationChanged);
 
 		// always start with display on
 		motionDetected       = false;
@@ -210,17 +220,13 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 
 		
 		int motionDetectionGpio = (int)Configuration.getConfiguration().getValue("screen", "motionDetectionGpio", -1);
-		if(Configuration.getConfiguration().isRunningOnRaspberry() && gpioController!=null &&  motionDetectionGpio>=0) {
+		gpioInPIRSensor = hardware!=null && motionDetectionGpio>=0 ? hardware.provisionInput(motionDetectionGpio) : null;
+		if(gpioInPIRSensor!=null) {
 			// enable motion detection thru local GPIO
 			log.config("motion detection thru GPIO: "+motionDetectionGpio);
 			
-			gpioInPIRSensor = gpioController.provisionDigitalInputPin (RaspiPin.getPinByAddress(motionDetectionGpio), PinPullResistance.PULL_DOWN);
-			
-			gpioInPIRSensor.addListener(new GpioPinListenerDigital() {
-	            @Override
-	            public void handleGpioPinDigitalStateChangeEvent(GpioPinDigitalStateChangeEvent event) {
-	                // display pin state on console
-	            	if(event.getState()==PinState.LOW)
+			gpioInPIRSensor.addListener(high -> {
+	            	if(!high)
 	            	{
 	            		// NO motion detected any more
 	            		log.fine("PIR motion sensor: motion cleared");
@@ -228,7 +234,7 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 	            		
 	        			// (re-)start timer
 						displayOnCounter = motionDetectedOnTime*1000;
-	        			log.fine("restarting display timer to "+motionDetectedOnTime+" s");
+	        			log.fine(() -> "restarting display timer to "+motionDetectedOnTime+" s");
 	            	}
 	            	else {
 	            		// motion detected
@@ -241,11 +247,10 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 						    enableDisplay(motionDetectedPeriod);
 	    				}
 	            	}
-	            }
 	        });
-		}
-		else {
-			gpioInPIRSensor = null;
+			
+			// replay recorded motion and light traces on simulated hardware
+			startTraceReplay(motionDetectionGpio);
 		}
 		
 		createViewName2PanelMap();
@@ -257,6 +262,7 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 	 */
 	void setSchedulerThread(Thread thread) {
 		schedulerThread = thread;
+		schedulerWakeup.setScheduler(thread);
 	}
 	
 	/**
@@ -265,39 +271,57 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 	private void createViewName2PanelMap() {
 		log.config("Creating view name 2 panel map from config file");
 		
-		// read view data from configuration file and create panels
+		// read view data from configuration file and create panels. Panels are Swing components,
+		// so they are created on the event dispatch thread
 		viewName2panelMap = new HashMap<String,Panel>();
-		for(ViewData viewData:Configuration.getConfiguration().getViewDataList()) {
-			if(viewName2panelMap.get(viewData.name) == null) {
-				// new panel
-				log.fine("No panel created yet for "+viewData.name);
-				Panel panel = Panel.createPanelFromName(viewData.name,null);
-								
-				if(panel!=null) {
-					log.fine("successfully created panel "+viewData.name);
-					viewData.panel = panel;
-					viewName2panelMap.put(viewData.name, panel);
-				}
-				else {
-					log.severe("Unable to create panel "+viewData.panel);
+		try {
+			EventQueue.invokeAndWait(() -> {
+				for(ViewData viewData:Configuration.getConfiguration().getViewDataList()) {
+					if(viewName2panelMap.get(viewData.name) == null) {
+						// new panel
+						log.fine(() -> "No panel created yet for "+viewData.name);
+						Panel panel = Panel.createPanelFromName(viewData.name,null);
+										
+						if(panel!=null) {
+							log.fine(() -> "successfully created panel "+viewData.name);
+							viewData.panel = panel;
+							viewName2panelMap.put(viewData.name, panel);
+						}
+						else {
+							log.severe("Unable to create panel "+viewData.panel);
+						}
+					}
+					else {
+						log.fine(() -> "re-using panel object for "+viewData.name);
+						viewData.panel = viewName2panelMap.get(viewData.name);
+					}
 				}
-			}
-			else {
-				log.fine("re-using panel object for "+viewData.name);
-				viewData.panel = viewName2panelMap.get(viewData.name);
-			}
+			});
+		} catch (InvocationTargetException e) {
+			log.severe("Unable to create panels: "+e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
 		}
 		
-		// call init() on all providers
-		log.config("calling init() for all providers");
-		Configuration.getConfiguration().getViewDataList().stream().forEach(viewData -> {
-			Panel panel = viewData.panel;
-			if(panel!=null) {
-				Provider provider = panel.provider;
-				if(provider!=null) {
-					log.fine("calling init for provider of view="+viewData.name);
-					provider.init();
-				}
+		// providers are initialized in parallel, providers they depend on first
+		int providerInitThreads = Configuration.getConfiguration().getValue("global", "providerInitThreads", 4);
+		log.config("provider init threads: "+providerInitThreads);
+		providerInitializer = new ProviderInitializer(providerInitThreads, viewName -> {
+			Panel panel = viewName2panelMap.get(viewName);
+			return panel!=null ? panel.provider : null;
+		});
+		
+		// providers of views to be shown now get initialized right away, all others when their view gets due
+		log.config("starting init() for providers of active views");
+		Configuration.getConfiguration().getViewDataList().stream()
+			.filter(viewData -> viewData.panel!=null && viewData.panel.provider!=null && viewData.showNow())
+			.forEach(viewData -> providerInitializer.initialize(viewData.panel.provider));
+		
+		// providers get informed if the configuration section of their panel changes
+		viewName2panelMap.forEach((viewName,panel) -> {
+			if(panel.provider!=null) {
+				Configuration.getConfiguration().addChangeListener(PanelRegistry.getConfigSection(viewName), panel.provider::configurationChanged);
 			}
 		});
 	}
@@ -316,7 +340,7 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 			motionDetectedPanel = null;
 			for(ViewData viewData:Configuration.getConfiguration().getViewDataList()) {
 				if(viewData.panel!=null) {
-					log.fine("view has panel class: "+viewData.panel.getClass().getName());
+					log.fine(() -> "view has panel class: "+viewData.panel.getClass().getName());
 					if(motionDetectedPanel==null && viewData.panel.getClass().getName().equals("picturepi."+motionDetectedPanelName)) {
 						log.fine("motion detected panel already exists in scheduler");
 						motionDetectedPanel = viewData.panel;
@@ -327,16 +351,16 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 			}
 			
 			if(motionDetectedPanel==null) {
-				motionDetectedPanel = Panel.createPanelFromName(motionDetectedPanelName,null);
+				motionDetectedPanel = Panel.createPanelFromNameOnEventThread(motionDetectedPanelName,null);
 			}
 
 			if(motionDetectedPanel!=null) {
-				log.fine("successfully created motion deteced panel "+motionDetectedPanelName);
+				log.fine(() -> "successfully created motion deteced panel "+motionDetectedPanelName);
 				
 				Configuration.ViewData viewData = new ViewData();
 				viewData.name = "motion detection view";
 				viewData.panel = motionDetectedPanel;
-				motionDetectedPanel.addActiveView(viewData);
+				activateAfterInit(viewData);
 			}
 		}
 		else {
@@ -345,7 +369,20 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 
 		// check if a panel is specified to be displayed when a touch or mouse click is detected
 		initializeInteractivePanel();
+		
+		// start handling of views activated thru bluetooth buttons
+		initializeButtonViews();
+		
+		// lay out all panels once, switching views later only flips the visible panel
+		realizePanels();
 
+		// check for the first view with data more often after startup
+		int startupPolls = SLEEP_TIME/STARTUP_POLL_TIME;
+		
+		// providers of views whose display period starts within this time are started in advance
+		warmUpTime = Configuration.getConfiguration().getValue("global", "warmUpTime", 120);
+		log.config("provider warm up time [s]: "+warmUpTime);
+		
 		List<ViewData> viewDataList     = Configuration.getConfiguration().getViewDataList();
 		Iterator<ViewData> viewIterator = viewDataList.iterator();
 		
@@ -356,9 +393,21 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 		do {
 			try {
 				long sleepTime = SLEEP_TIME;
+				
+				// start the providers of all views that can be selected now or soon, so they have data when selected
+				warmUpViews(viewDataList);
 
+				// check if a view was requested thru a bluetooth button
+				ButtonClickViewData buttonView = requestedButtonView.getAndSet(null);
+				if(buttonView!=null) {
+					enableDisplay(true);
+					log.fine(() -> "activating button view "+buttonView.viewName+" after "+(System.nanoTime()-buttonViewRequestTime)/1000000+" ms");
+					mainWindow.setPanel(buttonView.panel);
+					
+					sleepTime = buttonView.duration*1000;
+				}
 				// check if interactive panel shall be activated
-				if(activateInteractivePanel.get()) {
+				else if(activateInteractivePanel.get()) {
 					enableDisplay(true);
 					log.fine("activating interactive panel");
 					mainWindow.setPanel(interactivePanel);
@@ -369,6 +418,8 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 				else {
 					// find the next view to display. Loop until either an active view was found
 					// or we end up at the same view again (so no active view exists currently)
+					boolean ready;
+					boolean initPending = false;
 					do {
 						if(!viewIterator.hasNext()) {
 							// start at beginning again
@@ -376,16 +427,21 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 						}
 						nextView = viewIterator.next();
 						
-						if(nextView.showNow()) {
+						// views get active only after the provider of their panel is initialized
+						ready = nextView.showNow() && isInitialized(nextView.panel);
+						if(ready) {
 							nextView.panel.addActiveView(nextView);
 						}
 						else {
-							nextView.panel.removeActiveView(nextView);
+							if(!isUpcoming(nextView)) {
+								nextView.panel.removeActiveView(nextView);
+							}
+							initPending |= nextView.showNow();
 						}
 					}
-					while ((nextView.showNow()==false || nextView.panel.hasData()==false) && nextView != lastView);
+					while ((ready==false || nextView.panel.hasData()==false) && nextView != lastView);
 					
-					if(nextView.showNow() && nextView.panel.hasData()) {
+					if(ready && nextView.panel.hasData()) {
 						// active view found that has data to display or is not active yet
 						// (if panel is not active, provider is not started so it cannot have data)
 						
@@ -405,10 +461,18 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 							}
 						}
 						
-						log.finest("activating view "+nextView.name);
-						mainWindow.setPanel(nextView.panel);
+						final String nextViewName = nextView.name;
+						if(DisplayPowerState.getDisplayPowerState().isOn() || displayPowerController.isRequestedOn()) {
+							log.finest(() -> "activating view "+nextViewName);
+							mainWindow.setPanel(nextView.panel);
+						}
+						else {
+							// nobody can see it: don't switch and render panels while the display is dark
+							log.finest(() -> "display is dark, not activating view "+nextViewName);
+						}
 						
 						sleepTime = nextView.duration*1000;
+						startupPolls = 0;
 					}
 					else {
 						// no active view found. Sleep a minute and try again
@@ -422,6 +486,12 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 							// on projector, activate motion detected panel (but don't enable display yet)
 							mainWindow.setPanel(motionDetectedPanel);
 						}
+						
+						if(initPending || startupPolls>0) {
+							// providers are still starting up: check again soon to show the first view quickly
+							sleepTime = STARTUP_POLL_TIME;
+							startupPolls = Math.max(0, startupPolls-1);
+						}
 					}
 					lastView = nextView;
 				}
@@ -437,7 +507,7 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 					// we are in a motion detected period. Check if it is time to disable again
 					if(motionDetected==false) {
 						displayOnCounter -= sleepTime;
-						log.fine("motion detected period still active but no active motion detected, remaining time [s]: "+displayOnCounter/1000);
+						log.fine(() -> "motion detected period still active but no active motion detected, remaining time [s]: "+displayOnCounter/1000);
 					}
 					else {
 						log.finest("motion detected period active and active motion detected");
@@ -463,6 +533,12 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 				if(activateInteractivePanel.get()) {
 					log.fine("thread sleep interrupted due to interactive click");
 				}
+				else if(requestedButtonView.get()!=null) {
+					log.fine("thread sleep interrupted due to button click");
+				}
+				else if(wakeTime!=0) {
+					log.fine("thread sleep interrupted due to display wake");
+				}
 				else {
 					log.severe("thread sleep interrupted");
 					log.severe(e.getMessage());
@@ -474,186 +550,176 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 	}
 	
 	/**
-	 * measures luminance and adopts projector brightness accordingly
+	 * adopts the projector brightness on the display power thread
+	 */
+	private void adjustBrightness() {
+		if(brightnessController!=null) {
+			displayPowerController.execute(brightnessController::update);
+		}
+	}
+	
+	/**
+	 * starts the continuous sampling of the ambient light sensor to control the projector brightness
 	 */
-	private synchronized void adjustBrightness() {
-		if(!Configuration.getConfiguration().isRunningOnRaspberry() || screenType!=ScreenType.PROJECTOR) {
+	private void initializeBrightnessControl() {
+		if(projectorPower==null) {
 			return;
 		}
 		
-		if(bus==null) {
-			int i2cbus = 0;
-			try {
-				i2cbus = Configuration.getConfiguration().getValue("global","i2cbus",I2CBus.BUS_3);
-				bus = I2CFactory.getInstance(i2cbus);
-				log.config("Successfully detected i2c bus "+i2cbus );
-			} catch (UnsupportedBusNumberException | IOException e) {
-				log.severe("Unable to get I2C Factory for i2cbus  "+i2cbus);
+		LightSensor sensor;
+		try {
+			sensor = hardware.openLightSensor();
+		} catch (IOException e) {
+			log.severe("Unable to open light sensor: "+e.getMessage());
+			return;
+		}
+		
+		int    sampleInterval = Configuration.getConfiguration().getValue("screen", "lightSampleInterval", 2000);
+		double smoothing      = Configuration.getConfiguration().getValue("screen", "lightSmoothing", 0.3);
+		int    hysteresis     = Configuration.getConfiguration().getValue("screen", "lightHysteresis", 10);
+		log.config("light sensor sample interval [ms]="+sampleInterval+" smoothing="+smoothing+" hysteresis [%]="+hysteresis);
+		
+		brightnessController = projectorPower.createBrightnessController(sensor, smoothing, hysteresis, this::setPanelColorMode);
+		
+		displayPowerController.executePeriodically(brightnessController::sample, sampleInterval);
+	}
+	
+	/**
+	 * switches the foreground colors of all panels, each panel only once
+	 * @param bright true for bright colors, false for dark colors
+	 */
+	private void setPanelColorMode(boolean bright) {
+		Set<Panel> panels = Collections.newSetFromMap(new IdentityHashMap<>());
+		for(ViewData viewData:Configuration.getConfiguration().getViewDataList()) {
+			if(viewData.panel!=null) {
+				panels.add(viewData.panel);
 			}
 		}
+		if(motionDetectedPanel!=null) {
+			panels.add(motionDetectedPanel);
+		}
+		if(interactivePanel!=null) {
+			panels.add(interactivePanel);
+		}
 		
-		if(bus != null) {
-			try {
-				byte[] bytes = new byte[2];
-				
-				I2CDevice controller = bus.getDevice(0x23);
-				controller.write((byte) 0x20);
-				int count = controller.read(bytes,0,2);
-				if(count!=2) {
-					throw new IOException("unexpected amount of bytes read from light sensor: "+count);
-				}
-				int brightness = bytes[0]*256+bytes[1];
-				log.fine("brightness read from sensor: HB="+bytes[0]+" LB="+bytes[1]+" brighntess="+brightness);
-				
-				
-				// start with a simple quadratic relation for bright situations and go linear when it gets darker
-				if(brightness>=5) {
-					brightness *= brightness;
-				}
-				
-				// if brightness got overridden by MQTT message, use this instead of sensor value
-				if(brightnessOverrideValue>0 ) {
-					// assume that 100% brightness override value fits to full brightness
-					log.fine("overriding brightness with value from MQTT override message: "+brightnessOverrideValue);
-					brightness = (int) (brightnessOverrideValue*2.55);
-				}
-				
-				brightness = Integer.min(brightness, 255);
-				brightness = Integer.max(brightness, 3);
-				
-				if((byte)brightness != projectorBrightnessSetting) {
-					log.fine("adjusting projector brightness to "+brightness);
-					projectorBrightnessSetting = (byte)brightness;
-					
-					I2C_BRIGHTNESS_R[I2C_BRIGHTNESS_R.length-1] = projectorBrightnessSetting;
-					I2C_BRIGHTNESS_G[I2C_BRIGHTNESS_G.length-1] = projectorBrightnessSetting;
-					I2C_BRIGHTNESS_B[I2C_BRIGHTNESS_B.length-1] = projectorBrightnessSetting;
-					
-					controller = bus.getDevice(0x1b);
-					
-					controller.write(I2C_BRIGHTNESS_R);
-					controller.write(I2C_BRIGHTNESS_G);
-					controller.write(I2C_BRIGHTNESS_B);
-					controller.write(I2C_BRIGHTNESS_SET1);
-					controller.write(I2C_BRIGHTNESS_SET2);
-					
-					// and adjust foreground colors of panels
-					List<ViewData> viewDataList = Configuration.getConfiguration().getViewDataList();
-					for(ViewData viewData:viewDataList) {
-						if(brightness>10) {
-							log.fine("adjusting foreground color to bright for panel "+viewData.name);
-							viewData.panel.setColorBright();
-						}
-						else {
-							log.fine("adjusting foreground color to dark for panel "+viewData.name);
-							viewData.panel.setColorDark();
-						}
-					}
-				}
-			} catch (IOException e) {
-				log.severe("Exception during i2c write/read: "+e.getMessage());
+		log.fine(() -> "adjusting foreground color to "+(bright ? "bright" : "dark")+" for "+panels.size()+" panels");
+		for(Panel panel:panels) {
+			if(bright) {
+				panel.setColorBright();
+			}
+			else {
+				panel.setColorDark();
 			}
 		}
 	}
 	
 	/**
-	 * enables or disables the display
+	 * enables or disables the display. The display is switched in the background
 	 * @param enable true to enable, false to disable
 	 */
-	private synchronized void enableDisplay(boolean enable) {
-		log.finest("enableDisplay called with parameter: "+enable);
+	private void enableDisplay(boolean enable) {
+		log.finest(() -> "enableDisplay called with parameter: "+enable);
 		
-		if(enable==displayEnabled) {
-			// do nothing
-			return;
+		synchronized(wakeLock) {
+			if(!enable) {
+				wakeTime = 0;
+			}
+			else if(wakeTime==0 && !displayPowerController.isPoweredOn()) {
+				wakeTime         = System.nanoTime();
+				wakeContentShown = false;
+				wakeSwitchedOn   = false;
+			}
 		}
+		schedulerWakeup.request(enable);
+	}
+	
+	/**
+	 * switches the display on or off, called on the display power thread
+	 * @param enable true to enable, false to disable
+	 * @throws IOException if the external command to switch the display fails
+	 */
+	private void switchDisplayPower(boolean enable) throws IOException {
+		log.fine(() -> "changing display enabled state to "+enable);
 		
-		log.fine("changing display enabled state to "+enable);
+		if(enable) {
+			// the display power state is on already: everything deferred while dark gets painted,
+			// and the scheduler selects the view to show right away unless it requested the display itself
+			if(mainWindow!=null) {
+				mainWindow.repaint();
+			}
+			schedulerWakeup.displaySwitchedOn();
+		}
 		
 		// code for DSP2000 projector
-		if(Configuration.getConfiguration().isRunningOnRaspberry() && screenType==ScreenType.PROJECTOR) {
-			if(bus==null) {
-				int i2cbus = 0;
-				try {
-					i2cbus = Configuration.getConfiguration().getValue("global","i2cbus",I2CBus.BUS_3);
-					bus = I2CFactory.getInstance(i2cbus);
-					log.config("Successfully detected i2c bus "+i2cbus );
-				} catch (UnsupportedBusNumberException | IOException e) {
-					log.severe("Unable to get I2C Factory for i2cbus  "+i2cbus);
-				}
-			}
-			
-			gpioProjectorPower.setState(enable ? PinState.HIGH : PinState.LOW);
-			
-			if(enable) {
-				try {
-					// sleep 1s until controller has booted up
-					Thread.sleep(PROJECTOR_BOOT_TIME);
-				} catch (InterruptedException e) {
-					log.severe(e.getMessage());
-				}
-				
-				boolean success = false;
-				int counter     = 0;
-				while(!success && counter<10) {
-					try {
-						counter++;
-						I2CDevice controller = bus.getDevice(0x1b);
-						
-						controller.write(I2C_OUTPUT_FORMAT);
-						controller.write(I2C_OUTPUT_RASPI);
-						success = true;
-						log.fine("I2C setup success at execution "+counter);
-					} catch (IOException e) {
-						log.severe("I2C Exception: "+e.getMessage());
-					}
-				}
-
-				// always start with projector brightness as small as possible
-				I2CDevice controller;
-				try {
-					controller = bus.getDevice(0x1b);
-					
-					projectorBrightnessSetting = 1;
-					I2C_BRIGHTNESS_R[I2C_BRIGHTNESS_R.length-1] = projectorBrightnessSetting;
-					I2C_BRIGHTNESS_G[I2C_BRIGHTNESS_G.length-1] = projectorBrightnessSetting;
-					I2C_BRIGHTNESS_B[I2C_BRIGHTNESS_B.length-1] = projectorBrightnessSetting;
-					
-					controller.write(I2C_BRIGHTNESS_R);
-					controller.write(I2C_BRIGHTNESS_G);
-					controller.write(I2C_BRIGHTNESS_B);
-					controller.write(I2C_BRIGHTNESS_SET1);
-					controller.write(I2C_BRIGHTNESS_SET2);
-				} catch (IOException e) {
-					log.severe("I2C Exception: "+e.getMessage());
-				}
-			}
+		if(projectorPower!=null && screenType==ScreenType.PROJECTOR) {
+			projectorPower.setPower(enable);
 		}
 		
 		// code for HDMI display
-		if(Configuration.getConfiguration().isRunningOnRaspberry() && screenType==ScreenType.DISPLAY) {
+		if(hardware!=null && screenType==ScreenType.DISPLAY) {
 			if(gpioOutScreenEnable!=null) {
 				// enable/disable display power thru GPIO
 				log.fine("enable/display screen power");
-				gpioOutScreenEnable.setState(enable ? PinState.HIGH : PinState.LOW);
+				gpioOutScreenEnable.setState(enable);
 			}
 			else {
 				// enable/disable display thru wlr-randr
-				String command = "wlr-randr --output DSI-1 --"+(enable ? "on" : "off");
-				log.fine("enable/displable display by executing command: "+command);
-				try {
-					Runtime.getRuntime().exec(command);
-				} catch (IOException e) {
-					log.severe("Unable to execute command: "+command);
-					log.severe(e.getMessage());
-				}
+				hardware.setDisplayOutput(enable);
 			}
-			
 		}
 		
-		displayEnabled = enable;
+		publishStatus("display", enable ? "on" : "off");
+		if(enable) {
+			wakeProgress(false, true);
+		}
+	}
+	
+	/**
+	 * publishes a status value as retained MQTT message below the topic configured by statusMqttTopic in section [screen].
+	 * Values are batched by the MQTT client
+	 * @param name  name of the value, appended to the status topic
+	 * @param value value to publish
+	 */
+	private void publishStatus(String name,String value) {
+		MqttClient mqttClient;
+		if(statusTopic!=null && (mqttClient=MqttClient.getMqttClient())!=null) {
+			mqttClient.publishStatus(statusTopic+"/"+name, value);
+		}
 	}
 
+	/**
+	 * replays a recorded trace of motion and light on simulated hardware, as configured by
+	 * simulationTrace and simulationSpeed in section [global]
+	 * @param motionDetectionGpio GPIO of the motion sensor
+	 */
+	private void startTraceReplay(int motionDetectionGpio) {
+		String traceFile = Configuration.getConfiguration().getValue("global", "simulationTrace", null);
+		if(!(hardware instanceof SimulatedHardware) || traceFile==null) {
+			return;
+		}
+		
+		double speed = Configuration.getConfiguration().getValue("global", "simulationSpeed", 1.0);
+		TraceReplayer replayer;
+		try {
+			replayer = TraceReplayer.load(new File(traceFile));
+		} catch (IOException e) {
+			log.severe("Unable to load simulation trace: "+e.getMessage());
+			return;
+		}
+		log.config("replaying "+replayer.size()+" events from "+traceFile+" with speed "+speed);
+		
+		Thread thread = new Thread(() -> {
+			try {
+				replayer.replay((SimulatedHardware)hardware, motionDetectionGpio, speed);
+				log.info("simulation trace replayed");
+			} catch (InterruptedException e) {
+				log.warning("simulation trace replay interrupted");
+			}
+		}, "TraceReplay");
+		thread.setDaemon(true);
+		thread.start();
+	}
+	
 	/**
 	 * initializes the handling of the interactive panel
 	 */
@@ -668,7 +734,7 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 			interactivePanel = null;
 			for(ViewData viewData:Configuration.getConfiguration().getViewDataList()) {
 				if(viewData.panel!=null) {
-					log.fine("view has panel class: "+viewData.panel.getClass().getName());
+					log.fine(() -> "view has panel class: "+viewData.panel.getClass().getName());
 					if(interactivePanel==null && viewData.panel.getClass().getName().equals("picturepi."+interactivePanelName)) {
 						log.fine("interactive panel already exists in scheduler");
 						interactivePanel = viewData.panel;
@@ -680,25 +746,16 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 			
 			if(interactivePanel==null) {
 				// panel not found yet. Create it
-				interactivePanel = Panel.createPanelFromName(interactivePanelName,null);
-
-				// call init() on the provider
-				if(interactivePanel!=null) {
-					Provider provider = interactivePanel.getProvider();
-					if(provider!=null) {
-						log.fine("calling init for provider of interactive panel");
-						provider.init();
-					}
-				}
+				interactivePanel = Panel.createPanelFromNameOnEventThread(interactivePanelName,null);
 			}
 
 			if(interactivePanel!=null) {
-				log.fine("successfully created interactive panel "+interactivePanelName);
+				log.fine(() -> "successfully created interactive panel "+interactivePanelName);
 				
 				Configuration.ViewData viewData = new ViewData();
 				viewData.name = "interactive view";
 				viewData.panel = interactivePanel;
-				interactivePanel.addActiveView(viewData);
+				activateAfterInit(viewData);
 			}
 		}
 		else {
@@ -707,20 +764,158 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 	}
 	
 
+	/**
+	 * prepares the views mapped to bluetooth buttons and connects to flicd
+	 */
+	private void initializeButtonViews() {
+		List<ButtonClickViewData> buttonViews = Configuration.getConfiguration().getButtonViewList();
+		if(buttonViews.isEmpty()) {
+			log.config("no views mapped to bluetooth buttons");
+			return;
+		}
+		
+		String flicdHost = Configuration.getConfiguration().getValue("global", "flicdHost", "localhost");
+		int    flicdPort = Configuration.getConfiguration().getValue("global", "flicdPort", 5551);
+		log.config("configuring "+buttonViews.size()+" button views, flicd at "+flicdHost+":"+flicdPort);
+		
+		buttonController = new ButtonController(buttonViews, this::buttonViewRequested);
+		buttonController.prepareViews(viewName2panelMap, providerInitializer);
+		buttonController.start(flicdHost, flicdPort);
+	}
+	
+	/**
+	 * checks if the provider of a panel is initialized and starts the initialization if not
+	 * @param  panel panel to check
+	 * @return true if the panel can be activated
+	 */
+	private boolean isInitialized(Panel panel) {
+		return panel.provider==null || providerInitializer.ensureInitialized(panel.provider);
+	}
+	
+	/**
+	 * starts the providers of all views that are shown now or whose display period starts within the warm up time,
+	 * so they have fresh data when the scheduler selects them. Logs if the data of a warmed up view was ready
+	 * when its display period started
+	 * @param viewDataList scheduled views
+	 */
+	private void warmUpViews(List<ViewData> viewDataList) {
+		for(ViewData viewData:viewDataList) {
+			boolean isUpcoming = isUpcoming(viewData);
+			if((isUpcoming || viewData.showNow()) && isInitialized(viewData.panel)) {
+				viewData.panel.addActiveView(viewData);
+			}
+			
+			if(isUpcoming) {
+				if(warmingViews.add(viewData)) {
+					log.fine(() -> "warming up view "+viewData.name+", display period starts at "+viewData.displayStart);
+				}
+			}
+			else if(warmingViews.remove(viewData) && viewData.isScheduled()) {
+				log.info("display period of view "+viewData.name+" started, data "+(viewData.panel.hasData() ? "ready" : "not ready yet"));
+			}
+		}
+	}
+	
+	/**
+	 * @param  viewData view to check
+	 * @return true if the display period of the view starts within the warm up time
+	 */
+	private boolean isUpcoming(ViewData viewData) {
+		return warmUpTime>0 && viewData.startsWithin(LocalTime.now(), warmUpTime);
+	}
+	
+	/**
+	 * called on the event dispatch thread whenever the main window shows a panel
+	 * @param panel panel which is visible now
+	 */
+	private void panelShown(Panel panel) {
+		if(panel!=motionDetectedPanel && panel.hasData()) {
+			wakeProgress(true, false);
+		}
+	}
+	
+	/**
+	 * records the progress of the last display wake and reports its latency as soon as the display
+	 * is switched on and shows a panel with data
+	 * @param contentShown true if a panel with data was shown
+	 * @param switchedOn   true if the display power transition to on completed
+	 */
+	private void wakeProgress(boolean contentShown,boolean switchedOn) {
+		long latency;
+		synchronized(wakeLock) {
+			if(wakeTime==0) {
+				return;
+			}
+			wakeContentShown |= contentShown;
+			wakeSwitchedOn   |= switchedOn;
+			if(!wakeContentShown || !wakeSwitchedOn) {
+				return;
+			}
+			latency  = (System.nanoTime()-wakeTime)/1000000;
+			wakeTime = 0;
+		}
+		log.info("content shown "+latency+" ms after display wake");
+		publishStatus("wakeLatency", Long.toString(latency));
+	}
+	
+	/**
+	 * activates a view permanently as soon as init() of the provider of its panel returned, even if init() failed
+	 * @param viewData view to activate
+	 */
+	private void activateAfterInit(ViewData viewData) {
+		Provider provider = viewData.panel.getProvider();
+		if(provider!=null) {
+			providerInitializer.initialize(provider).whenComplete((result,exception) -> viewData.panel.addActiveView(viewData));
+		}
+		else {
+			viewData.panel.addActiveView(viewData);
+		}
+	}
+	
+	/**
+	 * adds all panels that can be displayed to the main window
+	 */
+	private void realizePanels() {
+		Set<Panel> panels = Collections.newSetFromMap(new IdentityHashMap<>());
+		Configuration.getConfiguration().getViewDataList().stream().map(viewData -> viewData.panel).forEach(panels::add);
+		Configuration.getConfiguration().getButtonViewList().stream().map(view -> view.panel).forEach(panels::add);
+		panels.add(motionDetectedPanel);
+		panels.add(interactivePanel);
+		panels.remove(null);
+		
+		log.config("realizing "+panels.size()+" panels");
+		mainWindow.addPanels(panels);
+	}
+	
+	/**
+	 * called by the button controller if a view was requested thru a bluetooth button
+	 * @param view requested view
+	 */
+	private void buttonViewRequested(ButtonClickViewData view) {
+		log.info("button click for view "+view.viewName);
+		
+		// enter motion detected period, start counter
+		motionDetectedPeriod = true;
+		motionDetected	     = true;
+		displayOnCounter	 = motionDetectedOnTime*1000;
+		
+		buttonViewRequestTime = System.nanoTime();
+		requestedButtonView.set(view);
+		schedulerThread.interrupt();
+	}
 	
 	@Override
 	public void messageArrived(String topic, MqttMessage message) throws Exception {
-		log.fine("MQTT message arrived: topic="+topic);
-		log.finest("MQTT message arrived: topic="+topic+" content="+message);
+		log.fine(() -> "MQTT message arrived: topic="+topic);
+		log.finest(() -> "MQTT message arrived: topic="+topic+" content="+message);
 
-		String motionDetectionTopic = Configuration.getConfiguration().getValue("screen", MQTT_TOPIC_MOTION_DETECTION, null);
-		if(motionDetectionTopic!=null && topic.equals(motionDetectionTopic)) {
+		if(topic.equals(motionDetectionTopic)) {
 			if(new String(message.getPayload()).toLowerCase().equals("on")) {
 				// enter motion detected period, start counter
 				motionDetectedPeriod = true;
 				motionDetected	     = true;
 				displayOnCounter	 = motionDetectedOnTime*1000;
-				log.fine("motion detected ON received, on-time [s]: "+motionDetectedOnTime);
+				log.fine(() -> "motion detected ON received, on-time [s]: "+motionDetectedOnTime);
 
 				if(scheduledViewActive) {
 					// enable display
@@ -746,10 +941,57 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 			}
 		}
 		
-		if(topic.equals(Configuration.getConfiguration().getValue("screen", MQTT_TOPIC_BRIGHTNESS_OVERRIDE, null))) {
-			log.fine("received brightness override message, brigntness="+new String(message.getPayload()));
+		if(topic.equals(brightnessOverrideTopic)) {
+			log.fine(() -> "received brightness override message, brigntness="+new String(message.getPayload()));
 			
-			brightnessOverrideValue = Double.valueOf(new String(message.getPayload()));
+			if(brightnessController!=null) {
+				brightnessController.setOverride(Double.valueOf(new String(message.getPayload())));
+				adjustBrightness();
+			}
+		}
+	}
+
+	/**
+	 * applies changed settings of the screen section of the configuration file
+	 * @param snapshot new configuration
+	 */
+	private void screenConfigurationChanged(ConfigurationSnapshot snapshot) {
+		motionDetectedOnTime        = snapshot.getInt("screen", "motionDetectionOnTime", 60);
+		interactivePanelDisplayTime = snapshot.getInt("screen", INTERACTIVE_PANEL_DISPLAY_TIME_KEY, 30);
+		log.config("motion detection on-time [s]="+motionDetectedOnTime+" interactive panel display time [s]="+interactivePanelDisplayTime);
+		
+		String topic = snapshot.getString("screen", MQTT_TOPIC_MOTION_DETECTION, null);
+		if(!Objects.equals(topic, motionDetectionTopic)) {
+			log.config("new motion detection MQTT topic: "+topic);
+			resubscribe(motionDetectionTopic, topic);
+		}
+		motionDetectionTopic = topic;
+		
+		topic = snapshot.getString("screen", MQTT_TOPIC_BRIGHTNESS_OVERRIDE, null);
+		if(!Objects.equals(topic, brightnessOverrideTopic)) {
+			log.config("new brightness override MQTT topic: "+topic);
+			resubscribe(brightnessOverrideTopic, topic);
+		}
+		brightnessOverrideTopic = topic;
+	}
+	
+	/**
+	 * moves the subscription of this object from one MQTT topic to another
+	 * @param oldTopic topic to unsubscribe or null
+	 * @param newTopic topic to subscribe or null
+	 */
+	private void resubscribe(String oldTopic,String newTopic) {
+		MqttClient mqttClient = MqttClient.getMqttClient();
+		if(mqttClient==null) {
+			log.severe("Unable to change MQTT subscription: no MQTT broker configured");
+			return;
+		}
+		
+		if(oldTopic!=null) {
+			mqttClient.unsubscribe(oldTopic, this);
+		}
+		if(newTopic!=null) {
+			mqttClient.subscribe(newTopic, this);
 		}
 	}
 
@@ -767,7 +1009,7 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 		motionDetectedPeriod = true;
 		motionDetected	     = true;
 		displayOnCounter	 = motionDetectedOnTime*1000;
-		log.fine("(re-)started motion detected period, on-time [s]: "+motionDetectedOnTime);
+		log.fine(() -> "(re-)started motion detected period, on-time [s]: "+motionDetectedOnTime);
 
 		schedulerThread.interrupt();
 	}
@@ -791,16 +1033,19 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 	
 	private static final String MQTT_TOPIC_MOTION_DETECTION    = "motionDetectionMqttTopic";
 	private static final String MQTT_TOPIC_BRIGHTNESS_OVERRIDE = "brightnessOverrideMqttTopic";
+	private static final String MQTT_TOPIC_STATUS              = "statusMqttTopic";
 	
 	private MainWindow mainWindow;
 	
 	private enum ScreenType {DISPLAY,PROJECTOR};                // possible screen types
 	private ScreenType screenType = null;                       // actual screen type
 	
-	private I2CBus             bus                     = null;
-	private boolean            displayEnabled          = true;   // tracks if display is currently enabled. Must have initial value of true
+	private DisplayPowerController displayPowerController = null; // switches the display power on its own thread
+	private SchedulerWakeup        schedulerWakeup        = null; // wakes the scheduler when the display is switched on
 	private boolean            scheduledViewActive     = false;  // tracks if a view is active based on time schedule
-	private double             brightnessOverrideValue = 0.0;    // stores brightness override values received thru MQTT
+	private volatile String    brightnessOverrideTopic = null;   // MQTT topic for brightness override messages
+	private volatile String    motionDetectionTopic    = null;   // MQTT topic for motion detection messages
+	private volatile String    statusTopic             = null;   // MQTT topic prefix for status messages
 
 	// handling of motion detection
 	private boolean            motionDetected          = false;  // reflects if motion sensor currently detects motion
@@ -816,31 +1061,33 @@ public class PicturePi implements IMqttMessageListener,Runnable,MouseListener {
 	private Panel               interactivePanel              = null;                      // panel to display after a touch or mouse click
 	private int                 interactivePanelDisplayTime   = 30;                        // time in s how long interactive panel is displayed after touch or mouse click
 	
+	// handling of views activated thru bluetooth buttons
+	private ButtonController                         buttonController      = null;                        // connection to flicd
+	private AtomicReference<ButtonClickViewData>     requestedButtonView   = new AtomicReference<>(null); // view requested thru a button click
+	private volatile long                            buttonViewRequestTime = 0;                           // System.nanoTime() of the last button click
+	
 	private Map<String,Panel>  viewName2panelMap       = null;   // maps view names to panel objects                  
+	private ProviderInitializer providerInitializer    = null;   // calls init() of the providers in the background
 	
 	private Thread             schedulerThread         = null;   // thread object that is running the scheduler
 	
-
-	// pi4j objects for GPIO
-	private final GpioController       gpioController ;        // GPIO controller instance
-	private GpioPinDigitalOutput gpioOutScreenEnable;    // turn screen on/off, P1-11
-	private GpioPinDigitalInput  gpioInPIRSensor;        // PIR motion sensor HC-SR501 input pint
-	private GpioPinDigitalOutput gpioProjectorPower;     // control pin for Projector power enable
-
-	// i2c commands for projector control
-	static final byte I2C_OUTPUT_FORMAT[]    = {0x0c, 0x00, 0x00, 0x00, 0x13};
-	static final byte I2C_OUTPUT_RASPI[]     = {0x0b, 0x00, 0x00, 0x00, 0x00};
-	static final byte I2C_BRIGHTNESS_R[]     = {0x12, 0x00, 0x00, 0x00, 0x01};
-	static final byte I2C_BRIGHTNESS_G[]     = {0x13, 0x00, 0x00, 0x00, 0x01};
-	static final byte I2C_BRIGHTNESS_B[]     = {0x14, 0x00, 0x00, 0x00, 0x01};
-	static final byte I2C_BRIGHTNESS_SET1[]  = {0x3a, 0x00, 0x00, 0x00, 0x01};
-	static final byte I2C_BRIGHTNESS_SET2[]  = {0x38, 0x00, 0x00, 0x00, (byte)0xd3};
+	// warm up of providers and wake latency
+	private int                warmUpTime              = 120;    // time in s to start the providers before the display period of a view
+	private final Set<ViewData> warmingViews           = Collections.newSetFromMap(new IdentityHashMap<>()); // views started ahead of their display period
+	private volatile long      wakeTime                = 0;      // System.nanoTime() of the last display wake, 0 if content was shown since
+	private boolean            wakeContentShown        = false;  // true if a panel with data was shown since the last display wake
+	private boolean            wakeSwitchedOn          = false;  // true if the display was switched on since the last display wake
+	private final Object       wakeLock                = new Object(); // guards the progress of the last display wake
 	
-	private byte  projectorBrightnessSetting = 1;  // current value for the brightness setting of the projector
+
+	// hardware access
+	private final Hardware                     hardware;               // hardware or null if no hardware is controlled
+	private Hardware.DigitalOutput             gpioOutScreenEnable;    // turn screen on/off, P1-11
+	private Hardware.DigitalInput              gpioInPIRSensor;        // PIR motion sensor HC-SR501 input pint
+	private ProjectorPower                     projectorPower       = null;  // switches the projector power, null if no projector
+	private BrightnessController               brightnessController = null;  // controls the projector brightness from the light sensor
 	
-	static final int SLEEP_TIME          = 60000;   // sleep time for view scheduler in ms
-	static final int PROJECTOR_BOOT_TIME = 600;     // projector on time after motion detection in ms
+	static final int SLEEP_TIME           = 60000;   // sleep time for view scheduler in ms
+	static final int STARTUP_POLL_TIME    = 500;     // sleep time for view scheduler in ms while providers start up
+	static final int PROJECTOR_POWER_GPIO = 2;       // GPIO for projector power enable
 }
-
-
-
@@ -34,7 +34,6 @@ import com.drew.imaging.ImageMetadataReader;
 import com.drew.imaging.ImageProcessingException;
 import com.drew.metadata.Metadata;
 import com.drew.metadata.exif.ExifIFD0Directory;
-import com.drew.metadata.exif.ExifSubIFDDirectory;
 
 
 /*
@@ -47,10 +46,29 @@ public class PictureProvider extends Provider {
 		super(60);
 		log.fine("PictureProvider created");
 		
-		int refreshInterval = Configuration.getConfiguration().getValue("PicturePanel", "refreshInterval", 60);
-		log.config("refresh interval="+refreshInterval+" seconds");
+		applyConfiguration(Configuration.getConfiguration().getSnapshot());
+	}
+	
+	@Override
+	protected void configurationChanged(ConfigurationSnapshot snapshot) {
+		applyConfiguration(snapshot);
 		
+		// build a new picture list with the new settings
+		lastDate = null;
+	}
+	
+	/**
+	 * reads the settings of the picture panel
+	 * @param snapshot configuration to read from
+	 */
+	private void applyConfiguration(ConfigurationSnapshot snapshot) {
+		int refreshInterval = snapshot.getInt("PicturePanel", "refreshInterval", 60);
+		log.config("refresh interval="+refreshInterval+" seconds");
 		setSleepTime(refreshInterval);
+		
+		rootDirName    = snapshot.getString("PicturePanel", "rootDir", null);
+		legacyMode     = snapshot.getBoolean("PicturePanel", "legacyMode", false);
+		picturesPerDay = snapshot.getInt("PicturePanel", "picturesPerDay", 100);
 	}
 
 	@Override
@@ -71,9 +89,8 @@ public class PictureProvider extends Provider {
 		LocalDate today = LocalDate.now();
 		if(lastDate==null || lastDate.isEqual(today)==false) {
 			// new day started. Build new list of pictures to be displayed today
-			log.fine("new day started: "+today);
+			log.fine(() -> "new day started: "+today);
 
-			boolean legacyMode = Configuration.getConfiguration().getValue("PicturePanel", "legacyMode", false);
 			if(legacyMode) {
 				log.fine("legacy mode enabled");
 
@@ -83,7 +100,6 @@ public class PictureProvider extends Provider {
 				log.fine("legacy mode disabled");
 
 				// get number of pictures to display per day
-				int picturesPerDay = Configuration.getConfiguration().getValue("PicturePanel", "picturesPerDay", 100);
 				log.config("pictures to display per day: "+picturesPerDay);
 
 				// collect all pictures and map them to their date
@@ -155,7 +171,7 @@ public class PictureProvider extends Provider {
 			}
 			int width  = (int)dimension.getWidth();
 			int height = (int)dimension.getHeight();
-			log.fine("panel dimension: "+ dimension);
+			log.fine(() -> "panel dimension: "+ dimension);
 			
 			BufferedImage scaledImage = new BufferedImage(width, height,BufferedImage.TYPE_4BYTE_ABGR);
 			
@@ -180,26 +196,18 @@ public class PictureProvider extends Provider {
 	        Graphics2D graphics2D = scaledImage.createGraphics();
 	        graphics2D.setRenderingHint(RenderingHints.KEY_INTERPOLATION,RenderingHints.VALUE_INTERPOLATION_BILINEAR);
 	        boolean rc = graphics2D.drawImage(image, 0, 0, width, height, null);
-	        log.finest("drawImage returned "+rc);
+	        log.finest(() -> "drawImage returned "+rc);
 	        graphics2D.dispose();
 	        
 	        // get metadata (year)
 	        String year = "";
 	        try {
-				Metadata metadata = ImageMetadataReader.readMetadata(file);
-				ExifIFD0Directory directory = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
-
-				if(directory!=null) {
-					Date date = directory.getDate(ExifIFD0Directory.TAG_DATETIME);
-					if(date!=null) {
-						year = new SimpleDateFormat("yyyy").format(date);
-					}
-					log.finest("Image has year set to: "+year);
+				Date date = ExifReader.readDate(file);
+				if(date!=null) {
+					year = new SimpleDateFormat("yyyy").format(date);
 				}
-				else {
-					log.warning("reading metadata: directory is null");
-				}
-			} catch (ImageProcessingException e) {
+				log.finest("Image has year set to: "+year);
+			} catch (IOException e) {
 				log.warning("Unable to access image file to read metadata: "+file);
 			}
 			
@@ -221,7 +229,6 @@ public class PictureProvider extends Provider {
 
 		log.fine("creating pictureDate list");
 		
-		String rootDirName = Configuration.getConfiguration().getValue("PicturePanel", "rootDir", null);
 		
 		if(rootDirName==null) {
 			log.severe("No picture rootDir specified - no pictures to display");;
@@ -247,7 +254,7 @@ public class PictureProvider extends Provider {
     		log.severe("Unable to retrieve files from picture directory - null returned");
 			return;
     	}
-		log.fine("found "+files.length+" files in picture directory "+rootDir);
+		log.fine(() -> "found "+files.length+" files in picture directory "+rootDir);
 
 		// create PictureDate objects for each file
 		for(String file:files) {
@@ -256,27 +263,17 @@ public class PictureProvider extends Provider {
 
 			// get picture data from EXIF data
 			try {
-				Metadata metadata = ImageMetadataReader.readMetadata(pictureDate.file);
-				ExifIFD0Directory directory = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
+				Date date = ExifReader.readDate(pictureDate.file);
+				if(date!=null) {	
+					log.finest(() -> file+" has date set to: "+new SimpleDateFormat("yyyy.MM.dd").format(date));
 
-				if(directory!=null) {
-					Date date = directory.getDate(ExifIFD0Directory.TAG_DATETIME);
-					if(date!=null) {	
-						log.finest(file+" has date set to: "+new SimpleDateFormat("yyyy.MM.dd").format(date));
-
-						LocalDate localDate = date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-						pictureDate.date = localDate;
-						pictureDateList.add(pictureDate);
-					}
-					else {
-						log.warning(file+": reading metadata: date is null");
-					}
+					LocalDate localDate = date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+					pictureDate.date = localDate;
+					pictureDateList.add(pictureDate);
 				}
 				else {
-					log.warning(file+": reading metadata: directory is null");
+					log.warning(file+": reading metadata: date is null");
 				}
-			} catch (ImageProcessingException  e) {
-				log.warning("Unable to access image file to read metadata: "+file);
 			}
 			catch (IOException e) {
 				log.warning("Unable to access image file to read metadata: "+file);
@@ -318,7 +315,6 @@ public class PictureProvider extends Provider {
 	List<File> createPictureList() {
 		log.fine("creating picture list");
 		
-		String rootDirName = Configuration.getConfiguration().getValue("PicturePanel", "rootDir", null);
 		List<File> localList = new LinkedList<File>();
 		
 		if(rootDirName==null) {
@@ -333,7 +329,7 @@ public class PictureProvider extends Provider {
 	    	return localList;
 	    }
 		
-		log.fine("building picture list from root dir "+rootDirName);
+		log.fine(() -> "building picture list from root dir "+rootDirName);
 		File commonDir = new File(rootDirName, "common");
 	    if(!commonDir.isDirectory()) {
 	    	log.severe("common dir is not a directory: "+commonDir);
@@ -354,7 +350,7 @@ public class PictureProvider extends Provider {
     	else {
 	    	log.fine("found "+files.length+" files in common directory "+commonDir);
 	    	for(String file:files) {
-    			log.finest("Adding picture "+file);
+    			log.finest(() -> "Adding picture "+file);
     			localList.add(new File(commonDir,file));
 	    	}
     	}
@@ -362,7 +358,7 @@ public class PictureProvider extends Provider {
     	// add pictures for the month
     	String month = LocalDate.now().format(DateTimeFormatter.ofPattern("MM"));
     	File monthDir = new File(rootDir,month);
-    	log.fine("adding pictures of the month from "+monthDir);
+    	log.fine(() -> "adding pictures of the month from "+monthDir);
     	
     	if(monthDir.isDirectory()) {
 	    	files = monthDir.list(new FilenameFilter() {
@@ -378,7 +374,7 @@ public class PictureProvider extends Provider {
 	    	else {
 		    	log.fine("found "+files.length+" files in month directory "+monthDir);
 		    	for(String file:files) {
-	    			log.finest("Adding picture "+file);
+	    			log.finest(() -> "Adding picture "+file);
 	    			localList.add(new File(monthDir,file));
 		    	}
 	    	}
@@ -387,7 +383,7 @@ public class PictureProvider extends Provider {
     	// add pictures for the day - if any
     	String day = LocalDate.now().format(DateTimeFormatter.ofPattern("dd"));
     	File dayDir = new File(monthDir,day);
-    	log.fine("adding pictures of the day from "+dayDir);
+    	log.fine(() -> "adding pictures of the day from "+dayDir);
     	
     	if(dayDir.isDirectory()) {
 	    	files = dayDir.list(new FilenameFilter() {
@@ -403,7 +399,7 @@ public class PictureProvider extends Provider {
 	    	else {
 		    	log.fine("found "+files.length+" files in day directory "+dayDir);
 		    	for(String file:files) {
-	    			log.finest("Adding picture "+file);
+	    			log.finest(() -> "Adding picture "+file);
 	    			localList.add(new File(dayDir,file));
 		    	}
 	    	}
@@ -439,7 +435,7 @@ public class PictureProvider extends Provider {
 			Optional<Element> elementUrl = all.stream().filter(e -> e.tag().getName().equals("meta")).filter(e -> e.attr("property").equals("og:image")).findFirst();
 			if(elementUrl.isPresent()) {
 				String url = elementUrl.get().attr("content");
-				log.finest("retrieved URL for Picture Of The Day: "+url);
+				log.finest(() -> "retrieved URL for Picture Of The Day: "+url);
 				return url;
 			}
 			else {
@@ -480,6 +476,10 @@ public class PictureProvider extends Provider {
 	private LocalDate        lastDate  = null;                      // date when last picture list was built
 	private List<File>       imageList = new LinkedList<File>();    // list with filenames of images to display
 	private Iterator<File>   imageIterator;                         // iterator over image list
+	
+	private volatile String  rootDirName;                           // root directory of the pictures
+	private volatile boolean legacyMode;                            // true to display all pictures in random order
+	private volatile int     picturesPerDay;                        // number of pictures to display per day
 
 	// local class to associate a picture with a date
 	private class PictureDate {
@@ -489,4 +489,23 @@ public class PictureProvider extends Provider {
 
 	private List<PictureDate> pictureDateList = new LinkedList<PictureDate>();
 
+	// reads EXIF data. Separate class, so metadata-extractor gets loaded only when the first picture is read
+	private static class ExifReader {
+		/**
+		 * reads the date a picture was taken
+		 * @param  file picture file
+		 * @return date or null if the picture has no date
+		 * @throws IOException if the metadata could not be read
+		 */
+		static Date readDate(File file) throws IOException {
+			try {
+				Metadata metadata = ImageMetadataReader.readMetadata(file);
+				ExifIFD0Directory directory = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
+				return directory!=null ? directory.getDate(ExifIFD0Directory.TAG_DATETIME) : null;
+			}
+			catch (ImageProcessingException e) {
+				throw new IOException(e.getMessage());
+			}
+		}
+	}
 }
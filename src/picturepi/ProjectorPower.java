@@ -0,0 +1,95 @@
+package picturepi;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Switches the power of the DLP2000 projector and controls its brightness from the ambient light sensor.
+ * All methods are called on the display power thread, so power transitions and brightness updates never overlap.
+ */
+class ProjectorPower implements DisplayPowerController.PowerSwitch {
+
+	/**
+	 * constructor
+	 * @param hardware hardware the projector is connected to
+	 * @param power    control pin for the projector power enable
+	 */
+	ProjectorPower(Hardware hardware,Hardware.DigitalOutput power) {
+		this.hardware = hardware;
+		this.power    = power;
+	}
+
+	/**
+	 * creates the brightness control thru the ambient light sensor. The brightness is only written while the projector is on
+	 * @param  sensor          ambient light sensor
+	 * @param  smoothing       smoothing factor of the light samples
+	 * @param  hysteresis      hysteresis in percent
+	 * @param  colorModeSwitch called with true for bright and false for dark panel colors
+	 * @return brightness controller, to be sampled periodically on the display power thread
+	 */
+	BrightnessController createBrightnessController(LightSensor sensor,double smoothing,int hysteresis,Consumer<Boolean> colorModeSwitch) {
+		brightnessController = new BrightnessController(sensor, new BrightnessController.Output() {
+			@Override
+			public void writeBrightness(int brightness) throws IOException {
+				getProjectorController().setBrightness(brightness);
+			}
+
+			@Override
+			public void setColorMode(boolean bright) {
+				colorModeSwitch.accept(bright);
+			}
+		}, smoothing, hysteresis);
+		brightnessController.setOutputEnabled(false);
+
+		return brightnessController;
+	}
+
+	@Override
+	public void setPower(boolean on) throws IOException {
+		if(brightnessController!=null) {
+			brightnessController.setOutputEnabled(false);
+		}
+
+		power.setState(on);
+
+		if(on) {
+			try {
+				Hardware.ProjectorController controller = getProjectorController();
+				controller.initialize();
+
+				// always start with projector brightness as small as possible
+				controller.setBrightness(1);
+			} catch (IOException e) {
+				log.severe("I2C Exception: "+e.getMessage());
+			}
+
+			// and let the brightness control take over with the next sample
+			if(brightnessController!=null) {
+				brightnessController.reset();
+				brightnessController.setOutputEnabled(true);
+			}
+		}
+	}
+
+	/**
+	 * @return projector controller, opened on first use
+	 * @throws IOException in case of an I2C error
+	 */
+	private Hardware.ProjectorController getProjectorController() throws IOException {
+		if(projectorController==null) {
+			projectorController = hardware.openProjectorController();
+		}
+		return projectorController;
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( ProjectorPower.class.getName() );
+
+	private final Hardware                     hardware;                     // hardware the projector is connected to
+	private final Hardware.DigitalOutput       power;                        // control pin for projector power enable
+	private       Hardware.ProjectorController projectorController  = null;  // DLPC2607 projector controller
+	private       BrightnessController         brightnessController = null;  // controls the projector brightness from the light sensor
+}
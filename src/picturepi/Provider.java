@@ -1,5 +1,7 @@
 package picturepi;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.logging.Logger;
 
 /**
@@ -32,6 +34,23 @@ public abstract class Provider implements Runnable {
 	protected void init() {
 	}
 	
+	/**
+	 * returns the views whose providers must be initialized before init() of this provider gets called.
+	 * init() of different providers runs in parallel. Can be overridden if init() accesses other providers
+	 * @return view names
+	 */
+	protected List<String> getInitDependencies() {
+		return Collections.emptyList();
+	}
+	
+	/**
+	 * gets called after the configuration file was changed and the section of the panel belonging
+	 * to this provider was modified. Can be overridden to apply the new settings without restart
+	 * @param snapshot new configuration
+	 */
+	protected void configurationChanged(ConfigurationSnapshot snapshot) {
+	}
+	
 	
 	/**
 	 * starts the provider thread
@@ -44,7 +63,7 @@ public abstract class Provider implements Runnable {
 		}
 		else {
 			if(thread==null) {
-				log.fine("starting provider thread "+getClass().getSimpleName());
+				log.fine(() -> "starting provider thread "+getClass().getSimpleName());
 				thread = new Thread(this);
 				thread.start();
 			}
@@ -72,26 +91,49 @@ public abstract class Provider implements Runnable {
 	@Override
 	public void run() {
 		// start endless loop
-		log.fine("Provider thread started for "+panel.getClass());
+		log.fine(() -> "Provider thread started for "+panel.getClass());
+		DisplayPowerState displayPowerState = DisplayPowerState.getDisplayPowerState();
+		boolean           hasFetched        = false;
 		while (thread!=null && !thread.isInterrupted()) {
-			try {
-				fetchData();
+			// while the display is dark, skip the update once data is available
+			boolean isPaused = hasFetched && isPausedWhileDark() && !displayPowerState.isOn();
+			if(isPaused) {
+				log.finest(() -> "display is dark, skipping update of "+getClass().getSimpleName());
 			}
-			catch(Throwable t) {
-				log.severe("Exception while calling fetchData for "+this.getClass().toString());
-				log.severe(t.getMessage());
+			else {
+				try {
+					fetchData();
+				}
+				catch(Throwable t) {
+					log.severe("Exception while calling fetchData for "+this.getClass().toString());
+					log.severe(t.getMessage());
+				}
+				hasFetched = true;
 			}
 			
 			try {
-				Thread.sleep(sleepTimeSeconds*1000);
+				if(isPaused) {
+					// an update is due: do it as soon as the display is switched on again
+					displayPowerState.awaitOn(sleepTimeSeconds*1000L);
+				}
+				else {
+					Thread.sleep(sleepTimeSeconds*1000);
+				}
 			} catch (InterruptedException e) {
-				log.fine("Provider thread interrupted for "+panel.getClass());
+				log.fine(() -> "Provider thread interrupted for "+panel.getClass());
 				thread = null;
 			} 
 		}
 		
 	}
 	
+	/**
+	 * @return true if the provider thread is running, i.e. a view of its panel is active
+	 */
+	boolean isRunning() {
+		return thread!=null;
+	}
+	
 	/**
 	 * sets the provider sleep time
 	 * @param sleepTimeSeconds sleep time in seconds
@@ -108,6 +150,16 @@ public abstract class Provider implements Runnable {
 		return panel;
 	}
 	
+	/**
+	 * returns if periodic updates are paused while the display is dark. Paused updates are done right away when
+	 * the display is switched on again. Can be overridden by providers whose updates are cheap, e.g. because
+	 * they decide if a view gets displayed at all
+	 * @return true to pause updates while the display is dark, default is true
+	 */
+	protected boolean isPausedWhileDark() {
+		return true;
+	}
+	
 	/**
 	 * returns if the provider currently has data that should be shown also outside of the scheduled time intervals
 	 * default is false, can be overridden by derived classes
@@ -125,7 +177,7 @@ public abstract class Provider implements Runnable {
 	// private members
 	private static final Logger log = Logger.getLogger( Provider.class.getName() );
 	
-	private int     sleepTimeSeconds;           // sleep time between refreshing data
-	private Thread  thread           = null;    // thread object
-	protected Panel panel            = null;    // panel object belonging to this provider
+	private          int    sleepTimeSeconds;           // sleep time between refreshing data
+	private volatile Thread thread           = null;    // thread object
+	protected        Panel  panel            = null;    // panel object belonging to this provider
 }
@@ -0,0 +1,124 @@
+package picturepi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Calls init() of the providers on a thread pool. A provider is initialized at most once and only after
+ * the providers it depends on. Providers can be initialized upfront or lazily when they are needed first.
+ */
+class ProviderInitializer {
+
+	/**
+	 * constructor
+	 * @param threads  number of threads initializing providers in parallel
+	 * @param resolver maps the view names returned by Provider.getInitDependencies() to providers, may return null
+	 */
+	ProviderInitializer(int threads,Function<String,Provider> resolver) {
+		this.resolver = resolver;
+
+		executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+			Thread thread = new Thread(runnable, "ProviderInit");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * starts the initialization of a provider and its dependencies if not started yet. Returns immediately
+	 * @param  provider provider to initialize
+	 * @return future completing after init() of the provider returned
+	 */
+	synchronized CompletableFuture<Void> initialize(Provider provider) {
+		return initialize(provider, Collections.newSetFromMap(new IdentityHashMap<>()));
+	}
+
+	/**
+	 * checks if a provider is initialized and starts the initialization if not
+	 * @param  provider provider to check
+	 * @return true if init() of the provider returned already
+	 */
+	boolean ensureInitialized(Provider provider) {
+		CompletableFuture<Void> future = initialize(provider);
+		return future.isDone();
+	}
+
+	/**
+	 * stops the initialization threads. Running initializations are interrupted
+	 */
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * starts the initialization of a provider
+	 * @param  provider provider to initialize
+	 * @param  visiting providers on the current dependency path, to detect cycles
+	 * @return future completing after init() of the provider returned
+	 */
+	private CompletableFuture<Void> initialize(Provider provider,Set<Provider> visiting) {
+		CompletableFuture<Void> future = futures.get(provider);
+		if(future!=null) {
+			return future;
+		}
+
+		visiting.add(provider);
+		List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+		for(String viewName:provider.getInitDependencies()) {
+			Provider dependency = resolver.apply(viewName);
+			if(dependency==null || dependency==provider) {
+				continue;
+			}
+			if(visiting.contains(dependency)) {
+				log.warning("cyclic init dependency of "+provider.getClass().getSimpleName()+" on view "+viewName+" ignored");
+				continue;
+			}
+			dependencies.add(initialize(dependency, visiting));
+		}
+		visiting.remove(provider);
+
+		// a failed dependency does not block the provider
+		future = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+				.handle((result,exception) -> null)
+				.thenRunAsync(() -> runInit(provider), executor);
+		futures.put(provider, future);
+
+		return future;
+	}
+
+	/**
+	 * calls init() of a provider. Runs on the initialization threads
+	 * @param provider provider to initialize
+	 */
+	private void runInit(Provider provider) {
+		String name  = provider.getClass().getSimpleName();
+		long   start = System.nanoTime();
+		try {
+			log.fine(() -> "calling init for provider "+name);
+			provider.init();
+		}
+		catch(RuntimeException e) {
+			log.severe("Exception during init of provider "+name+": "+e.getMessage());
+			throw e;
+		}
+		log.fine(() -> "provider "+name+" initialized in "+(System.nanoTime()-start)/1000000+" ms");
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( ProviderInitializer.class.getName() );
+
+	private final Function<String,Provider>                resolver;                           // maps view names to providers
+	private final ExecutorService                          executor;                           // initialization threads
+	private final Map<Provider,CompletableFuture<Void>>    futures  = new IdentityHashMap<>(); // started initializations
+}
@@ -0,0 +1,178 @@
+package picturepi;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import com.pi4j.io.gpio.GpioController;
+import com.pi4j.io.gpio.GpioFactory;
+import com.pi4j.io.gpio.GpioPinDigitalInput;
+import com.pi4j.io.gpio.GpioPinDigitalOutput;
+import com.pi4j.io.gpio.PinPullResistance;
+import com.pi4j.io.gpio.PinState;
+import com.pi4j.io.gpio.RaspiPin;
+import com.pi4j.io.gpio.event.GpioPinListenerDigital;
+import com.pi4j.io.i2c.I2CBus;
+import com.pi4j.io.i2c.I2CDevice;
+import com.pi4j.io.i2c.I2CFactory;
+import com.pi4j.io.i2c.I2CFactory.UnsupportedBusNumberException;
+
+/**
+ * Raspberry hardware accessed thru pi4j
+ */
+class RaspberryHardware implements Hardware {
+
+	/**
+	 * constructor
+	 * @param enableGPIO true if GPIO pins shall be used
+	 * @param i2cBus     number of the I2C bus
+	 */
+	RaspberryHardware(boolean enableGPIO,int i2cBus) {
+		gpioController = enableGPIO ? GpioFactory.getInstance() : null;
+		i2cBusNumber   = i2cBus;
+	}
+
+	@Override
+	public DigitalOutput provisionOutput(int gpio,boolean initialState) {
+		if(gpioController==null) {
+			return null;
+		}
+
+		GpioPinDigitalOutput pin = gpioController.provisionDigitalOutputPin(RaspiPin.getPinByAddress(gpio), initialState ? PinState.HIGH : PinState.LOW);
+		return high -> pin.setState(high ? PinState.HIGH : PinState.LOW);
+	}
+
+	@Override
+	public DigitalInput provisionInput(int gpio) {
+		if(gpioController==null) {
+			return null;
+		}
+
+		GpioPinDigitalInput pin = gpioController.provisionDigitalInputPin(RaspiPin.getPinByAddress(gpio), PinPullResistance.PULL_DOWN);
+		return listener -> pin.addListener((GpioPinListenerDigital)event -> listener.accept(event.getState()==PinState.HIGH));
+	}
+
+	@Override
+	public LightSensor openLightSensor() throws IOException {
+		return new Bh1750LightSensor(getI2CBus());
+	}
+
+	@Override
+	public ProjectorController openProjectorController() throws IOException {
+		return new Dlpc2607(getI2CBus().getDevice(Dlpc2607.I2C_ADDRESS));
+	}
+
+	@Override
+	public void setDisplayOutput(boolean on) throws IOException {
+		String command = "wlr-randr --output DSI-1 --"+(on ? "on" : "off");
+		log.fine(() -> "enable/displable display by executing command: "+command);
+		Process process = new ProcessBuilder(command.split(" "))
+				.redirectErrorStream(true)
+				.redirectOutput(ProcessBuilder.Redirect.DISCARD)
+				.start();
+		try {
+			if(!process.waitFor(COMMAND_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				process.destroyForcibly();
+				throw new IOException("command timed out: "+command);
+			}
+		} catch (InterruptedException e) {
+			process.destroyForcibly();
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while executing command: "+command);
+		}
+		if(process.exitValue()!=0) {
+			throw new IOException("command "+command+" failed with exit code "+process.exitValue());
+		}
+	}
+
+	/**
+	 * @return I2C bus, opened on first use
+	 * @throws IOException if the bus is not available
+	 */
+	private synchronized I2CBus getI2CBus() throws IOException {
+		if(bus==null) {
+			try {
+				bus = I2CFactory.getInstance(i2cBusNumber);
+				log.config("Successfully detected i2c bus "+i2cBusNumber );
+			} catch (UnsupportedBusNumberException e) {
+				throw new IOException("Unable to get I2C Factory for i2cbus "+i2cBusNumber);
+			}
+		}
+
+		return bus;
+	}
+
+	//
+	// nested class for the DLPC2607 projector controller
+	//
+	private static class Dlpc2607 implements ProjectorController {
+		Dlpc2607(I2CDevice device) {
+			this.device = device;
+		}
+
+		@Override
+		public void initialize() throws IOException {
+			try {
+				// sleep until controller has booted up
+				Thread.sleep(BOOT_TIME);
+			} catch (InterruptedException e) {
+				log.severe(e.getMessage());
+			}
+
+			IOException lastException = null;
+			for(int counter=1 ; counter<=SETUP_RETRIES ; counter++) {
+				try {
+					device.write(I2C_OUTPUT_FORMAT);
+					device.write(I2C_OUTPUT_RASPI);
+					log.fine("I2C setup success at execution "+counter);
+					return;
+				} catch (IOException e) {
+					log.severe("I2C Exception: "+e.getMessage());
+					lastException = e;
+				}
+			}
+			throw lastException;
+		}
+
+		@Override
+		public void setBrightness(int brightness) throws IOException {
+			i2cBrightnessR[i2cBrightnessR.length-1] = (byte)brightness;
+			i2cBrightnessG[i2cBrightnessG.length-1] = (byte)brightness;
+			i2cBrightnessB[i2cBrightnessB.length-1] = (byte)brightness;
+
+			// write the whole sequence back to back, the new values get active with the SET commands
+			device.write(i2cBrightnessR);
+			device.write(i2cBrightnessG);
+			device.write(i2cBrightnessB);
+			device.write(I2C_BRIGHTNESS_SET1);
+			device.write(I2C_BRIGHTNESS_SET2);
+		}
+
+		static final int    I2C_ADDRESS   = 0x1b;   // I2C address of the controller
+		static final int    BOOT_TIME     = 600;    // boot time of the controller after power on in ms
+		static final int    SETUP_RETRIES = 10;     // number of tries to configure the controller after boot
+
+		// i2c commands for projector control
+		static final byte I2C_OUTPUT_FORMAT[]    = {0x0c, 0x00, 0x00, 0x00, 0x13};
+		static final byte I2C_OUTPUT_RASPI[]     = {0x0b, 0x00, 0x00, 0x00, 0x00};
+		static final byte I2C_BRIGHTNESS_SET1[]  = {0x3a, 0x00, 0x00, 0x00, 0x01};
+		static final byte I2C_BRIGHTNESS_SET2[]  = {0x38, 0x00, 0x00, 0x00, (byte)0xd3};
+
+		private final I2CDevice device;
+		private final byte      i2cBrightnessR[] = {0x12, 0x00, 0x00, 0x00, 0x01};
+		private final byte      i2cBrightnessG[] = {0x13, 0x00, 0x00, 0x00, 0x01};
+		private final byte      i2cBrightnessB[] = {0x14, 0x00, 0x00, 0x00, 0x01};
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( RaspberryHardware.class.getName() );
+
+	private static final int COMMAND_TIMEOUT = 5000;    // max. time in ms for an external command to switch the display
+
+	private final GpioController gpioController;        // GPIO controller or null if GPIO is disabled
+	private final int            i2cBusNumber;          // number of the I2C bus
+	private       I2CBus         bus = null;            // I2C bus, opened on first use
+}
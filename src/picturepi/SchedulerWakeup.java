@@ -0,0 +1,57 @@
+package picturepi;
+
+import java.util.logging.Logger;
+
+/**
+ * Wakes the view scheduler when the display is switched on, so it selects the view to show right away instead of
+ * finishing its sleep, as panels are not switched while the display is dark.
+ * A switch-on requested by the scheduler itself does not interrupt it: the scheduler has selected its view already
+ * and sleeps for the display time of that view, e.g. of a button view.
+ */
+class SchedulerWakeup {
+
+	/**
+	 * constructor
+	 * @param displayPowerController controller switching the display
+	 */
+	SchedulerWakeup(DisplayPowerController displayPowerController) {
+		this.displayPowerController = displayPowerController;
+	}
+
+	/**
+	 * @param scheduler thread running the view scheduler
+	 */
+	synchronized void setScheduler(Thread scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * requests a display power state and remembers if the scheduler requested to switch on
+	 * @param on true to switch on, false to switch off
+	 */
+	synchronized void request(boolean on) {
+		boolean isScheduler = Thread.currentThread()==scheduler;
+		if(displayPowerController.request(on) && on) {
+			requestedByScheduler = isScheduler;
+		}
+	}
+
+	/**
+	 * called on the display power thread when the display gets switched on
+	 */
+	synchronized void displaySwitchedOn() {
+		if(scheduler!=null && !requestedByScheduler) {
+			log.fine("display switched on, waking up the scheduler");
+			scheduler.interrupt();
+		}
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( SchedulerWakeup.class.getName() );
+
+	private final DisplayPowerController displayPowerController;          // controller switching the display
+	private       Thread                 scheduler            = null;    // thread running the view scheduler
+	private       boolean                requestedByScheduler = false;   // true if the last switch-on was requested by the scheduler
+}
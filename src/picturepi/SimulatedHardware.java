@@ -0,0 +1,172 @@
+package picturepi;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * In-memory simulation of the hardware. Inputs and the ambient light are set by the test or a trace,
+ * the state of all outputs and the I2C traffic to the projector controller are recorded.
+ */
+class SimulatedHardware implements Hardware {
+
+	/**
+	 * constructor for a projector controller that boots instantly
+	 */
+	SimulatedHardware() {
+		this(0);
+	}
+
+	/**
+	 * constructor
+	 * @param projectorBootTime simulated boot time of the projector controller in ms
+	 */
+	SimulatedHardware(long projectorBootTime) {
+		this.projectorBootTime = projectorBootTime;
+	}
+
+	@Override
+	public DigitalOutput provisionOutput(int gpio,boolean initialState) {
+		outputs.put(gpio, initialState);
+		return high -> {
+			log.finest(() -> "GPIO "+gpio+" set to "+high);
+			outputs.put(gpio, high);
+		};
+	}
+
+	@Override
+	public DigitalInput provisionInput(int gpio) {
+		List<Consumer<Boolean>> listeners = inputListeners.computeIfAbsent(gpio, key -> new CopyOnWriteArrayList<>());
+		return listeners::add;
+	}
+
+	@Override
+	public LightSensor openLightSensor() {
+		return () -> {
+			i2cPackets.incrementAndGet();
+			return light;
+		};
+	}
+
+	@Override
+	public ProjectorController openProjectorController() {
+		return new ProjectorController() {
+			@Override
+			public void initialize() throws IOException {
+				try {
+					Thread.sleep(projectorBootTime);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("interrupted while booting the projector");
+				}
+				i2cPackets.addAndGet(2);
+				projectorInitializations.incrementAndGet();
+			}
+
+			@Override
+			public void setBrightness(int brightness) {
+				i2cPackets.addAndGet(5);
+				projectorBrightness = brightness;
+			}
+		};
+	}
+
+	@Override
+	public void setDisplayOutput(boolean on) {
+		displayOutput = on;
+		displayOutputSwitches.incrementAndGet();
+	}
+
+	/**
+	 * sets an input pin and calls its listeners if the state changed
+	 * @param gpio GPIO number
+	 * @param high new state
+	 */
+	void setInput(int gpio,boolean high) {
+		Boolean old = inputs.put(gpio, high);
+		if(old==null || old!=high) {
+			inputChangeTime.set(System.nanoTime());
+			inputListeners.getOrDefault(gpio, List.of()).forEach(listener -> listener.accept(high));
+		}
+	}
+
+	/**
+	 * @param light new value of the ambient light sensor
+	 */
+	void setLight(int light) {
+		this.light = light;
+	}
+
+	/**
+	 * @param  gpio GPIO number
+	 * @return state of an output pin or null if it was not provisioned
+	 */
+	Boolean getOutput(int gpio) {
+		return outputs.get(gpio);
+	}
+
+	/**
+	 * @return last brightness written to the projector controller, -1 if none
+	 */
+	int getProjectorBrightness() {
+		return projectorBrightness;
+	}
+
+	/**
+	 * @return number of projector controller initializations
+	 */
+	int getProjectorInitializations() {
+		return projectorInitializations.get();
+	}
+
+	/**
+	 * @return number of I2C packets sent to or read from light sensor and projector controller
+	 */
+	long getI2CPackets() {
+		return i2cPackets.get();
+	}
+
+	/**
+	 * @return state of the display output
+	 */
+	boolean getDisplayOutput() {
+		return displayOutput;
+	}
+
+	/**
+	 * @return number of switches of the display output
+	 */
+	int getDisplayOutputSwitches() {
+		return displayOutputSwitches.get();
+	}
+
+	/**
+	 * @return System.nanoTime() of the last change of an input pin
+	 */
+	long getInputChangeTime() {
+		return inputChangeTime.get();
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( SimulatedHardware.class.getName() );
+
+	private final long                                     projectorBootTime;                                 // simulated boot time in ms
+	private final Map<Integer,Boolean>                     outputs                  = new ConcurrentHashMap<>(); // state of output pins
+	private final Map<Integer,Boolean>                     inputs                   = new ConcurrentHashMap<>(); // state of input pins
+	private final Map<Integer,List<Consumer<Boolean>>>     inputListeners           = new ConcurrentHashMap<>(); // listeners of input pins
+	private final AtomicLong                               i2cPackets               = new AtomicLong();          // I2C traffic
+	private final AtomicInteger                            projectorInitializations = new AtomicInteger();       // projector initializations
+	private final AtomicInteger                            displayOutputSwitches    = new AtomicInteger();       // display output switches
+	private final AtomicLong                               inputChangeTime          = new AtomicLong();          // time of the last input change
+	private volatile int                                   light                    = 0;                         // ambient light
+	private volatile int                                   projectorBrightness      = -1;                        // projector brightness
+	private volatile boolean                               displayOutput            = true;                      // display output state
+}
@@ -0,0 +1,46 @@
+package picturepi;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Training run for the class data sharing (AppCDS) archive. Loads the classes used during startup and exits.
+ * Started by the appcds build profile with -XX:ArchiveClassesAtExit
+ */
+class StartupTraining {
+
+	/**
+	 * creates the panels of all configured views, or all registered panels if no views are configured
+	 * @param args configuration file to use
+	 */
+	public static void main(String[] args) {
+		String configFile = args.length>0 ? args[0] : "conf/picturepitest.ini";
+		Configuration.getConfiguration().readConfigurationFile(configFile);
+
+		// panels used by the configuration, so the archive fits to the installation
+		Set<String> panelNames = new LinkedHashSet<>();
+		Configuration.getConfiguration().getViewDataList().forEach(viewData -> panelNames.add(viewData.name));
+		Configuration.getConfiguration().getButtonViewList().forEach(view -> panelNames.add(view.viewName));
+		if(panelNames.isEmpty()) {
+			panelNames.addAll(PanelRegistry.getNames());
+		}
+
+		long start = System.nanoTime();
+		int  count = 0;
+		for(String name:panelNames) {
+			if(PanelRegistry.isRegistered(name) && PanelRegistry.create(name, PanelRegistry.requiresId(name) ? "training" : null)!=null) {
+				count++;
+			}
+		}
+		log.info("training run created "+count+" of "+panelNames.size()+" panels in "+(System.nanoTime()-start)/1000000+" ms");
+
+		// providers might have started non-daemon threads
+		System.exit(0);
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( StartupTraining.class.getName() );
+}
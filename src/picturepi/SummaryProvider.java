@@ -8,7 +8,9 @@ import java.io.StringReader;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.AbstractMap;
@@ -52,6 +54,9 @@ public class SummaryProvider extends Provider implements IMqttMessageListener {
 		int travelTimeNoTraffic;    // ideal duration in s
 		int travelTimeActual;       // actual duration
 		int travelTimeAlternative;  // optional duration of an alternative route
+		int travelTimeUsual = -1;   // usual duration at this time of the day or -1 if unknown
+		
+		TravelTimeHistory history;  // optional history of travel times
 		
 		public RouteInformation() {
 			start     = new Location();
@@ -68,12 +73,35 @@ public class SummaryProvider extends Provider implements IMqttMessageListener {
 		// get information about route 1 from configuration file
 		routeInformation1 = getRouteInformation(1);
 		routeInformation2 = getRouteInformation(2);
-
-		// subscribe to MQTT topics to retrieve measured temperature updates
+		if(routeInformation1!=null) {
+			routeInformation1.history = TravelTimeHistory.open("summary-route1");
+		}
+		if(routeInformation2!=null) {
+			routeInformation2.history = TravelTimeHistory.open("summary-route2");
+		}
+	}
+	
+	@Override
+	protected void init() {
+		if(panel instanceof SummaryPanel) {
+			myPanel = (SummaryPanel)panel;
+			
+			if(routeInformation1!=null) {
+				myPanel.setRoute1DataStatic(routeInformation1.name);
+			}
+			if(routeInformation2!=null) {
+				myPanel.setRoute2DataStatic(routeInformation2.name);
+			}
+		}
+		
+		// subscribe to MQTT topics to retrieve measured temperature updates. Subscribing after the panel is known
+		// allows to display the latest value right away, because it gets replayed by the MQTT client
 		mqttTopicTemperature = Configuration.getConfiguration().getValue(SummaryPanel.class.getSimpleName(), mqttTopicTemperatureConfigKey, null);
 		if(mqttTopicTemperature != null) {
 			log.info("subscribing for temperature, MQTT key="+mqttTopicTemperature);
-			MqttClient.getMqttClient().subscribe(mqttTopicTemperature, this);
+			MqttClient.getMqttClient().subscribe(mqttTopicTemperature, this, MqttListenerMailbox.Policy.COALESCE_LATEST);
+			// record the history of the topic locally, if a data directory is configured
+			TemperatureHistory.forTopic(mqttTopicTemperature);
 		}
 	}
 
@@ -98,29 +126,15 @@ public class SummaryProvider extends Provider implements IMqttMessageListener {
 			}
 		}
 
-		// tasks done only oncer per day
-		if(lastFetchDate==null || lastFetchDate.compareTo(LocalDate.now())!=0) {
-			lastFetchDate = LocalDate.now();
-			
-			log.fine("fetching data for new day");
-			// caldendar entries
-			String calendarName = Configuration.getConfiguration().getValue("SummaryPanel", "googleCalendarName", null);
-			if(calendarName!=null) {
-				GoogleCalendar googleCalendar = new GoogleCalendar();
-				if( googleCalendar.connect() == false) {
-					// connect failed
-					log.severe("Connection to Google Calendar failed");
-					googleCalendar = null;
-				}
-				else {
-					List<String> calendarEntries = googleCalendar.getCalendarEntriesForToday(calendarName);
-					if(calendarEntries!=null && calendarEntries.size()>0) {
-						myPanel.setCalendarEntries(String.join(",", calendarEntries));
-					}
-					else {
-						myPanel.setCalendarEntries("--");
-					}
-				}
+		// caldendar entries are read from the local event store, synchronized in the background
+		String calendarName = Configuration.getConfiguration().getValue("SummaryPanel", "googleCalendarName", null);
+		if(calendarName!=null) {
+			List<String> calendarEntries = GoogleCalendar.getGoogleCalendar().getCalendarEntriesForToday(calendarName);
+			if(calendarEntries!=null && calendarEntries.size()>0) {
+				myPanel.setCalendarEntries(String.join(",", calendarEntries));
+			}
+			else {
+				myPanel.setCalendarEntries("--");
 			}
 		}
 		
@@ -132,34 +146,42 @@ public class SummaryProvider extends Provider implements IMqttMessageListener {
 		// refresh route traffic information
 		if(routeRefreshCounter==0) {
 			if(routeInformation1!=null) {
-				fetchTrafficInformation(routeInformation1);
+				if(fetchTrafficInformation(routeInformation1)) {
+					updateTravelTimeHistory(routeInformation1);
+				}
 				
 				if(routeInformation1.travelTimeAlternative>0) {
-					myPanel.setRoute1DataDynamic(String.format("aktuell %d min (ideal %d, alt %d min)",
+					myPanel.setRoute1DataDynamic(String.format("aktuell %d min (ideal %d, alt %d min)%s",
 							routeInformation1.travelTimeActual/60,
 							routeInformation1.travelTimeNoTraffic/60,
-							routeInformation1.travelTimeAlternative/60));
+							routeInformation1.travelTimeAlternative/60,
+							formatUsualTravelTime(routeInformation1)));
 				}
 				else {
-					myPanel.setRoute1DataDynamic(String.format("aktuell %d min (ideal %d min)",
+					myPanel.setRoute1DataDynamic(String.format("aktuell %d min (ideal %d min)%s",
 							routeInformation1.travelTimeActual/60,
-							routeInformation1.travelTimeNoTraffic/60));
+							routeInformation1.travelTimeNoTraffic/60,
+							formatUsualTravelTime(routeInformation1)));
 				}
 			}
 			
 			if(routeInformation2!=null) {
-				fetchTrafficInformation(routeInformation2);
+				if(fetchTrafficInformation(routeInformation2)) {
+					updateTravelTimeHistory(routeInformation2);
+				}
 
 				if(routeInformation2.travelTimeAlternative>0) {
-					myPanel.setRoute2DataDynamic(String.format("aktuell %d min (ideal %d, alt %d min)",
+					myPanel.setRoute2DataDynamic(String.format("aktuell %d min (ideal %d, alt %d min)%s",
 							routeInformation2.travelTimeActual/60,
 							routeInformation2.travelTimeNoTraffic/60,
-							routeInformation2.travelTimeAlternative/60));
+							routeInformation2.travelTimeAlternative/60,
+							formatUsualTravelTime(routeInformation2)));
 				}
 				else {
-					myPanel.setRoute2DataDynamic(String.format("aktuell %d min (ideal %d min)",
+					myPanel.setRoute2DataDynamic(String.format("aktuell %d min (ideal %d min)%s",
 							routeInformation2.travelTimeActual/60,
-							routeInformation2.travelTimeNoTraffic/60));
+							routeInformation2.travelTimeNoTraffic/60,
+							formatUsualTravelTime(routeInformation2)));
 				}
 			}
 		}
@@ -175,7 +197,7 @@ public class SummaryProvider extends Provider implements IMqttMessageListener {
 	 * @return true in case of success, false in case of error
 	 */
 	boolean fetchTrafficInformation(RouteInformation routeInformation) {
-		log.fine("fetching traffic information for route "+routeInformation.name);
+		log.fine(() -> "fetching traffic information for route "+routeInformation.name);
 		
 		String key = getTomTomApiKey();
 		if(key==null) {
@@ -202,7 +224,7 @@ public class SummaryProvider extends Provider implements IMqttMessageListener {
 		
 		JsonObject supportingPoints = Json.createObjectBuilder().add("supportingPoints", supportingPointsArrayBuilder).build();
 		
-		log.finest("Json input data for POST query: "+supportingPoints.toString());
+		log.finest(() -> "Json input data for POST query: "+supportingPoints.toString());
 		JsonObject queryResult = executeHttpPostJsonQuery(buildUrl(routeInformation, key), supportingPoints.toString());
 		if(queryResult==null) {
 			log.severe("TomTom query failed");
@@ -228,6 +250,34 @@ public class SummaryProvider extends Provider implements IMqttMessageListener {
 		return parseJsonRouteData(jsonRoutesArray.getJsonObject(0), routeInformation);
 	}
 	
+	/**
+	 * stores the latest travel time of a route in its history and updates the usual travel time
+	 * @param routeInformation route to update
+	 */
+	void updateTravelTimeHistory(RouteInformation routeInformation) {
+		if(routeInformation.history==null) {
+			return;
+		}
+		
+		routeInformation.history.add(Instant.now().getEpochSecond(), routeInformation.travelTimeActual,
+				routeInformation.travelTimeActual-routeInformation.travelTimeNoTraffic);
+		routeInformation.travelTimeUsual = routeInformation.history.getUsualTravelTime(LocalDateTime.now());
+		log.fine(() -> "usual travel time for route "+routeInformation.name+": "+routeInformation.travelTimeUsual);
+	}
+	
+	/**
+	 * formats the usual travel time of a route for display
+	 * @param routeInformation route
+	 * @return formatted usual travel time or an empty string if unknown
+	 */
+	private String formatUsualTravelTime(RouteInformation routeInformation) {
+		if(routeInformation.travelTimeUsual<0) {
+			return "";
+		}
+		
+		return String.format(", meist %d min", routeInformation.travelTimeUsual/60);
+	}
+	
 	/**
 	 * parses a Json route object and populates the output values in the RouteInformation object
 	 * @param jsonObjectRoute   Json route object to parse
@@ -311,7 +361,7 @@ public class SummaryProvider extends Provider implements IMqttMessageListener {
 	 * @return a populated RouteInformation object of null in case of any error
 	 */
 	RouteInformation getRouteInformation(int route) {
-		log.fine(String.format("getting information about route ID %d", route));
+		log.fine(() -> String.format("getting information about route ID %d", route));
 		
 		Configuration configuration = Configuration.getConfiguration();
 		RouteInformation routeInformation = new RouteInformation();
@@ -375,7 +425,7 @@ public class SummaryProvider extends Provider implements IMqttMessageListener {
 			}
 		}
 		
-		log.fine(String.format("successfully retrieved information about route ID %d (name:%s,waypoints:%d)", route,routeInformation.name,routeInformation.waypoints.size()));
+		log.fine(() -> String.format("successfully retrieved information about route ID %d (name:%s,waypoints:%d)", route,routeInformation.name,routeInformation.waypoints.size()));
 		return routeInformation;
 	}
 	
@@ -411,7 +461,7 @@ public class SummaryProvider extends Provider implements IMqttMessageListener {
 	 * @return                  query result as JSON object or null in case of error
 	 */
 	JsonObject executeHttpPostJsonQuery(String urlString, String inputString) {
-		log.fine("executing HTTP Post query for URL="+urlString);
+		log.fine(() -> "executing HTTP Post query for URL="+urlString);
 		
 		try {
 			URL url = new URL(urlString);
@@ -436,7 +486,7 @@ public class SummaryProvider extends Provider implements IMqttMessageListener {
 			JsonReader reader = Json.createReaderFactory(null).createReader(new StringReader(response.toString()));
 			JsonObject jsonObject    = reader.readObject();
 			
-			log.finest("Json response: "+jsonObject);
+			log.finest(() -> "Json response: "+jsonObject);
 			
 			return jsonObject;
 		} catch (MalformedURLException e) {
@@ -452,12 +502,12 @@ public class SummaryProvider extends Provider implements IMqttMessageListener {
 
 	@Override
 	public void messageArrived(String topic, org.eclipse.paho.client.mqttv3.MqttMessage message) throws Exception {
-		log.fine("message arrived on topic "+topic);
+		log.fine(() -> "message arrived on topic "+topic);
 		
 		if(myPanel!=null && mqttTopicTemperature!=null && topic.equals(mqttTopicTemperature)) {
-			log.fine("message is temperature update, content="+message.toString());
-			myPanel.setTemperature(Double.parseDouble(message.toString()));
-			log.fine("temperature set to "+message.toString());
+			log.fine(() -> "message is temperature update, content="+message.toString());
+			myPanel.setTemperature(MqttTopicValue.of(message).getDouble());
+			log.fine(() -> "temperature set to "+message.toString());
 		}
 	}
 
@@ -479,9 +529,6 @@ public class SummaryProvider extends Provider implements IMqttMessageListener {
 	// use a hard-coded refresh interval
 	private final static int refreshInterval = 60; // in seconds
 	
-	// date of last fetch operation
-	private LocalDate lastFetchDate = null;
-
 	// refresh divider for route data refresh from TomTom
 	private final static int routeRefreshDivider = 5;
 	private int routeRefreshCounter = 0;
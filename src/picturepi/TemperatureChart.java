@@ -0,0 +1,170 @@
+package picturepi;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+import javax.swing.JComponent;
+
+import org.knowm.xchart.XYChart;
+import org.knowm.xchart.XYChartBuilder;
+import org.knowm.xchart.XYSeries;
+import org.knowm.xchart.XYSeries.XYSeriesRenderStyle;
+import org.knowm.xchart.style.Styler.LegendPosition;
+
+/**
+ * Temperature over the day, rendered with XChart into an offscreen image.
+ * The chart is rendered only when the data or the size changes, repaints just draw the image.
+ */
+class TemperatureChart extends JComponent {
+
+	/**
+	 * constructor
+	 * @param seriesName name of the series shown in the legend
+	 * @param height     height in pixel
+	 */
+	TemperatureChart(String seriesName,int height) {
+		this.seriesName = seriesName;
+
+		chart = new XYChartBuilder().width(1).height(height).title("Tagesverlauf").xAxisTitle("Zeit").yAxisTitle("Temp").build();
+
+		// Customize Chart
+		chart.getStyler().setLegendPosition(LegendPosition.InsideNE);
+		chart.getStyler().setDefaultSeriesRenderStyle(XYSeriesRenderStyle.Line);
+		chart.getStyler().setPlotBackgroundColor(Color.BLACK);
+		chart.getStyler().setChartBackgroundColor(Color.BLACK);
+		chart.getStyler().setChartFontColor(Color.RED);
+		chart.getStyler().setChartTitleBoxVisible(false);
+		chart.getStyler().setPlotGridLinesVisible(false);
+		chart.getStyler().setAxisTickLabelsColor(Color.WHITE);
+
+		// Dummy data
+		XYSeries series = chart.addSeries(seriesName,new double[] { 0, 3, 5, 7, 9},new double[]{0,10,20,10,0});
+		series.setLineColor(Color.RED);
+		series.setMarkerColor(Color.YELLOW);
+
+		setPreferredSize(new Dimension(height, height));
+		setMaximumSize(new Dimension(Integer.MAX_VALUE, height));
+		setOpaque(true);
+	}
+
+	/**
+	 * sets new data. May be called from any thread. The chart is rendered again only if the data changed
+	 * @param newTime        time values, oldest first
+	 * @param newTemperature temperature values, same length as newTime
+	 */
+	void setData(double[] newTime,double[] newTemperature) {
+		setData(newTime, newTemperature, Math.min(newTime.length, newTemperature.length));
+	}
+
+	/**
+	 * sets new data from the first values of arrays, which may be reused by the caller. May be called from any thread
+	 * @param newTime        time values, oldest first
+	 * @param newTemperature temperature values
+	 * @param count          number of valid values in both arrays
+	 */
+	void setData(double[] newTime,double[] newTemperature,int count) {
+		if(count==0) {
+			log.warning("no temperature values received");
+			return;
+		}
+		synchronized(this) {
+			if(count==time.length && Arrays.equals(time, 0, count, newTime, 0, count)
+					&& Arrays.equals(temperature, 0, count, newTemperature, 0, count)) {
+				log.finest("temperature chart data unchanged");
+				return;
+			}
+			
+			// the chart keeps the arrays, they are reused as long as the number of values does not change
+			if(count!=time.length) {
+				time        = new double[count];
+				temperature = new double[count];
+			}
+			System.arraycopy(newTime, 0, time, 0, count);
+			System.arraycopy(newTemperature, 0, temperature, 0, count);
+			chart.updateXYSeries(seriesName, time, temperature, null);
+			dataVersion++;
+		}
+
+		// while the display is dark, rendering is deferred until the window gets repainted on wake
+		if(!DisplayPowerState.getDisplayPowerState().isOn()) {
+			return;
+		}
+
+		// render right away on the calling thread if the size is known already, the event dispatch thread just draws the image
+		int width  = getWidth();
+		int height = getHeight();
+		if(width>0 && height>0) {
+			render(width, height);
+		}
+		repaint();
+	}
+
+	/**
+	 * @return number of times the chart was rendered
+	 */
+	int getRenderCount() {
+		return renderCount;
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		int width  = getWidth();
+		int height = getHeight();
+		if(width<=0 || height<=0) {
+			return;
+		}
+
+		BufferedImage current = image;
+		if(current==null || current.getWidth()!=width || current.getHeight()!=height || imageVersion!=dataVersion) {
+			current = render(width, height);
+		}
+		g.drawImage(current, 0, 0, null);
+	}
+
+	/**
+	 * renders the chart into a new offscreen image, unless the current image fits already
+	 * @param  width  width in pixel
+	 * @param  height height in pixel
+	 * @return rendered image
+	 */
+	private synchronized BufferedImage render(int width,int height) {
+		if(image!=null && image.getWidth()==width && image.getHeight()==height && imageVersion==dataVersion) {
+			return image;
+		}
+
+		long start = System.nanoTime();
+		BufferedImage newImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g2 = newImage.createGraphics();
+		g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		chart.paint(g2, width, height);
+		g2.dispose();
+
+		image        = newImage;
+		imageVersion = dataVersion;
+		renderCount++;
+		log.fine(() -> "temperature chart rendered in "+(System.nanoTime()-start)/1000+" us, size "+width+"x"+height);
+
+		return newImage;
+	}
+
+	//
+	// private members
+	//
+	private static final long   serialVersionUID = -2290212451632549133L;
+	private static final Logger log              = Logger.getLogger( TemperatureChart.class.getName() );
+
+	private final String           seriesName;              // name of the series
+	private final XYChart          chart;                   // chart, guarded by this
+	private       double[]         time         = new double[0]; // time values shown in the chart, guarded by this
+	private       double[]         temperature  = new double[0]; // temperature values shown in the chart, guarded by this
+	private volatile long          dataVersion  = 0;        // incremented with each data change
+	private volatile long          imageVersion = -1;       // data version of the image
+	private volatile BufferedImage image        = null;     // rendered chart
+	private volatile int           renderCount  = 0;        // number of renderings
+}
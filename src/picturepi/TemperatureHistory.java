@@ -0,0 +1,239 @@
+package picturepi;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+import org.eclipse.paho.client.mqttv3.IMqttMessageListener;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+
+/**
+ * Local history of an MQTT temperature topic. Samples are rolled up into minute, hour and day buckets
+ * with min, max, average and sample count. Each resolution is stored in its own memory mapped ring buffer,
+ * so panels can draw the day, week or month history without depending on another service.
+ * Hours and days are aligned to local time.
+ */
+class TemperatureHistory implements IMqttMessageListener {
+
+	/**
+	 * resolutions of the history
+	 */
+	enum Resolution {
+		MINUTE(2*24*60),   // two days
+		HOUR(31*24),       // one month
+		DAY(3*366);        // three years
+
+		Resolution(int capacity) {
+			this.capacity = capacity;
+		}
+
+		final int capacity;   // number of buckets stored
+	}
+
+	/**
+	 * returns the history of a topic. The history is created and subscribes for the topic when requested first,
+	 * so several providers displaying the same topic share one history
+	 * @param  topic MQTT topic with temperature values
+	 * @return history or null if no data directory is configured or the files cannot be opened
+	 */
+	static TemperatureHistory forTopic(String topic) {
+		synchronized(histories) {
+			TemperatureHistory history = histories.get(topic);
+			if(history!=null) {
+				return history;
+			}
+
+			String dataDirectory = Configuration.getConfiguration().getValue("global", "dataDirectory", null);
+			if(dataDirectory==null) {
+				log.config("no data directory configured - temperature history disabled for "+topic);
+				return null;
+			}
+
+			try {
+				history = new TemperatureHistory(new File(dataDirectory), topic, ZoneId.systemDefault());
+			} catch (IOException e) {
+				log.severe("Unable to open temperature history for topic "+topic);
+				log.severe(e.getMessage());
+
+				return null;
+			}
+			histories.put(topic, history);
+			log.info("recording temperature history for topic "+topic);
+			MqttClient.getMqttClient().subscribe(topic, history, MqttListenerMailbox.Policy.DROP_OLDEST);
+
+			return history;
+		}
+	}
+
+	/**
+	 * constructor
+	 * @param  directory directory for the history files
+	 * @param  key       key of the history, used to build the file names
+	 * @param  zone      time zone used to align hours and days
+	 * @throws IOException in case the files cannot be created or mapped
+	 */
+	TemperatureHistory(File directory,String key,ZoneId zone) throws IOException {
+		this.zone = zone;
+
+		String fileName = "temperature-"+key.replaceAll("[^A-Za-z0-9_-]", "_");
+		for(Resolution resolution:Resolution.values()) {
+			File file = new File(directory, fileName+"-"+resolution.name().toLowerCase()+".dat");
+			series[resolution.ordinal()] = new MappedTimeSeries(file, resolution.capacity, COLUMNS);
+		}
+	}
+
+	/**
+	 * adds a sample. Samples older than the newest bucket of a resolution are ignored for this resolution
+	 * @param timestamp   epoch seconds of the sample
+	 * @param temperature temperature
+	 */
+	synchronized void add(long timestamp,double temperature) {
+		if(timestamp<dayStart || timestamp>=dayEnd) {
+			dayStart = Instant.ofEpochSecond(timestamp).atZone(zone).toLocalDate().atStartOfDay(zone).toEpochSecond();
+			dayEnd   = Instant.ofEpochSecond(dayStart).atZone(zone).toLocalDate().plusDays(1).atStartOfDay(zone).toEpochSecond();
+		}
+		long hourStart = dayStart+(timestamp-dayStart)/3600*3600;
+		int  value     = (int)Math.round(temperature*SCALE);
+
+		addToBucket(series[Resolution.MINUTE.ordinal()], timestamp-Math.floorMod(timestamp, 60), value);
+		boolean isNewHour = addToBucket(series[Resolution.HOUR.ordinal()], hourStart, value);
+		addToBucket(series[Resolution.DAY.ordinal()], dayStart, value);
+
+		if(isNewHour) {
+			// write back once per hour only, to spare the SD card
+			flush();
+		}
+	}
+
+	/**
+	 * copies the buckets of a resolution starting at a given time into columnar arrays, oldest first.
+	 * If there are more buckets than fit into the arrays, the newest ones are copied
+	 * @param  resolution resolution to copy
+	 * @param  since      epoch seconds, buckets starting before are not copied
+	 * @param  timestamps target array for the bucket start times in epoch seconds
+	 * @param  min        target array for the min. temperatures or null
+	 * @param  max        target array for the max. temperatures or null
+	 * @param  average    target array for the average temperatures or null
+	 * @return number of buckets copied
+	 */
+	synchronized int copy(Resolution resolution,long since,long[] timestamps,double[] min,double[] max,double[] average) {
+		MappedTimeSeries timeSeries = series[resolution.ordinal()];
+
+		// buckets are ordered by time
+		int size  = timeSeries.size();
+		int first = size;
+		while(first>0 && size-first<timestamps.length && timeSeries.getTimestamp(first-1)>=since) {
+			first--;
+		}
+
+		for(int i=first ; i<size ; i++) {
+			timestamps[i-first] = timeSeries.getTimestamp(i);
+			if(min!=null) {
+				min[i-first] = timeSeries.getValue(i, COLUMN_MIN)/SCALE;
+			}
+			if(max!=null) {
+				max[i-first] = timeSeries.getValue(i, COLUMN_MAX)/SCALE;
+			}
+			if(average!=null) {
+				average[i-first] = timeSeries.getValue(i, COLUMN_AVERAGE)/SCALE;
+			}
+		}
+
+		return size-first;
+	}
+
+	/**
+	 * @param  time epoch seconds
+	 * @return start of the local day containing the time in epoch seconds
+	 */
+	long getStartOfDay(long time) {
+		return Instant.ofEpochSecond(time).atZone(zone).toLocalDate().atStartOfDay(zone).toEpochSecond();
+	}
+
+	/**
+	 * adds a listener that gets called after a sample received thru MQTT was added
+	 * @param listener listener to call
+	 */
+	void addUpdateListener(Runnable listener) {
+		updateListeners.add(listener);
+	}
+
+	/**
+	 * flushes the data to disk
+	 */
+	synchronized void flush() {
+		for(MappedTimeSeries timeSeries:series) {
+			timeSeries.force();
+		}
+	}
+
+	@Override
+	public void messageArrived(String topic, MqttMessage message) {
+		try {
+			add(Instant.now().getEpochSecond(), MqttTopicValue.of(message).getDouble());
+		}
+		catch(Exception e) {
+			log.severe("Unable to add temperature of topic "+topic+": "+e.getMessage());
+			return;
+		}
+
+		for(Runnable listener:updateListeners) {
+			listener.run();
+		}
+	}
+
+	/**
+	 * adds a value to the newest bucket of a time series or starts a new bucket
+	 * @param  timeSeries time series to update
+	 * @param  bucket     start of the bucket the value belongs to in epoch seconds
+	 * @param  value      scaled temperature
+	 * @return true if a new bucket was started
+	 */
+	private static boolean addToBucket(MappedTimeSeries timeSeries,long bucket,int value) {
+		int size = timeSeries.size();
+		if(size>0) {
+			long latest = timeSeries.getTimestamp(size-1);
+			if(latest==bucket) {
+				int  count   = timeSeries.getValue(size-1, COLUMN_COUNT);
+				long average = Math.round(((double)timeSeries.getValue(size-1, COLUMN_AVERAGE)*count+value)/(count+1));
+				timeSeries.updateLatest(Math.min(timeSeries.getValue(size-1, COLUMN_MIN), value),
+						                Math.max(timeSeries.getValue(size-1, COLUMN_MAX), value),
+						                (int)average, count+1);
+				return false;
+			}
+			if(latest>bucket) {
+				log.fine("ignoring sample older than the newest bucket");
+				return false;
+			}
+		}
+
+		timeSeries.append(bucket, value, value, value, 1);
+		return true;
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( TemperatureHistory.class.getName() );
+
+	private static final double SCALE          = 100.0;   // temperatures are stored in 1/100 degree
+	private static final int    COLUMNS        = 4;       // number of columns per bucket
+	private static final int    COLUMN_MIN     = 0;       // column index of min. temperature
+	private static final int    COLUMN_MAX     = 1;       // column index of max. temperature
+	private static final int    COLUMN_AVERAGE = 2;       // column index of average temperature
+	private static final int    COLUMN_COUNT   = 3;       // column index of sample count
+
+	private static final Map<String,TemperatureHistory> histories = new ConcurrentHashMap<>();  // histories by topic
+
+	private final ZoneId             zone;                                                        // time zone to align hours and days
+	private final MappedTimeSeries[] series          = new MappedTimeSeries[Resolution.values().length];  // storage per resolution
+	private final List<Runnable>     updateListeners = new CopyOnWriteArrayList<>();             // listeners for new samples
+	private       long               dayStart        = 0;                                         // start of the current day in epoch seconds
+	private       long               dayEnd          = 0;                                         // end of the current day in epoch seconds
+}
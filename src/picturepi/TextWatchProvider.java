@@ -43,11 +43,8 @@ public class TextWatchProvider extends Provider implements IMqttMessageListener
 			}
 			
 			// prepare alarm clock icon
-		    try {
-			    java.net.URL imageURL = this.getClass().getResource("otherIcons/alarmclock-with-bells.png");
-			    alarmClockIcon = new ImageIcon(imageURL);
-		    }
-		    catch(Exception e) {
+		    alarmClockIcon = IconCache.get("otherIcons/alarmclock-with-bells.png");
+		    if(alarmClockIcon==null) {
 		    	log.severe("Unable to load alarm clock icon");
 		    }
 			displayAlarm = true;
@@ -138,11 +135,11 @@ public class TextWatchProvider extends Provider implements IMqttMessageListener
 			
 			if(enabled && !skipOnce) {
 				String alarmWeekDays = alarm.getJsonString("weekDays").toString();
-				log.fine("found active alarm with weekDays: "+alarmWeekDays);
+				log.fine(() -> "found active alarm with weekDays: "+alarmWeekDays);
 				
 				if(alarmWeekDays.contains(weekDayToday)) {
 			    	String alarmTimeString = alarm.getString("time");
-			    	log.fine("found active alarm for today with time="+alarmTimeString);
+			    	log.fine(() -> "found active alarm for today with time="+alarmTimeString);
 			    	
 			    	LocalTime alarmTime = LocalTime.parse(alarmTimeString, DateTimeFormatter.ofPattern("HH:mm"));
 			    	if(alarmTime.isAfter(LocalTime.now()) && (alarmTimeToday==null || alarmTime.isBefore(alarmTimeToday))) {
@@ -151,7 +148,7 @@ public class TextWatchProvider extends Provider implements IMqttMessageListener
 				}
 				if(alarmWeekDays.contains(weekDayTomorrow)) {
 			    	String alarmTimeString = alarm.getString("time");
-			    	log.fine("found active alarm for tomorrow with time="+alarmTimeString);
+			    	log.fine(() -> "found active alarm for tomorrow with time="+alarmTimeString);
 			    	
 			    	LocalTime alarmTime = LocalTime.parse(alarmTimeString, DateTimeFormatter.ofPattern("HH:mm"));
 			    	if(alarmTimeTomorrow==null || alarmTime.isBefore(alarmTimeTomorrow)) {
@@ -161,7 +158,7 @@ public class TextWatchProvider extends Provider implements IMqttMessageListener
 			}
 		}
 		if(alarmTimeToday!=null) {
-			log.fine("earliest alarm for today is set for "+alarmTimeToday);
+			log.fine(() -> "earliest alarm for today is set for "+alarmTimeToday);
 			if(textWatchpanel!=null) {
 				textWatchpanel.setOptionText(" heute "+alarmTimeToday.format(DateTimeFormatter.ofPattern("HH:mm")),alarmClockIcon);
 			}
@@ -190,18 +187,13 @@ public class TextWatchProvider extends Provider implements IMqttMessageListener
 	
 	@Override
 	public void messageArrived(String topic, MqttMessage message) throws Exception {
-		log.fine("MQTT message arrived: topic="+topic);
-		log.finest("MQTT message arrived: topic="+topic+" content="+message);
+		log.fine(() -> "MQTT message arrived: topic="+topic);
+		log.finest(() -> "MQTT message arrived: topic="+topic+" content="+message);
 
 		String alarmListTopic = Configuration.getConfiguration().getValue("TextWatchPanel", "mqttTopicAlarmlist", null); 
 		if(alarmListTopic!=null && topic.equals(alarmListTopic)) {
-			
-			// parse information in separate thread
-			new Thread(){
-			    public void run(){
-			      parseAlarmList(message.toString());
-			    }
-			  }.start();
+			// messages are delivered on an MQTT dispatcher thread, so parsing does not block other listeners
+			parseAlarmList(message.toString());
 		}
 	}
 	
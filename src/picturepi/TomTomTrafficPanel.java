@@ -1,6 +1,7 @@
 package picturepi;
 
 import java.awt.Color;
+import java.awt.EventQueue;
 import java.awt.Font;
 import java.util.logging.Logger;
 
@@ -67,6 +68,14 @@ public class TomTomTrafficPanel extends Panel {
 		labelDelay.setAlignmentX(CENTER_ALIGNMENT);
 		add(labelDelay);
 		
+		labelUsual.setFont(fontText);
+		labelUsual.setForeground(Color.GRAY);
+		labelUsual.setAlignmentX(CENTER_ALIGNMENT);
+		add(labelUsual);
+		
+		trendSparkline.setAlignmentX(CENTER_ALIGNMENT);
+		add(trendSparkline);
+		
 		add(Box.createVerticalGlue());
 		
 		labelSummaryLine1.setFont(fontText);
@@ -120,6 +129,18 @@ public class TomTomTrafficPanel extends Panel {
 		}
 	}
 
+	/**
+	 * sets the travel time trend
+	 * @param travelTimes  latest travel times in seconds, oldest first
+	 * @param count        number of valid values in travelTimes
+	 * @param usualTime    usual travel time at this time of the day in seconds or -1 if unknown
+	 */
+	void setTrend(int[] travelTimes,int count,int usualTime) {
+		trendSparkline.setValues(travelTimes, count, usualTime);
+		
+		EventQueue.invokeLater(() -> labelUsual.setText(usualTime>=0 ? String.format("\u00dcblich: %d Minuten",usualTime/60) : ""));
+	}
+
 	//
 	// private data
 	//
@@ -135,4 +156,7 @@ public class TomTomTrafficPanel extends Panel {
 	private JLabel labelSummaryLine1;
 	private JLabel labelSummaryLine2;
 	private JLabel labelSummaryLine3;
+	private JLabel labelUsual = new JLabel(" ");
+	
+	private final TrendSparkline trendSparkline = new TrendSparkline(TomTomTrafficProvider.TREND_LENGTH, 800, 120);
 }
@@ -7,6 +7,8 @@ import java.io.StringReader;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.logging.Logger;
@@ -25,16 +27,41 @@ public class TomTomTrafficProvider extends Provider {
 
 	public TomTomTrafficProvider() {
 		super(Configuration.getConfiguration().getValue(TomTomTrafficPanel.class.getSimpleName(), "refreshInterval", 300));
+		
+		// history of travel times, used to display a trend and the usual travel time
+		travelTimeHistory = TravelTimeHistory.open("tomtom-"+Configuration.getConfiguration().getValue(TomTomTrafficPanel.class.getSimpleName(), "destination", "route"));
 	}
 
+	@Override
+	protected void configurationChanged(ConfigurationSnapshot snapshot) {
+		setSleepTime(snapshot.getInt(TomTomTrafficPanel.class.getSimpleName(), "refreshInterval", 300));
+		
+		// build URL again with the new settings
+		url = null;
+	}
+	
+	@Override
+	void stop() {
+		super.stop();
+		
+		// measurements are written back hourly only
+		if(travelTimeHistory!=null) {
+			travelTimeHistory.close();
+		}
+	}
+	
 	@Override
 	void fetchData() {
-		String url = buildUrl();
-		if(url==null) {
+		String requestUrl = url;
+		if(requestUrl==null) {
+			requestUrl = buildUrl();
+			url        = requestUrl;
+		}
+		if(requestUrl==null) {
 			return;
 		}
 		
-		JsonObject jsonRoutingData=getRoutingData(url);
+		JsonObject jsonRoutingData=getRoutingData(requestUrl);
 		if(jsonRoutingData==null) {
 			return;
 		}
@@ -46,6 +73,15 @@ public class TomTomTrafficProvider extends Provider {
 		
 		TomTomTrafficPanel trafficPanel = (TomTomTrafficPanel)panel;
 		trafficPanel.setData(routeData);
+		
+		if(travelTimeHistory!=null) {
+			travelTimeHistory.add(Instant.now().getEpochSecond(), routeData.duration, routeData.delay);
+			
+			int count      = travelTimeHistory.getLatestTravelTimes(trendBuffer);
+			int usualTime  = travelTimeHistory.getUsualTravelTime(LocalDateTime.now());
+			log.fine(() -> "travel time history: trend values="+count+" usual travel time="+usualTime);
+			trafficPanel.setTrend(trendBuffer, count, usualTime);
+		}
 	}
 	
 	/**
@@ -121,7 +157,7 @@ public class TomTomTrafficProvider extends Provider {
 			JsonReader reader = Json.createReaderFactory(null).createReader(new StringReader(response.toString()));
 			JsonObject jsonObject    = reader.readObject();
 			
-			log.fine("Json response: "+jsonObject);
+			log.fine(() -> "Json response: "+jsonObject);
 			
 			return jsonObject;
 		} catch (MalformedURLException e) {
@@ -150,7 +186,7 @@ public class TomTomTrafficProvider extends Provider {
 					String message = instruction.asJsonObject().getString("groupMessage");
 					if(message!=null) {
 						instructionList.add(message);
-						log.finest("found group message: "+message);
+						log.finest(() -> "found group message: "+message);
 					}
 					else {
 						log.severe("Invalid Json response in parseGuidance, groupMessage. guidance="+guidance);
@@ -163,7 +199,7 @@ public class TomTomTrafficProvider extends Provider {
 			log.severe(e.getMessage());
 		}
 		
-		log.fine("parseGuidance: Found "+instructionList.size()+" instructions");
+		log.fine(() -> "parseGuidance: Found "+instructionList.size()+" instructions");
 		
 		return instructionList;
 	}
@@ -210,7 +246,7 @@ public class TomTomTrafficProvider extends Provider {
 		}
 		routeData.instructions = parseGuidance(jsonGuidance);
 		
-		log.fine("parsed route data: length="+routeData.length+" duration="+routeData.duration+" delay="+routeData.delay+ " instruction count="+routeData.instructions.size());
+		log.fine(() -> "parsed route data: length="+routeData.length+" duration="+routeData.duration+" delay="+routeData.delay+ " instruction count="+routeData.instructions.size());
 		
 		return routeData;
 	}
@@ -241,6 +277,12 @@ public class TomTomTrafficProvider extends Provider {
 	//
 	private final Logger    log = Logger.getLogger( this.getClass().getName() );
 	
+	private final TravelTimeHistory travelTimeHistory;                          // history of travel times or null
+	private final int[]             trendBuffer = new int[TREND_LENGTH];        // re-used buffer for trend values
+	private volatile String         url         = null;                         // API URL, built on first use
+	
+	static final int TREND_LENGTH = 48;                                         // number of values displayed in trend
+	
 	// nested class to store route data
 	class RouteData {
 		int          length;        // route length in meter
@@ -0,0 +1,132 @@
+package picturepi;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Replays recorded motion and light traces into the simulated hardware, optionally accelerated.
+ * A trace has one event per line: &lt;time in ms&gt; motion on|off or &lt;time in ms&gt; light &lt;sensor value&gt;.
+ * Empty lines and lines starting with # are ignored.
+ */
+class TraceReplayer {
+
+	/**
+	 * creates a replayer from the lines of a trace
+	 * @param  lines trace lines
+	 * @throws IllegalArgumentException if a line cannot be parsed
+	 */
+	TraceReplayer(List<String> lines) {
+		for(int i=0 ; i<lines.size() ; i++) {
+			String line = lines.get(i).trim();
+			if(line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+
+			String[] fields = line.split("\\s+");
+			try {
+				if(fields.length!=3) {
+					throw new IllegalArgumentException("3 fields expected");
+				}
+				long time = Long.parseLong(fields[0]);
+				if(fields[1].equalsIgnoreCase("motion")) {
+					events.add(new Event(time, true, fields[2].equalsIgnoreCase("on") ? 1 : 0));
+				}
+				else if(fields[1].equalsIgnoreCase("light")) {
+					events.add(new Event(time, false, Integer.parseInt(fields[2])));
+				}
+				else {
+					throw new IllegalArgumentException("unknown event "+fields[1]);
+				}
+			}
+			catch(NumberFormatException e) {
+				throw new IllegalArgumentException("invalid trace line "+(i+1)+": "+line);
+			}
+			catch(IllegalArgumentException e) {
+				throw new IllegalArgumentException("invalid trace line "+(i+1)+": "+e.getMessage());
+			}
+		}
+		events.sort((e1,e2) -> Long.compare(e1.time, e2.time));
+	}
+
+	/**
+	 * loads a trace file
+	 * @param  file trace file
+	 * @return replayer
+	 * @throws IOException if the file cannot be read or parsed
+	 */
+	static TraceReplayer load(File file) throws IOException {
+		try {
+			return new TraceReplayer(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+		}
+		catch(IllegalArgumentException e) {
+			throw new IOException(file+": "+e.getMessage());
+		}
+	}
+
+	/**
+	 * replays the trace. Blocks until the last event was replayed
+	 * @param  hardware   simulated hardware
+	 * @param  motionGpio GPIO of the motion sensor
+	 * @param  speed      replay speed, e.g. 10 replays 10 times faster than recorded
+	 * @throws InterruptedException if the replay was interrupted
+	 */
+	void replay(SimulatedHardware hardware,int motionGpio,double speed) throws InterruptedException {
+		log.fine(() -> "replaying "+events.size()+" events with speed "+speed);
+
+		long start = System.nanoTime();
+		for(Event event:events) {
+			long delay = start+(long)(event.time*1000000/speed)-System.nanoTime();
+			if(delay>0) {
+				Thread.sleep(delay/1000000, (int)(delay%1000000));
+			}
+
+			if(event.motion) {
+				hardware.setInput(motionGpio, event.value!=0);
+			}
+			else {
+				hardware.setLight(event.value);
+			}
+		}
+	}
+
+	/**
+	 * @return number of events in the trace
+	 */
+	int size() {
+		return events.size();
+	}
+
+	/**
+	 * @return duration of the trace in ms at normal speed
+	 */
+	long getDuration() {
+		return events.isEmpty() ? 0 : events.get(events.size()-1).time;
+	}
+
+	//
+	// nested class for trace events
+	//
+	private static class Event {
+		Event(long time,boolean motion,int value) {
+			this.time   = time;
+			this.motion = motion;
+			this.value  = value;
+		}
+
+		final long    time;     // time in ms since start of the trace
+		final boolean motion;   // true for motion, false for light events
+		final int     value;    // 1/0 for motion on/off or the light sensor value
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( TraceReplayer.class.getName() );
+
+	private final List<Event> events = new ArrayList<>();   // events ordered by time
+}
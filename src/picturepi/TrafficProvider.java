@@ -41,14 +41,14 @@ public class TrafficProvider extends Provider {
 			
 			try {
 				URL url = new URL(BASE_URL+"origin="+route.start.replace(" ", "%20")+"&destination="+route.destination.replace(" ", "%20")+"&alternatives=true&key="+API_KEY);
-				log.fine("URL="+url);
+				log.fine(() -> "URL="+url);
 			    BufferedReader in = new BufferedReader(new InputStreamReader(url.openStream()));
 				JsonReader reader = Json.createReader(in);
 				JsonObject rootObject = reader.readObject();
 				String status = rootObject.getString("status");
 				JsonArray routes = rootObject.getJsonArray("routes");
 				
-				log.fine("retrieving data for route "+route.description+" returned status "+status);
+				log.fine(() -> "retrieving data for route "+route.description+" returned status "+status);
 				
 				for(int i=0 ; i<routes.size(); i++) {
 					Route.Alternative alternative = route.new Alternative();
@@ -61,7 +61,7 @@ public class TrafficProvider extends Provider {
 					
 					alternative.duration = leg.getJsonObject("duration").getString("text");
 					
-					log.fine("retrieved summary="+alternative.summary+" duration="+alternative.duration);
+					log.fine(() -> "retrieved summary="+alternative.summary+" duration="+alternative.duration);
 					route.alternativeList.add(alternative);
 				}
 			} catch (IOException e) {
@@ -0,0 +1,270 @@
+package picturepi;
+
+import java.awt.AlphaComposite;
+import java.awt.Component;
+import java.awt.EventQueue;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.Toolkit;
+import java.awt.image.VolatileImage;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+import javax.swing.JComponent;
+import javax.swing.JRootPane;
+import javax.swing.SwingUtilities;
+
+/**
+ * Crossfade transitions, installed as glass pane of the main window.
+ * The outgoing and incoming content of a component are snapshot into VolatileImages once, then the frames
+ * are composited with AlphaComposite and drawn directly to the screen on a paced frame clock. Swing's
+ * RepaintManager is not involved, so there are no repaint storms, and at most one frame is in flight.
+ * Between transitions no thread is busy.
+ */
+class TransitionEngine extends JComponent {
+
+	/**
+	 * constructor
+	 * @param duration duration of a transition in ms, 0 for hard cuts
+	 * @param fps      frames per second
+	 */
+	TransitionEngine(long duration,int fps) {
+		this.duration = duration*1000000;
+		this.pacer    = new FramePacer(fps);
+
+		setOpaque(false);
+		setVisible(false);
+
+		executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Transition");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * applies a change to a component with a crossfade if the root pane of the component has a transition engine
+	 * installed, otherwise with a hard cut. Must be called on the event dispatch thread
+	 * @param component component to change
+	 * @param change    change to apply
+	 */
+	static void transition(JComponent component,Runnable change) {
+		JRootPane rootPane = component.getRootPane();
+		if(rootPane!=null && rootPane.getGlassPane() instanceof TransitionEngine) {
+			((TransitionEngine)rootPane.getGlassPane()).crossfade(component, change);
+		}
+		else {
+			change.run();
+		}
+	}
+
+	/**
+	 * applies a change to a component with a crossfade. Must be called on the event dispatch thread
+	 * @param component component to change
+	 * @param change    change to apply
+	 */
+	void crossfade(JComponent component,Runnable change) {
+		// a running transition is aborted, its end state is the start of the new one
+		generation++;
+
+		if(duration<=0 || !component.isShowing() || component.getWidth()<=0 || component.getHeight()<=0
+				|| !DisplayPowerState.getDisplayPowerState().isOn()) {
+			// hard cut if there is nothing to animate or nobody can see it
+			change.run();
+			hideOverlay();
+			return;
+		}
+
+		int width  = component.getWidth();
+		int height = component.getHeight();
+		fromImage = snapshot(component, fromImage, width, height);
+		change.run();
+		component.validate();
+		toImage = snapshot(component, toImage, width, height);
+		if(fromImage==null || toImage==null) {
+			// no accelerated images available
+			hideOverlay();
+			return;
+		}
+
+		region = SwingUtilities.convertRectangle(component, new Rectangle(0, 0, width, height), this);
+		alpha  = 0.0f;
+		setVisible(true);
+
+		final long transitionGeneration = generation;
+		executor.execute(() -> runFrames(transitionGeneration));
+	}
+
+	/**
+	 * @return number of frames rendered in the last transition
+	 */
+	int getLastFrames() {
+		return lastFrames;
+	}
+
+	/**
+	 * @return number of frames dropped in the last transition because the frame budget was exceeded
+	 */
+	long getLastDroppedFrames() {
+		return lastDroppedFrames;
+	}
+
+	/**
+	 * @return average frame time in ns of the last transition
+	 */
+	long getLastAverageFrameTime() {
+		return lastAverageFrameTime;
+	}
+
+	/**
+	 * @return maximum frame time in ns of the last transition
+	 */
+	long getLastMaxFrameTime() {
+		return lastMaxFrameTime;
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		// Swing repaints the glass pane on top of other repaints during a transition
+		if(region!=null) {
+			paintFrame((Graphics2D)g);
+		}
+	}
+
+	/**
+	 * renders the frames of a transition. Runs on the transition thread
+	 * @param transitionGeneration generation of the transition
+	 */
+	private void runFrames(long transitionGeneration) {
+		pacer.start();
+		try {
+			float frameAlpha = 0.0f;
+			while(frameAlpha<1.0f && transitionGeneration==generation) {
+				frameAlpha = Math.min(1.0f, (float)pacer.awaitFrame()/duration);
+
+				final float renderAlpha = frameAlpha;
+				EventQueue.invokeAndWait(() -> renderFrame(transitionGeneration, renderAlpha));
+			}
+			pacer.finish();
+		}
+		catch (InterruptedException e) {
+			return;
+		}
+		catch (InvocationTargetException e) {
+			log.severe("Unable to render transition frame: "+e.getCause());
+		}
+
+		EventQueue.invokeLater(() -> {
+			if(transitionGeneration==generation) {
+				hideOverlay();
+			}
+		});
+
+		lastFrames           = pacer.getFrames();
+		lastDroppedFrames    = pacer.getDroppedFrames();
+		lastAverageFrameTime = pacer.getAverageFrameTime();
+		lastMaxFrameTime     = pacer.getMaxFrameTime();
+		log.fine("transition done: frames="+lastFrames+" dropped="+lastDroppedFrames
+				+" avg frame time="+lastAverageFrameTime/1000+" us max frame time="+lastMaxFrameTime/1000+" us"
+				+" budget="+pacer.getFramePeriod()/1000+" us");
+	}
+
+	/**
+	 * renders a single frame directly to the screen. Runs on the event dispatch thread
+	 * @param transitionGeneration generation of the transition
+	 * @param frameAlpha           opacity of the incoming content
+	 */
+	private void renderFrame(long transitionGeneration,float frameAlpha) {
+		if(transitionGeneration!=generation) {
+			return;
+		}
+
+		alpha = frameAlpha;
+		Graphics g = getGraphics();
+		if(g!=null) {
+			paintFrame((Graphics2D)g);
+			g.dispose();
+			Toolkit.getDefaultToolkit().sync();
+		}
+	}
+
+	/**
+	 * composites the snapshots with the current opacity
+	 * @param g graphics to paint to
+	 */
+	private void paintFrame(Graphics2D g) {
+		if(fromImage.contentsLost() || toImage.contentsLost()) {
+			// the snapshots can't be restored, end the transition with a hard cut
+			log.fine("transition images lost");
+			generation++;
+			hideOverlay();
+			return;
+		}
+
+		g.drawImage(fromImage, region.x, region.y, null);
+		g.setComposite(AlphaComposite.SrcOver.derive(alpha));
+		g.drawImage(toImage, region.x, region.y, null);
+	}
+
+	/**
+	 * paints a component into a VolatileImage, re-using the image if possible
+	 * @param  component component to paint
+	 * @param  image     image to re-use or null
+	 * @param  width     width of the component
+	 * @param  height    height of the component
+	 * @return image with the component or null if no image could be created
+	 */
+	private VolatileImage snapshot(JComponent component,VolatileImage image,int width,int height) {
+		GraphicsConfiguration gc = getGraphicsConfiguration();
+		if(image==null || image.getWidth()!=width || image.getHeight()!=height || image.validate(gc)==VolatileImage.IMAGE_INCOMPATIBLE) {
+			if(image!=null) {
+				image.flush();
+			}
+			image = createVolatileImage(width, height);
+			if(image==null) {
+				return null;
+			}
+			image.validate(gc);
+		}
+
+		Graphics2D g = image.createGraphics();
+		component.paint(g);
+		g.dispose();
+
+		return image;
+	}
+
+	/**
+	 * hides the glass pane, showing the components below again
+	 */
+	private void hideOverlay() {
+		region = null;
+		setVisible(false);
+	}
+
+	//
+	// private members
+	//
+	private static final long   serialVersionUID = 4470512390858512734L;
+	private static final Logger log = Logger.getLogger( TransitionEngine.class.getName() );
+
+	private final long            duration;                     // duration of a transition in ns
+	private final FramePacer      pacer;                        // frame clock, used by the transition thread only
+	private final ExecutorService executor;                     // transition thread
+
+	// state of the current transition, accessed on the event dispatch thread only
+	private VolatileImage         fromImage;                    // snapshot of the outgoing content
+	private VolatileImage         toImage;                      // snapshot of the incoming content
+	private Rectangle             region;                       // region of the transition, null if none is running
+	private float                 alpha;                        // opacity of the incoming content
+
+	private volatile long         generation           = 0;     // incremented with each transition, aborts running transitions
+	private volatile int          lastFrames           = 0;     // frames of the last transition
+	private volatile long         lastDroppedFrames    = 0;     // dropped frames of the last transition
+	private volatile long         lastAverageFrameTime = 0;     // average frame time in ns of the last transition
+	private volatile long         lastMaxFrameTime     = 0;     // maximum frame time in ns of the last transition
+}
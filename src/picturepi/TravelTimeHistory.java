@@ -0,0 +1,177 @@
+package picturepi;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.logging.Logger;
+
+/**
+ * Stores the history of travel times and delays of a route in a memory mapped ring buffer.
+ * Used to draw a trend of the last measurements and to calculate the usual travel time
+ * at a given time of the day.
+ */
+class TravelTimeHistory {
+
+	/**
+	 * opens the travel time history for a route
+	 * @param  routeKey unique key of the route, used to build the file name
+	 * @return TravelTimeHistory object or null if no data directory is configured or the file cannot be opened
+	 */
+	static TravelTimeHistory open(String routeKey) {
+		String dataDirectory = Configuration.getConfiguration().getValue("global", "dataDirectory", null);
+		if(dataDirectory==null) {
+			log.config("no data directory configured - travel time history disabled for "+routeKey);
+			return null;
+		}
+
+		int capacity = Configuration.getConfiguration().getValue("global", "travelTimeHistorySize", DEFAULT_CAPACITY);
+		File file    = new File(dataDirectory, "traveltime-"+routeKey.replaceAll("[^A-Za-z0-9_-]", "_")+".dat");
+		try {
+			return new TravelTimeHistory(new MappedTimeSeries(file, capacity, 2));
+		} catch (IOException e) {
+			log.severe("Unable to open travel time history file "+file);
+			log.severe(e.getMessage());
+
+			return null;
+		}
+	}
+
+	/**
+	 * constructor
+	 * @param timeSeries time series used as storage, must have 2 columns (travel time, delay)
+	 */
+	TravelTimeHistory(MappedTimeSeries timeSeries) {
+		this.timeSeries = timeSeries;
+	}
+
+	/**
+	 * adds a new measurement
+	 * @param timestamp  epoch seconds of the measurement
+	 * @param travelTime travel time in seconds
+	 * @param delay      traffic delay in seconds
+	 */
+	void add(long timestamp,int travelTime,int delay) {
+		timeSeries.append(timestamp, travelTime, delay);
+
+		long hour = timestamp/3600;
+		if(hour!=lastHour) {
+			if(lastHour>=0) {
+				// write back once per hour only, to spare the SD card
+				flush();
+			}
+			lastHour = hour;
+		}
+	}
+
+	/**
+	 * copies the latest travel times into an array, oldest first
+	 * @param  target array to fill
+	 * @return number of values copied
+	 */
+	int getLatestTravelTimes(int[] target) {
+		return timeSeries.copyLatest(COLUMN_TRAVEL_TIME, target);
+	}
+
+	/**
+	 * calculates the usual travel time at a given time. This is the average of all stored
+	 * measurements taken on the same kind of day (workday or weekend) within +/- BASELINE_WINDOW
+	 * minutes of the same time of the day on one of the previous days
+	 * @param  time time to calculate the usual travel time for
+	 * @return usual travel time in seconds or -1 if not enough data is available
+	 */
+	int getUsualTravelTime(LocalDateTime time) {
+		ZoneId  zone      = ZoneId.systemDefault();
+		boolean isWeekend = isWeekend(time.getDayOfWeek());
+
+		long sum   = 0;
+		int  count = 0;
+		int  size  = timeSeries.size();
+		if(size==0) {
+			return -1;
+		}
+		long oldest = timeSeries.getTimestamp(0);
+
+		// walk back day by day from the given time and only look at the records within the window of each day
+		for(int day=1 ; ; day++) {
+			long center = time.minusDays(day).atZone(zone).toEpochSecond();
+			if(center+BASELINE_WINDOW*60<oldest) {
+				break;
+			}
+			for(int i=firstIndexFrom(center-BASELINE_WINDOW*60, size) ; i<size ; i++) {
+				long timestamp = timeSeries.getTimestamp(i);
+				if(timestamp>center+BASELINE_WINDOW*60) {
+					break;
+				}
+
+				// the window may reach into a day of the other kind around midnight
+				LocalDateTime sampleTime = LocalDateTime.ofInstant(Instant.ofEpochSecond(timestamp), zone);
+				if(isWeekend(sampleTime.getDayOfWeek())==isWeekend) {
+					sum += timeSeries.getValue(i, COLUMN_TRAVEL_TIME);
+					count++;
+				}
+			}
+		}
+
+		if(count<BASELINE_MIN_SAMPLES) {
+			return -1;
+		}
+
+		return (int)(sum/count);
+	}
+
+	/**
+	 * finds the first record at or after a given time. Records are ordered by time
+	 * @param  timestamp epoch seconds
+	 * @param  size      number of records
+	 * @return index of the first record at or after the given time, size if there is none
+	 */
+	private int firstIndexFrom(long timestamp,int size) {
+		int low  = 0;
+		int high = size;
+		while(low<high) {
+			int middle = (low+high)>>>1;
+			if(timeSeries.getTimestamp(middle)<timestamp) {
+				low = middle+1;
+			}
+			else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * flushes the data to disk
+	 */
+	void flush() {
+		timeSeries.force();
+	}
+
+	/**
+	 * writes all data to disk, e.g. when the provider is stopped. The history stays usable afterwards
+	 */
+	void close() {
+		timeSeries.close();
+	}
+
+	private static boolean isWeekend(DayOfWeek dayOfWeek) {
+		return dayOfWeek==DayOfWeek.SATURDAY || dayOfWeek==DayOfWeek.SUNDAY;
+	}
+
+	//
+	// private members
+	//
+	private static final Logger log = Logger.getLogger( TravelTimeHistory.class.getName() );
+
+	private static final int DEFAULT_CAPACITY     = 30*24*12;  // 30 days at 5 minute refresh interval
+	private static final int BASELINE_WINDOW      = 30;        // time window in minutes for usual travel time
+	private static final int BASELINE_MIN_SAMPLES = 3;         // min. number of samples for usual travel time
+
+	private static final int COLUMN_TRAVEL_TIME = 0;         // column index of travel time, column 1 stores the delay
+
+	private final MappedTimeSeries timeSeries;        // storage
+	private       long             lastHour   = -1;  // hour of the last measurement, epoch hours
+}
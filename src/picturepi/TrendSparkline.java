@@ -0,0 +1,120 @@
+package picturepi;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+
+import javax.swing.JComponent;
+
+/**
+ * Small line chart without axes, showing the trend of a series of values
+ * and an optional horizontal baseline
+ */
+class TrendSparkline extends JComponent {
+
+	/**
+	 * constructor
+	 * @param capacity max. number of values to display
+	 * @param width    preferred width
+	 * @param height   preferred height
+	 */
+	TrendSparkline(int capacity,int width,int height) {
+		values = new int[capacity];
+
+		Dimension size = new Dimension(width, height);
+		setPreferredSize(size);
+		setMaximumSize(size);
+		setOpaque(false);
+	}
+
+	/**
+	 * @return max. number of values that can be displayed
+	 */
+	int getCapacity() {
+		return values.length;
+	}
+
+	/**
+	 * updates the display
+	 * @param newValues values to display, oldest first
+	 * @param count     number of valid values in newValues
+	 * @param baseline  baseline value or a negative value if no baseline shall be drawn
+	 */
+	synchronized void setValues(int[] newValues,int count,int baseline) {
+		this.count    = Math.min(count, values.length);
+		this.baseline = baseline;
+		System.arraycopy(newValues, 0, values, 0, this.count);
+
+		repaint();
+	}
+
+	/**
+	 * sets the line color
+	 * @param color line color
+	 */
+	void setLineColor(Color color) {
+		lineColor = color;
+		repaint();
+	}
+
+	@Override
+	protected synchronized void paintComponent(Graphics g) {
+		if(count<2) {
+			return;
+		}
+
+		int min = baseline>=0 ? baseline : Integer.MAX_VALUE;
+		int max = baseline>=0 ? baseline : Integer.MIN_VALUE;
+		for(int i=0 ; i<count ; i++) {
+			min = Math.min(min, values[i]);
+			max = Math.max(max, values[i]);
+		}
+		if(max==min) {
+			max = min+1;
+		}
+
+		Graphics2D g2 = (Graphics2D)g.create();
+		g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+		int width  = getWidth()-2*MARGIN;
+		int height = getHeight()-2*MARGIN;
+
+		if(baseline>=0) {
+			int y = MARGIN+height-(int)((long)(baseline-min)*height/(max-min));
+			g2.setColor(Color.GRAY);
+			g2.setStroke(new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10, new float[] {4,4}, 0));
+			g2.drawLine(MARGIN, y, MARGIN+width, y);
+		}
+
+		g2.setColor(lineColor);
+		g2.setStroke(new BasicStroke(3));
+		int lastX = 0;
+		int lastY = 0;
+		for(int i=0 ; i<count ; i++) {
+			int x = MARGIN+(int)((long)i*width/(count-1));
+			int y = MARGIN+height-(int)((long)(values[i]-min)*height/(max-min));
+			if(i>0) {
+				g2.drawLine(lastX, lastY, x, y);
+			}
+			lastX = x;
+			lastY = y;
+		}
+
+		g2.dispose();
+	}
+
+	//
+	// private members
+	//
+	private static final long serialVersionUID = 4710436276328651020L;
+
+	private static final int  MARGIN = 4;         // margin in pixel
+
+	private final int[] values;                   // values to display, oldest first
+	private       int   count     = 0;            // number of valid values
+	private       int   baseline  = -1;           // baseline value, negative if not used
+	private       Color lineColor = Color.CYAN;   // line color
+}
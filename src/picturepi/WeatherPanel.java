@@ -4,14 +4,6 @@ import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.ImageIcon;
 import javax.swing.JLabel;
-import javax.swing.JPanel;
-
-import org.knowm.xchart.XChartPanel;
-import org.knowm.xchart.XYChart;
-import org.knowm.xchart.XYChartBuilder;
-import org.knowm.xchart.XYSeries;
-import org.knowm.xchart.XYSeries.XYSeriesRenderStyle;
-import org.knowm.xchart.style.Styler.LegendPosition;
 
 import java.awt.Color;
 import java.awt.EventQueue;
@@ -56,27 +48,9 @@ class WeatherPanel extends Panel {
 		labelTemperature.setAlignmentX(CENTER_ALIGNMENT);
 		add(labelTemperature);
 
-		// chart with temperature over day
-		temperatureChart = new XYChartBuilder().width(getWidth()).height(200).title("Tagesverlauf").xAxisTitle("Zeit").yAxisTitle("Temp").build();
-
-		// Customize Chart
-		temperatureChart.getStyler().setLegendPosition(LegendPosition.InsideNE);
-		temperatureChart.getStyler().setDefaultSeriesRenderStyle(XYSeriesRenderStyle.Line);
-		temperatureChart.getStyler().setPlotBackgroundColor(Color.BLACK);
-		temperatureChart.getStyler().setChartBackgroundColor(Color.BLACK);
-		temperatureChart.getStyler().setChartFontColor(Color.RED);
-		temperatureChart.getStyler().setChartTitleBoxVisible(false);
-		temperatureChart.getStyler().setPlotGridLinesVisible(false);
-		temperatureChart.getStyler().setAxisTickLabelsColor(Color.WHITE);
-
-		// Dummy data
-		XYSeries series = temperatureChart.addSeries(chartName,new double[] { 0, 3, 5, 7, 9},new double[]{0,10,20,10,0});
-		series.setLineColor(Color.RED);
-		series.setMarkerColor(Color.YELLOW);
-
-       	// add to panel
-        JPanel chartPanel = new XChartPanel<XYChart>(temperatureChart);
-        add(chartPanel);
+		// chart with temperature over day, pre-rendered whenever the data changes
+		temperatureChart = new TemperatureChart(chartName, CHART_HEIGHT);
+		add(temperatureChart);
 		
 		add(Box.createVerticalGlue());
 		
@@ -152,8 +126,23 @@ class WeatherPanel extends Panel {
 		temperatureMax = temperature;
 	}
 
+	/**
+	 * updates the temperature chart. The chart is rendered again only if the data changed
+	 * @param time        time values
+	 * @param temperature temperature values
+	 */
 	void updateTemperatureChart(double[] time, double[] temperature) {
-		temperatureChart.updateXYSeries(chartName, time, temperature, null);
+		temperatureChart.setData(time, temperature);
+	}
+	
+	/**
+	 * updates the temperature chart with the first values of the arrays. The chart is rendered again only if the data changed
+	 * @param time        time values
+	 * @param temperature temperature values
+	 * @param count       number of valid values
+	 */
+	void updateTemperatureChart(double[] time, double[] temperature, int count) {
+		temperatureChart.setData(time, temperature, count);
 	}
 	
 	/**
@@ -165,13 +154,13 @@ class WeatherPanel extends Panel {
 	 * @param icon             forecast icon
 	 */
 	void setForecast(Date date,String summary,double temperatureLow,double temperatureHigh,ImageIcon icon) {
-		log.fine(String.format("set forecast received for date %s: %s %.0f...%.0f",date,summary,temperatureLow,temperatureHigh));
+		log.fine(() -> String.format("set forecast received for date %s: %s %.0f...%.0f",date,summary,temperatureLow,temperatureHigh));
 
 		EventQueue.invokeLater( new Runnable() {
 	        public void run() {
 	        	labelForecastSummary.setText("Vorhersage: "+summary);
 				String text = String.format("Temperatur %.1f bis %.1f C",temperatureLow,temperatureHigh);
-				log.fine("setting temperature range text: "+text);
+				log.fine(() -> "setting temperature range text: "+text);
 	        	labelForecastTemperatureRange.setText(text);
 	        	if(icon!=null) {
 	        		labelForecastIcon.setIcon(icon);
@@ -187,6 +176,7 @@ class WeatherPanel extends Panel {
 	private static final long   serialVersionUID = 8937994138265702017L;
 	private static final Logger log              = Logger.getLogger( WeatherPanel.class.getName() );
 	private static final String chartName		 = "Terrasse";
+	private static final int    CHART_HEIGHT     = 200;          // height of the chart in pixel
 
 	private Double temperatureMin = null;         // min temperature of day
 	private Double temperatureMax = null;         // max temperature of day
@@ -196,5 +186,5 @@ class WeatherPanel extends Panel {
 	private JLabel labelForecastIcon;             // label to display forecast icon
 	private JLabel labelForecastTemperatureRange; // label to display high temperature
 
-	final XYChart temperatureChart;               // chart to display temperature over day
+	final TemperatureChart temperatureChart;      // chart to display temperature over day
 }
@@ -8,6 +8,8 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.logging.Logger;
@@ -33,29 +35,6 @@ public class WeatherProvider extends Provider implements IMqttMessageListener {
 		super(3600);
 		log.fine("creating WeatherProvider");
 		
-		// subscribe to MQTT topics to retrieve measured temperature updates
-		mqttTopicTemperature = Configuration.getConfiguration().getValue(WeatherPanel.class.getSimpleName(), mqttTopicTemperatureConfigKey, null);
-		if(mqttTopicTemperature != null) {
-			log.info("subscribing for temperature, MQTT key="+mqttTopicTemperature);
-			MqttClient.getMqttClient().subscribe(mqttTopicTemperature, this);
-		}
-		mqttTopicTemperatureMin = Configuration.getConfiguration().getValue(WeatherPanel.class.getSimpleName(), mqttTopicTemperatureMinConfigKey, null);
-		if(mqttTopicTemperatureMin != null) {
-			log.info("subscribing for min temperature");
-			MqttClient.getMqttClient().subscribe(mqttTopicTemperatureMin, this);
-		}
-		mqttTopicTemperatureMax = Configuration.getConfiguration().getValue(WeatherPanel.class.getSimpleName(), mqttTopicTemperatureMaxConfigKey, null);
-		if(mqttTopicTemperatureMax != null) {
-			log.info("subscribing for min temperature");
-			MqttClient.getMqttClient().subscribe(mqttTopicTemperatureMax, this);
-		}
-		mqttTopicTemperatureListOfDay = Configuration.getConfiguration().getValue(WeatherPanel.class.getSimpleName(), mqttTopicTemperatureListOfDayKey, null);
-		if(mqttTopicTemperatureListOfDay != null) {
-			log.info("subscribing for temperature list of day");
-			MqttClient.getMqttClient().subscribe(mqttTopicTemperatureListOfDay, this);
-		}
-
-		
 		log.fine("WeatherProvider created");
 	}
 
@@ -122,7 +101,7 @@ public class WeatherProvider extends Provider implements IMqttMessageListener {
 		try {
         	// short-term (hourly) forecast
 			String server = "api.openweathermap.org";
-        	log.fine("URL hourly: "+url);
+        	log.fine(() -> "URL hourly: "+url);
             con = (HttpURLConnection)url.openConnection();
             con.setRequestMethod("GET");
             con.setDoInput(true);
@@ -149,7 +128,7 @@ public class WeatherProvider extends Provider implements IMqttMessageListener {
 	            
 	            JsonReader reader = Json.createReaderFactory(null).createReader(new InputStreamReader(is,StandardCharsets.UTF_8));
 				JsonObject jsonObject = reader.readObject();
-				log.finest("Forecast JSON object: "+jsonObject.toString());
+				log.finest(() -> "Forecast JSON object: "+jsonObject.toString());
 				
 				return jsonObject;
             }
@@ -173,7 +152,7 @@ public class WeatherProvider extends Provider implements IMqttMessageListener {
 		}
 		
 		JsonObject jsonDayForecast = jsonDailyArray.getJsonObject(0);
-		log.finest("daily forecast: "+jsonDayForecast.toString());
+		log.finest(() -> "daily forecast: "+jsonDayForecast.toString());
 
 		Integer dt;
 		try {
@@ -206,7 +185,7 @@ public class WeatherProvider extends Provider implements IMqttMessageListener {
 	    }
 	    
 	    JsonArray weather = jsonDayForecast.getJsonArray("weather");
-	    log.finest("size of weather array="+weather.size());
+	    log.finest(() -> "size of weather array="+weather.size());
 	    if(weather==null || weather.size()<1) {
 	    	log.severe("parseForecastFromJsonObject: No weather array found");
 	    	return false;
@@ -221,7 +200,7 @@ public class WeatherProvider extends Provider implements IMqttMessageListener {
 	    	return false;
 	    }
 	    
-	    log.fine(String.format("forecast date: %s temperature min: %f max: %f icon=%s", forecastDateString, temperatureMin.doubleValue(), temperatureMax.doubleValue(),iconString));
+	    log.fine(() -> String.format("forecast date: %s temperature min: %f max: %f icon=%s", forecastDateString, temperatureMin.doubleValue(), temperatureMax.doubleValue(),iconString));
 	    
 	    // map icon string to filename
 	    String iconFilename;
@@ -240,11 +219,7 @@ public class WeatherProvider extends Provider implements IMqttMessageListener {
 	    		return false;
 	    }
 	    
-	    ImageIcon icon = null;
-		java.net.URL imageURL = this.getClass().getResource("weatherIcons/"+iconFilename);
-		if(imageURL!=null) {
-		    icon = new ImageIcon(imageURL);
-		}
+	    ImageIcon icon = IconCache.get("weatherIcons/"+iconFilename);
 		
 		if(weatherPanel!=null) {
 			weatherPanel.setForecast(forecastDate, description, temperatureMin.doubleValue(),temperatureMax.doubleValue(),icon);
@@ -253,14 +228,55 @@ public class WeatherProvider extends Provider implements IMqttMessageListener {
 	    return true;
 	}
 	
+	@Override
+	protected List<String> getInitDependencies() {
+		// the provider of the followed view is accessed in init()
+		String followDynamicViewName = Configuration.getConfiguration().getValue(WeatherPanel.class.getSimpleName(), "followDynamicView", null);
+		return followDynamicViewName!=null ? Collections.singletonList(followDynamicViewName) : Collections.emptyList();
+	}
+	
 	@Override
 	protected void init() {
+		if(panel instanceof WeatherPanel) {
+			weatherPanel = (WeatherPanel)panel;
+		}
+		
+		// subscribe after the panel is known: the latest values of the topics are replayed immediately,
+		// so the panel shows the temperatures right away
+		mqttTopicTemperature = Configuration.getConfiguration().getValue(WeatherPanel.class.getSimpleName(), mqttTopicTemperatureConfigKey, null);
+		if(mqttTopicTemperature != null) {
+			log.info("subscribing for temperature, MQTT key="+mqttTopicTemperature);
+			MqttClient.getMqttClient().subscribe(mqttTopicTemperature, this, MqttListenerMailbox.Policy.COALESCE_LATEST);
+		}
+		mqttTopicTemperatureMin = Configuration.getConfiguration().getValue(WeatherPanel.class.getSimpleName(), mqttTopicTemperatureMinConfigKey, null);
+		if(mqttTopicTemperatureMin != null) {
+			log.info("subscribing for min temperature");
+			MqttClient.getMqttClient().subscribe(mqttTopicTemperatureMin, this, MqttListenerMailbox.Policy.COALESCE_LATEST);
+		}
+		mqttTopicTemperatureMax = Configuration.getConfiguration().getValue(WeatherPanel.class.getSimpleName(), mqttTopicTemperatureMaxConfigKey, null);
+		if(mqttTopicTemperatureMax != null) {
+			log.info("subscribing for min temperature");
+			MqttClient.getMqttClient().subscribe(mqttTopicTemperatureMax, this, MqttListenerMailbox.Policy.COALESCE_LATEST);
+		}
+		mqttTopicTemperatureListOfDay = Configuration.getConfiguration().getValue(WeatherPanel.class.getSimpleName(), mqttTopicTemperatureListOfDayKey, null);
+		if(mqttTopicTemperatureListOfDay != null) {
+			log.info("subscribing for temperature list of day");
+			MqttClient.getMqttClient().subscribe(mqttTopicTemperatureListOfDay, this, MqttListenerMailbox.Policy.COALESCE_LATEST);
+		}
+		else if(mqttTopicTemperature != null) {
+			// no external list of the day: draw the chart from the locally recorded history
+			temperatureHistory = TemperatureHistory.forTopic(mqttTopicTemperature);
+			if(temperatureHistory != null) {
+				temperatureHistory.addUpdateListener(this::temperatureHistoryChanged);
+			}
+		}
+		
 		String followDynamicViewName = Configuration.getConfiguration().getValue(WeatherPanel.class.getSimpleName(), "followDynamicView", null);
 		if(followDynamicViewName!=null) {
-			log.fine("looking for view to follow with showDynamic: "+followDynamicViewName);
+			log.fine(() -> "looking for view to follow with showDynamic: "+followDynamicViewName);
 			List<ViewData> followViewDataList = Configuration.getConfiguration().getViewDataList().stream().filter(viewData -> viewData.name.equals(followDynamicViewName)).collect(Collectors.toList());
 			if(followViewDataList.size()>0) {
-				log.fine("found provider to follow view with showDynamic: "+followDynamicViewName);
+				log.fine(() -> "found provider to follow view with showDynamic: "+followDynamicViewName);
 				outsideScheduleProvider = followViewDataList.get(0).panel.provider;
 			}
 		}
@@ -281,6 +297,11 @@ public class WeatherProvider extends Provider implements IMqttMessageListener {
 			}
 		}
 		
+		// history samples received while the view was not active
+		if(temperatureHistory!=null && isTemperatureHistoryChanged) {
+			updateTemperatureChartFromHistory();
+		}
+		
 		// retrieve weather forecast from OpenWeatherMap
 		URL url = buildUrl();
 		if(url!=null) {
@@ -306,34 +327,66 @@ public class WeatherProvider extends Provider implements IMqttMessageListener {
 		return super.hasOutsideScheduleData();
 	}
 	
+	/**
+	 * called for each new sample of the local history. The chart is only updated while a view of the panel is active,
+	 * otherwise it is updated with the next fetchData() after the view got activated
+	 */
+	private void temperatureHistoryChanged() {
+		if(isRunning()) {
+			updateTemperatureChartFromHistory();
+		}
+		else {
+			isTemperatureHistoryChanged = true;
+		}
+	}
+	
+	/**
+	 * updates the temperature chart with the minute averages of today from the local history
+	 */
+	private synchronized void updateTemperatureChartFromHistory() {
+		if(weatherPanel==null) {
+			return;
+		}
+		isTemperatureHistoryChanged = false;
+		
+		long dayStart = temperatureHistory.getStartOfDay(Instant.now().getEpochSecond());
+		int  count    = temperatureHistory.copy(TemperatureHistory.Resolution.MINUTE, dayStart, historyMinutes, null, null, historyTemperature);
+		if(count==0) {
+			return;
+		}
+		
+		for(int i=0 ; i<count ; i++) {
+			historyTime[i] = (historyMinutes[i]-dayStart)/3600.0;
+		}
+		weatherPanel.updateTemperatureChart(historyTime, historyTemperature, count);
+	}
+	
 	@Override
 	public void messageArrived(String topic, MqttMessage message) throws Exception {
-		log.fine("MQTT message arrived: topic="+topic+" content="+message);
+		log.fine(() -> "MQTT message arrived: topic="+topic+" content="+message);
 
 		try {
+			// payload is parsed only once, even if several listeners receive the same message
+			MqttTopicValue value = MqttTopicValue.of(message);
+			
 			if(weatherPanel!=null && mqttTopicTemperature!=null && topic.equals(mqttTopicTemperature)) {
-				log.fine("Updating actual temperature with "+message.toString());
-				weatherPanel.setTemperature(Double.parseDouble(message.toString()));
+				log.fine(() -> "Updating actual temperature with "+value.getText());
+				weatherPanel.setTemperature(value.getDouble());
 			}
 			if(weatherPanel != null && mqttTopicTemperatureMin!=null && topic.equals(mqttTopicTemperatureMin)) {
-				log.fine("Updating min temperature with "+message.toString());
-				// due to issues with openhab, the message contains also the unit "�C"
-				int pos = message.toString().indexOf(' ');
-				String s = pos>0 ? message.toString().substring(0, pos) : message.toString(); 
-				weatherPanel.setTemperatureMin(Double.parseDouble(s));
+				log.fine(() -> "Updating min temperature with "+value.getText());
+				// due to issues with openhab, the message contains also the unit, which is ignored by getDouble()
+				weatherPanel.setTemperatureMin(value.getDouble());
 			}
 			if(weatherPanel != null && mqttTopicTemperatureMax!=null && topic.equals(mqttTopicTemperatureMax)) {
-				log.fine("Updating max temperature with "+message.toString());
-				// due to issues with openhab, the message contains also the unit "�C"
-				int pos = message.toString().indexOf(' ');
-				String s = pos>0 ? message.toString().substring(0, pos) : message.toString(); 
-				weatherPanel.setTemperatureMax(Double.parseDouble(s));
+				log.fine(() -> "Updating max temperature with "+value.getText());
+				// due to issues with openhab, the message contains also the unit, which is ignored by getDouble()
+				weatherPanel.setTemperatureMax(value.getDouble());
 			}
 			if(weatherPanel != null && mqttTopicTemperatureListOfDay!=null && topic.equals(mqttTopicTemperatureListOfDay)) {
-				log.fine("Updating temperature list of day with "+message.toString());
+				log.fine("Updating temperature list of day");
 				// message contains a JSON object with time and temperature arrays
-				JsonReader reader = Json.createReader(new java.io.StringReader(message.toString()));
-				JsonObject jsonObject = reader.readObject();
+				JsonObject jsonObject = value.getJsonObject();
 				JsonArray timeArray = jsonObject.getJsonArray("hours");
 				JsonArray temperatureArray = jsonObject.getJsonArray("temperatures");
 				double[] time = new double[timeArray.size()];
@@ -364,6 +417,11 @@ public class WeatherProvider extends Provider implements IMqttMessageListener {
 	private       String            mqttTopicTemperatureMin;
 	private       String            mqttTopicTemperatureMax;
 	private	      String            mqttTopicTemperatureListOfDay;	
+	private       TemperatureHistory temperatureHistory           = null;    // local temperature history, used if no list of day topic is configured
+	private volatile boolean        isTemperatureHistoryChanged   = true;    // history changed since the chart was updated
+	private final long[]            historyMinutes                = new long[24*60];                  // minute timestamps copied from the history
+	private final double[]          historyTemperature            = new double[historyMinutes.length]; // minute averages copied from the history
+	private final double[]          historyTime                   = new double[historyMinutes.length]; // hours since the start of the day
 	
 	private       WeatherPanel      weatherPanel                  = null;    // WeatherPanel to update
 	private       Provider          outsideScheduleProvider       = null;    // optional, other provider used to decide to show outOfSchedule data
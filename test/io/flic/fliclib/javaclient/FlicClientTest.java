@@ -0,0 +1,190 @@
+package io.flic.fliclib.javaclient;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.flic.fliclib.javaclient.enums.ClickType;
+import io.flic.fliclib.javaclient.enums.LatencyMode;
+
+class FlicClientTest {
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress("localhost", 0));
+        client = new FlicClient("localhost", ((InetSocketAddress)server.getLocalAddress()).getPort());
+        serverConnection = server.accept();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        serverConnection.close();
+        server.close();
+    }
+
+    @Test
+    void testButtonEventsSplitAcrossReads() throws Exception {
+        List<ClickType> clicks = new ArrayList<>();
+        ButtonConnectionChannel channel = new ButtonConnectionChannel(new Bdaddr("80:e4:da:70:24:d9"), new ButtonConnectionChannel.Callbacks() {
+            @Override
+            public void onButtonSingleOrDoubleClick(ButtonConnectionChannel channel, ClickType clickType, boolean wasQueued, int timeDiff) throws IOException {
+                clicks.add(clickType);
+                if (clicks.size() == 2) {
+                    client.close();
+                }
+            }
+        });
+        client.addConnectionChannel(channel);
+
+        // two packets, the second one split in the middle of its length prefix
+        ByteBuffer packets = ByteBuffer.allocate(26).order(ByteOrder.LITTLE_ENDIAN);
+        putButtonEvent(packets, channel.connId, ClickType.ButtonSingleClick);
+        putButtonEvent(packets, channel.connId, ClickType.ButtonDoubleClick);
+        packets.flip();
+        packets.limit(14);
+        serverConnection.write(packets);
+
+        Thread thread = startEventThread();
+        Thread.sleep(50);
+        packets.limit(26);
+        serverConnection.write(packets);
+
+        thread.join(5000);
+        assertThat(thread.isAlive(), is(false));
+        assertThat(clicks, contains(ClickType.ButtonSingleClick, ClickType.ButtonDoubleClick));
+    }
+
+    @Test
+    void testTimerFromOtherThread() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        Thread thread = startEventThread();
+
+        client.setTimer(10, () -> {
+            threads.add(Thread.currentThread());
+            done.countDown();
+            client.close();
+        });
+
+        assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        thread.join(5000);
+        assertThat(threads, contains(thread));
+    }
+
+    @Test
+    void testTimersWithEqualDeadlineRunInOrder() throws Exception {
+        TimerWheel wheel = new TimerWheel(8, 1000, 0);
+        List<String> order = new ArrayList<>();
+        wheel.schedule(5000, () -> order.add("a"));
+        wheel.schedule(5000, () -> order.add("b"));
+        wheel.schedule(20000, () -> order.add("c"));
+
+        assertThat(wheel.nanosUntilNextDeadline(1000), is(4000L));
+        wheel.runExpired(5000);
+        assertThat(order, contains("a", "b"));
+
+        // deadline is more than one rotation ahead
+        wheel.runExpired(12000);
+        assertThat(order, hasSize(2));
+        wheel.runExpired(20000);
+        assertThat(order, contains("a", "b", "c"));
+        assertThat(wheel.size(), is(0));
+        assertThat(wheel.nanosUntilNextDeadline(20000), is(-1L));
+    }
+
+    @Test
+    void testCommandEncodingMatchesConstruct() {
+        CmdCreateConnectionChannel cmd = new CmdCreateConnectionChannel();
+        cmd.connId = 0x01020304;
+        cmd.bdaddr = new Bdaddr("80:e4:da:70:24:d9");
+        cmd.latencyMode = LatencyMode.LowLatency;
+        cmd.autoDisconnectTime = 511;
+
+        ByteBuffer buffer = ByteBuffer.allocate(CommandPacket.MAX_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put((byte)0x55);
+        cmd.encode(buffer);
+        buffer.flip();
+        buffer.get();
+        byte[] encoded = new byte[buffer.remaining()];
+        buffer.get(encoded);
+
+        assertThat(encoded, is(new byte[] {14, 0, 3, 4, 3, 2, 1, (byte)0xd9, 0x24, 0x70, (byte)0xda, (byte)0xe4, (byte)0x80, 1, (byte)0xff, 1}));
+        assertThat(cmd.construct(), is(encoded));
+    }
+
+    @Test
+    void testEventObjectIsReused() {
+        ByteBuffer packets = ByteBuffer.allocate(26).order(ByteOrder.LITTLE_ENDIAN);
+        putButtonEvent(packets, 7, ClickType.ButtonSingleClick);
+        putButtonEvent(packets, 8, ClickType.ButtonDoubleClick);
+
+        EvtButtonEvent event = new EvtButtonEvent();
+        packets.position(2).limit(13);
+        assertThat(event.parse(packets), is(true));
+        assertThat(event.connId, is(7));
+        assertThat(event.clickType, is(ClickType.ButtonSingleClick));
+
+        packets.limit(26).position(15);
+        assertThat(event.parse(packets), is(true));
+        assertThat(event.connId, is(8));
+        assertThat(event.clickType, is(ClickType.ButtonDoubleClick));
+
+        // truncated packet
+        packets.position(15).limit(20);
+        assertThat(event.parse(packets), is(false));
+    }
+
+    @Test
+    void testTruncatedStringIsSkipped() {
+        ByteBuffer packet = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+        packet.put((byte)EventPacket.EVT_ADVERTISEMENT_PACKET_OPCODE);
+        packet.putInt(1);
+        packet.put(new byte[6]);
+        packet.put((byte)3);
+        packet.put("abc".getBytes());
+        packet.flip();
+
+        // the packet ends before the padding of the name
+        EvtAdvertisementPacket event = new EvtAdvertisementPacket();
+        assertThat(event.parse(packet), is(false));
+    }
+
+    private Thread startEventThread() {
+        Thread thread = new Thread(() -> {
+            try {
+                client.handleEvents();
+            } catch (IOException e) {
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void putButtonEvent(ByteBuffer buffer, int connId, ClickType clickType) {
+        buffer.putShort((short)11);
+        buffer.put((byte)EventPacket.EVT_BUTTON_SINGLE_OR_DOUBLE_CLICK_OPCODE);
+        buffer.putInt(connId);
+        buffer.put((byte)clickType.ordinal());
+        buffer.put((byte)0);
+        buffer.putInt(0);
+    }
+
+    private ServerSocketChannel server;
+    private SocketChannel serverConnection;
+    private FlicClient client;
+}
@@ -0,0 +1,101 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.junit.jupiter.api.Test;
+
+class AsyncHandlerTest {
+
+	@Test
+	void testRecordsArePassedInOrder() {
+		RecordingHandler target = new RecordingHandler(null);
+		AsyncHandler handler = new AsyncHandler(target, 100);
+		for(int i=0 ; i<50 ; i++) {
+			handler.publish(new LogRecord(Level.INFO, "message "+i));
+		}
+		handler.close();
+
+		assertThat(target.messages.size(), is(50));
+		assertThat(target.messages.get(0), is("message 0"));
+		assertThat(target.messages.get(49), is("message 49"));
+		assertThat(target.isClosed, is(true));
+		assertThat(handler.getDroppedRecords(), is(0L));
+	}
+
+	@Test
+	void testFullBufferDropsRecords() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingHandler target = new RecordingHandler(release);
+		AsyncHandler handler = new AsyncHandler(target, 5);
+
+		// first record blocks the background thread in the target
+		handler.publish(new LogRecord(Level.INFO, "blocking"));
+		target.started.await();
+		for(int i=0 ; i<10 ; i++) {
+			handler.publish(new LogRecord(Level.INFO, "message "+i));
+		}
+		release.countDown();
+		handler.close();
+
+		assertThat(handler.getDroppedRecords(), is(5L));
+		assertThat(target.messages, hasItem(containsString("5 records dropped")));
+		assertThat(target.messages, hasItem("message 4"));
+		assertThat(target.messages, not(hasItem("message 5")));
+	}
+
+	@Test
+	void testLevelFilter() {
+		RecordingHandler target = new RecordingHandler(null);
+		AsyncHandler handler = new AsyncHandler(target, 10);
+		handler.setLevel(Level.INFO);
+		handler.publish(new LogRecord(Level.FINE, "fine"));
+		handler.publish(new LogRecord(Level.INFO, "info"));
+		handler.close();
+
+		assertThat(target.messages, contains("info"));
+	}
+
+	/**
+	 * target handler recording the messages
+	 */
+	private static class RecordingHandler extends Handler {
+		RecordingHandler(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public synchronized void publish(LogRecord record) {
+			messages.add(record.getMessage());
+			started.countDown();
+			if(release!=null) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+			isClosed = true;
+		}
+
+		final List<String>   messages = new ArrayList<>();
+		final CountDownLatch started  = new CountDownLatch(1);
+		final CountDownLatch release;
+		boolean              isClosed = false;
+	}
+}
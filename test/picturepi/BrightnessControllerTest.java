@@ -0,0 +1,98 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BrightnessControllerTest {
+
+	@BeforeEach
+	void setUp() throws Exception {
+		controller = new BrightnessController(() -> light, new BrightnessController.Output() {
+			@Override
+			public void writeBrightness(int brightness) {
+				writes.add(brightness);
+			}
+
+			@Override
+			public void setColorMode(boolean bright) {
+				colorModes.add(bright);
+			}
+		}, 0.5, 10);
+	}
+
+	@Test
+	void testComputeBrightness() {
+		assertThat(BrightnessController.computeBrightness(0, 0), is(BrightnessController.MIN_BRIGHTNESS));
+		assertThat(BrightnessController.computeBrightness(4, 0), is(4));
+		assertThat(BrightnessController.computeBrightness(10, 0), is(100));
+		assertThat(BrightnessController.computeBrightness(1000, 0), is(BrightnessController.MAX_BRIGHTNESS));
+		assertThat(BrightnessController.computeBrightness(1000, 50), is(127));
+	}
+
+	@Test
+	void testSmallChangesAreNotWritten() {
+		light = 10;
+		controller.sample();
+		assertThat(writes, contains(100));
+		assertThat(colorModes, contains(true));
+
+		// noise around a constant light level
+		for(int i=0 ; i<10 ; i++) {
+			light = i%2==0 ? 10 : 11;
+			controller.sample();
+		}
+		assertThat(writes, hasSize(1));
+		assertThat(colorModes, hasSize(1));
+	}
+
+	@Test
+	void testColorModeSwitchesOnceWithHysteresis() {
+		light = 20;
+		controller.sample();
+
+		// dimming slowly to darkness
+		light = 0;
+		for(int i=0 ; i<20 ; i++) {
+			controller.sample();
+		}
+		assertThat(controller.getBrightness(), is(BrightnessController.MIN_BRIGHTNESS));
+		assertThat(colorModes, contains(true, false));
+
+		// slightly brighter again stays in dark mode
+		light = 3;
+		for(int i=0 ; i<20 ; i++) {
+			controller.sample();
+		}
+		assertThat(colorModes, contains(true, false));
+	}
+
+	@Test
+	void testDisabledOutputIsNotWritten() {
+		controller.setOutputEnabled(false);
+		light = 10;
+		controller.sample();
+		assertThat(writes, is(empty()));
+
+		controller.setOutputEnabled(true);
+		controller.update();
+		assertThat(writes, contains(100));
+
+		controller.reset();
+		controller.update();
+		assertThat(writes, contains(100, 100));
+	}
+
+	//
+	// member data
+	//
+	private final List<Integer> writes     = new ArrayList<>();
+	private final List<Boolean> colorModes = new ArrayList<>();
+	private int                 light      = 0;
+	private BrightnessController controller;
+}
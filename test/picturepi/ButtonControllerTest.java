@@ -0,0 +1,118 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.flic.fliclib.javaclient.enums.ClickType;
+import picturepi.Configuration.ButtonClickViewData;
+
+class ButtonControllerTest {
+
+	@BeforeEach
+	void setUp() throws Exception {
+		singleClickView = createView("PicturePanel", 1);
+		doubleClickView = createView("WeatherPanel", 2);
+		controller = new ButtonController(Arrays.asList(singleClickView,doubleClickView), view -> requestedViews.add(view));
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		controller.stop();
+	}
+
+	@Test
+	void testFindView() {
+		assertThat(controller.findView(ADDRESS, ClickType.ButtonSingleClick), is(singleClickView));
+		assertThat(controller.findView(ADDRESS.toUpperCase(), ClickType.ButtonDoubleClick), is(doubleClickView));
+		assertThat(controller.findView(ADDRESS, ClickType.ButtonHold), is(nullValue()));
+		assertThat(controller.findView("80:e4:da:70:24:d8", ClickType.ButtonSingleClick), is(nullValue()));
+	}
+
+	@Test
+	void testButtonClickFromFlicd() throws Exception {
+		try(ServerSocketChannel server = ServerSocketChannel.open()) {
+			server.bind(new InetSocketAddress("localhost", 0));
+			controller.start("localhost", ((InetSocketAddress)server.getLocalAddress()).getPort());
+
+			try(SocketChannel flicd = server.accept()) {
+				// controller opens a connection channel for the button: length, opcode 3, connection ID, address ...
+				ByteBuffer command = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+				while(command.hasRemaining()) {
+					flicd.read(command);
+				}
+				assertThat(command.get(2), is((byte)3));
+				int connId = command.getInt(3);
+
+				ByteBuffer event = ByteBuffer.allocate(13).order(ByteOrder.LITTLE_ENDIAN);
+				event.putShort((short)11);
+				event.put((byte)7);
+				event.putInt(connId);
+				event.put((byte)ClickType.ButtonDoubleClick.ordinal());
+				event.put((byte)0);
+				event.putInt(0);
+				event.flip();
+				flicd.write(event);
+
+				assertThat(requestedViews.poll(5, TimeUnit.SECONDS), is(doubleClickView));
+			}
+		}
+	}
+
+	@Test
+	void testScheduledPanelIsReused() {
+		Map<String,Panel> scheduledPanels = new HashMap<>();
+		Panel picturePanel = new BlackScreenPanel();
+		Panel weatherPanel = new BlackScreenPanel();
+		scheduledPanels.put("PicturePanel", picturePanel);
+		scheduledPanels.put("WeatherPanel", weatherPanel);
+
+		ProviderInitializer initializer = new ProviderInitializer(1, viewName -> null);
+		try {
+			controller.prepareViews(scheduledPanels, initializer);
+		}
+		finally {
+			initializer.shutdown();
+		}
+		assertThat(singleClickView.panel, is(sameInstance(picturePanel)));
+		assertThat(doubleClickView.panel, is(sameInstance(weatherPanel)));
+	}
+
+	private static ButtonClickViewData createView(String viewName,int clicks) {
+		ButtonClickViewData view = Configuration.getConfiguration().new ButtonClickViewData();
+		view.viewName      = viewName;
+		view.buttonAddress = ADDRESS;
+		view.clicks        = clicks;
+		view.duration      = 30;
+		// the panel is not needed to dispatch the click
+		view.panel         = new BlackScreenPanel();
+		return view;
+	}
+
+	//
+	// member data
+	//
+	private static final String ADDRESS = "80:e4:da:70:24:d9";
+
+	private final BlockingQueue<ButtonClickViewData> requestedViews = new ArrayBlockingQueue<>(10);
+
+	private ButtonController    controller;
+	private ButtonClickViewData singleClickView;
+	private ButtonClickViewData doubleClickView;
+}
@@ -0,0 +1,111 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.File;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CalendarEventStoreTest {
+
+	@Test
+	void testEntriesOfDay() {
+		CalendarEventStore store = new CalendarEventStore(null);
+		store.putEvent("1", "Biomuell", DAY, DAY);
+		store.putEvent("2", "Urlaub", DAY.minusDays(2), DAY.plusDays(2));
+		store.putEvent("3", "Papier", DAY.plusDays(1), DAY.plusDays(1));
+
+		assertThat(store.getEntries(DAY), contains("Urlaub","Biomuell"));
+		assertThat(store.getEntries(DAY.plusDays(1)), contains("Urlaub","Papier"));
+		assertThat(store.getEntries(DAY.plusDays(3)), is(empty()));
+	}
+
+	@Test
+	void testChangedAndRemovedEvents() {
+		CalendarEventStore store = new CalendarEventStore(null);
+		store.putEvent("1", "Biomuell", DAY, DAY);
+		store.putEvent("2", "Papier", DAY, DAY);
+
+		store.putEvent("1", "Restmuell", DAY, DAY);
+		store.removeEvent("2");
+		assertThat(store.getEntries(DAY), contains("Restmuell"));
+	}
+
+	@Test
+	void testRemoveEventsBefore() {
+		CalendarEventStore store = new CalendarEventStore(null);
+		store.putEvent("1", "old", DAY.minusDays(3), DAY.minusDays(1));
+		store.putEvent("2", "running", DAY.minusDays(3), DAY);
+
+		store.removeEventsBefore(DAY);
+		assertThat(store.size(), is(1));
+	}
+
+	@Test
+	void testSaveAndLoad(@TempDir File directory) {
+		File file = new File(directory, "calendar.json");
+
+		CalendarEventStore store = new CalendarEventStore(file);
+		store.putEvent("1", "Gelber Sack", DAY, DAY);
+		store.setSyncToken("token");
+		store.save();
+
+		CalendarEventStore loaded = CalendarEventStore.load(file);
+		assertThat(loaded.getSyncToken(), is("token"));
+		assertThat(loaded.getEntries(DAY), contains("Gelber Sack"));
+	}
+
+	@Test
+	void testSavedOnlyIfModified(@TempDir File directory) {
+		File file = new File(directory, "calendar.json");
+
+		CalendarEventStore store = new CalendarEventStore(file);
+		store.putEvent("1", "Gelber Sack", DAY, DAY);
+		store.setSyncToken("token");
+		store.save();
+		assertThat(file.delete(), is(true));
+
+		// nothing changed
+		store.setSyncToken("token");
+		store.removeEvent("2");
+		store.save();
+		assertThat(file.exists(), is(false));
+
+		store.setSyncToken("token2");
+		store.save();
+		assertThat(file.exists(), is(true));
+	}
+
+	@Test
+	void testReplaceWith() {
+		CalendarEventStore store = new CalendarEventStore(null);
+		store.putEvent("1", "Biomuell", DAY, DAY);
+		store.setSyncToken("old");
+
+		CalendarEventStore fullSync = new CalendarEventStore(null);
+		fullSync.putEvent("2", "Papier", DAY, DAY);
+		fullSync.setSyncToken("new");
+
+		store.replaceWith(fullSync);
+		assertThat(store.getEntries(DAY), contains("Papier"));
+		assertThat(store.getSyncToken(), is("new"));
+	}
+
+	@Test
+	void testLoadInvalidFileStartsEmpty(@TempDir File directory) throws Exception {
+		File file = new File(directory, "calendar.json");
+		java.nio.file.Files.write(file.toPath(), "{\"events\":".getBytes());
+
+		CalendarEventStore loaded = CalendarEventStore.load(file);
+		assertThat(loaded.size(), is(0));
+		assertThat(loaded.getSyncToken(), is(nullValue()));
+	}
+
+	//
+	// member data
+	//
+	private static final LocalDate DAY = LocalDate.of(2024, 3, 15);
+}
@@ -0,0 +1,68 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.ini4j.Ini;
+import org.junit.jupiter.api.Test;
+
+class ConfigurationSnapshotTest {
+
+	@Test
+	void testTypedValues() throws IOException {
+		ConfigurationSnapshot snapshot = createSnapshot("[a]\nint = 5\ndouble = 1.5\nbool = true\nstring = text\n");
+		assertThat(snapshot.getInt("a", "int", -1), is(5));
+		assertThat(snapshot.getDouble("a", "double", -1.0), is(1.5));
+		assertThat(snapshot.getBoolean("a", "bool", false), is(true));
+		assertThat(snapshot.getString("a", "string", null), is("text"));
+	}
+
+	@Test
+	void testDefaultValues() throws IOException {
+		ConfigurationSnapshot snapshot = createSnapshot("[a]\nint = 5\n");
+		assertThat(snapshot.getInt("a", "other", -1), is(-1));
+		assertThat(snapshot.getInt("b", "int", -1), is(-1));
+		assertThat(snapshot.getString("b", "int", "x"), is("x"));
+	}
+
+	@Test
+	void testInvalidNumberReturnsDefault() throws IOException {
+		ConfigurationSnapshot snapshot = createSnapshot("[a]\nint = five\n");
+		assertThat(snapshot.getInt("a", "int", -1), is(-1));
+		assertThat(snapshot.getInt("a", "int", -2), is(-2));
+	}
+
+	@Test
+	void testSameKeyWithDifferentTypes() throws IOException {
+		ConfigurationSnapshot snapshot = createSnapshot("[a]\nvalue = 2\n");
+		assertThat(snapshot.getInt("a", "value", -1), is(2));
+		assertThat(snapshot.getDouble("a", "value", -1.0), is(2.0));
+	}
+
+	@Test
+	void testSectionKeepsFileOrder() throws IOException {
+		ConfigurationSnapshot snapshot = createSnapshot("[views]\nb = 1\na = 2\nc = 3\n");
+		assertThat(snapshot.getSection("views").keySet(), contains("b","a","c"));
+	}
+
+	@Test
+	void testChangedSections() throws IOException {
+		ConfigurationSnapshot oldSnapshot = createSnapshot("[a]\nx = 1\n[b]\ny = 2\n[c]\nz = 3\n");
+		ConfigurationSnapshot newSnapshot = createSnapshot("[a]\nx = 1\n[b]\ny = 5\n[d]\nz = 3\n");
+		assertThat(oldSnapshot.getChangedSections(newSnapshot), containsInAnyOrder("b","c","d"));
+	}
+
+	/**
+	 * creates a snapshot from a string
+	 * @param  content ini file content
+	 * @return snapshot
+	 */
+	private ConfigurationSnapshot createSnapshot(String content) throws IOException {
+		Ini ini = new Ini();
+		ini.load(new StringReader(content));
+		return new ConfigurationSnapshot(ini);
+	}
+}
@@ -3,6 +3,7 @@ package picturepi;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
+import java.time.LocalTime;
 import java.util.List;
 import java.util.logging.LogManager;
 
@@ -111,6 +112,17 @@ class ConfigurationTest {
 		assertThat(list, hasSize(2));
 	}
 	
+	@Test
+	void testViewDataStartsWithin() {
+		List<ViewData> list = Configuration.getConfiguration().parseViewData("5,06:00-09:00,00:01-01:00");
+		assertThat(list.get(0).startsWithin(LocalTime.of(5, 58), 120), is(true));
+		assertThat(list.get(0).startsWithin(LocalTime.of(5, 57), 120), is(false));
+		assertThat(list.get(0).startsWithin(LocalTime.of(6, 0), 120), is(false));
+		assertThat(list.get(0).startsWithin(LocalTime.of(7, 0), 120), is(false));
+		// display period starting after midnight
+		assertThat(list.get(1).startsWithin(LocalTime.of(23, 59, 30), 120), is(true));
+	}
+	
 	@Test
 	void testParsingViewDataErrorNoDuration() {
 		assertThat(Configuration.getConfiguration().parseViewData("06:00-09:00,20:00-21:40"), hasSize(0));
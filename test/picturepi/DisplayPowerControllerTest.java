@@ -0,0 +1,115 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DisplayPowerControllerTest {
+
+	@BeforeEach
+	void setUp() throws Exception {
+		controller = new DisplayPowerController(on -> transitions.add(on), 100, true, powerState);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		controller.shutdown();
+	}
+
+	@Test
+	void testOffIsDelayed() throws Exception {
+		controller.request(false);
+		waitForPendingTasks();
+		assertThat(transitions, is(empty()));
+
+		Thread.sleep(300);
+		waitForPendingTasks();
+		assertThat(transitions, contains(false));
+		assertThat(controller.isPoweredOn(), is(false));
+		assertThat(controller.getLastTransitionLatency(), greaterThanOrEqualTo(100L));
+	}
+
+	@Test
+	void testToggleWithinDelayIsDebounced() throws Exception {
+		controller.request(false);
+		controller.request(true);
+		controller.request(false);
+		controller.request(true);
+
+		Thread.sleep(300);
+		waitForPendingTasks();
+		assertThat(transitions, is(empty()));
+		assertThat(controller.isPoweredOn(), is(true));
+	}
+
+	@Test
+	void testOnIsImmediate() throws Exception {
+		controller.request(false);
+		Thread.sleep(300);
+		controller.request(true);
+		waitForPendingTasks();
+		assertThat(transitions, contains(false, true));
+		assertThat(controller.getLastTransitionLatency(), lessThan(100L));
+	}
+
+	@Test
+	void testPowerStateFollowsDisplay() throws Exception {
+		controller.request(false);
+		waitForPendingTasks();
+		// still on during the off delay
+		assertThat(powerState.isOn(), is(true));
+
+		Thread.sleep(300);
+		waitForPendingTasks();
+		assertThat(powerState.isOn(), is(false));
+
+		controller.request(true);
+		waitForPendingTasks();
+		assertThat(powerState.isOn(), is(true));
+	}
+
+	@Test
+	void testFailedSwitchCanBeRetried() throws Exception {
+		controller.shutdown();
+		failures = 1;
+		controller = new DisplayPowerController(on -> {
+			if(failures-->0) {
+				throw new IOException("simulated failure");
+			}
+			transitions.add(on);
+		}, 100, false, powerState);
+
+		controller.request(true);
+		waitForPendingTasks();
+		assertThat(controller.isPoweredOn(), is(false));
+		assertThat(powerState.isOn(), is(false));
+
+		controller.request(true);
+		waitForPendingTasks();
+		assertThat(transitions, contains(true));
+		assertThat(controller.isPoweredOn(), is(true));
+	}
+
+	private void waitForPendingTasks() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(1);
+		controller.execute(latch::countDown);
+		assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+	}
+
+	//
+	// member data
+	//
+	private final List<Boolean>     transitions = new CopyOnWriteArrayList<>();
+	private final DisplayPowerState powerState  = new DisplayPowerState();
+	private DisplayPowerController  controller;
+	private int                     failures    = 0;
+}
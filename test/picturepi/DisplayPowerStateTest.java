@@ -0,0 +1,94 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class DisplayPowerStateTest {
+
+	@Test
+	void testAwaitOn() throws InterruptedException {
+		DisplayPowerState state = new DisplayPowerState();
+		assertThat(state.isOn(), is(true));
+		assertThat(state.awaitOn(10000), is(true));
+
+		state.setOn(false);
+		long start = System.nanoTime();
+		assertThat(state.awaitOn(50), is(false));
+		assertThat((System.nanoTime()-start)/1000000, is(greaterThanOrEqualTo(45L)));
+
+		new Thread(() -> {
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+			}
+			state.setOn(true);
+		}).start();
+		start = System.nanoTime();
+		assertThat(state.awaitOn(10000), is(true));
+		assertThat((System.nanoTime()-start)/1000000, is(lessThan(5000L)));
+	}
+
+	@Test
+	void testProviderPausedWhileDark() throws InterruptedException {
+		DisplayPowerState state = DisplayPowerState.getDisplayPowerState();
+		state.setOn(false);
+
+		CountingProvider provider = new CountingProvider(true);
+		provider.start();
+
+		// the first update is done even while dark, so the view has data
+		assertThat(provider.fetches.tryAcquire(5, TimeUnit.SECONDS), is(true));
+		assertThat(provider.fetches.tryAcquire(1500, TimeUnit.MILLISECONDS), is(false));
+
+		// the skipped update is done right away on wake
+		state.setOn(true);
+		assertThat(provider.fetches.tryAcquire(500, TimeUnit.MILLISECONDS), is(true));
+		provider.stop();
+	}
+
+	@Test
+	void testProviderNotPausedWhileDark() throws InterruptedException {
+		DisplayPowerState.getDisplayPowerState().setOn(false);
+
+		CountingProvider provider = new CountingProvider(false);
+		provider.start();
+
+		assertThat(provider.fetches.tryAcquire(2, 5, TimeUnit.SECONDS), is(true));
+		provider.stop();
+	}
+
+	@AfterEach
+	void restoreState() {
+		DisplayPowerState.getDisplayPowerState().setOn(true);
+	}
+
+	/**
+	 * provider updating every second, counting the updates
+	 */
+	private static class CountingProvider extends Provider {
+		CountingProvider(boolean isPausedWhileDark) {
+			super(1);
+			this.isPausedWhileDark = isPausedWhileDark;
+			setPanel(new BlackScreenPanel());
+		}
+
+		@Override
+		protected boolean isPausedWhileDark() {
+			return isPausedWhileDark;
+		}
+
+		@Override
+		void fetchData() {
+			fetches.release();
+		}
+
+		final Semaphore fetches = new Semaphore(0);
+		final boolean   isPausedWhileDark;
+	}
+}
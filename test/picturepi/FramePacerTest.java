@@ -0,0 +1,59 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import org.junit.jupiter.api.Test;
+
+class FramePacerTest {
+
+	@Test
+	void testPacing() throws InterruptedException {
+		FramePacer pacer = new FramePacer(50);
+		pacer.start();
+
+		long frameTime = 0;
+		for(int i=0 ; i<10 ; i++) {
+			frameTime = pacer.awaitFrame();
+		}
+		pacer.finish();
+
+		// 10th frame starts after 9 periods of 20ms
+		assertThat(frameTime, greaterThanOrEqualTo(180000000L));
+		assertThat(pacer.getFrames(), is(10));
+		assertThat(pacer.getMaxFrameTime(), lessThan(pacer.getFramePeriod()));
+	}
+
+	@Test
+	void testSlowFramesAreDropped() throws InterruptedException {
+		FramePacer pacer = new FramePacer(50);
+		pacer.start();
+
+		pacer.awaitFrame();
+		// frame takes 3.5 periods
+		Thread.sleep(70);
+		long start = System.nanoTime();
+		pacer.awaitFrame();
+		long wait = System.nanoTime()-start;
+		pacer.finish();
+
+		// no burst of late frames: the next frame waits for the next slot
+		assertThat(pacer.getDroppedFrames(), greaterThanOrEqualTo(2L));
+		assertThat(wait, lessThan(pacer.getFramePeriod()));
+		assertThat(pacer.getFrames(), is(2));
+		assertThat(pacer.getMaxFrameTime(), greaterThanOrEqualTo(70000000L));
+	}
+
+	@Test
+	void testStartResetsStatistics() throws InterruptedException {
+		FramePacer pacer = new FramePacer(100);
+		pacer.start();
+		pacer.awaitFrame();
+		pacer.finish();
+		assertThat(pacer.getFrames(), is(1));
+
+		pacer.start();
+		assertThat(pacer.getFrames(), is(0));
+		assertThat(pacer.getAverageFrameTime(), is(0L));
+	}
+}
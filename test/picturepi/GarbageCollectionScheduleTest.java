@@ -0,0 +1,60 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import picturepi.GarbageCollectionPanel.TrashBinColors;
+
+class GarbageCollectionScheduleTest {
+
+	@BeforeEach
+	void setUp() throws Exception {
+		store = new CalendarEventStore(null);
+		store.putEvent("1", "Restmuell", DAY, DAY);
+		store.putEvent("2", "Biotonne", DAY, DAY);
+		store.putEvent("3", "Gelber Sack", DAY.plusDays(1), DAY.plusDays(1));
+		store.putEvent("4", "Papiertonne", DAY.plusDays(20), DAY.plusDays(20));
+		store.putEvent("5", "Zahnarzt", DAY.plusDays(1), DAY.plusDays(1));
+	}
+
+	@Test
+	void testColorsPerDay() {
+		GarbageCollectionSchedule schedule = GarbageCollectionSchedule.build(store, DAY, 14);
+		assertThat(schedule.get(DAY), contains(TrashBinColors.BLACK,TrashBinColors.BROWN));
+		assertThat(schedule.get(DAY.plusDays(1)), contains(TrashBinColors.YELLOW));
+		assertThat(schedule.get(DAY.plusDays(2)), is(empty()));
+	}
+
+	@Test
+	void testDaysOutsideScheduleAreEmpty() {
+		GarbageCollectionSchedule schedule = GarbageCollectionSchedule.build(store, DAY, 14);
+		assertThat(schedule.covers(DAY.plusDays(13)), is(true));
+		assertThat(schedule.covers(DAY.plusDays(14)), is(false));
+		assertThat(schedule.get(DAY.plusDays(20)), is(empty()));
+	}
+
+	@Test
+	void testReturnedSetIsACopy() {
+		GarbageCollectionSchedule schedule = GarbageCollectionSchedule.build(store, DAY, 14);
+		schedule.get(DAY).clear();
+		assertThat(schedule.get(DAY), hasSize(2));
+	}
+
+	@Test
+	void testParse() {
+		assertThat(GarbageCollectionSchedule.parse("Altpapier und Gelbe Tonne"), contains(TrashBinColors.BLUE,TrashBinColors.YELLOW));
+		assertThat(GarbageCollectionSchedule.parse("Geburtstag"), is(empty()));
+	}
+
+	//
+	// member data
+	//
+	private static final LocalDate DAY = LocalDate.of(2024, 3, 15);
+
+	private CalendarEventStore store;
+}
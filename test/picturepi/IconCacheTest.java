@@ -0,0 +1,43 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import javax.swing.ImageIcon;
+
+import org.junit.jupiter.api.Test;
+
+class IconCacheTest {
+
+	@Test
+	void testOriginalSize() {
+		ImageIcon icon = IconCache.get("weatherIcons/fog_dark.png");
+
+		assertThat(icon, is(notNullValue()));
+		assertThat(icon.getIconWidth(), is(128));
+		assertThat(icon.getIconHeight(), is(128));
+	}
+
+	@Test
+	void testScaledIconsAreShared() {
+		ImageIcon icon = IconCache.get("otherIcons/blinds.png", 140, 140);
+
+		assertThat(icon.getIconWidth(), is(140));
+		assertThat(icon.getIconHeight(), is(140));
+		assertThat(IconCache.get("otherIcons/blinds.png", 140, 140), is(sameInstance(icon)));
+		assertThat(IconCache.get("otherIcons/blinds.png", 70, 70), is(not(sameInstance(icon))));
+	}
+
+	@Test
+	void testEnlarge() {
+		ImageIcon icon = IconCache.get("otherIcons/alarmclock-with-bells.png", 100, 80);
+
+		assertThat(icon.getIconWidth(), is(100));
+		assertThat(icon.getIconHeight(), is(80));
+	}
+
+	@Test
+	void testMissingResource() {
+		assertThat(IconCache.get("otherIcons/missing.png"), is(nullValue()));
+	}
+}
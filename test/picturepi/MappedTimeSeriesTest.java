@@ -0,0 +1,94 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedTimeSeriesTest {
+
+	@Test
+	void testAppendAndRead() throws IOException {
+		MappedTimeSeries timeSeries = new MappedTimeSeries(new File(tempDir,"test.dat"), 10, 2);
+		timeSeries.append(100, 1, 2);
+		timeSeries.append(200, 3, 4);
+
+		assertThat(timeSeries.size(), is(2));
+		assertThat(timeSeries.getTimestamp(0), is(100L));
+		assertThat(timeSeries.getValue(1, 0), is(3));
+		assertThat(timeSeries.getValue(1, 1), is(4));
+	}
+
+	@Test
+	void testOverwriteOldest() throws IOException {
+		MappedTimeSeries timeSeries = new MappedTimeSeries(new File(tempDir,"test.dat"), 3, 1);
+		for(int i=0 ; i<5 ; i++) {
+			timeSeries.append(i, i*10);
+		}
+
+		assertThat(timeSeries.size(), is(3));
+		assertThat(timeSeries.getTimestamp(0), is(2L));
+		assertThat(timeSeries.getValue(2, 0), is(40));
+
+		int[] latest = new int[2];
+		assertThat(timeSeries.copyLatest(0, latest), is(2));
+		assertThat(latest[0], is(30));
+		assertThat(latest[1], is(40));
+	}
+
+	@Test
+	void testDataIsPersisted() throws IOException {
+		File file = new File(tempDir,"test.dat");
+		MappedTimeSeries timeSeries = new MappedTimeSeries(file, 5, 1);
+		timeSeries.append(42, 7);
+		timeSeries.close();
+
+		MappedTimeSeries reopened = new MappedTimeSeries(file, 5, 1);
+		assertThat(reopened.size(), is(1));
+		assertThat(reopened.getValue(0, 0), is(7));
+	}
+
+	@Test
+	void testLayoutChangeDiscardsData() throws IOException {
+		File file = new File(tempDir,"test.dat");
+		new MappedTimeSeries(file, 5, 1).append(42, 7);
+
+		assertThat(new MappedTimeSeries(file, 5, 2).size(), is(0));
+	}
+
+	@Test
+	void testUsualTravelTime() throws IOException {
+		TravelTimeHistory history = new TravelTimeHistory(new MappedTimeSeries(new File(tempDir,"travel.dat"), 100, 2));
+		LocalDateTime now = LocalDateTime.of(2024, 3, 14, 8, 0);
+		for(int week=3 ; week>=1 ; week--) {
+			history.add(now.minusWeeks(week).atZone(ZoneId.systemDefault()).toEpochSecond(), 600*week, 0);
+		}
+
+		assertThat(history.getUsualTravelTime(now), is(1200));
+		assertThat(history.getUsualTravelTime(now.plusHours(3)), is(-1));
+	}
+
+	@Test
+	void testUsualTravelTimeAroundMidnight() throws IOException {
+		TravelTimeHistory history = new TravelTimeHistory(new MappedTimeSeries(new File(tempDir,"travel.dat"), 100, 2));
+		LocalDateTime now = LocalDateTime.of(2024, 3, 14, 0, 10);
+		for(int week=3 ; week>=1 ; week--) {
+			// 20 minutes earlier, on the day before
+			history.add(now.minusWeeks(week).minusMinutes(20).atZone(ZoneId.systemDefault()).toEpochSecond(), 600*week, 0);
+		}
+
+		assertThat(history.getUsualTravelTime(now), is(1200));
+	}
+
+	//
+	// member data
+	//
+	@TempDir
+	File tempDir;
+}
@@ -0,0 +1,81 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.paho.client.mqttv3.IMqttMessageListener;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.junit.jupiter.api.Test;
+
+class MqttListenerMailboxTest {
+
+	@Test
+	void testDropOldest() {
+		MqttListenerMailbox mailbox = new MqttListenerMailbox(recordingListener, MqttListenerMailbox.Policy.DROP_OLDEST, 2, pendingTasks::add);
+		mailbox.messageArrived("topic", new MqttMessage("1".getBytes()));
+		mailbox.messageArrived("topic", new MqttMessage("2".getBytes()));
+		mailbox.messageArrived("topic", new MqttMessage("3".getBytes()));
+
+		assertThat(pendingTasks, hasSize(1));
+		pendingTasks.remove(0).run();
+
+		assertThat(received, contains("topic=2","topic=3"));
+		assertThat(mailbox.getDroppedCount(), is(1L));
+	}
+
+	@Test
+	void testCoalesceLatest() {
+		MqttListenerMailbox mailbox = new MqttListenerMailbox(recordingListener, MqttListenerMailbox.Policy.COALESCE_LATEST, 10, pendingTasks::add);
+		mailbox.messageArrived("a", new MqttMessage("1".getBytes()));
+		mailbox.messageArrived("b", new MqttMessage("2".getBytes()));
+		mailbox.messageArrived("a", new MqttMessage("3".getBytes()));
+
+		pendingTasks.remove(0).run();
+
+		assertThat(received, contains("a=3","b=2"));
+		assertThat(mailbox.getDroppedCount(), is(0L));
+	}
+
+	@Test
+	void testRescheduledAfterDrain() {
+		MqttListenerMailbox mailbox = new MqttListenerMailbox(recordingListener, MqttListenerMailbox.Policy.DROP_OLDEST, 2, pendingTasks::add);
+		mailbox.messageArrived("topic", new MqttMessage("1".getBytes()));
+		pendingTasks.remove(0).run();
+		mailbox.messageArrived("topic", new MqttMessage("2".getBytes()));
+
+		assertThat(pendingTasks, hasSize(1));
+		pendingTasks.remove(0).run();
+		assertThat(received, contains("topic=1","topic=2"));
+	}
+
+	@Test
+	void testSlowListenerDoesNotBlockOthers() throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		CountDownLatch  release  = new CountDownLatch(1);
+		CountDownLatch  fastDone = new CountDownLatch(1);
+
+		MqttListenerMailbox slow = new MqttListenerMailbox((topic,message) -> release.await(), MqttListenerMailbox.Policy.DROP_OLDEST, 2, executor);
+		MqttListenerMailbox fast = new MqttListenerMailbox((topic,message) -> fastDone.countDown(), MqttListenerMailbox.Policy.DROP_OLDEST, 2, executor);
+
+		slow.messageArrived("topic", new MqttMessage());
+		fast.messageArrived("topic", new MqttMessage());
+
+		assertThat(fastDone.await(5, TimeUnit.SECONDS), is(true));
+		release.countDown();
+		executor.shutdown();
+	}
+
+	//
+	// member data
+	//
+	List<Runnable>       pendingTasks      = new LinkedList<>();
+	List<String>         received          = new LinkedList<>();
+	IMqttMessageListener recordingListener = (topic,message) -> received.add(topic+"="+message.toString());
+}
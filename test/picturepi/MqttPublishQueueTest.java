@@ -0,0 +1,96 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.junit.jupiter.api.Test;
+
+class MqttPublishQueueTest {
+
+	@Test
+	void testCommandsAreSentInOrder() {
+		MqttPublishQueue queue = new MqttPublishQueue(10, 60000);
+		queue.add("a", "1".getBytes(), 1, false);
+		queue.add("b", "2".getBytes(), 1, false);
+
+		assertThat(queue.flush(recordingSender), is(2));
+		assertThat(sent, contains("a=1","b=2"));
+		assertThat(queue.size(), is(0));
+	}
+
+	@Test
+	void testCommandsAreKeptWhileDisconnected() {
+		MqttPublishQueue queue = new MqttPublishQueue(10, 60000);
+		queue.add("a", "1".getBytes(), 1, false);
+		queue.add("b", "2".getBytes(), 1, false);
+
+		assertThat(queue.flush(disconnectedSender), is(0));
+		assertThat(queue.size(), is(2));
+
+		queue.flush(recordingSender);
+		assertThat(sent, contains("a=1","b=2"));
+	}
+
+	@Test
+	void testOldestCommandIsDroppedIfFull() {
+		MqttPublishQueue queue = new MqttPublishQueue(2, 60000);
+		queue.add("a", "1".getBytes(), 1, false);
+		queue.add("a", "2".getBytes(), 1, false);
+		queue.add("a", "3".getBytes(), 1, false);
+
+		queue.flush(recordingSender);
+		assertThat(sent, contains("a=2","a=3"));
+		assertThat(queue.getDroppedCount(), is(1L));
+	}
+
+	@Test
+	void testExpiredCommandIsDiscarded() throws InterruptedException {
+		MqttPublishQueue queue = new MqttPublishQueue(10, 0);
+		queue.add("a", "1".getBytes(), 1, false);
+		Thread.sleep(5);
+
+		assertThat(queue.flush(recordingSender), is(0));
+		assertThat(sent, is(empty()));
+		assertThat(queue.getDroppedCount(), is(1L));
+	}
+
+	@Test
+	void testStatusValuesAreCoalesced() {
+		MqttPublishQueue queue = new MqttPublishQueue(10, 60000);
+		queue.putStatus("s", "1".getBytes(), 0, true);
+		queue.add("c", "x".getBytes(), 1, false);
+		queue.putStatus("t", "2".getBytes(), 0, true);
+		queue.putStatus("s", "3".getBytes(), 0, true);
+
+		queue.flush(recordingSender);
+		assertThat(sent, contains("c=x","t=2","s=3"));
+	}
+
+	@Test
+	void testPermanentErrorDoesNotBlockQueue() {
+		MqttPublishQueue queue = new MqttPublishQueue(10, 60000);
+		queue.add("invalid", "1".getBytes(), 1, false);
+		queue.add("b", "2".getBytes(), 1, false);
+
+		queue.flush((topic,payload,qos,retained) -> {
+			if(topic.equals("invalid")) {
+				throw new MqttException(MqttException.REASON_CODE_UNEXPECTED_ERROR);
+			}
+			recordingSender.send(topic, payload, qos, retained);
+		});
+		assertThat(sent, contains("b=2"));
+	}
+
+	//
+	// member data
+	//
+	List<String>            sent               = new LinkedList<>();
+	MqttPublishQueue.Sender recordingSender    = (topic,payload,qos,retained) -> sent.add(topic+"="+new String(payload));
+	MqttPublishQueue.Sender disconnectedSender = (topic,payload,qos,retained) -> {
+		throw new MqttException(MqttException.REASON_CODE_CLIENT_NOT_CONNECTED);
+	};
+}
@@ -0,0 +1,106 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import org.eclipse.paho.client.mqttv3.IMqttMessageListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MqttTopicRouterTest {
+
+	@BeforeEach
+	void setUp() throws Exception {
+		router = new MqttTopicRouter();
+	}
+
+	@Test
+	void testExactMatch() {
+		assertThat(router.add("home/temperature", listener1), is(true));
+		assertThat(router.match("home/temperature"), arrayContaining(listener1));
+		assertThat(router.match("home/humidity"), emptyArray());
+	}
+
+	@Test
+	void testMultipleListenersSameTopic() {
+		assertThat(router.add("home/temperature", listener1), is(true));
+		assertThat(router.add("home/temperature", listener2), is(false));
+		assertThat(router.match("home/temperature"), arrayContainingInAnyOrder(listener1,listener2));
+	}
+
+	@Test
+	void testSingleLevelWildcard() {
+		router.add("home/+/temperature", listener1);
+		assertThat(router.match("home/garden/temperature"), arrayContaining(listener1));
+		assertThat(router.match("home/garden/shed/temperature"), emptyArray());
+	}
+
+	@Test
+	void testMultiLevelWildcard() {
+		router.add("home/#", listener1);
+		assertThat(router.match("home"), arrayContaining(listener1));
+		assertThat(router.match("home/garden/temperature"), arrayContaining(listener1));
+		assertThat(router.match("office/temperature"), emptyArray());
+	}
+
+	@Test
+	void testListenerIsCalledOnceForOverlappingFilters() {
+		router.add("home/#", listener1);
+		router.add("home/temperature", listener1);
+		assertThat(router.match("home/temperature"), arrayContaining(listener1));
+	}
+
+	@Test
+	void testRemove() {
+		router.add("home/+", listener1);
+		router.add("home/+", listener2);
+		assertThat(router.match("home/temperature"), arrayContainingInAnyOrder(listener1,listener2));
+
+		assertThat(router.remove("home/+", listener1), is(false));
+		assertThat(router.match("home/temperature"), arrayContaining(listener2));
+		assertThat(router.remove("home/+", listener1), is(false));
+
+		assertThat(router.remove("home/+", listener2), is(true));
+		assertThat(router.match("home/temperature"), emptyArray());
+		assertThat(router.getFilters(), is(empty()));
+		assertThat(router.remove("office/+", listener2), is(false));
+	}
+
+	@Test
+	void testCachedResultIsUpdatedOnSubscribe() {
+		router.add("home/temperature", listener1);
+		assertThat(router.match("home/temperature"), arrayContaining(listener1));
+		router.add("home/+", listener2);
+		assertThat(router.match("home/temperature"), arrayContainingInAnyOrder(listener1,listener2));
+	}
+
+	@Test
+	void testSystemTopicsDoNotMatchWildcards() {
+		router.add("#", listener1);
+		assertThat(router.match("$SYS/broker/load"), emptyArray());
+		assertThat(MqttTopicRouter.matches("#", "$SYS/broker/load"), is(false));
+	}
+
+	@Test
+	void testMatches() {
+		assertThat(MqttTopicRouter.matches("a/+/c", "a/b/c"), is(true));
+		assertThat(MqttTopicRouter.matches("a/#", "a"), is(true));
+		assertThat(MqttTopicRouter.matches("a/b", "a/b/c"), is(false));
+		assertThat(MqttTopicRouter.matches("a/b/c", "a/b"), is(false));
+	}
+
+	@Test
+	void testInvalidFilters() {
+		assertThat(MqttTopicRouter.isValidFilter("a/#/b"), is(false));
+		assertThat(MqttTopicRouter.isValidFilter("a/b+"), is(false));
+		assertThat(MqttTopicRouter.isValidFilter(""), is(false));
+		assertThat(MqttTopicRouter.isValidFilter("a/+/#"), is(true));
+	}
+
+	//
+	// member data
+	//
+	MqttTopicRouter      router    = null;
+	IMqttMessageListener listener1 = (topic,message) -> {};
+	IMqttMessageListener listener2 = (topic,message) -> {};
+}
@@ -0,0 +1,40 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.junit.jupiter.api.Test;
+
+class MqttTopicValueTest {
+
+	@Test
+	void testDouble() {
+		assertThat(MqttTopicValue.of(new MqttMessage("21.5".getBytes())).getDouble(), is(21.5));
+	}
+
+	@Test
+	void testDoubleWithUnit() {
+		assertThat(MqttTopicValue.of(new MqttMessage("-3.2 C".getBytes())).getDouble(), is(-3.2));
+	}
+
+	@Test
+	void testInvalidDouble() {
+		assertThrows(NumberFormatException.class, () -> MqttTopicValue.of(new MqttMessage("on".getBytes())).getDouble());
+	}
+
+	@Test
+	void testJsonObjectIsParsedOnce() {
+		MqttTopicValue value = MqttTopicValue.of(new MqttMessage("{\"hours\":[1,2]}".getBytes()));
+		assertThat(value.getJsonObject().getJsonArray("hours"), hasSize(2));
+		assertThat(value.getJsonObject(), is(sameInstance(value.getJsonObject())));
+	}
+
+	@Test
+	void testOfReturnsSameObject() {
+		MqttTopicValue value = MqttTopicValue.of(new MqttMessage("x".getBytes()));
+		assertThat(MqttTopicValue.of(value), is(sameInstance(value)));
+		assertThat(value.toString(), is("x"));
+	}
+}
@@ -43,4 +43,19 @@ class PanelTest {
 	void testCreatePanelFromNameWithInvalidName() {
 		assertThat(Panel.createPanelFromName("DummyPanel",null), is(nullValue()));
 	}
+	
+	@Test
+	void testCreatePanelFromNameWithValidNameButMissingId() {
+		assertThat(Panel.createPanelFromName("PhoneFinderPanel",null), is(nullValue()));
+	}
+	
+	@Test
+	void testRegisteredPanelsMatchPanelClasses() throws ClassNotFoundException {
+		for(String name:PanelRegistry.getNames()) {
+			Class<?> panelClass = Class.forName("picturepi."+name);
+			assertThat(name, Panel.class.isAssignableFrom(panelClass), is(true));
+			assertThat(name, PanelRegistry.getProviderClass(name), is(not(nullValue())));
+			assertThat(name, PanelRegistry.getConfigSection(name), is(panelClass.getSimpleName()));
+		}
+	}
 }
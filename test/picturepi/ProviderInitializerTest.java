@@ -0,0 +1,135 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ProviderInitializerTest {
+
+	@AfterEach
+	void tearDown() {
+		initializer.shutdown();
+	}
+
+	@Test
+	void testDependenciesFirst() throws Exception {
+		TestProvider weather = new TestProvider("weather", 0, "pictures");
+		TestProvider pictures = new TestProvider("pictures", 100);
+
+		initializer.initialize(weather).get(5, TimeUnit.SECONDS);
+
+		assertThat(initOrder, contains("pictures", "weather"));
+		assertThat(initializer.ensureInitialized(pictures), is(true));
+	}
+
+	@Test
+	void testParallelAndOnce() throws Exception {
+		// both providers block until the other one was started as well
+		CountDownLatch started = new CountDownLatch(2);
+		TestProvider provider1 = new TestProvider("provider1", 0) {
+			@Override
+			protected void init() {
+				started.countDown();
+				await(started);
+				super.init();
+			}
+		};
+		TestProvider provider2 = new TestProvider("provider2", 0) {
+			@Override
+			protected void init() {
+				started.countDown();
+				await(started);
+				super.init();
+			}
+		};
+
+		assertThat(initializer.ensureInitialized(provider1), is(false));
+		CompletableFuture.allOf(initializer.initialize(provider2), initializer.initialize(provider1)).get(5, TimeUnit.SECONDS);
+
+		assertThat(provider1.initCount.get(), is(1));
+		assertThat(provider2.initCount.get(), is(1));
+		assertThat(initializer.ensureInitialized(provider1), is(true));
+	}
+
+	@Test
+	void testCycleAndFailure() throws Exception {
+		TestProvider a = new TestProvider("a", 0, "b");
+		TestProvider b = new TestProvider("b", 0, "a") {
+			@Override
+			protected void init() {
+				super.init();
+				throw new IllegalStateException("init failed");
+			}
+		};
+
+		// a failed dependency does not block the provider, the cycle is broken
+		assertThat(initializer.initialize(a).handle((result,e) -> e==null).get(5, TimeUnit.SECONDS), is(true));
+		assertThat(initOrder, contains("b", "a"));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	//
+	// provider recording the calls of init()
+	//
+	private class TestProvider extends Provider {
+		TestProvider(String name,long initTime,String... dependencies) {
+			super(0);
+			this.name         = name;
+			this.initTime     = initTime;
+			this.dependencies = Arrays.asList(dependencies);
+			providers.put(name, this);
+		}
+
+		@Override
+		protected void init() {
+			try {
+				Thread.sleep(initTime);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			initCount.incrementAndGet();
+			initOrder.add(name);
+		}
+
+		@Override
+		protected List<String> getInitDependencies() {
+			return dependencies;
+		}
+
+		@Override
+		void fetchData() {
+		}
+
+		final String        name;
+		final long          initTime;
+		final List<String>  dependencies;
+		final AtomicInteger initCount = new AtomicInteger();
+	}
+
+	//
+	// member data
+	//
+	private final Map<String,Provider>  providers   = Collections.synchronizedMap(new HashMap<>());
+	private final List<String>          initOrder   = new CopyOnWriteArrayList<>();
+	private final ProviderInitializer   initializer = new ProviderInitializer(2, providers::get);
+}
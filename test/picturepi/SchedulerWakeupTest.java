@@ -0,0 +1,82 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SchedulerWakeupTest {
+
+	@BeforeEach
+	void setUp() throws Exception {
+		controller = new DisplayPowerController(on -> {
+			if(on) {
+				wakeup.displaySwitchedOn();
+			}
+			switched.countDown();
+		}, 100, false, new DisplayPowerState());
+		wakeup = new SchedulerWakeup(controller);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		controller.shutdown();
+	}
+
+	@Test
+	void testButtonViewSurvivesWake() throws Exception {
+		// the scheduler switches on the display for a button view and sleeps for its duration
+		Thread scheduler = startScheduler(() -> wakeup.request(true));
+		scheduler.join(5000);
+
+		assertThat(switched.await(5, TimeUnit.SECONDS), is(true));
+		assertThat(interrupted.get(), is(false));
+	}
+
+	@Test
+	void testWakeFromOtherThreadInterruptsScheduler() throws Exception {
+		Thread scheduler = startScheduler(() -> {});
+		assertThat(sleeping.await(5, TimeUnit.SECONDS), is(true));
+
+		// e.g. motion detected
+		wakeup.request(true);
+		scheduler.join(5000);
+
+		assertThat(switched.await(5, TimeUnit.SECONDS), is(true));
+		assertThat(interrupted.get(), is(true));
+	}
+
+	/**
+	 * starts a scheduler thread which runs the given action and sleeps afterwards like for a button view
+	 */
+	private Thread startScheduler(Runnable action) {
+		Thread scheduler = new Thread(() -> {
+			try {
+				action.run();
+				sleeping.countDown();
+				Thread.sleep(500);
+			}
+			catch (InterruptedException e) {
+				interrupted.set(true);
+			}
+		});
+		wakeup.setScheduler(scheduler);
+		scheduler.start();
+		return scheduler;
+	}
+
+	//
+	// member data
+	//
+	private final CountDownLatch    switched    = new CountDownLatch(1);
+	private final CountDownLatch    sleeping    = new CountDownLatch(1);
+	private final AtomicBoolean     interrupted = new AtomicBoolean(false);
+	private DisplayPowerController  controller;
+	private SchedulerWakeup         wakeup;
+}
@@ -0,0 +1,119 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SimulatedHardwareTest {
+
+	@BeforeEach
+	void setUp() throws Exception {
+		hardware  = new SimulatedHardware(5);
+		power     = hardware.provisionOutput(PicturePi.PROJECTOR_POWER_GPIO, false);
+
+		// projector power handling as done by PicturePi
+		ProjectorPower projectorPower = new ProjectorPower(hardware, power);
+		brightnessController   = projectorPower.createBrightnessController(hardware.openLightSensor(), 0.5, 10, bright -> {});
+		displayPowerController = new DisplayPowerController(projectorPower, 50, false, new DisplayPowerState());
+
+		hardware.provisionInput(MOTION_GPIO).addListener(high -> displayPowerController.request(high));
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		displayPowerController.shutdown();
+	}
+
+	@Test
+	void testTraceParsing() {
+		TraceReplayer replayer = new TraceReplayer(Arrays.asList("# recorded trace", "", "2000 motion off", "0 motion on", "1000 light 12"));
+		assertThat(replayer.size(), is(3));
+		assertThat(replayer.getDuration(), is(2000L));
+	}
+
+	@Test
+	void testInvalidTrace() {
+		try {
+			new TraceReplayer(Arrays.asList("0 motion on", "1000 temperature 12"));
+			assertThat("exception expected", false);
+		}
+		catch(IllegalArgumentException e) {
+			assertThat(e.getMessage(), containsString("line 2"));
+		}
+	}
+
+	@Test
+	void testMotionTraceAccelerated() throws Exception {
+		// a person passing by twice within a few seconds, then leaving the room
+		TraceReplayer replayer = new TraceReplayer(Arrays.asList(
+				"0 light 8",
+				"0 motion on",
+				"3000 motion off",
+				"4000 motion on",
+				"9000 motion off"));
+		replayer.replay(hardware, MOTION_GPIO, 100.0);
+
+		// replay ends with the last off request still pending
+
+		waitForDisplayPowerThread();
+		assertThat(hardware.getOutput(PicturePi.PROJECTOR_POWER_GPIO), is(true));
+		assertThat(displayPowerController.getLastTransitionLatency(), lessThan(100L));
+
+		// off is delayed, and the short off period in between was not switched at all
+		Thread.sleep(200);
+		waitForDisplayPowerThread();
+		assertThat(hardware.getOutput(PicturePi.PROJECTOR_POWER_GPIO), is(false));
+		assertThat(hardware.getProjectorInitializations(), is(1));
+	}
+
+	@Test
+	void testBrightnessTraffic() throws Exception {
+		hardware.setLight(8);
+		hardware.setInput(MOTION_GPIO, true);
+		waitForDisplayPowerThread();
+		long packetsAfterPowerOn = hardware.getI2CPackets();
+
+		// 100 samples of constant light: only the first one writes the brightness
+		for(int i=0 ; i<100 ; i++) {
+			displayPowerController.execute(brightnessController::sample);
+		}
+		waitForDisplayPowerThread();
+
+		assertThat(hardware.getProjectorBrightness(), is(64));
+		assertThat(hardware.getI2CPackets()-packetsAfterPowerOn, is(100L+5L));
+	}
+
+	@Test
+	void testWakeLatency() throws Exception {
+		hardware.setInput(MOTION_GPIO, true);
+		waitForDisplayPowerThread();
+		long latency = (System.nanoTime()-hardware.getInputChangeTime())/1000000;
+
+		// the projector boot time is the only delay between motion and light
+		assertThat(hardware.getOutput(PicturePi.PROJECTOR_POWER_GPIO), is(true));
+		assertThat(latency, both(greaterThanOrEqualTo(5L)).and(lessThan(100L)));
+	}
+
+	private void waitForDisplayPowerThread() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(1);
+		displayPowerController.execute(latch::countDown);
+		assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+	}
+
+	//
+	// member data
+	//
+	private static final int MOTION_GPIO = 7;
+
+	private SimulatedHardware               hardware;
+	private Hardware.DigitalOutput          power;
+	private DisplayPowerController          displayPowerController;
+	private BrightnessController            brightnessController;
+}
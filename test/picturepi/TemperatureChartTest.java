@@ -0,0 +1,77 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.Test;
+
+class TemperatureChartTest {
+
+	@Test
+	void testRenderedOncePerDataUpdate() {
+		TemperatureChart chart = new TemperatureChart("test", 200);
+		chart.setSize(400, 200);
+
+		chart.setData(new double[] {0,6,12,18}, new double[] {8,12,21,15});
+		assertThat(chart.getRenderCount(), is(1));
+
+		// repaints only draw the image
+		BufferedImage screen = new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB);
+		for(int i=0 ; i<5 ; i++) {
+			Graphics2D g = screen.createGraphics();
+			chart.paintComponent(g);
+			g.dispose();
+		}
+		assertThat(chart.getRenderCount(), is(1));
+
+		// same data again
+		chart.setData(new double[] {0,6,12,18}, new double[] {8,12,21,15});
+		assertThat(chart.getRenderCount(), is(1));
+
+		chart.setData(new double[] {0,6,12,18}, new double[] {8,12,22,15});
+		assertThat(chart.getRenderCount(), is(2));
+	}
+
+	@Test
+	void testRenderedOnResize() {
+		TemperatureChart chart = new TemperatureChart("test", 200);
+
+		// not rendered while the size is unknown
+		chart.setData(new double[] {0,12}, new double[] {8,21});
+		assertThat(chart.getRenderCount(), is(0));
+
+		chart.setSize(300, 200);
+		BufferedImage screen = new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = screen.createGraphics();
+		chart.paintComponent(g);
+		chart.paintComponent(g);
+		g.dispose();
+		assertThat(chart.getRenderCount(), is(1));
+	}
+
+	@Test
+	void testAllValuesKept() {
+		TemperatureChart chart = new TemperatureChart("test", 200);
+		chart.setSize(400, 200);
+
+		// a day of minute samples and more
+		double[] time        = new double[2000];
+		double[] temperature = new double[2000];
+		for(int i=0 ; i<time.length ; i++) {
+			time[i]        = i/60.0;
+			temperature[i] = 15+Math.sin(i/100.0);
+		}
+		chart.setData(time, temperature);
+		assertThat(chart.getRenderCount(), is(1));
+
+		chart.setData(time.clone(), temperature.clone());
+		assertThat(chart.getRenderCount(), is(1));
+
+		// only the first values of a longer history
+		chart.setData(time, new double[] {15,16,17});
+		assertThat(chart.getRenderCount(), is(2));
+	}
+}
@@ -0,0 +1,118 @@
+package picturepi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TemperatureHistoryTest {
+
+	@Test
+	void testMinuteRollup() throws IOException {
+		TemperatureHistory history = new TemperatureHistory(tempDir, "home/temperature", ZONE);
+		long start = epochSeconds(LocalDateTime.of(2024, 3, 14, 8, 0));
+		history.add(start, 10.0);
+		history.add(start+20, 12.0);
+		history.add(start+40, 11.0);
+		history.add(start+60, 15.5);
+
+		long[]   timestamps = new long[10];
+		double[] min        = new double[10];
+		double[] max        = new double[10];
+		double[] average    = new double[10];
+		assertThat(history.copy(TemperatureHistory.Resolution.MINUTE, 0, timestamps, min, max, average), is(2));
+		assertThat(timestamps[0], is(start));
+		assertThat(min[0], is(10.0));
+		assertThat(max[0], is(12.0));
+		assertThat(average[0], is(closeTo(11.0, 0.01)));
+		assertThat(timestamps[1], is(start+60));
+		assertThat(average[1], is(15.5));
+	}
+
+	@Test
+	void testHourAndDayRollup() throws IOException {
+		TemperatureHistory history = new TemperatureHistory(tempDir, "test", ZONE);
+		LocalDateTime day = LocalDateTime.of(2024, 3, 14, 0, 0);
+		for(int hour=0 ; hour<24 ; hour++) {
+			history.add(epochSeconds(day.plusHours(hour)), hour);
+			history.add(epochSeconds(day.plusHours(hour).plusMinutes(30)), hour+1);
+		}
+		history.add(epochSeconds(day.plusDays(1)), -5.0);
+
+		long[]   timestamps = new long[100];
+		double[] min        = new double[100];
+		double[] max        = new double[100];
+		assertThat(history.copy(TemperatureHistory.Resolution.HOUR, 0, timestamps, min, max, null), is(25));
+		assertThat(timestamps[5], is(epochSeconds(day.plusHours(5))));
+		assertThat(min[5], is(5.0));
+		assertThat(max[5], is(6.0));
+
+		assertThat(history.copy(TemperatureHistory.Resolution.DAY, 0, timestamps, min, max, null), is(2));
+		assertThat(timestamps[0], is(epochSeconds(day)));
+		assertThat(min[0], is(0.0));
+		assertThat(max[0], is(24.0));
+		assertThat(min[1], is(-5.0));
+	}
+
+	@Test
+	void testCopySinceReturnsNewest() throws IOException {
+		TemperatureHistory history = new TemperatureHistory(tempDir, "test", ZONE);
+		long start = epochSeconds(LocalDateTime.of(2024, 3, 14, 8, 0));
+		for(int minute=0 ; minute<10 ; minute++) {
+			history.add(start+60*minute, minute);
+		}
+
+		long[]   timestamps = new long[3];
+		double[] average    = new double[3];
+		assertThat(history.copy(TemperatureHistory.Resolution.MINUTE, start+5*60, timestamps, null, null, average), is(3));
+		assertThat(average[0], is(7.0));
+		assertThat(average[2], is(9.0));
+
+		assertThat(history.copy(TemperatureHistory.Resolution.MINUTE, start+8*60, new long[10], null, null, average), is(2));
+	}
+
+	@Test
+	void testOutOfOrderSampleIgnored() throws IOException {
+		TemperatureHistory history = new TemperatureHistory(tempDir, "test", ZONE);
+		long start = epochSeconds(LocalDateTime.of(2024, 3, 14, 8, 0));
+		history.add(start+120, 20.0);
+		history.add(start, 30.0);
+
+		double[] max = new double[10];
+		assertThat(history.copy(TemperatureHistory.Resolution.MINUTE, 0, new long[10], null, max, null), is(1));
+		assertThat(max[0], is(20.0));
+	}
+
+	@Test
+	void testDataIsPersisted() throws IOException {
+		long start = epochSeconds(LocalDateTime.of(2024, 3, 14, 8, 0));
+		TemperatureHistory history = new TemperatureHistory(tempDir, "test", ZONE);
+		history.add(start, 21.5);
+		history.flush();
+
+		TemperatureHistory reopened = new TemperatureHistory(tempDir, "test", ZONE);
+		reopened.add(start+10, 22.5);
+
+		double[] average = new double[1];
+		assertThat(reopened.copy(TemperatureHistory.Resolution.DAY, 0, new long[1], null, null, average), is(1));
+		assertThat(average[0], is(22.0));
+	}
+
+	private static long epochSeconds(LocalDateTime time) {
+		return time.atZone(ZONE).toEpochSecond();
+	}
+
+	//
+	// member data
+	//
+	private static final ZoneId ZONE = ZoneId.of("Europe/Berlin");
+
+	@TempDir
+	File tempDir;
+}